@@ -0,0 +1,25 @@
+package com.pushtorefresh.storio.sqlitedb.annotations.processor;
+
+/**
+ * Field of {@link com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteType} class stored in a column
+ */
+class ColumnMeta {
+
+    final String fieldName;
+
+    final String columnName;
+
+    final ColumnType type;
+
+    final boolean nullable;
+
+    final boolean key;
+
+    ColumnMeta(String fieldName, String columnName, ColumnType type, boolean nullable, boolean key) {
+        this.fieldName = fieldName;
+        this.columnName = columnName;
+        this.type = type;
+        this.nullable = nullable;
+        this.key = key;
+    }
+}
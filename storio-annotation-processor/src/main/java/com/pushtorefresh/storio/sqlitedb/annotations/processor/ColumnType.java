@@ -0,0 +1,95 @@
+package com.pushtorefresh.storio.sqlitedb.annotations.processor;
+
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Supported types of fields and the way they are read from {@code Cursor}
+ */
+enum ColumnType {
+
+    BOOLEAN("getInt", true, false),
+    SHORT("getShort", false, false),
+    INTEGER("getInt", false, false),
+    LONG("getLong", false, false),
+    FLOAT("getFloat", false, false),
+    DOUBLE("getDouble", false, false),
+    STRING("getString", false, true),
+    BYTE_ARRAY("getBlob", false, true);
+
+    /**
+     * Name of method of {@code Cursor} which reads value of this type
+     */
+    final String cursorGetter;
+
+    /**
+     * True if value is stored as 1 or 0
+     */
+    final boolean storedAsInteger;
+
+    /**
+     * True if getter of {@code Cursor} returns null for NULL, so {@code Cursor.isNull()} check is not needed
+     */
+    final boolean nullableGetter;
+
+    ColumnType(String cursorGetter, boolean storedAsInteger, boolean nullableGetter) {
+        this.cursorGetter = cursorGetter;
+        this.storedAsInteger = storedAsInteger;
+        this.nullableGetter = nullableGetter;
+    }
+
+    /**
+     * Resolves type of the field
+     *
+     * @param typeMirror type of the field
+     * @return column type or null if type is not supported
+     */
+    static ColumnType of(TypeMirror typeMirror) {
+        final TypeKind kind = typeMirror.getKind();
+
+        switch (kind) {
+            case BOOLEAN:
+                return BOOLEAN;
+            case SHORT:
+                return SHORT;
+            case INT:
+                return INTEGER;
+            case LONG:
+                return LONG;
+            case FLOAT:
+                return FLOAT;
+            case DOUBLE:
+                return DOUBLE;
+            case ARRAY:
+                return ((ArrayType) typeMirror).getComponentType().getKind() == TypeKind.BYTE
+                        ? BYTE_ARRAY
+                        : null;
+            case DECLARED:
+                return ofBoxed(typeMirror.toString());
+            default:
+                return null;
+        }
+    }
+
+    private static ColumnType ofBoxed(String className) {
+        switch (className) {
+            case "java.lang.Boolean":
+                return BOOLEAN;
+            case "java.lang.Short":
+                return SHORT;
+            case "java.lang.Integer":
+                return INTEGER;
+            case "java.lang.Long":
+                return LONG;
+            case "java.lang.Float":
+                return FLOAT;
+            case "java.lang.Double":
+                return DOUBLE;
+            case "java.lang.String":
+                return STRING;
+            default:
+                return null;
+        }
+    }
+}
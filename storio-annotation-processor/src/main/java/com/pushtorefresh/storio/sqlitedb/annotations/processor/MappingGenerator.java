@@ -0,0 +1,194 @@
+package com.pushtorefresh.storio.sqlitedb.annotations.processor;
+
+/**
+ * Generates source code of map functions and put resolver for {@link TypeMeta}
+ * <p/>
+ * Generated code resolves indexes of columns once per {@code Cursor}, uses typed getters of {@code Cursor}
+ * and accesses fields directly, no reflection is used.
+ */
+final class MappingGenerator {
+
+    private static final String INDENT = "    ";
+
+    private MappingGenerator() {
+    }
+
+    /**
+     * Generates source code of class with map functions and put resolver
+     *
+     * @param type class annotated with {@link com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteType}
+     * @return source code of the generated class
+     */
+    static String generate(TypeMeta type) {
+        final StringBuilder code = new StringBuilder();
+
+        if (type.packageName.length() > 0) {
+            code.append("package ").append(type.packageName).append(";\n\n");
+        }
+
+        code
+                .append("import android.content.ContentValues;\n")
+                .append("import android.database.Cursor;\n")
+                .append("import android.support.annotation.NonNull;\n\n")
+                .append("import com.pushtorefresh.storio.operation.CursorMapFunc;\n")
+                .append("import com.pushtorefresh.storio.operation.MapFunc;\n")
+                .append("import com.pushtorefresh.storio.sqlitedb.operation.put.DefaultPutResolver;\n")
+                .append("import com.pushtorefresh.storio.sqlitedb.operation.put.PutResolver;\n")
+                .append("import com.pushtorefresh.storio.sqlitedb.operation.put.PutResult;\n\n")
+                .append("/**\n")
+                .append(" * Generated by storio-annotation-processor for {@link ").append(type.simpleName).append("}, do not modify\n")
+                .append(" */\n")
+                .append("public final class ").append(type.generatedSimpleName()).append(" {\n\n")
+                .append(INDENT).append("public static final String TABLE = ").append(literal(type.table)).append(";\n\n");
+
+        appendMapFromCursor(code, type);
+        appendMapToContentValues(code, type);
+        appendPutResolver(code, type);
+
+        code
+                .append(INDENT).append("private ").append(type.generatedSimpleName()).append("() {\n")
+                .append(INDENT).append("}\n")
+                .append("}\n");
+
+        return code.toString();
+    }
+
+    private static void appendMapFromCursor(StringBuilder code, TypeMeta type) {
+        final String t = type.simpleName;
+
+        code
+                .append(INDENT).append("public static final MapFunc<Cursor, ").append(t).append("> MAP_FROM_CURSOR")
+                .append(" = new CursorMapFunc<").append(t).append(">() {\n")
+                .append(indent(2)).append("@NonNull\n")
+                .append(indent(2)).append("@Override\n")
+                .append(indent(2)).append("public MapFunc<Cursor, ").append(t).append("> bind(@NonNull Cursor cursor) {\n");
+
+        for (ColumnMeta column : type.columns) {
+            code
+                    .append(indent(3)).append("final int ").append(indexOf(column))
+                    .append(" = cursor.getColumnIndexOrThrow(").append(literal(column.columnName)).append(");\n");
+        }
+
+        code
+                .append('\n')
+                .append(indent(3)).append("return new MapFunc<Cursor, ").append(t).append(">() {\n")
+                .append(indent(4)).append("@Override\n")
+                .append(indent(4)).append("public ").append(t).append(" map(Cursor cursor) {\n")
+                .append(indent(5)).append("final ").append(t).append(" object = new ").append(t).append("();\n");
+
+        for (ColumnMeta column : type.columns) {
+            code.append(indent(5)).append("object.").append(column.fieldName).append(" = ");
+
+            if (column.nullable && !column.type.nullableGetter) {
+                code.append("cursor.isNull(").append(indexOf(column)).append(") ? null : ");
+            }
+
+            code.append("cursor.").append(column.type.cursorGetter).append('(').append(indexOf(column)).append(')');
+
+            if (column.type.storedAsInteger) {
+                code.append(" == 1");
+            }
+
+            code.append(";\n");
+        }
+
+        code
+                .append(indent(5)).append("return object;\n")
+                .append(indent(4)).append("}\n")
+                .append(indent(3)).append("};\n")
+                .append(indent(2)).append("}\n")
+                .append(INDENT).append("};\n\n");
+    }
+
+    private static void appendMapToContentValues(StringBuilder code, TypeMeta type) {
+        final String t = type.simpleName;
+
+        code
+                .append(INDENT).append("public static final MapFunc<").append(t).append(", ContentValues> MAP_TO_CONTENT_VALUES")
+                .append(" = new MapFunc<").append(t).append(", ContentValues>() {\n")
+                .append(indent(2)).append("@Override\n")
+                .append(indent(2)).append("public ContentValues map(").append(t).append(" object) {\n")
+                .append(indent(3)).append("final ContentValues contentValues = new ContentValues(")
+                .append(type.columns.size()).append(");\n\n");
+
+        for (ColumnMeta column : type.columns) {
+            code
+                    .append(indent(3)).append("contentValues.put(").append(literal(column.columnName))
+                    .append(", object.").append(column.fieldName).append(");\n");
+        }
+
+        code
+                .append('\n')
+                .append(indent(3)).append("return contentValues;\n")
+                .append(indent(2)).append("}\n")
+                .append(INDENT).append("};\n\n");
+    }
+
+    private static void appendPutResolver(StringBuilder code, TypeMeta type) {
+        final String t = type.simpleName;
+        final ColumnMeta key = type.key();
+
+        code
+                .append(INDENT).append("public static final PutResolver<").append(t).append("> PUT_RESOLVER")
+                .append(" = new DefaultPutResolver<").append(t).append(">() {\n")
+                .append(indent(2)).append("@NonNull\n")
+                .append(indent(2)).append("@Override\n")
+                .append(indent(2)).append("protected String getTable() {\n")
+                .append(indent(3)).append("return TABLE;\n")
+                .append(indent(2)).append("}\n\n");
+
+        if (key != null) {
+            code
+                    .append(indent(2)).append("@NonNull\n")
+                    .append(indent(2)).append("@Override\n")
+                    .append(indent(2)).append("protected String getIdColumnName(@NonNull ContentValues contentValues) {\n")
+                    .append(indent(3)).append("return ").append(literal(key.columnName)).append(";\n")
+                    .append(indent(2)).append("}\n\n");
+        }
+
+        code
+                .append(indent(2)).append("@Override\n")
+                .append(indent(2)).append("public void afterPut(@NonNull ").append(t).append(" object, @NonNull PutResult putResult) {\n");
+
+        if (key != null && key.type == ColumnType.LONG) {
+            code
+                    .append(indent(3)).append("if (putResult.wasInserted()) {\n")
+                    .append(indent(4)).append("object.").append(key.fieldName).append(" = putResult.insertedId();\n")
+                    .append(indent(3)).append("}\n");
+        }
+
+        code
+                .append(indent(2)).append("}\n")
+                .append(INDENT).append("};\n\n");
+    }
+
+    private static String indexOf(ColumnMeta column) {
+        return column.fieldName + "Index";
+    }
+
+    private static String indent(int level) {
+        final StringBuilder indent = new StringBuilder(INDENT.length() * level);
+
+        for (int i = 0; i < level; i++) {
+            indent.append(INDENT);
+        }
+
+        return indent.toString();
+    }
+
+    private static String literal(String value) {
+        final StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                literal.append('\\');
+            }
+
+            literal.append(c);
+        }
+
+        return literal.append('"').toString();
+    }
+}
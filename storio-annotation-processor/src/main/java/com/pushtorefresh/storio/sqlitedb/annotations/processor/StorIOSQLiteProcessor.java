@@ -0,0 +1,226 @@
+package com.pushtorefresh.storio.sqlitedb.annotations.processor;
+
+import com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteColumn;
+import com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates map functions and put resolver for classes annotated with {@link StorIOSQLiteType}
+ */
+public class StorIOSQLiteProcessor extends AbstractProcessor {
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        final Set<String> types = new LinkedHashSet<>(2);
+        types.add(StorIOSQLiteType.class.getCanonicalName());
+        types.add(StorIOSQLiteColumn.class.getCanonicalName());
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(StorIOSQLiteColumn.class)) {
+            if (element.getEnclosingElement().getAnnotation(StorIOSQLiteType.class) == null) {
+                error(element, "Field annotated with @StorIOSQLiteColumn should be declared in class annotated with @StorIOSQLiteType");
+            }
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(StorIOSQLiteType.class)) {
+            final TypeElement typeElement = (TypeElement) element;
+            final TypeMeta type = parseType(typeElement);
+
+            if (type != null) {
+                write(typeElement, type);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates annotated class and collects its columns
+     *
+     * @param typeElement annotated class
+     * @return parsed class or null if it's not valid, errors are reported to {@link javax.annotation.processing.Messager}
+     */
+    private TypeMeta parseType(TypeElement typeElement) {
+        boolean valid = true;
+
+        if (typeElement.getKind() != ElementKind.CLASS) {
+            error(typeElement, "@StorIOSQLiteType can be applied only to classes");
+            return null;
+        }
+
+        final Set<Modifier> modifiers = typeElement.getModifiers();
+
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.ABSTRACT)) {
+            error(typeElement, "Class annotated with @StorIOSQLiteType should not be private or abstract");
+            valid = false;
+        }
+
+        if (typeElement.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            error(typeElement, "Nested class annotated with @StorIOSQLiteType should be static");
+            valid = false;
+        }
+
+        if (!typeElement.getTypeParameters().isEmpty()) {
+            error(typeElement, "Class annotated with @StorIOSQLiteType should not have type parameters");
+            valid = false;
+        }
+
+        if (!hasNoArgsConstructor(typeElement)) {
+            error(typeElement, "Class annotated with @StorIOSQLiteType should have non-private constructor without arguments");
+            valid = false;
+        }
+
+        final String table = typeElement.getAnnotation(StorIOSQLiteType.class).table();
+
+        if (table.trim().length() == 0) {
+            error(typeElement, "Table name of @StorIOSQLiteType should not be empty");
+            valid = false;
+        }
+
+        final List<ColumnMeta> columns = new ArrayList<>();
+        final Set<String> columnNames = new HashSet<>();
+        int keys = 0;
+        boolean hasColumns = false;
+
+        for (Element enclosed : typeElement.getEnclosedElements()) {
+            final StorIOSQLiteColumn column = enclosed.getAnnotation(StorIOSQLiteColumn.class);
+
+            if (column == null) {
+                continue;
+            }
+
+            hasColumns = true;
+
+            final ColumnMeta columnMeta = parseColumn((VariableElement) enclosed, column);
+
+            if (columnMeta == null) {
+                valid = false;
+                continue;
+            }
+
+            if (!columnNames.add(columnMeta.columnName)) {
+                error(enclosed, "Column \"" + columnMeta.columnName + "\" is already declared");
+                valid = false;
+            }
+
+            if (columnMeta.key && ++keys > 1) {
+                error(enclosed, "Only one column can be key");
+                valid = false;
+            }
+
+            columns.add(columnMeta);
+        }
+
+        if (!hasColumns) {
+            error(typeElement, "Class annotated with @StorIOSQLiteType should have at least one field annotated with @StorIOSQLiteColumn");
+            valid = false;
+        }
+
+        if (!valid) {
+            return null;
+        }
+
+        final String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+        final String qualifiedName = typeElement.getQualifiedName().toString();
+
+        return new TypeMeta(
+                packageName,
+                packageName.length() == 0 ? qualifiedName : qualifiedName.substring(packageName.length() + 1),
+                table,
+                columns
+        );
+    }
+
+    private ColumnMeta parseColumn(VariableElement field, StorIOSQLiteColumn column) {
+        final Set<Modifier> modifiers = field.getModifiers();
+
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+            error(field, "Field annotated with @StorIOSQLiteColumn should not be private, final or static");
+            return null;
+        }
+
+        if (column.name().trim().length() == 0) {
+            error(field, "Column name of @StorIOSQLiteColumn should not be empty");
+            return null;
+        }
+
+        final ColumnType type = ColumnType.of(field.asType());
+
+        if (type == null) {
+            error(field, "Type " + field.asType() + " is not supported by @StorIOSQLiteColumn");
+            return null;
+        }
+
+        final boolean primitive = field.asType().getKind().isPrimitive();
+
+        if (column.key() && primitive) {
+            error(field, "Key column should not have primitive type, null value of key means that object is not inserted yet");
+            return null;
+        }
+
+        return new ColumnMeta(field.getSimpleName().toString(), column.name(), type, !primitive, column.key());
+    }
+
+    private static boolean hasNoArgsConstructor(TypeElement typeElement) {
+        for (Element enclosed : typeElement.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.CONSTRUCTOR
+                    && ((ExecutableElement) enclosed).getParameters().isEmpty()
+                    && !enclosed.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void write(TypeElement typeElement, TypeMeta type) {
+        final String generatedName = type.packageName.length() == 0
+                ? type.generatedSimpleName()
+                : type.packageName + "." + type.generatedSimpleName();
+
+        try {
+            final JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(generatedName, typeElement);
+            final Writer writer = sourceFile.openWriter();
+
+            try {
+                writer.write(MappingGenerator.generate(type));
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error(typeElement, "Can not write " + generatedName + ": " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,51 @@
+package com.pushtorefresh.storio.sqlitedb.annotations.processor;
+
+import java.util.List;
+
+/**
+ * Class annotated with {@link com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteType}
+ */
+class TypeMeta {
+
+    final String packageName;
+
+    /**
+     * Name of the class relative to its package, for example "Outer.Inner"
+     */
+    final String simpleName;
+
+    final String table;
+
+    final List<ColumnMeta> columns;
+
+    TypeMeta(String packageName, String simpleName, String table, List<ColumnMeta> columns) {
+        this.packageName = packageName;
+        this.simpleName = simpleName;
+        this.table = table;
+        this.columns = columns;
+    }
+
+    /**
+     * Gets name of generated class, for example "Outer_InnerStorIOSQLite"
+     *
+     * @return name of generated class
+     */
+    String generatedSimpleName() {
+        return simpleName.replace('.', '_') + "StorIOSQLite";
+    }
+
+    /**
+     * Gets key column
+     *
+     * @return key column or null if there is no key
+     */
+    ColumnMeta key() {
+        for (ColumnMeta column : columns) {
+            if (column.key) {
+                return column;
+            }
+        }
+
+        return null;
+    }
+}
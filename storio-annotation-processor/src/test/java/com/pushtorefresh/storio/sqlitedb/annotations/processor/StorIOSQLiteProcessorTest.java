@@ -0,0 +1,166 @@
+package com.pushtorefresh.storio.sqlitedb.annotations.processor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StorIOSQLiteProcessorTest {
+
+    private File outputDir;
+
+    @Before
+    public void beforeEachTest() throws IOException {
+        outputDir = Files.createTempDirectory("storio-processor").toFile();
+    }
+
+    /**
+     * Runs only annotation processing, generated code is not compiled because Android SDK is not available here
+     *
+     * @return errors reported for the source
+     */
+    private String process(String className, String source) {
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        final List<String> options = Arrays.asList(
+                "-proc:only",
+                "-classpath", System.getProperty("java.class.path"),
+                "-s", outputDir.getAbsolutePath()
+        );
+
+        final SourceFile sourceFile = new SourceFile(className, source);
+
+        final JavaCompiler.CompilationTask task = compiler.getTask(
+                null, null, diagnostics, options, null, Collections.singletonList(sourceFile)
+        );
+
+        task.setProcessors(Collections.singletonList(new StorIOSQLiteProcessor()));
+        task.call();
+
+        final StringBuilder errors = new StringBuilder();
+
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            // imports of generated code can not be resolved without Android SDK, so only errors of the source are checked
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getSource() == sourceFile) {
+                errors.append(diagnostic.getMessage(null)).append('\n');
+            }
+        }
+
+        return errors.toString();
+    }
+
+    private String generated(String path) throws IOException {
+        return new String(Files.readAllBytes(new File(outputDir, path).toPath()), Charset.forName("UTF-8"));
+    }
+
+    @Test
+    public void generatesMapFuncsAndPutResolver() throws IOException {
+        final String errors = process("test.Tweet", "package test;\n" +
+                "import com.pushtorefresh.storio.sqlitedb.annotations.*;\n" +
+                "@StorIOSQLiteType(table = \"tweets\")\n" +
+                "public class Tweet {\n" +
+                "    @StorIOSQLiteColumn(name = \"_id\", key = true) Long id;\n" +
+                "    @StorIOSQLiteColumn(name = \"author\") String author;\n" +
+                "    @StorIOSQLiteColumn(name = \"likes\") int likes;\n" +
+                "    @StorIOSQLiteColumn(name = \"pinned\") boolean pinned;\n" +
+                "    String notStored;\n" +
+                "}\n");
+
+        assertEquals("", errors);
+
+        final String code = generated("test/TweetStorIOSQLite.java");
+
+        assertTrue(code.contains("public final class TweetStorIOSQLite"));
+        assertTrue(code.contains("public static final String TABLE = \"tweets\";"));
+
+        // indexes are resolved once in bind()
+        assertTrue(code.contains("final int idIndex = cursor.getColumnIndexOrThrow(\"_id\");"));
+        assertTrue(code.contains("object.id = cursor.isNull(idIndex) ? null : cursor.getLong(idIndex);"));
+        assertTrue(code.contains("object.author = cursor.getString(authorIndex);"));
+        assertTrue(code.contains("object.likes = cursor.getInt(likesIndex);"));
+        assertTrue(code.contains("object.pinned = cursor.getInt(pinnedIndex) == 1;"));
+        assertFalse(code.contains("notStored"));
+
+        assertTrue(code.contains("final ContentValues contentValues = new ContentValues(4);"));
+        assertTrue(code.contains("contentValues.put(\"author\", object.author);"));
+
+        assertTrue(code.contains("return \"_id\";"));
+        assertTrue(code.contains("object.id = putResult.insertedId();"));
+    }
+
+    @Test
+    public void nestedClass() throws IOException {
+        final String errors = process("test.Outer", "package test;\n" +
+                "import com.pushtorefresh.storio.sqlitedb.annotations.*;\n" +
+                "public class Outer {\n" +
+                "    @StorIOSQLiteType(table = \"inner\")\n" +
+                "    static class Inner {\n" +
+                "        @StorIOSQLiteColumn(name = \"data\") byte[] data;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertEquals("", errors);
+
+        final String code = generated("test/Outer_InnerStorIOSQLite.java");
+
+        assertTrue(code.contains("final Outer.Inner object = new Outer.Inner();"));
+        assertTrue(code.contains("object.data = cursor.getBlob(dataIndex);"));
+
+        // no key -> default id column and nothing to do after put
+        assertFalse(code.contains("getIdColumnName"));
+        assertFalse(code.contains("insertedId"));
+    }
+
+    @Test
+    public void invalidClass() {
+        final String errors = process("test.Invalid", "package test;\n" +
+                "import com.pushtorefresh.storio.sqlitedb.annotations.*;\n" +
+                "@StorIOSQLiteType(table = \"invalid\")\n" +
+                "public class Invalid {\n" +
+                "    private Invalid(String value) { }\n" +
+                "    @StorIOSQLiteColumn(name = \"_id\", key = true) long id;\n" +
+                "    @StorIOSQLiteColumn(name = \"value\") private String value;\n" +
+                "    @StorIOSQLiteColumn(name = \"date\") java.util.Date date;\n" +
+                "}\n");
+
+        assertTrue(errors, errors.contains("should have non-private constructor without arguments"));
+        assertTrue(errors, errors.contains("Key column should not have primitive type"));
+        assertTrue(errors, errors.contains("should not be private, final or static"));
+        assertTrue(errors, errors.contains("Type java.util.Date is not supported"));
+        assertEquals(4, errors.split("\n").length);
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
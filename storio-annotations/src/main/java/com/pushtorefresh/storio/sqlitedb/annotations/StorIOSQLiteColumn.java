@@ -0,0 +1,37 @@
+package com.pushtorefresh.storio.sqlitedb.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks field of {@link StorIOSQLiteType} class which is stored in column of the table
+ * <p/>
+ * Field should not be private, final or static.
+ * Supported types: {@code boolean, short, int, long, float, double}, their boxed versions,
+ * {@link String} and {@code byte[]}. Boxed types and {@link String} are nullable.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface StorIOSQLiteColumn {
+
+    /**
+     * Name of the column
+     *
+     * @return name of the column
+     */
+    String name();
+
+    /**
+     * Marks column as key of the table, for example {@code BaseColumns._ID}.
+     * <p/>
+     * Put of object with null key inserts it, otherwise object is updated by key
+     * (or inserted if there is no row with such key).
+     * If key has type {@link Long} id of inserted row is set to it after insert.
+     * Only one column can be key, it should not have primitive type.
+     *
+     * @return true if column is key, false otherwise
+     */
+    boolean key() default false;
+}
@@ -0,0 +1,27 @@
+package com.pushtorefresh.storio.sqlitedb.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks class which objects are stored in table of {@code SQLiteDatabase}
+ * <p/>
+ * For class {@code Tweet} storio-annotation-processor generates class {@code TweetStorIOSQLite}
+ * in the same package with map functions and put resolver, see {@link StorIOSQLiteColumn}.
+ * <p/>
+ * Class should not be private or abstract and should have non-private constructor without arguments,
+ * nested class should be static.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface StorIOSQLiteType {
+
+    /**
+     * Name of the table
+     *
+     * @return name of the table
+     */
+    String table();
+}
@@ -0,0 +1,153 @@
+package com.pushtorefresh.storio.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies with log-linear buckets (like HdrHistogram):
+ * each power of two is split into {@link #SUB_BUCKETS} linear buckets,
+ * so any recorded value is reported with relative error below 1/{@link #SUB_BUCKETS} (6.25%)
+ * <p/>
+ * Histogram has fixed size (~8 KB) and recording is one atomic increment of bucket
+ * plus updates of count, total and max, without locks and allocations.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of linear buckets per power of two, defines precision of histogram
+     */
+    public static final int SUB_BUCKETS = 16;
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    // values below SUB_BUCKETS have own buckets, then SUB_BUCKETS buckets for each power of two up to 2^62
+    private static final int NUMBER_OF_BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records value
+     *
+     * @param value value, for example latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long currentMax = max.get();
+
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Gets number of recorded values
+     *
+     * @return number of recorded values
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Gets sum of recorded values
+     *
+     * @return sum of recorded values
+     */
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * Gets max recorded value
+     *
+     * @return max recorded value or 0 if nothing was recorded
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Gets mean of recorded values
+     *
+     * @return mean or 0 if nothing was recorded
+     */
+    public long mean() {
+        final long currentCount = count.get();
+        return currentCount == 0 ? 0 : total.get() / currentCount;
+    }
+
+    /**
+     * Gets value at percentile
+     *
+     * @param percentile percentile in range [0, 100], for example 99.9
+     * @return highest value equivalent to value at percentile (never more than {@link #max()})
+     * or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile should be in range [0, 100], but was " + percentile);
+        }
+
+        // count is summed from buckets, values can be recorded concurrently
+        long recorded = 0;
+
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            recorded += buckets.get(i);
+        }
+
+        if (recorded == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+
+        long seen = 0;
+
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            seen += buckets.get(i);
+
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKETS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+
+        // overflows only for the last bucket
+        final long nextBucketStart = (SUB_BUCKETS + subBucket + 1) << shift;
+        return nextBucketStart > 0 ? nextBucketStart - 1 : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,116 @@
+package com.pushtorefresh.storio.metrics;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Built-in {@link MetricsListener} which aggregates metrics per type of operation and target
+ * into counters and {@link LatencyHistogram}
+ * <p/>
+ * Aggregation is lock-free and allocates only when target is seen for the first time,
+ * so aggregator can be kept enabled in production builds.
+ * <p/>
+ * Usage:
+ * <pre>
+ * MetricsAggregator metrics = new MetricsAggregator();
+ * storIOSQLiteDb.setMetricsListener(metrics);
+ * ...
+ * for (OperationStats stats : metrics.stats()) {
+ *     Log.d("Metrics", stats.toString()); // slowest targets first
+ * }
+ * </pre>
+ */
+public class MetricsAggregator implements MetricsListener {
+
+    @NonNull
+    private final Map<OperationMetrics.Type, ConcurrentMap<String, OperationStats>> statsByType
+            = new EnumMap<>(OperationMetrics.Type.class);
+
+    public MetricsAggregator() {
+        // map is not modified after construction, so it can be read concurrently
+        for (OperationMetrics.Type type : OperationMetrics.Type.values()) {
+            statsByType.put(type, new ConcurrentHashMap<String, OperationStats>());
+        }
+    }
+
+    @Override
+    public void onOperation(@NonNull OperationMetrics operationMetrics) {
+        final ConcurrentMap<String, OperationStats> statsByTarget = statsByType.get(operationMetrics.type());
+
+        OperationStats stats = statsByTarget.get(operationMetrics.target());
+
+        if (stats == null) {
+            final OperationStats newStats = new OperationStats(operationMetrics.type(), operationMetrics.target());
+            stats = statsByTarget.putIfAbsent(operationMetrics.target(), newStats);
+
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+
+        stats.add(operationMetrics);
+    }
+
+    /**
+     * Gets aggregated metrics of operations of passed type over passed target
+     *
+     * @param type   type of operations
+     * @param target table, Uri or {@link OperationMetrics#RAW_TARGET}
+     * @return aggregated metrics or null if there were no such operations
+     */
+    @Nullable
+    public OperationStats stats(@NonNull OperationMetrics.Type type, @NonNull String target) {
+        return statsByType.get(type).get(target);
+    }
+
+    /**
+     * Gets aggregated metrics of all types of operations and targets
+     *
+     * @return list sorted by total time of operations, slowest first
+     */
+    @NonNull
+    public List<OperationStats> stats() {
+        final List<OperationStats> result = new ArrayList<>();
+
+        for (ConcurrentMap<String, OperationStats> statsByTarget : statsByType.values()) {
+            result.addAll(statsByTarget.values());
+        }
+
+        // snapshot of totals, they can change during sorting
+        final Map<OperationStats, Long> totals = new IdentityHashMap<>(result.size());
+
+        for (OperationStats stats : result) {
+            totals.put(stats, stats.totalNanos());
+        }
+
+        Collections.sort(result, new Comparator<OperationStats>() {
+            @Override
+            public int compare(OperationStats lhs, OperationStats rhs) {
+                final long lhsTotal = totals.get(lhs);
+                final long rhsTotal = totals.get(rhs);
+                return lhsTotal < rhsTotal ? 1 : (lhsTotal == rhsTotal ? 0 : -1);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Removes all aggregated metrics
+     */
+    public void reset() {
+        for (ConcurrentMap<String, OperationStats> statsByTarget : statsByType.values()) {
+            statsByTarget.clear();
+        }
+    }
+}
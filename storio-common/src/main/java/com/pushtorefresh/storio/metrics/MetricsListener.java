@@ -0,0 +1,19 @@
+package com.pushtorefresh.storio.metrics;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Receives metrics of executed operations
+ * <p/>
+ * Called synchronously on the thread which executed the operation after it completed successfully,
+ * so implementation should be fast and thread-safe, see {@link MetricsAggregator}
+ */
+public interface MetricsListener {
+
+    /**
+     * Called after operation was executed
+     *
+     * @param operationMetrics metrics of executed operation
+     */
+    void onOperation(@NonNull OperationMetrics operationMetrics);
+}
@@ -0,0 +1,190 @@
+package com.pushtorefresh.storio.metrics;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Collects metrics of one operation and reports them to {@link MetricsListener}
+ * <p/>
+ * If there is no listener, shared disabled recorder is used: it does not read the clock
+ * and does not allocate anything, so instrumented operations cost only a null check.
+ * <p/>
+ * Usage: each phase starts from the value returned by previous call:
+ * <pre>
+ * long time = recorder.mark();
+ * ContentValues contentValues = mapFunc.map(object);
+ * time = recorder.map(time);
+ * putResolver.performPut(storIOSQLiteDb, contentValues);
+ * time = recorder.sql(time);
+ * </pre>
+ * Not thread-safe, one recorder should be used by one operation.
+ */
+public final class MetricsRecorder {
+
+    @NonNull
+    private static final MetricsRecorder DISABLED = new MetricsRecorder(null, OperationMetrics.Type.GET, null);
+
+    @Nullable
+    private final MetricsListener listener;
+
+    @NonNull
+    private final OperationMetrics.Type type;
+
+    // toString() of target is called only when metrics are reported
+    @Nullable
+    private Object target;
+
+    private int rows = OperationMetrics.UNKNOWN_ROWS;
+
+    private long sqlNanos;
+
+    private long mapNanos;
+
+    private long waitNanos;
+
+    private MetricsRecorder(@Nullable MetricsListener listener, @NonNull OperationMetrics.Type type, @Nullable Object target) {
+        this.listener = listener;
+        this.type = type;
+        this.target = target;
+    }
+
+    /**
+     * Creates recorder for operation
+     *
+     * @param listener listener of metrics, can be null
+     * @param type     type of operation
+     * @param target   table, Uri or {@link OperationMetrics#RAW_TARGET}, can be set later via {@link #target(Object)}
+     * @return recorder, disabled one if listener is null
+     */
+    @NonNull
+    public static MetricsRecorder start(@Nullable MetricsListener listener, @NonNull OperationMetrics.Type type, @Nullable Object target) {
+        return listener != null
+                ? new MetricsRecorder(listener, type, target)
+                : DISABLED;
+    }
+
+    /**
+     * Sets target of operation if it was not set yet, operations over several tables are reported for the first one
+     *
+     * @param target table, Uri or {@link OperationMetrics#RAW_TARGET}
+     */
+    public void target(@NonNull Object target) {
+        if (listener != null && this.target == null) {
+            this.target = target;
+        }
+    }
+
+    /**
+     * Adds number of rows read or touched by operation
+     *
+     * @param rows number of rows
+     */
+    public void rows(int rows) {
+        if (listener != null) {
+            this.rows = this.rows == OperationMetrics.UNKNOWN_ROWS
+                    ? rows
+                    : this.rows + rows;
+        }
+    }
+
+    /**
+     * Checks whether metrics are collected, useful to skip work which is needed only for metrics
+     *
+     * @return true if there is a listener, false for disabled recorder
+     */
+    public boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * Gets start time of next phase
+     *
+     * @return current time in nanoseconds or 0 if recorder is disabled
+     */
+    public long mark() {
+        return listener != null
+                ? System.nanoTime()
+                : 0;
+    }
+
+    /**
+     * Adds time since passed mark to SQL time
+     *
+     * @param since mark of start of the phase
+     * @return current time as mark for the next phase
+     */
+    public long sql(long since) {
+        if (listener == null) {
+            return 0;
+        }
+
+        final long now = System.nanoTime();
+        sqlNanos += now - since;
+        return now;
+    }
+
+    /**
+     * Adds time since passed mark to time of map functions
+     *
+     * @param since mark of start of the phase
+     * @return current time as mark for the next phase
+     */
+    public long map(long since) {
+        if (listener == null) {
+            return 0;
+        }
+
+        final long now = System.nanoTime();
+        mapNanos += now - since;
+        return now;
+    }
+
+    /**
+     * Adds time since passed mark to time of waiting for the connection
+     *
+     * @param since mark of start of the phase
+     * @return current time as mark for the next phase
+     */
+    public long waited(long since) {
+        if (listener == null) {
+            return 0;
+        }
+
+        final long now = System.nanoTime();
+        waitNanos += now - since;
+        return now;
+    }
+
+    /**
+     * Adds time between passed marks to time of waiting for the connection,
+     * for waiting which ended on other thread
+     *
+     * @param since mark of start of waiting
+     * @param until mark of end of waiting
+     * @return until as mark for the next phase
+     */
+    public long waited(long since, long until) {
+        if (listener == null) {
+            return 0;
+        }
+
+        waitNanos += until - since;
+        return until;
+    }
+
+    /**
+     * Reports collected metrics to listener
+     */
+    public void report() {
+        if (listener != null) {
+            listener.onOperation(new OperationMetrics(
+                    type,
+                    target != null ? target.toString() : "",
+                    rows,
+                    sqlNanos,
+                    mapNanos,
+                    waitNanos
+            ));
+        }
+    }
+}
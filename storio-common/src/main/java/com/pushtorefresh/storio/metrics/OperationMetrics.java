@@ -0,0 +1,161 @@
+package com.pushtorefresh.storio.metrics;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Immutable metrics of one executed operation, reported to {@link MetricsListener}
+ */
+public final class OperationMetrics {
+
+    /**
+     * Number of rows if it is unknown, for example for Get Operation which returns Cursor
+     */
+    public static final int UNKNOWN_ROWS = -1;
+
+    /**
+     * Target of raw query which does not declare affected tables
+     */
+    public static final String RAW_TARGET = "raw";
+
+    /**
+     * Type of operation
+     */
+    public enum Type {
+        GET,
+        PUT,
+        DELETE,
+        EXEC_SQL
+    }
+
+    @NonNull
+    private final Type type;
+
+    @NonNull
+    private final String target;
+
+    private final int rows;
+
+    private final long sqlNanos;
+
+    private final long mapNanos;
+
+    private final long waitNanos;
+
+    public OperationMetrics(@NonNull Type type, @NonNull String target, int rows,
+                            long sqlNanos, long mapNanos, long waitNanos) {
+        this.type = type;
+        this.target = target;
+        this.rows = rows;
+        this.sqlNanos = sqlNanos;
+        this.mapNanos = mapNanos;
+        this.waitNanos = waitNanos;
+    }
+
+    /**
+     * Gets type of operation
+     *
+     * @return type of operation
+     */
+    @NonNull
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Gets target of operation: table, Uri or {@link #RAW_TARGET} for raw query if table is unknown
+     *
+     * @return target of operation
+     */
+    @NonNull
+    public String target() {
+        return target;
+    }
+
+    /**
+     * Gets number of rows read or touched by operation
+     *
+     * @return number of rows or {@link #UNKNOWN_ROWS}
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Gets time spent in SQL statements or in calls to ContentProvider
+     *
+     * @return time in nanoseconds
+     */
+    public long sqlNanos() {
+        return sqlNanos;
+    }
+
+    /**
+     * Gets time spent in map functions: mapping of objects to ContentValues and queries
+     * and mapping of rows of Cursor (including reading of rows) to objects
+     *
+     * @return time in nanoseconds
+     */
+    public long mapNanos() {
+        return mapNanos;
+    }
+
+    /**
+     * Gets time spent waiting for the connection (beginning of transaction),
+     * for writes executed by group commit it includes time in its queue
+     * <p/>
+     * Statements executed without transaction wait for the connection inside of SQL,
+     * so their waiting time is part of {@link #sqlNanos()}
+     *
+     * @return time in nanoseconds
+     */
+    public long waitNanos() {
+        return waitNanos;
+    }
+
+    /**
+     * Gets total time of operation
+     *
+     * @return sum of SQL, map and waiting time in nanoseconds
+     */
+    public long totalNanos() {
+        return sqlNanos + mapNanos + waitNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        OperationMetrics that = (OperationMetrics) o;
+
+        return rows == that.rows
+                && sqlNanos == that.sqlNanos
+                && mapNanos == that.mapNanos
+                && waitNanos == that.waitNanos
+                && type == that.type
+                && target.equals(that.target);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + target.hashCode();
+        result = 31 * result + rows;
+        result = 31 * result + (int) (sqlNanos ^ (sqlNanos >>> 32));
+        result = 31 * result + (int) (mapNanos ^ (mapNanos >>> 32));
+        result = 31 * result + (int) (waitNanos ^ (waitNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics{" +
+                "type=" + type +
+                ", target='" + target + '\'' +
+                ", rows=" + rows +
+                ", sqlNanos=" + sqlNanos +
+                ", mapNanos=" + mapNanos +
+                ", waitNanos=" + waitNanos +
+                '}';
+    }
+}
@@ -0,0 +1,146 @@
+package com.pushtorefresh.storio.metrics;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated metrics of operations of one type over one target, see {@link MetricsAggregator}
+ * <p/>
+ * Values are updated concurrently, read values may belong to slightly different moments.
+ */
+public final class OperationStats {
+
+    @NonNull
+    private final OperationMetrics.Type type;
+
+    @NonNull
+    private final String target;
+
+    @NonNull
+    private final AtomicLong rows = new AtomicLong();
+
+    @NonNull
+    private final AtomicLong sqlNanos = new AtomicLong();
+
+    @NonNull
+    private final AtomicLong mapNanos = new AtomicLong();
+
+    @NonNull
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    @NonNull
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationStats(@NonNull OperationMetrics.Type type, @NonNull String target) {
+        this.type = type;
+        this.target = target;
+    }
+
+    void add(@NonNull OperationMetrics operationMetrics) {
+        if (operationMetrics.rows() > 0) {
+            rows.addAndGet(operationMetrics.rows());
+        }
+
+        sqlNanos.addAndGet(operationMetrics.sqlNanos());
+        mapNanos.addAndGet(operationMetrics.mapNanos());
+        waitNanos.addAndGet(operationMetrics.waitNanos());
+        latency.record(operationMetrics.totalNanos());
+    }
+
+    @NonNull
+    public OperationMetrics.Type type() {
+        return type;
+    }
+
+    /**
+     * Gets target of operations: table, Uri or {@link OperationMetrics#RAW_TARGET}
+     *
+     * @return target of operations
+     */
+    @NonNull
+    public String target() {
+        return target;
+    }
+
+    /**
+     * Gets number of executed operations
+     *
+     * @return number of executed operations
+     */
+    public long count() {
+        return latency.count();
+    }
+
+    /**
+     * Gets number of rows read or touched by operations, operations with unknown number of rows are not counted
+     *
+     * @return number of rows
+     */
+    public long rows() {
+        return rows.get();
+    }
+
+    /**
+     * Gets total time spent in SQL, see {@link OperationMetrics#sqlNanos()}
+     *
+     * @return time in nanoseconds
+     */
+    public long sqlNanos() {
+        return sqlNanos.get();
+    }
+
+    /**
+     * Gets total time spent in map functions, see {@link OperationMetrics#mapNanos()}
+     *
+     * @return time in nanoseconds
+     */
+    public long mapNanos() {
+        return mapNanos.get();
+    }
+
+    /**
+     * Gets total time spent waiting for the connection, see {@link OperationMetrics#waitNanos()}
+     *
+     * @return time in nanoseconds
+     */
+    public long waitNanos() {
+        return waitNanos.get();
+    }
+
+    /**
+     * Gets total time of all operations
+     *
+     * @return time in nanoseconds
+     */
+    public long totalNanos() {
+        return latency.total();
+    }
+
+    /**
+     * Gets histogram of total time of operations
+     *
+     * @return histogram of latencies in nanoseconds
+     */
+    @NonNull
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationStats{" +
+                "type=" + type +
+                ", target='" + target + '\'' +
+                ", count=" + count() +
+                ", rows=" + rows() +
+                ", totalNanos=" + totalNanos() +
+                ", sqlNanos=" + sqlNanos() +
+                ", mapNanos=" + mapNanos() +
+                ", waitNanos=" + waitNanos() +
+                ", p50Nanos=" + latency.percentile(50) +
+                ", p99Nanos=" + latency.percentile(99) +
+                ", maxNanos=" + latency.max() +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.pushtorefresh.storio.operation;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+/**
+ * {@link MapFunc} which resolves indexes of columns once per {@link Cursor} instead of once per row
+ * <p/>
+ * Operations call {@link #bind(Cursor)} once per query and then map each row
+ * with returned {@link MapFunc} which reads columns only by integer indexes:
+ * <pre>
+ * new CursorMapFunc&lt;Tweet&gt;() {
+ *     &#64;NonNull &#64;Override public MapFunc&lt;Cursor, Tweet&gt; bind(&#64;NonNull Cursor cursor) {
+ *         final int authorIndex = cursor.getColumnIndexOrThrow("author");
+ *
+ *         return new MapFunc&lt;Cursor, Tweet&gt;() {
+ *             &#64;Override public Tweet map(Cursor cursor) {
+ *                 return new Tweet(cursor.getString(authorIndex));
+ *             }
+ *         };
+ *     }
+ * };
+ * </pre>
+ * Implementation should be stateless, so it can be shared between threads, state belongs to result of {@link #bind(Cursor)}.
+ *
+ * @param <T> type of result of mapping
+ */
+public abstract class CursorMapFunc<T> implements MapFunc<Cursor, T> {
+
+    /**
+     * Resolves indexes of columns of the cursor
+     *
+     * @param cursor cursor which rows will be mapped
+     * @return map function which maps rows of this cursor, should be used only with this cursor
+     */
+    @NonNull
+    public abstract MapFunc<Cursor, T> bind(@NonNull Cursor cursor);
+
+    /**
+     * Maps current row of the cursor, resolves indexes of columns on each call,
+     * so operations over multiple rows should use {@link #bind(Cursor)} instead
+     *
+     * @param cursor cursor
+     * @return result of mapping
+     */
+    @Override
+    public T map(Cursor cursor) {
+        return bind(cursor).map(cursor);
+    }
+
+    /**
+     * Prepares map function for rows of the cursor
+     *
+     * @param mapFunc map function
+     * @param cursor  cursor which rows will be mapped
+     * @param <T>     type of result of mapping
+     * @return result of {@link #bind(Cursor)} if map function is {@link CursorMapFunc}, otherwise map function itself
+     */
+    @NonNull
+    public static <T> MapFunc<Cursor, T> bindToCursor(@NonNull MapFunc<Cursor, T> mapFunc, @NonNull Cursor cursor) {
+        return mapFunc instanceof CursorMapFunc
+                ? ((CursorMapFunc<T>) mapFunc).bind(cursor)
+                : mapFunc;
+    }
+}
@@ -0,0 +1,30 @@
+package com.pushtorefresh.storio.operation;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Callback for asynchronous execution of {@link PreparedOperation},
+ * see {@link PreparedOperation#executeAsync(OperationCallback)}
+ * <p/>
+ * Methods are called on the thread of executor which executed the operation,
+ * none of them is called if execution was cancelled
+ *
+ * @param <Result> type of result
+ */
+public interface OperationCallback<Result> {
+
+    /**
+     * Called when operation completed successfully
+     *
+     * @param result result of operation
+     */
+    void onSuccess(@Nullable Result result);
+
+    /**
+     * Called when operation failed
+     *
+     * @param throwable exception thrown by operation
+     */
+    void onError(@NonNull Throwable throwable);
+}
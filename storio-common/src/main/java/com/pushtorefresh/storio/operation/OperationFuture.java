@@ -0,0 +1,76 @@
+package com.pushtorefresh.storio.operation;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * {@link java.util.concurrent.Future} of asynchronous execution of {@link PreparedOperation}
+ * which delivers result to optional {@link OperationCallback}
+ * <p/>
+ * Cancellation before start prevents execution, {@link #cancel(boolean)} with {@code true} interrupts
+ * thread of running operation, callback is not called after cancellation.
+ *
+ * @param <Result> type of result
+ */
+public class OperationFuture<Result> extends FutureTask<Result> {
+
+    @Nullable
+    private final OperationCallback<Result> callback;
+
+    OperationFuture(@NonNull final PreparedOperation<Result> preparedOperation, @Nullable OperationCallback<Result> callback) {
+        super(new Callable<Result>() {
+            @Override
+            public Result call() {
+                return preparedOperation.executeAsBlocking();
+            }
+        });
+
+        this.callback = callback;
+    }
+
+    /**
+     * Executes operation on passed executor, it's an implementation of {@link PreparedOperation#executeAsync(OperationCallback)}
+     *
+     * @param executor          executor for operation
+     * @param preparedOperation operation to execute
+     * @param callback          optional callback for result of operation
+     * @param <Result>          type of result
+     * @return future of result which can be used to wait for result or to cancel execution
+     */
+    @NonNull
+    public static <Result> Future<Result> execute(@NonNull Executor executor,
+                                                  @NonNull PreparedOperation<Result> preparedOperation,
+                                                  @Nullable OperationCallback<Result> callback) {
+        final OperationFuture<Result> future = new OperationFuture<>(preparedOperation, callback);
+        executor.execute(future);
+        return future;
+    }
+
+    @Override
+    protected void done() {
+        if (callback == null || isCancelled()) {
+            return;
+        }
+
+        final Result result;
+
+        try {
+            result = get();
+        } catch (ExecutionException e) {
+            callback.onError(e.getCause());
+            return;
+        } catch (CancellationException | InterruptedException e) {
+            // can not happen after completion without cancellation
+            return;
+        }
+
+        callback.onSuccess(result);
+    }
+}
@@ -3,6 +3,8 @@ package com.pushtorefresh.storio.operation;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.util.concurrent.Future;
+
 import rx.Observable;
 
 /**
@@ -27,4 +29,16 @@ public interface PreparedOperation<Result> {
      */
     @NonNull
     Observable<Result> createObservable();
+
+    /**
+     * Executes operation asynchronously on executor of StorIO instance, doesn't require RxJava
+     * <p/>
+     * Use {@link OperationFuture#execute(java.util.concurrent.Executor, PreparedOperation, OperationCallback)}
+     * to implement this method
+     *
+     * @param callback optional callback which receives result or error on the thread of executor
+     * @return future of result which can be used to wait for result or to cancel execution
+     */
+    @NonNull
+    Future<Result> executeAsync(@Nullable OperationCallback<Result> callback);
 }
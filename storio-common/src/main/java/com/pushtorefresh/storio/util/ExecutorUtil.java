@@ -0,0 +1,54 @@
+package com.pushtorefresh.storio.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ExecutorUtil {
+
+    /**
+     * Number of threads of default executor, operations over one database or content provider
+     * mostly wait for each other, so more threads only add contention
+     */
+    public static final int DEFAULT_NUMBER_OF_THREADS = 2;
+
+    private ExecutorUtil() {
+    }
+
+    /**
+     * Creates executor for asynchronous execution of operations, used if executor was not set by user
+     * <p/>
+     * Threads are created on demand and are daemons, so unused executor does not cost anything
+     * and does not prevent shutdown of process
+     *
+     * @param threadNamePrefix prefix of names of threads, for example: "StorIOSQLiteDb"
+     * @return executor with {@link #DEFAULT_NUMBER_OF_THREADS} threads and unbounded queue
+     */
+    @NonNull
+    public static Executor newDefaultExecutor(@NonNull final String threadNamePrefix) {
+        return new ThreadPoolExecutor(
+                DEFAULT_NUMBER_OF_THREADS,
+                DEFAULT_NUMBER_OF_THREADS,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+
+                    @NonNull
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(@NonNull Runnable runnable) {
+                        final Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package com.pushtorefresh.storio.metrics;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.total());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    public void bucketsShouldCoverAllValuesWithoutGaps() {
+        int previousIndex = LatencyHistogram.bucketIndex(0);
+
+        for (long value = 1; value < 100000; value++) {
+            final int index = LatencyHistogram.bucketIndex(value);
+
+            assertTrue(index == previousIndex || index == previousIndex + 1);
+            assertTrue(value <= LatencyHistogram.highestValueInBucket(index));
+
+            previousIndex = index;
+        }
+
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentilesShouldBeWithinPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(1000000, histogram.max());
+        assertEquals(500500, histogram.mean());
+
+        assertWithinPrecision(500000, histogram.percentile(50));
+        assertWithinPrecision(990000, histogram.percentile(99));
+        assertEquals(1000000, histogram.percentile(100));
+        assertWithinPrecision(1000, histogram.percentile(0));
+    }
+
+    @Test
+    public void negativeValueShouldBeRecordedAsZero() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.total());
+        assertEquals(0, histogram.percentile(50));
+    }
+
+    @Test
+    public void percentileOutOfRangeShouldThrowException() {
+        try {
+            new LatencyHistogram().percentile(100.1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("percentile should be in range [0, 100], but was 100.1", expected.getMessage());
+        }
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+                actual >= expected && actual - expected <= expected / LatencyHistogram.SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,102 @@
+package com.pushtorefresh.storio.metrics;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class MetricsAggregatorTest {
+
+    @Test
+    public void shouldAggregatePerTypeAndTarget() {
+        final MetricsAggregator metricsAggregator = new MetricsAggregator();
+
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.GET, "users", 10, 100, 20, 0));
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.GET, "users", 5, 300, 10, 0));
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.GET, "tweets", OperationMetrics.UNKNOWN_ROWS, 50, 0, 0));
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.PUT, "users", 1, 1000, 5, 7));
+
+        final OperationStats getUsers = metricsAggregator.stats(OperationMetrics.Type.GET, "users");
+
+        assertNotNull(getUsers);
+        assertEquals(2, getUsers.count());
+        assertEquals(15, getUsers.rows());
+        assertEquals(400, getUsers.sqlNanos());
+        assertEquals(30, getUsers.mapNanos());
+        assertEquals(430, getUsers.totalNanos());
+        assertEquals(310, getUsers.latency().max());
+
+        // operations with unknown number of rows are not counted
+        final OperationStats getTweets = metricsAggregator.stats(OperationMetrics.Type.GET, "tweets");
+
+        assertNotNull(getTweets);
+        assertEquals(0, getTweets.rows());
+
+        assertNull(metricsAggregator.stats(OperationMetrics.Type.DELETE, "users"));
+    }
+
+    @Test
+    public void statsShouldBeSortedBySlowestFirst() {
+        final MetricsAggregator metricsAggregator = new MetricsAggregator();
+
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.GET, "fast", 1, 10, 0, 0));
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.DELETE, "slow", 1, 1000, 0, 0));
+        metricsAggregator.onOperation(new OperationMetrics(OperationMetrics.Type.PUT, "medium", 1, 100, 0, 0));
+
+        final List<OperationStats> stats = metricsAggregator.stats();
+
+        assertEquals(3, stats.size());
+        assertEquals("slow", stats.get(0).target());
+        assertEquals("medium", stats.get(1).target());
+        assertEquals("fast", stats.get(2).target());
+
+        metricsAggregator.reset();
+        assertTrue(metricsAggregator.stats().isEmpty());
+    }
+
+    @Test
+    public void recorderShouldReportCollectedMetrics() {
+        final MetricsListener metricsListener = mock(MetricsListener.class);
+        final MetricsAggregator metricsAggregator = new MetricsAggregator();
+
+        final MetricsRecorder metrics = MetricsRecorder.start(metricsAggregator, OperationMetrics.Type.DELETE, null);
+
+        long time = metrics.mark();
+        time = metrics.waited(time);
+        time = metrics.map(time);
+        metrics.sql(time);
+
+        metrics.target("users");
+        metrics.target("tweets"); // first target wins
+        metrics.rows(2);
+        metrics.rows(3);
+        metrics.report();
+
+        final OperationStats stats = metricsAggregator.stats(OperationMetrics.Type.DELETE, "users");
+
+        assertNotNull(stats);
+        assertEquals(1, stats.count());
+        assertEquals(5, stats.rows());
+
+        // disabled recorder does not report anything
+        final MetricsRecorder disabled = MetricsRecorder.start(null, OperationMetrics.Type.GET, "users");
+
+        assertSame(disabled, MetricsRecorder.start(null, OperationMetrics.Type.PUT, "tweets"));
+        assertEquals(0, disabled.mark());
+
+        disabled.report();
+        verifyZeroInteractions(metricsListener);
+
+        MetricsRecorder.start(metricsListener, OperationMetrics.Type.GET, "users").report();
+        verify(metricsListener, times(1)).onOperation(new OperationMetrics(OperationMetrics.Type.GET, "users", OperationMetrics.UNKNOWN_ROWS, 0, 0, 0));
+    }
+}
@@ -0,0 +1,63 @@
+package com.pushtorefresh.storio.operation;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CursorMapFuncTest {
+
+    private static final CursorMapFunc<String> MAP_FUNC = new CursorMapFunc<String>() {
+        @NonNull @Override public MapFunc<Cursor, String> bind(@NonNull Cursor cursor) {
+            final int nameIndex = cursor.getColumnIndexOrThrow("name");
+
+            return new MapFunc<Cursor, String>() {
+                @Override public String map(Cursor cursor) {
+                    return cursor.getString(nameIndex);
+                }
+            };
+        }
+    };
+
+    @Test
+    public void bindResolvesColumnIndexesOnce() {
+        final Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndexOrThrow("name")).thenReturn(3);
+        when(cursor.getString(3)).thenReturn("first", "second");
+
+        final MapFunc<Cursor, String> rowMapFunc = CursorMapFunc.bindToCursor(MAP_FUNC, cursor);
+
+        assertEquals("first", rowMapFunc.map(cursor));
+        assertEquals("second", rowMapFunc.map(cursor));
+
+        verify(cursor, times(1)).getColumnIndexOrThrow("name");
+    }
+
+    @Test
+    public void mapWithoutBind() {
+        final Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndexOrThrow("name")).thenReturn(0);
+        when(cursor.getString(0)).thenReturn("value");
+
+        assertEquals("value", MAP_FUNC.map(cursor));
+    }
+
+    @Test
+    public void bindToCursorReturnsRegularMapFuncAsIs() {
+        final Cursor cursor = mock(Cursor.class);
+
+        @SuppressWarnings("unchecked")
+        final MapFunc<Cursor, String> mapFunc = mock(MapFunc.class);
+
+        assertSame(mapFunc, CursorMapFunc.bindToCursor(mapFunc, cursor));
+    }
+}
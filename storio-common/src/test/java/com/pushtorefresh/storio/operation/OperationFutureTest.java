@@ -0,0 +1,118 @@
+package com.pushtorefresh.storio.operation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OperationFutureTest {
+
+    // executes tasks only when asked to
+    private static class QueueExecutor implements Executor {
+
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+
+            tasks.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldDeliverResultToFutureAndCallback() throws Exception {
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        final OperationCallback<String> callback = mock(OperationCallback.class);
+
+        when(preparedOperation.executeAsBlocking()).thenReturn("result");
+
+        final QueueExecutor executor = new QueueExecutor();
+
+        final Future<String> future = OperationFuture.execute(executor, preparedOperation, callback);
+
+        // operation should not be executed on caller thread
+        verify(preparedOperation, never()).executeAsBlocking();
+
+        executor.runAll();
+
+        assertEquals("result", future.get());
+        verify(callback, times(1)).onSuccess("result");
+        verify(callback, never()).onError(any(Throwable.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldDeliverErrorToFutureAndCallback() throws Exception {
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        final OperationCallback<String> callback = mock(OperationCallback.class);
+        final IllegalStateException exception = new IllegalStateException("expected");
+
+        when(preparedOperation.executeAsBlocking()).thenThrow(exception);
+
+        final QueueExecutor executor = new QueueExecutor();
+
+        final Future<String> future = OperationFuture.execute(executor, preparedOperation, callback);
+
+        executor.runAll();
+
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(exception, e.getCause());
+        }
+
+        verify(callback, times(1)).onError(exception);
+        verify(callback, never()).onSuccess(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void cancelShouldPreventExecution() throws Exception {
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        final OperationCallback<String> callback = mock(OperationCallback.class);
+
+        final QueueExecutor executor = new QueueExecutor();
+
+        final Future<String> future = OperationFuture.execute(executor, preparedOperation, callback);
+
+        assertTrue(future.cancel(true));
+
+        executor.runAll();
+
+        verify(preparedOperation, never()).executeAsBlocking();
+        verify(callback, never()).onSuccess(anyString());
+        verify(callback, never()).onError(any(Throwable.class));
+
+        try {
+            future.get();
+            fail();
+        } catch (CancellationException expected) {
+            // execution was cancelled
+        }
+    }
+}
@@ -15,9 +15,12 @@ import com.pushtorefresh.storio.contentprovider.query.DeleteQuery;
 import com.pushtorefresh.storio.contentprovider.query.InsertQuery;
 import com.pushtorefresh.storio.contentprovider.query.Query;
 import com.pushtorefresh.storio.contentprovider.query.UpdateQuery;
+import com.pushtorefresh.storio.metrics.MetricsListener;
+import com.pushtorefresh.storio.util.ExecutorUtil;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import rx.Observable;
 
@@ -69,6 +72,33 @@ public abstract class StorIOContentProvider {
         return this;
     }
 
+    /**
+     * Sets executor for asynchronous execution of operations,
+     * see {@link com.pushtorefresh.storio.operation.PreparedOperation#executeAsync(com.pushtorefresh.storio.operation.OperationCallback)}
+     * <p/>
+     * By default executor with {@link ExecutorUtil#DEFAULT_NUMBER_OF_THREADS} threads is created on first use
+     *
+     * @param executor executor for asynchronous operations
+     * @return this.
+     */
+    public StorIOContentProvider setExecutor(@NonNull Executor executor) {
+        internal().setExecutor(executor);
+        return this;
+    }
+
+    /**
+     * Sets listener of metrics of executed operations, see {@link com.pushtorefresh.storio.metrics.MetricsAggregator}
+     * <p/>
+     * Without listener operations do not measure anything
+     *
+     * @param metricsListener listener of metrics or null to disable metrics
+     * @return this.
+     */
+    public StorIOContentProvider setMetricsListener(@Nullable MetricsListener metricsListener) {
+        internal().setMetricsListener(metricsListener);
+        return this;
+    }
+
     /**
      * Subscribes to changes of required Uris
      *
@@ -109,6 +139,18 @@ public abstract class StorIOContentProvider {
         @NonNull
         private final Loggi loggi = new Loggi();
 
+        /**
+         * Executor for asynchronous operations, created on first use if it was not set
+         */
+        @Nullable
+        private volatile Executor executor;
+
+        /**
+         * Listener of metrics of operations, null if metrics are disabled
+         */
+        @Nullable
+        private volatile MetricsListener metricsListener;
+
         /**
          * Gets the data from {@link StorIOContentProvider}
          *
@@ -154,5 +196,56 @@ public abstract class StorIOContentProvider {
         public Loggi getLoggi() {
             return loggi;
         }
+
+        /**
+         * Sets executor for asynchronous operations
+         *
+         * @param executor executor
+         */
+        public void setExecutor(@NonNull Executor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Gets executor for asynchronous operations, creates default one if executor was not set
+         *
+         * @return executor for asynchronous operations
+         */
+        @NonNull
+        public Executor getExecutor() {
+            Executor result = executor;
+
+            if (result == null) {
+                synchronized (this) {
+                    result = executor;
+
+                    if (result == null) {
+                        result = ExecutorUtil.newDefaultExecutor("StorIOContentProvider");
+                        executor = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Sets listener of metrics of operations
+         *
+         * @param metricsListener listener of metrics or null to disable metrics
+         */
+        public void setMetricsListener(@Nullable MetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+        }
+
+        /**
+         * Gets listener of metrics of operations
+         *
+         * @return listener of metrics or null if metrics are disabled
+         */
+        @Nullable
+        public MetricsListener getMetricsListener() {
+            return metricsListener;
+        }
     }
 }
@@ -1,12 +1,30 @@
 package com.pushtorefresh.storio.contentprovider.operation.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.contentprovider.StorIOContentProvider;
 import com.pushtorefresh.storio.operation.PreparedOperation;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
+
+import java.util.concurrent.Future;
 
 public abstract class PreparedDelete<T> implements PreparedOperation<T> {
 
+    @NonNull
+    protected final StorIOContentProvider storIOContentProvider;
+
+    protected PreparedDelete(@NonNull StorIOContentProvider storIOContentProvider) {
+        this.storIOContentProvider = storIOContentProvider;
+    }
+
+    @NonNull
+    @Override
+    public Future<T> executeAsync(@Nullable OperationCallback<T> callback) {
+        return OperationFuture.execute(storIOContentProvider.internal().getExecutor(), this, callback);
+    }
+
     public static class Builder {
         @NonNull private final StorIOContentProvider storIOContentProvider;
 
@@ -1,9 +1,14 @@
 package com.pushtorefresh.storio.contentprovider.operation.get;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.contentprovider.StorIOContentProvider;
 import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
+
+import java.util.concurrent.Future;
 
 /**
  * Represents an Operation for {@link StorIOContentProvider} which performs query that retrieves data
@@ -24,6 +29,12 @@ public abstract class PreparedGet<T> implements PreparedOperationWithReactiveStr
         this.getResolver = getResolver;
     }
 
+    @NonNull
+    @Override
+    public Future<T> executeAsync(@Nullable OperationCallback<T> callback) {
+        return OperationFuture.execute(storIOContentProvider.internal().getExecutor(), this, callback);
+    }
+
     /**
      * Builder for {@link PreparedGet}
      */
@@ -6,6 +6,8 @@ import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.contentprovider.StorIOContentProvider;
 import com.pushtorefresh.storio.contentprovider.query.Query;
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
 import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
@@ -29,7 +31,20 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
     @Nullable
     @Override
     public Cursor executeAsBlocking() {
-        return getResolver.performGet(storIOContentProvider, query);
+        final MetricsRecorder metrics = MetricsRecorder.start(
+                storIOContentProvider.internal().getMetricsListener(),
+                OperationMetrics.Type.GET,
+                query.uri
+        );
+        final long start = metrics.mark();
+
+        final Cursor cursor = getResolver.performGet(storIOContentProvider, query);
+
+        // Cursor is read by user, so only execution of query is measured and number of rows is unknown
+        metrics.sql(start);
+        metrics.report();
+
+        return cursor;
     }
 
     @NonNull
@@ -7,6 +7,9 @@ import android.support.annotation.Nullable;
 import com.pushtorefresh.storio.contentprovider.Changes;
 import com.pushtorefresh.storio.contentprovider.StorIOContentProvider;
 import com.pushtorefresh.storio.contentprovider.query.Query;
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+import com.pushtorefresh.storio.operation.CursorMapFunc;
 import com.pushtorefresh.storio.operation.MapFunc;
 import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
@@ -46,18 +49,37 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     @Nullable
     @Override
     public List<T> executeAsBlocking() {
+        final MetricsRecorder metrics = MetricsRecorder.start(
+                storIOContentProvider.internal().getMetricsListener(),
+                OperationMetrics.Type.GET,
+                query.uri
+        );
+        long time = metrics.mark();
+
         final Cursor cursor = getResolver.performGet(storIOContentProvider, query);
 
         try {
             if (cursor == null) {
+                metrics.sql(time);
+                metrics.rows(0);
+                metrics.report();
+
                 return new ArrayList<>(0);
             } else {
+                // getCount() executes query of some Cursors, so it is measured as SQL
                 final List<T> list = new ArrayList<>(cursor.getCount());
+                time = metrics.sql(time);
+
+                final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
 
                 while (cursor.moveToNext()) {
-                    list.add(mapFunc.map(cursor));
+                    list.add(rowMapFunc.map(cursor));
                 }
 
+                metrics.map(time);
+                metrics.rows(list.size());
+                metrics.report();
+
                 return list;
             }
         } finally {
@@ -92,7 +114,7 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
      * Creates an {@link Observable} which will be subscribed to changes of {@link #query} Uri
      * and will emit result each time change occurs
      * <p/>
-     * First result will be emitted immediately,
+     * First query will be executed on subscription,
      * other emissions will occur only if changes of {@link #query} Uri will occur
      *
      * @return non-null {@link Observable} which will emit non-null list with mapped results and will be subscribed to changes of {@link #query} Uri
@@ -110,7 +132,7 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                         return executeAsBlocking();
                     }
                 })
-                .startWith(executeAsBlocking());  // start stream with first query result
+                .startWith(createObservable());  // start stream with first query result, executed on subscription
     }
 
     /**
@@ -1,9 +1,14 @@
 package com.pushtorefresh.storio.contentprovider.operation.put;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.contentprovider.StorIOContentProvider;
 import com.pushtorefresh.storio.operation.PreparedOperation;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
+
+import java.util.concurrent.Future;
 
 /**
  * Represents an Operation for {@link StorIOContentProvider} which performs insert or update data
@@ -24,6 +29,12 @@ public abstract class PreparedPut<T, Result> implements PreparedOperation<Result
         this.putResolver = putResolver;
     }
 
+    @NonNull
+    @Override
+    public Future<Result> executeAsync(@Nullable OperationCallback<Result> callback) {
+        return OperationFuture.execute(storIOContentProvider.internal().getExecutor(), this, callback);
+    }
+
     /**
      * Builder for {@link PreparedPut}
      */
@@ -5,6 +5,8 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.contentprovider.StorIOContentProvider;
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
 import com.pushtorefresh.storio.operation.MapFunc;
 
 import rx.Observable;
@@ -31,7 +33,23 @@ public class PreparedPutObject<T> extends PreparedPut<T, PutResult> {
     @Nullable
     @Override
     public PutResult executeAsBlocking() {
-        final PutResult putResult = putResolver.performPut(storIOContentProvider, mapFunc.map(object));
+        final MetricsRecorder metrics = MetricsRecorder.start(
+                storIOContentProvider.internal().getMetricsListener(),
+                OperationMetrics.Type.PUT,
+                null
+        );
+
+        long time = metrics.mark();
+        final ContentValues contentValues = mapFunc.map(object);
+        time = metrics.map(time);
+
+        final PutResult putResult = putResolver.performPut(storIOContentProvider, contentValues);
+
+        metrics.sql(time);
+        metrics.target(putResult.affectedUri());
+        //noinspection ConstantConditions
+        metrics.rows(putResult.wasInserted() ? 1 : (putResult.wasUpdated() ? putResult.numberOfRowsUpdated() : 0));
+        metrics.report();
 
         putResolver.afterPut(object, putResult);
         // TODO notify about changes
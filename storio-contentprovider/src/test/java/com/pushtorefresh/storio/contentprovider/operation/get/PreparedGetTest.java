@@ -61,6 +61,8 @@ public class PreparedGetTest {
         @SuppressWarnings("unchecked")
         GetStub() {
             storIOContentProvider = mock(StorIOContentProvider.class);
+            final StorIOContentProvider.Internal internal = mock(StorIOContentProvider.Internal.class);
+            when(storIOContentProvider.internal()).thenReturn(internal);
             query = mock(Query.class);
             getResolver = mock(GetResolver.class);
             mapFunc = (MapFunc<Cursor, TestItem>) mock(MapFunc.class);
@@ -7,6 +7,8 @@ import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.impl.StorIOSQLiteDbImpl;
 import com.pushtorefresh.storio.sample.Logger;
 
+import java.util.concurrent.Executors;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -19,6 +21,7 @@ public class DbModule {
     StorIOSQLiteDb provideStorIODb(@NonNull Context context) {
         return new StorIOSQLiteDbImpl.Builder()
                 .sqliteOpenHelper(new DbOpenHelper(context))
+                .defaultExecutor(Executors.newFixedThreadPool(2)) // no need in subscribeOn() for Observables of operations
                 .build()
                 .setLogListener(new Logger());
     }
@@ -7,14 +7,15 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.operation.MapFunc;
-import com.pushtorefresh.storio.sqlitedb.operation.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteColumn;
+import com.pushtorefresh.storio.sqlitedb.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlitedb.operation.put.PutResolver;
-import com.pushtorefresh.storio.sqlitedb.operation.put.PutResult;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
 
 /**
  * Just for demonstration, real Tweet structure is much more complex
  */
+@StorIOSQLiteType(table = Tweet.TABLE)
 public class Tweet {
 
     public static final String TABLE = "tweets";
@@ -31,49 +32,30 @@ public class Tweet {
      */
     public static final String COLUMN_CONTENT = "content";
 
-    public static final MapFunc<Cursor, Tweet> MAP_FROM_CURSOR = new MapFunc<Cursor, Tweet>() {
-        @Override public Tweet map(Cursor cursor) {
-            return new Tweet(
-                    cursor.getLong(cursor.getColumnIndex(COLUMN_ID)),
-                    cursor.getString(cursor.getColumnIndex(COLUMN_AUTHOR)),
-                    cursor.getString(cursor.getColumnIndex(COLUMN_CONTENT))
-            );
-        }
-    };
+    // map functions and put resolver are generated by storio-annotation-processor
+    public static final MapFunc<Cursor, Tweet> MAP_FROM_CURSOR = TweetStorIOSQLite.MAP_FROM_CURSOR;
 
-    public static final MapFunc<Tweet, ContentValues> MAP_TO_CONTENT_VALUES = new MapFunc<Tweet, ContentValues>() {
-        @Override public ContentValues map(Tweet tweet) {
-            final ContentValues contentValues = new ContentValues(3); // wow, such optimization
-
-            contentValues.put(COLUMN_ID, tweet.id);
-            contentValues.put(COLUMN_AUTHOR, tweet.author);
-            contentValues.put(COLUMN_CONTENT, tweet.content);
-
-            return contentValues;
-        }
-    };
+    public static final MapFunc<Tweet, ContentValues> MAP_TO_CONTENT_VALUES = TweetStorIOSQLite.MAP_TO_CONTENT_VALUES;
 
     public static final Query GET_ALL_QUERY = new Query.Builder()
             .table(TABLE)
             .build();
 
-    public static final PutResolver<Tweet> PUT_RESOLVER = new DefaultPutResolver<Tweet>() {
-        @NonNull @Override protected String getTable() {
-            return TABLE;
-        }
-
-        @Override public void afterPut(@NonNull Tweet object, @NonNull PutResult putResult) {
-            if (putResult.wasInserted()) {
-                object.id = putResult.insertedId();
-            }
-        }
-    };
+    public static final PutResolver<Tweet> PUT_RESOLVER = TweetStorIOSQLite.PUT_RESOLVER;
 
     // if object was not inserted into db, id will be null
-    @Nullable private volatile Long id;
+    @StorIOSQLiteColumn(name = COLUMN_ID, key = true)
+    @Nullable volatile Long id;
 
-    @NonNull private final String author;
-    @NonNull private final String content;
+    @StorIOSQLiteColumn(name = COLUMN_AUTHOR)
+    @NonNull String author;
+
+    @StorIOSQLiteColumn(name = COLUMN_CONTENT)
+    @NonNull String content;
+
+    // for generated code
+    Tweet() {
+    }
 
     private Tweet(Long id, @NonNull String author, @NonNull String content) {
         this.id = id;
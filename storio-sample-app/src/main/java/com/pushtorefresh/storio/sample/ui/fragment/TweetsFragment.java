@@ -32,7 +32,6 @@ import butterknife.OnClick;
 import rx.Observer;
 import rx.Subscription;
 import rx.android.schedulers.AndroidSchedulers;
-import rx.schedulers.Schedulers;
 
 public class TweetsFragment extends BaseFragment {
 
@@ -91,7 +90,6 @@ public class TweetsFragment extends BaseFragment {
                 .prepare()
                 .createObservableStream() // it will be subscribed to changes in tweets table!
                 .delay(1, TimeUnit.SECONDS) // for better User Experience
-                .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(new Observer<List<Tweet>>() {
                     @Override public void onError(Throwable e) {
@@ -138,7 +136,6 @@ public class TweetsFragment extends BaseFragment {
                 .withPutResolver(Tweet.PUT_RESOLVER)
                 .prepare()
                 .createObservable()
-                .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(new Observer<PutCollectionResult<Tweet>>() {
                     @Override public void onError(Throwable e) {
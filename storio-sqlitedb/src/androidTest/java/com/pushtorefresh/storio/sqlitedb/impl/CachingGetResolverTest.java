@@ -0,0 +1,92 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.sqlitedb.operation.get.CachingGetResolver;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class CachingGetResolverTest extends BaseTest {
+
+    @NonNull
+    private List<User> getUsers(@NonNull CachingGetResolver cachingGetResolver, @NonNull Query query) {
+        return storIOSQLiteDb
+                .get()
+                .listOfObjects(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(query)
+                .withGetResolver(cachingGetResolver)
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    @Test public void resultShouldBeCachedUntilChangeOfTable() {
+        final CachingGetResolver cachingGetResolver = new CachingGetResolver(storIOSQLiteDb, 1024 * 1024);
+        final Query query = new Query.Builder().table(User.TABLE).build();
+
+        final List<User> users = putUsers(3);
+
+        assertEquals(users, getUsers(cachingGetResolver, query));
+        assertEquals(users, getUsers(cachingGetResolver, query));
+
+        assertEquals(1, cachingGetResolver.missCount());
+        assertEquals(1, cachingGetResolver.hitCount());
+
+        // change of the table should invalidate cached result
+        users.add(putUser());
+
+        assertEquals(1, cachingGetResolver.invalidationCount());
+        assertEquals(users, getUsers(cachingGetResolver, query));
+        assertEquals(2, cachingGetResolver.missCount());
+    }
+
+    @Test public void leastRecentlyUsedResultShouldBeEvicted() {
+        putUsers(10);
+
+        final Query allUsers = new Query.Builder().table(User.TABLE).build();
+        final Query firstUser = new Query.Builder().table(User.TABLE).limit("1").build();
+
+        // budget is enough only for one result of all users
+        final CachingGetResolver probe = new CachingGetResolver(storIOSQLiteDb, Long.MAX_VALUE);
+        getUsers(probe, allUsers);
+
+        final CachingGetResolver cachingGetResolver = new CachingGetResolver(storIOSQLiteDb, probe.size());
+
+        getUsers(cachingGetResolver, allUsers);
+        getUsers(cachingGetResolver, firstUser);
+
+        assertEquals(1, cachingGetResolver.evictionCount());
+
+        getUsers(cachingGetResolver, firstUser);
+        assertEquals(1, cachingGetResolver.hitCount());
+        assertEquals(2, cachingGetResolver.missCount());
+    }
+
+    @Test public void closedCacheShouldNotObserveChanges() {
+        final CachingGetResolver cachingGetResolver = new CachingGetResolver(storIOSQLiteDb, 1024 * 1024);
+        final Query query = new Query.Builder().table(User.TABLE).build();
+
+        final List<User> users = putUsers(3);
+        assertEquals(users, getUsers(cachingGetResolver, query));
+
+        cachingGetResolver.close();
+        assertEquals(0, cachingGetResolver.size());
+
+        // subscription to changes of the table should be released
+        users.add(putUser());
+        assertEquals(0, cachingGetResolver.invalidationCount());
+
+        // closed cache executes queries without caching
+        assertEquals(users, getUsers(cachingGetResolver, query));
+        assertEquals(1, cachingGetResolver.missCount());
+        assertEquals(0, cachingGetResolver.size());
+    }
+}
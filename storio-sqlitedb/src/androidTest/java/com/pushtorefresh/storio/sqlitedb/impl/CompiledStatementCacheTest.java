@@ -0,0 +1,104 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class CompiledStatementCacheTest extends BaseTest {
+
+    @Test public void insertReusesCompiledStatement() {
+        final CompiledStatementCache cache = new CompiledStatementCache(db, 2);
+
+        final List<User> users = TestFactory.newUsers(3);
+
+        for (User user : users) {
+            final long id = cache.insert(User.TABLE, SQLiteDatabase.CONFLICT_NONE, User.MAP_TO_CONTENT_VALUES.map(user));
+            assertTrue(id > 0);
+        }
+
+        // all rows have same table and same set of columns
+        assertEquals(1, cache.size());
+
+        final Cursor cursor = db.query(User.TABLE, null, null, null, null, null, null);
+        assertEquals(users.size(), cursor.getCount());
+        cursor.close();
+    }
+
+    @Test public void updateViaCompiledStatement() {
+        final User user = putUser();
+
+        final CompiledStatementCache cache = new CompiledStatementCache(db, 2);
+
+        final ContentValues contentValues = new ContentValues(1);
+        contentValues.put(User.COLUMN_EMAIL, "updated@example.com");
+
+        final int updatedRows = cache.update(
+                User.TABLE,
+                contentValues,
+                User.COLUMN_ID + "=?",
+                Collections.singletonList(String.valueOf(user.getId()))
+        );
+
+        assertEquals(1, updatedRows);
+        assertEquals("updated@example.com", getAllUsers().get(0).getEmail());
+    }
+
+    @Test public void lruEviction() {
+        final CompiledStatementCache cache = new CompiledStatementCache(db, 1);
+
+        final ContentValues onlyEmail = new ContentValues(1);
+        onlyEmail.put(User.COLUMN_EMAIL, "first@example.com");
+        cache.insert(User.TABLE, SQLiteDatabase.CONFLICT_NONE, onlyEmail);
+
+        cache.insert(User.TABLE, SQLiteDatabase.CONFLICT_NONE, User.MAP_TO_CONTENT_VALUES.map(TestFactory.newUser()));
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test public void execSqlDropsCachedStatements() {
+        final StorIOSQLiteDbImpl storIOSQLiteDbWithCache = new StorIOSQLiteDbImpl.Builder()
+                .db(db)
+                .compiledStatementCacheSize(4)
+                .build();
+
+        storIOSQLiteDbWithCache
+                .put()
+                .object(TestFactory.newUser())
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(User.PUT_RESOLVER)
+                .prepare()
+                .executeAsBlocking();
+
+        storIOSQLiteDbWithCache
+                .execSql()
+                .withQuery(new RawQuery.Builder()
+                        .query("CREATE INDEX IF NOT EXISTS email_index ON " + User.TABLE + "(" + User.COLUMN_EMAIL + ")")
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        // statements are recompiled after possible schema change
+        storIOSQLiteDbWithCache
+                .put()
+                .object(TestFactory.newUser())
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(User.PUT_RESOLVER)
+                .prepare()
+                .executeAsBlocking();
+
+        assertEquals(2, getAllUsers().size());
+    }
+}
@@ -0,0 +1,88 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import rx.observers.TestSubscriber;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class IncrementalQueryTest extends BaseTest {
+
+    private static final Query USERS_BY_EMAIL_DESC = new Query.Builder()
+            .table(User.TABLE)
+            .orderBy(User.COLUMN_EMAIL + " DESC")
+            .build();
+
+    @NonNull
+    private List<User> lastEmission(@NonNull TestSubscriber<List<User>> testSubscriber) {
+        final List<List<User>> emissions = testSubscriber.getOnNextEvents();
+        return emissions.get(emissions.size() - 1);
+    }
+
+    @Test public void incrementalUpdatesShouldKeepOrder() {
+        storIOSQLiteDb = new StorIOSQLiteDbImpl.Builder()
+                .db(db)
+                .enableRowLevelChanges()
+                .build();
+
+        putUsers(5);
+
+        final TestSubscriber<List<User>> testSubscriber = new TestSubscriber<>();
+
+        storIOSQLiteDb
+                .get()
+                .listOfObjects(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(USERS_BY_EMAIL_DESC)
+                .useIncrementalUpdates(User.COLUMN_ID)
+                .prepare()
+                .createObservableStream()
+                .subscribe(testSubscriber);
+
+        assertEquals(getUsersByEmailDesc(), lastEmission(testSubscriber));
+
+        // insert
+        final User user = putUser();
+        assertEquals(getUsersByEmailDesc(), lastEmission(testSubscriber));
+
+        // update changes position of the row
+        user.setEmail("a" + user.getEmail());
+
+        storIOSQLiteDb
+                .put()
+                .object(user)
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(User.PUT_RESOLVER)
+                .prepare()
+                .executeAsBlocking();
+
+        assertEquals(getUsersByEmailDesc(), lastEmission(testSubscriber));
+
+        // delete
+        deleteUser(user);
+        assertEquals(getUsersByEmailDesc(), lastEmission(testSubscriber));
+        assertEquals(5, lastEmission(testSubscriber).size());
+
+        testSubscriber.unsubscribe();
+    }
+
+    @NonNull
+    private List<User> getUsersByEmailDesc() {
+        return storIOSQLiteDb
+                .get()
+                .listOfObjects(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(USERS_BY_EMAIL_DESC)
+                .prepare()
+                .executeAsBlocking();
+    }
+}
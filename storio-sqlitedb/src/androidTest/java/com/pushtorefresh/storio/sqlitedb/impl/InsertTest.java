@@ -1,16 +1,23 @@
 package com.pushtorefresh.storio.sqlitedb.impl;
 
 import android.database.Cursor;
+import android.support.annotation.NonNull;
 import android.support.test.runner.AndroidJUnit4;
 
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.operation.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlitedb.operation.put.PutCollectionResult;
+import com.pushtorefresh.storio.sqlitedb.operation.put.PutResolver;
 import com.pushtorefresh.storio.sqlitedb.operation.put.PutResult;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
 
@@ -51,6 +58,34 @@ public class InsertTest extends BaseTest {
         cursor.close();
     }
 
+    @Test public void insertCollectionWithBulkInsert() {
+        // more rows than fit into one multi-row INSERT statement
+        final List<User> users = TestFactory.newUsers(StorIOSQLiteDb.MAX_VARIABLE_NUMBER);
+
+        final PutCollectionResult<User> putResult = storIOSQLiteDb
+                .put()
+                .objects(users)
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(User.PUT_RESOLVER)
+                .useBulkInsert()
+                .prepare()
+                .executeAsBlocking();
+
+        assertEquals(users.size(), putResult.numberOfInserts());
+
+        final Cursor cursor = db.query(User.TABLE, null, null, null, null, null, User.COLUMN_ID);
+
+        assertEquals(users.size(), cursor.getCount());
+
+        // ids assigned by afterPut() should match ids in the db
+        for (int i = 0; i < users.size(); i++) {
+            assertTrue(cursor.moveToNext());
+            assertEquals(users.get(i), User.MAP_FROM_CURSOR.map(cursor));
+        }
+
+        cursor.close();
+    }
+
     @Test public void insertAndDeleteTwice() {
         final User user = TestFactory.newUser();
 
@@ -105,4 +140,86 @@ public class InsertTest extends BaseTest {
 
         cursor.close();
     }
+
+    @Test public void bulkInsertShouldKeepOrderOfWrites() {
+        final User existingUser = putUser();
+        final long nextId = existingUser.getId() + 1;
+
+        // new user gets nextId and then it should be updated by the second user, as with put one by one
+        final List<User> users = Arrays.asList(
+                new User(null, "new@example.com"),
+                new User(nextId, "updated@example.com")
+        );
+
+        storIOSQLiteDb
+                .put()
+                .objects(users)
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(User.PUT_RESOLVER)
+                .useBulkInsert()
+                .prepare()
+                .executeAsBlocking();
+
+        assertEquals(Long.valueOf(nextId), users.get(0).getId());
+        assertEquals(Arrays.asList(existingUser, new User(nextId, "updated@example.com")), getAllUsers());
+    }
+
+    @Test public void insertOrReplaceReplacesExistingRow() {
+        final User user = putUser();
+        final User sameUser = new User(user.getId(), "replaced@example.com");
+
+        final PutResult putResult = storIOSQLiteDb
+                .put()
+                .object(sameUser)
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(newPutResolver(DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE))
+                .prepare()
+                .executeAsBlocking();
+
+        assertTrue(putResult.wasInserted());
+        assertEquals(user.getId(), putResult.insertedId());
+        assertEquals(DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE, putResult.conflictStrategy());
+
+        final List<User> users = getAllUsers();
+
+        assertEquals(1, users.size());
+        assertEquals(sameUser, users.get(0));
+    }
+
+    @Test public void insertOrIgnoreKeepsExistingRow() {
+        final User user = putUser();
+
+        final PutResult putResult = storIOSQLiteDb
+                .put()
+                .object(new User(user.getId(), "ignored@example.com"))
+                .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                .withPutResolver(newPutResolver(DefaultPutResolver.ConflictStrategy.INSERT_OR_IGNORE))
+                .prepare()
+                .executeAsBlocking();
+
+        assertFalse(putResult.wasInserted());
+        assertFalse(putResult.wasUpdated());
+
+        final List<User> users = getAllUsers();
+
+        assertEquals(1, users.size());
+        assertEquals(user, users.get(0));
+    }
+
+    @NonNull
+    private static PutResolver<User> newPutResolver(@NonNull final DefaultPutResolver.ConflictStrategy conflictStrategy) {
+        return new DefaultPutResolver<User>() {
+            @NonNull @Override protected String getTable() {
+                return User.TABLE;
+            }
+
+            @NonNull @Override protected ConflictStrategy getConflictStrategy() {
+                return conflictStrategy;
+            }
+
+            @Override public void afterPut(@NonNull User object, @NonNull PutResult putResult) {
+                // no-op
+            }
+        };
+    }
 }
@@ -0,0 +1,137 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.sqlitedb.operation.get.Pager;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import rx.observers.TestSubscriber;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+
+@RunWith(AndroidJUnit4.class)
+public class PagerTest extends BaseTest {
+
+    @NonNull
+    private Pager<User> newPager(int pageSize) {
+        return storIOSQLiteDb
+                .get()
+                .pager(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(new Query.Builder()
+                        .table(User.TABLE)
+                        .orderBy(User.COLUMN_EMAIL + " DESC, " + User.COLUMN_ID)
+                        .build())
+                .pageSize(pageSize)
+                .prepare();
+    }
+
+    @Test public void pagesShouldContainAllRowsInOrder() {
+        putUsers(25);
+
+        final Pager<User> pager = newPager(10);
+        final List<User> usersFromPages = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            final Pager.Page<User> page = pager.loadNextPage();
+
+            assertNotNull(page);
+            assertEquals(i, page.index());
+            assertEquals(i < 2 ? 10 : 5, page.items().size());
+
+            usersFromPages.addAll(page.items());
+        }
+
+        assertNull(pager.loadNextPage());
+
+        final List<User> allUsers = storIOSQLiteDb
+                .get()
+                .listOfObjects(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(new Query.Builder()
+                        .table(User.TABLE)
+                        .orderBy(User.COLUMN_EMAIL + " DESC, " + User.COLUMN_ID)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertEquals(allUsers, usersFromPages);
+
+        pager.close();
+    }
+
+    @Test public void pagesShouldSupportRealExpressionAsSortKey() {
+        final List<User> users = putUsers(7);
+
+        // alias of expression has no affinity, so REAL value of sort key should not be compared as string
+        final Pager<User> pager = storIOSQLiteDb
+                .get()
+                .pager(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(new Query.Builder()
+                        .table(User.TABLE)
+                        .columns(User.COLUMN_ID, User.COLUMN_EMAIL, User.COLUMN_ID + " / 3.0 AS id_third")
+                        .orderBy("id_third DESC")
+                        .build())
+                .pageSize(3)
+                .prepare();
+
+        final List<User> usersFromPages = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            final Pager.Page<User> page = pager.loadNextPage();
+
+            assertNotNull(page);
+            assertEquals(i < 2 ? 3 : 1, page.items().size());
+
+            usersFromPages.addAll(page.items());
+        }
+
+        assertNull(pager.loadNextPage());
+
+        Collections.reverse(users);
+        assertEquals(users, usersFromPages);
+
+        pager.close();
+    }
+
+    @Test public void pageShouldReceiveUpdates() {
+        putUsers(6);
+
+        final Pager<User> pager = newPager(3);
+        final Pager.Page<User> firstPage = pager.loadNextPage();
+
+        assertNotNull(firstPage);
+
+        final TestSubscriber<List<User>> testSubscriber = new TestSubscriber<>();
+
+        firstPage
+                .createObservableStream()
+                .subscribe(testSubscriber);
+
+        final User deletedUser = firstPage.items().get(1);
+        deleteUser(deletedUser);
+
+        final List<User> expectedItems = new ArrayList<>(firstPage.items());
+        expectedItems.remove(deletedUser);
+
+        final List<List<User>> emissions = testSubscriber.getOnNextEvents();
+
+        assertEquals(2, emissions.size());
+        assertEquals(firstPage.items(), emissions.get(0));
+        assertEquals(expectedItems, emissions.get(1));
+
+        testSubscriber.unsubscribe();
+        pager.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class ParallelMappingTest extends BaseTest {
+
+    @NonNull
+    private List<User> getUsersInParallel(@NonNull Executor executor, @NonNull MapFunc<Cursor, User> mapFunc) {
+        return storIOSQLiteDb
+                .get()
+                .listOfObjects(User.class)
+                .withMapFunc(mapFunc)
+                .withQuery(new Query.Builder()
+                        .table(User.TABLE)
+                        .orderBy(User.COLUMN_ID)
+                        .build())
+                .mapInParallel(executor)
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    @Test public void orderOfRowsShouldBePreserved() {
+        final List<User> users = putUsers(1000);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            assertEquals(users, getUsersInParallel(executor, User.MAP_FROM_CURSOR));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test public void rowsShouldBeMappedByCallingThreadIfExecutorRejectsTasks() {
+        final List<User> users = putUsers(500);
+
+        final Executor rejectingExecutor = new Executor() {
+            @Override public void execute(@NonNull Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+
+        assertEquals(users, getUsersInParallel(rejectingExecutor, User.MAP_FROM_CURSOR));
+    }
+
+    @Test public void exceptionOfMapFuncShouldBeRethrown() {
+        putUsers(500);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        final MapFunc<Cursor, User> failingMapFunc = new MapFunc<Cursor, User>() {
+            @Override public User map(Cursor cursor) {
+                throw new IllegalArgumentException("expected");
+            }
+        };
+
+        try {
+            getUsersInParallel(executor, failingMapFunc);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("expected", expected.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import android.support.test.runner.AndroidJUnit4;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
 import com.pushtorefresh.storio.operation.MapFunc;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.QueryTemplate;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -52,6 +53,33 @@ public class QueryTest extends BaseTest {
         }
     }
 
+    @Test public void queryOneByFieldWithTemplate() {
+        final List<User> users = putUsers(3);
+
+        final QueryTemplate queryTemplate = new QueryTemplate.Builder()
+                .query(new Query.Builder()
+                        .table(User.TABLE)
+                        .where(User.COLUMN_EMAIL + "=?")
+                        .build())
+                .build();
+
+        for (User user : users) {
+            final List<User> usersFromQuery = storIOSQLiteDb
+                    .get()
+                    .listOfObjects(User.class)
+                    .withMapFunc(User.MAP_FROM_CURSOR)
+                    .withQuery(queryTemplate, user.getEmail())
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertEquals(Collections.singletonList(user), usersFromQuery);
+        }
+
+        // same SQL is reused for all executions
+        assertEquals(queryTemplate.sql, queryTemplate.bind("any").query);
+        assertEquals(Collections.singleton(User.TABLE), queryTemplate.bind("any").affectedTables);
+    }
+
     @Test public void queryOrdered() {
         final List<User> users = TestFactory.newUsers(3);
 
@@ -0,0 +1,91 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class SlowQueryLogTest extends BaseTest {
+
+    @Test public void queryWithoutIndexShouldBeRecordedWithFullTableScan() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+                .threshold(0, TimeUnit.MILLISECONDS)
+                .redactArgs()
+                .build();
+
+        final StorIOSQLiteDb storIOSQLiteDbWithLog = new StorIOSQLiteDbImpl.Builder()
+                .db(db)
+                .slowQueryLog(slowQueryLog)
+                .build();
+
+        putUsers(3);
+
+        final Query query = new Query.Builder()
+                .table(User.TABLE)
+                .where(User.COLUMN_EMAIL + " = ?")
+                .whereArgs("test@example.com")
+                .build();
+
+        storIOSQLiteDbWithLog.internal().query(query).close();
+        storIOSQLiteDbWithLog.internal().query(query).close();
+
+        final List<SlowQuery> records = slowQueryLog.records();
+        assertEquals(2, records.size());
+
+        final SlowQuery slowQuery = records.get(0);
+
+        assertTrue(slowQuery.sql().contains(User.TABLE));
+        assertEquals(Collections.singletonList(SlowQueryLog.REDACTED_ARG), slowQuery.args());
+        assertEquals(0, slowQuery.rowCount());
+        assertTrue(slowQuery.hasFullTableScan());
+
+        // query plan is captured once per distinct SQL
+        assertNotNull(slowQuery.queryPlan());
+        assertSame(slowQuery.queryPlan(), records.get(1).queryPlan());
+    }
+
+    @Test public void queryByPrimaryKeyShouldNotBeFullTableScan() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+                .threshold(0, TimeUnit.MILLISECONDS)
+                .build();
+
+        final StorIOSQLiteDb storIOSQLiteDbWithLog = new StorIOSQLiteDbImpl.Builder()
+                .db(db)
+                .slowQueryLog(slowQueryLog)
+                .build();
+
+        final User user = putUser();
+
+        storIOSQLiteDbWithLog
+                .internal()
+                .rawQuery(new RawQuery.Builder()
+                        .query("SELECT * FROM " + User.TABLE + " WHERE " + User.COLUMN_ID + " = ?")
+                        .args(user.getId())
+                        .build())
+                .close();
+
+        final List<SlowQuery> records = slowQueryLog.records();
+        assertEquals(1, records.size());
+
+        final SlowQuery slowQuery = records.get(0);
+
+        assertEquals(Collections.singletonList(String.valueOf(user.getId())), slowQuery.args());
+        assertEquals(1, slowQuery.rowCount());
+        assertFalse(slowQuery.hasFullTableScan());
+    }
+}
@@ -0,0 +1,188 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.content.ContentValues;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.Transaction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import rx.observers.TestSubscriber;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class TransactionTest extends BaseTest {
+
+    @Test public void oneNotificationPerTransaction() {
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<>();
+
+        storIOSQLiteDb
+                .observeChangesInTables(new HashSet<>(Arrays.asList(User.TABLE, Tweet.TABLE)))
+                .subscribe(testSubscriber);
+
+        storIOSQLiteDb.runInTransaction(new Transaction<Void>() {
+            @Override public Void run() {
+                final User user = putUser();
+                putUsers(3);
+
+                storIOSQLiteDb
+                        .put()
+                        .object(TestFactory.newTweet(user.getId()))
+                        .withMapFunc(Tweet.MAP_TO_CONTENT_VALUES)
+                        .withPutResolver(Tweet.PUT_RESOLVER)
+                        .prepare()
+                        .executeAsBlocking();
+
+                deleteUser(user);
+
+                // nothing should be delivered before commit
+                testSubscriber.assertReceivedOnNext(Collections.<Changes>emptyList());
+                return null;
+            }
+        });
+
+        testSubscriber.assertReceivedOnNext(Collections.singletonList(
+                new Changes(new HashSet<>(Arrays.asList(User.TABLE, Tweet.TABLE)))
+        ));
+        assertEquals(3, getAllUsers().size());
+
+        testSubscriber.unsubscribe();
+    }
+
+    @Test public void nestedTransactionRollback() {
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<>();
+
+        storIOSQLiteDb
+                .observeChangesInTables(new HashSet<>(Arrays.asList(User.TABLE, Tweet.TABLE)))
+                .subscribe(testSubscriber);
+
+        storIOSQLiteDb.runInTransaction(new Transaction<Void>() {
+            @Override public Void run() {
+                putUser();
+
+                try {
+                    storIOSQLiteDb.runInTransaction(new Transaction<Void>() {
+                        @Override public Void run() {
+                            final User user = putUser();
+
+                            storIOSQLiteDb
+                                    .put()
+                                    .object(TestFactory.newTweet(user.getId()))
+                                    .withMapFunc(Tweet.MAP_TO_CONTENT_VALUES)
+                                    .withPutResolver(Tweet.PUT_RESOLVER)
+                                    .prepare()
+                                    .executeAsBlocking();
+
+                            throw new IllegalStateException("rollback of nested transaction");
+                        }
+                    });
+
+                    fail();
+                } catch (IllegalStateException expected) {
+                    // only nested transaction should be rolled back
+                }
+
+                return null;
+            }
+        });
+
+        assertEquals(1, getAllUsers().size());
+
+        // changes of rolled back nested transaction should not be delivered
+        testSubscriber.assertReceivedOnNext(Collections.singletonList(new Changes(User.TABLE)));
+
+        testSubscriber.unsubscribe();
+    }
+
+    @Test public void failedOperationInNestedTransactionShouldNotRollbackOutermost() {
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<>();
+
+        storIOSQLiteDb
+                .observeChangesInTable(User.TABLE)
+                .subscribe(testSubscriber);
+
+        final User user = TestFactory.newUser();
+
+        storIOSQLiteDb.runInTransaction(new Transaction<Void>() {
+            @Override public Void run() {
+                putUsers(Collections.singletonList(user));
+
+                try {
+                    storIOSQLiteDb.runInTransaction(new Transaction<Void>() {
+                        @Override public Void run() {
+                            final List<User> users = TestFactory.newUsers(3);
+                            final User brokenUser = users.get(1);
+
+                            // operation opens its own transaction inside of the nested one and fails in the middle
+                            storIOSQLiteDb
+                                    .put()
+                                    .objects(users)
+                                    .withMapFunc(new MapFunc<User, ContentValues>() {
+                                        @Override public ContentValues map(User object) {
+                                            if (object == brokenUser) {
+                                                throw new IllegalStateException("failed put");
+                                            }
+
+                                            return User.MAP_TO_CONTENT_VALUES.map(object);
+                                        }
+                                    })
+                                    .withPutResolver(User.PUT_RESOLVER)
+                                    .prepare()
+                                    .executeAsBlocking();
+
+                            return null;
+                        }
+                    });
+
+                    fail();
+                } catch (IllegalStateException expected) {
+                    // only nested transaction should be rolled back
+                }
+
+                return null;
+            }
+        });
+
+        // outermost transaction should be committed without rows of failed put
+        assertEquals(Collections.singletonList(user), getAllUsers());
+        testSubscriber.assertReceivedOnNext(Collections.singletonList(new Changes(User.TABLE)));
+
+        testSubscriber.unsubscribe();
+    }
+
+    @Test public void outermostTransactionRollback() {
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<>();
+
+        storIOSQLiteDb
+                .observeChangesInTable(User.TABLE)
+                .subscribe(testSubscriber);
+
+        try {
+            storIOSQLiteDb.runInTransaction(new Transaction<Void>() {
+                @Override public Void run() {
+                    putUsers(2);
+                    throw new IllegalStateException("rollback");
+                }
+            });
+
+            fail();
+        } catch (IllegalStateException expected) {
+            // transaction should be rolled back
+        }
+
+        assertEquals(0, getAllUsers().size());
+        testSubscriber.assertReceivedOnNext(Collections.<Changes>emptyList());
+
+        testSubscriber.unsubscribe();
+    }
+}
@@ -0,0 +1,88 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class WriteAheadLoggingTest extends BaseTest {
+
+    @After
+    public void tearDown() {
+        db.disableWriteAheadLogging();
+    }
+
+    @Test public void queryIsNotBlockedByWriteTransaction() throws InterruptedException {
+        final StorIOSQLiteDb storIOSQLiteDbWithWal = new StorIOSQLiteDbImpl.Builder()
+                .db(db)
+                .enableWriteAheadLogging()
+                .build();
+
+        final CountDownLatch transactionStarted = new CountDownLatch(1);
+        final CountDownLatch queryFinished = new CountDownLatch(1);
+
+        final Thread writer = new Thread(new Runnable() {
+            @Override public void run() {
+                final StorIOSQLiteDb.Internal internal = storIOSQLiteDbWithWal.internal();
+
+                internal.beginTransaction();
+
+                try {
+                    storIOSQLiteDbWithWal
+                            .put()
+                            .objects(TestFactory.newUsers(10))
+                            .withMapFunc(User.MAP_TO_CONTENT_VALUES)
+                            .withPutResolver(User.PUT_RESOLVER)
+                            .dontUseTransaction()
+                            .prepare()
+                            .executeAsBlocking();
+
+                    transactionStarted.countDown();
+
+                    // holding write transaction until query finishes
+                    queryFinished.await(10, TimeUnit.SECONDS);
+
+                    internal.setTransactionSuccessful();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    internal.endTransaction();
+                }
+            }
+        });
+
+        writer.start();
+        assertTrue(transactionStarted.await(10, TimeUnit.SECONDS));
+
+        final List<User> users = storIOSQLiteDbWithWal
+                .get()
+                .listOfObjects(User.class)
+                .withMapFunc(User.MAP_FROM_CURSOR)
+                .withQuery(new Query.Builder()
+                        .table(User.TABLE)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        queryFinished.countDown();
+
+        // uncommitted rows are not visible for reader connection
+        assertEquals(0, users.size());
+
+        writer.join();
+
+        assertEquals(10, getAllUsers().size());
+    }
+}
@@ -1,12 +1,21 @@
 package com.pushtorefresh.storio.sqlitedb;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Immutable container of information about one or more changes in {@link StorIOSQLiteDb}
+ * <p/>
+ * Optionally it can contain row-level changes for some of affected tables, see {@link #rowChanges(String)}
  */
 public class Changes {
 
@@ -16,13 +25,19 @@ public class Changes {
     @NonNull
     public final Set<String> affectedTables;
 
+    /**
+     * Table -> complete list of changes of rows in the table, only for tables with known row-level changes
+     */
+    @NonNull
+    private final Map<String, List<RowChange>> rowChanges;
+
     /**
      * Creates {@link Changes} container with info about changes
      *
      * @param affectedTables set of tables which were affected by these changes
      */
     public Changes(@NonNull Set<String> affectedTables) {
-        this.affectedTables = Collections.unmodifiableSet(affectedTables);
+        this(affectedTables, Collections.<String, List<RowChange>>emptyMap());
     }
 
     /**
@@ -34,6 +49,82 @@ public class Changes {
         this(Collections.singleton(affectedTable));
     }
 
+    /**
+     * Creates {@link Changes} container with info about changes of rows in the table
+     *
+     * @param affectedTable table which was affected by these changes
+     * @param rowChanges    complete list of changes of rows in the table
+     */
+    public Changes(@NonNull String affectedTable, @NonNull List<RowChange> rowChanges) {
+        this(
+                Collections.singleton(affectedTable),
+                Collections.singletonMap(affectedTable, Collections.unmodifiableList(new ArrayList<>(rowChanges)))
+        );
+    }
+
+    private Changes(@NonNull Set<String> affectedTables, @NonNull Map<String, List<RowChange>> rowChanges) {
+        this.affectedTables = Collections.unmodifiableSet(affectedTables);
+        this.rowChanges = rowChanges;
+    }
+
+    /**
+     * Merges several {@link Changes} into one
+     * <p/>
+     * Row-level changes of the table are kept only if they are known in all changes which affect the table
+     *
+     * @param changes changes to merge
+     * @return merged changes
+     */
+    @NonNull
+    public static Changes merge(@NonNull Collection<Changes> changes) {
+        final Set<String> affectedTables = new HashSet<>();
+        final Set<String> tablesWithUnknownRowChanges = new HashSet<>();
+        final Map<String, List<RowChange>> rowChanges = new HashMap<>();
+
+        for (Changes item : changes) {
+            affectedTables.addAll(item.affectedTables);
+
+            for (String table : item.affectedTables) {
+                final List<RowChange> itemRowChanges = item.rowChanges.get(table);
+
+                if (itemRowChanges == null) {
+                    tablesWithUnknownRowChanges.add(table);
+                } else if (!tablesWithUnknownRowChanges.contains(table)) {
+                    List<RowChange> tableRowChanges = rowChanges.get(table);
+
+                    if (tableRowChanges == null) {
+                        tableRowChanges = new ArrayList<>(itemRowChanges.size());
+                        rowChanges.put(table, tableRowChanges);
+                    }
+
+                    tableRowChanges.addAll(itemRowChanges);
+                }
+            }
+        }
+
+        for (String table : tablesWithUnknownRowChanges) {
+            rowChanges.remove(table);
+        }
+
+        for (Map.Entry<String, List<RowChange>> entry : rowChanges.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+
+        return new Changes(affectedTables, rowChanges);
+    }
+
+    /**
+     * Gets changes of rows in the table
+     *
+     * @param table table name
+     * @return complete immutable list of changes of rows in the table
+     * or null if row-level changes are unknown or table was not affected
+     */
+    @Nullable
+    public List<RowChange> rowChanges(@NonNull String table) {
+        return rowChanges.get(table);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -41,19 +132,23 @@ public class Changes {
 
         Changes changes = (Changes) o;
 
-        return affectedTables.equals(changes.affectedTables);
+        if (!affectedTables.equals(changes.affectedTables)) return false;
+        return rowChanges.equals(changes.rowChanges);
 
     }
 
     @Override
     public int hashCode() {
-        return affectedTables.hashCode();
+        int result = affectedTables.hashCode();
+        result = 31 * result + rowChanges.hashCode();
+        return result;
     }
 
     @Override
     public String toString() {
         return "Changes{" +
                 "affectedTables=" + affectedTables +
+                ", rowChanges=" + rowChanges +
                 '}';
     }
 }
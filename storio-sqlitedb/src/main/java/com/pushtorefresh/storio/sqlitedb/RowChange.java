@@ -0,0 +1,134 @@
+package com.pushtorefresh.storio.sqlitedb;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Immutable description of change of row(s) identified by value of key column
+ *
+ * @see Changes#rowChanges(String)
+ */
+public class RowChange {
+
+    /**
+     * Name of column which is used as key for rows inserted by {@link com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb.Internal#insert}
+     */
+    public static final String ROW_ID = "rowid";
+
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    @NonNull
+    private final Type type;
+
+    @NonNull
+    private final String keyColumn;
+
+    @NonNull
+    private final String key;
+
+    private RowChange(@NonNull Type type, @NonNull String keyColumn, @NonNull String key) {
+        this.type = type;
+        this.keyColumn = keyColumn;
+        this.key = key;
+    }
+
+    /**
+     * Creates {@link RowChange} for inserted row
+     *
+     * @param insertedId rowid of inserted row
+     * @return new {@link RowChange} instance
+     */
+    @NonNull
+    public static RowChange newInsert(long insertedId) {
+        return new RowChange(Type.INSERT, ROW_ID, String.valueOf(insertedId));
+    }
+
+    /**
+     * Creates {@link RowChange} for updated row(s)
+     *
+     * @param keyColumn column which identifies updated row(s)
+     * @param key       value of key column
+     * @return new {@link RowChange} instance
+     */
+    @NonNull
+    public static RowChange newUpdate(@NonNull String keyColumn, @NonNull String key) {
+        return new RowChange(Type.UPDATE, keyColumn, key);
+    }
+
+    /**
+     * Creates {@link RowChange} for deleted row(s)
+     *
+     * @param keyColumn column which identifies deleted row(s)
+     * @param key       value of key column
+     * @return new {@link RowChange} instance
+     */
+    @NonNull
+    public static RowChange newDelete(@NonNull String keyColumn, @NonNull String key) {
+        return new RowChange(Type.DELETE, keyColumn, key);
+    }
+
+    /**
+     * Gets kind of change
+     *
+     * @return kind of change
+     */
+    @NonNull
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Gets name of column which identifies changed row(s), {@link #ROW_ID} for inserts
+     *
+     * @return name of key column
+     */
+    @NonNull
+    public String keyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * Gets value of key column of changed row(s) in the form which can be used as argument of where clause
+     *
+     * @return value of key column
+     */
+    @NonNull
+    public String key() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RowChange rowChange = (RowChange) o;
+
+        if (type != rowChange.type) return false;
+        if (!keyColumn.equals(rowChange.keyColumn)) return false;
+        return key.equals(rowChange.key);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + keyColumn.hashCode();
+        result = 31 * result + key.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RowChange{" +
+                "type=" + type +
+                ", keyColumn='" + keyColumn + '\'' +
+                ", key='" + key + '\'' +
+                '}';
+    }
+}
@@ -3,9 +3,11 @@ package com.pushtorefresh.storio.sqlitedb;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.LogListener;
 import com.pushtorefresh.storio.Loggi;
+import com.pushtorefresh.storio.metrics.MetricsListener;
 import com.pushtorefresh.storio.sqlitedb.operation.delete.PreparedDelete;
 import com.pushtorefresh.storio.sqlitedb.operation.exec_sql.PreparedExecSql;
 import com.pushtorefresh.storio.sqlitedb.operation.get.PreparedGet;
@@ -15,11 +17,15 @@ import com.pushtorefresh.storio.sqlitedb.query.InsertQuery;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
 import com.pushtorefresh.storio.sqlitedb.query.UpdateQuery;
+import com.pushtorefresh.storio.util.ExecutorUtil;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import rx.Observable;
+import rx.Scheduler;
 
 /**
  * Powerful abstraction for databases
@@ -29,6 +35,12 @@ import rx.Observable;
  */
 public abstract class StorIOSQLiteDb {
 
+    /**
+     * Default value of SQLITE_MAX_VARIABLE_NUMBER: max number of arguments in one SQLite statement,
+     * operations which bind many values split their statements by it
+     */
+    public static final int MAX_VARIABLE_NUMBER = 999;
+
     /**
      * Prepares "execute sql" operation for {@link StorIOSQLiteDb}
      * Allows to execute a single SQL statement that is NOT a SELECT/INSERT/UPDATE/DELETE.
@@ -69,6 +81,27 @@ public abstract class StorIOSQLiteDb {
         return new PreparedDelete.Builder(this);
     }
 
+    /**
+     * Executes {@link Transaction} in transaction
+     * <p/>
+     * All changes made by operations of the transaction are delivered to subscribers
+     * as one {@link Changes} notification after commit of outermost transaction,
+     * nothing is delivered if transaction is rolled back.
+     * <p/>
+     * Nested calls are executed in savepoints: exception thrown from nested transaction
+     * rolls back only changes of nested transaction and then it is rethrown to the caller.
+     * Operations executed inside of the transaction use savepoints instead of own transactions too,
+     * so failed operation does not mark whole transaction as failed
+     *
+     * @param transaction transaction to execute
+     * @param <Result>    type of result of the transaction
+     * @return result of the transaction
+     */
+    @Nullable
+    public <Result> Result runInTransaction(@NonNull Transaction<Result> transaction) {
+        return internal().runInTransaction(transaction);
+    }
+
     /**
      * Subscribes to changes in required tables
      *
@@ -111,6 +144,33 @@ public abstract class StorIOSQLiteDb {
         return this;
     }
 
+    /**
+     * Sets executor for asynchronous execution of operations,
+     * see {@link com.pushtorefresh.storio.operation.PreparedOperation#executeAsync(com.pushtorefresh.storio.operation.OperationCallback)}
+     * <p/>
+     * By default executor with {@link ExecutorUtil#DEFAULT_NUMBER_OF_THREADS} threads is created on first use
+     *
+     * @param executor executor for asynchronous operations
+     * @return this.
+     */
+    public StorIOSQLiteDb setExecutor(@NonNull Executor executor) {
+        internal().setExecutor(executor);
+        return this;
+    }
+
+    /**
+     * Sets listener of metrics of executed operations, see {@link com.pushtorefresh.storio.metrics.MetricsAggregator}
+     * <p/>
+     * Without listener operations do not measure anything
+     *
+     * @param metricsListener listener of metrics or null to disable metrics
+     * @return this.
+     */
+    public StorIOSQLiteDb setMetricsListener(@Nullable MetricsListener metricsListener) {
+        internal().setMetricsListener(metricsListener);
+        return this;
+    }
+
     /**
      * Hides some internal operations of {@link StorIOSQLiteDb} to make API of {@link StorIOSQLiteDb} clean and easy to understand
      *
@@ -129,6 +189,18 @@ public abstract class StorIOSQLiteDb {
          */
         @NonNull private final Loggi loggi = new Loggi();
 
+        /**
+         * Executor for asynchronous operations, created on first use if it was not set
+         */
+        @Nullable
+        private volatile Executor executor;
+
+        /**
+         * Listener of metrics of operations, null if metrics are disabled
+         */
+        @Nullable
+        private volatile MetricsListener metricsListener;
+
         /**
          * Execute a single SQL statement that is NOT a SELECT/INSERT/UPDATE/DELETE on the database
          *
@@ -161,6 +233,27 @@ public abstract class StorIOSQLiteDb {
          */
         public abstract long insert(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues);
 
+        /**
+         * Inserts multiple rows into the database
+         * <p>
+         * Default implementation inserts rows one by one via {@link #insert(InsertQuery, ContentValues)},
+         * implementations can override it to insert rows with same set of columns via multi-row INSERT statements
+         *
+         * @param insertQuery       query
+         * @param contentValuesList rows to insert
+         * @return ids of inserted rows in the same order as rows in contentValuesList
+         */
+        @NonNull
+        public long[] insertAll(@NonNull InsertQuery insertQuery, @NonNull List<ContentValues> contentValuesList) {
+            final long[] insertedIds = new long[contentValuesList.size()];
+
+            for (int i = 0; i < insertedIds.length; i++) {
+                insertedIds[i] = insert(insertQuery, contentValuesList.get(i));
+            }
+
+            return insertedIds;
+        }
+
         /**
          * Updates one or multiple rows in the database
          *
@@ -187,6 +280,33 @@ public abstract class StorIOSQLiteDb {
          */
         public abstract void notifyAboutChanges(@NonNull Changes changes);
 
+        /**
+         * Returns true if operations should provide row-level changes in {@link Changes} where it's possible,
+         * see {@link Changes#rowChanges(String)}
+         * <p>
+         * Default implementation returns false
+         *
+         * @return true if row-level changes are enabled, false otherwise
+         */
+        public boolean rowLevelChangesEnabled() {
+            return false;
+        }
+
+        /**
+         * Returns {@link Scheduler} on which Observables of operations are executed by default,
+         * re-queries of {@link com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream#createObservableStream()}
+         * triggered by changes are executed on it too
+         * <p>
+         * Default implementation returns null, which means that Observables are executed on subscriber thread
+         * and re-queries are executed on thread which made the change
+         *
+         * @return default scheduler or null
+         */
+        @Nullable
+        public Scheduler defaultScheduler() {
+            return null;
+        }
+
         /**
          * Returns true if {@link StorIOSQLiteDb} implementation supports transactions
          *
@@ -209,6 +329,57 @@ public abstract class StorIOSQLiteDb {
          */
         public abstract void endTransaction();
 
+        /**
+         * Returns true if current thread holds a transaction
+         * <p>
+         * Default implementation returns false
+         *
+         * @return true if current thread holds a transaction, false otherwise
+         */
+        public boolean inTransaction() {
+            return false;
+        }
+
+        /**
+         * Executes {@link Transaction} in transaction
+         * <p>
+         * Default implementation executes it between {@link #beginTransaction()} and {@link #endTransaction()}
+         * if transactions are supported, but it does not support savepoints and does not hold notifications about changes
+         *
+         * @param transaction transaction to execute
+         * @param <Result>    type of result of the transaction
+         * @return result of the transaction
+         * @see StorIOSQLiteDb#runInTransaction(Transaction)
+         */
+        @Nullable
+        public <Result> Result runInTransaction(@NonNull Transaction<Result> transaction) {
+            if (!transactionsSupported()) {
+                return transaction.run();
+            }
+
+            beginTransaction();
+
+            try {
+                final Result result = transaction.run();
+                setTransactionSuccessful();
+                return result;
+            } finally {
+                endTransaction();
+            }
+        }
+
+        /**
+         * Returns {@link WriteCoordinator} which should be used for writes from current thread
+         * <p>
+         * Default implementation returns null, which means that writes should be executed directly
+         *
+         * @return {@link WriteCoordinator} or null if writes should be executed directly
+         */
+        @Nullable
+        public WriteCoordinator writeCoordinator() {
+            return null;
+        }
+
         /**
          * Log wrapper getter.
          *
@@ -218,5 +389,56 @@ public abstract class StorIOSQLiteDb {
         public Loggi getLoggi() {
             return loggi;
         }
+
+        /**
+         * Sets executor for asynchronous operations
+         *
+         * @param executor executor
+         */
+        public void setExecutor(@NonNull Executor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Gets executor for asynchronous operations, creates default one if executor was not set
+         *
+         * @return executor for asynchronous operations
+         */
+        @NonNull
+        public Executor getExecutor() {
+            Executor result = executor;
+
+            if (result == null) {
+                synchronized (this) {
+                    result = executor;
+
+                    if (result == null) {
+                        result = ExecutorUtil.newDefaultExecutor("StorIOSQLiteDb");
+                        executor = result;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Sets listener of metrics of operations
+         *
+         * @param metricsListener listener of metrics or null to disable metrics
+         */
+        public void setMetricsListener(@Nullable MetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+        }
+
+        /**
+         * Gets listener of metrics of operations
+         *
+         * @return listener of metrics or null if metrics are disabled
+         */
+        @Nullable
+        public MetricsListener getMetricsListener() {
+            return metricsListener;
+        }
     }
 }
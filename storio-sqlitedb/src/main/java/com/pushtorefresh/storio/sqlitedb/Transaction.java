@@ -0,0 +1,22 @@
+package com.pushtorefresh.storio.sqlitedb;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Unit of work which will be executed in transaction by {@link StorIOSQLiteDb#runInTransaction(Transaction)}
+ * <p/>
+ * Can combine any Put, Delete and ExecSql Operations of {@link StorIOSQLiteDb},
+ * nested {@link StorIOSQLiteDb#runInTransaction(Transaction)} calls are allowed
+ *
+ * @param <Result> type of result
+ */
+public interface Transaction<Result> {
+
+    /**
+     * Executes operations of the transaction, throw exception to roll back the transaction
+     *
+     * @return result of the transaction, can be null
+     */
+    @Nullable
+    Result run();
+}
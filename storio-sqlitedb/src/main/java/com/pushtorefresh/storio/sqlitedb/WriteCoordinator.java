@@ -0,0 +1,407 @@
+package com.pushtorefresh.storio.sqlitedb;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for writes from many threads, thread-safe
+ * <p/>
+ * Writes submitted from different threads are queued and executed on one writer thread
+ * in shared transactions: writer takes first write from the queue, waits up to "max wait" time
+ * for more writes and executes up to "max batch size" writes in one transaction,
+ * so N concurrent writes cost one transaction instead of N.
+ * <p/>
+ * Subscribers receive one {@link Changes} notification per commit.
+ * If one of writes fails, transaction is rolled back and writes of the batch are executed
+ * one by one in separate transactions, so only failed write receives exception.
+ * Errors of subscribers do not affect writes. If writer thread is stopped by unexpected error,
+ * all waiting writes receive it and {@link #submit(Write)} throws {@link IllegalStateException}.
+ */
+public class WriteCoordinator {
+
+    /**
+     * Write which can be executed by {@link WriteCoordinator}
+     *
+     * @param <Result> type of result of the write
+     */
+    public interface Write<Result> {
+
+        /**
+         * Performs the write, will be called on writer thread inside of transaction
+         *
+         * @return non-null result of the write
+         */
+        @NonNull
+        Result perform();
+
+        /**
+         * Provides changes made by the write, subscribers will be notified after commit
+         *
+         * @param result result of the write
+         * @return non-null changes
+         */
+        @NonNull
+        Changes changes(@NonNull Result result);
+    }
+
+    @NonNull
+    private final StorIOSQLiteDb.Internal internal;
+
+    private final int maxBatchSize;
+
+    private final long maxWaitNanos;
+
+    @NonNull
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+
+    @NonNull
+    private final Object lock = new Object();
+
+    @Nullable
+    private Thread writerThread;
+
+    private boolean closed;
+
+    /**
+     * Error which stopped writer thread, null if writer thread works
+     */
+    @Nullable
+    private Throwable failure;
+
+    /**
+     * Creates {@link WriteCoordinator}
+     *
+     * @param internal     internal of {@link StorIOSQLiteDb}, should support transactions
+     * @param maxBatchSize max number of writes in one transaction
+     * @param maxWaitTime  max time to wait for more writes after first write of the batch was received,
+     *                     <code>0</code> means that only already queued writes will be batched
+     * @param timeUnit     time unit for maxWaitTime
+     */
+    public WriteCoordinator(@NonNull StorIOSQLiteDb.Internal internal, int maxBatchSize, long maxWaitTime, @NonNull TimeUnit timeUnit) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize should be > 0, but was " + maxBatchSize);
+        }
+
+        if (maxWaitTime < 0) {
+            throw new IllegalArgumentException("maxWaitTime should be >= 0, but was " + maxWaitTime);
+        }
+
+        this.internal = internal;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = timeUnit.toNanos(maxWaitTime);
+    }
+
+    /**
+     * Submits write and blocks until it will be committed
+     * <p/>
+     * Should not be called from thread which holds transaction, because writer thread
+     * will wait for that transaction to finish
+     *
+     * @param write    write to execute
+     * @param <Result> type of result of the write
+     * @return result of committed write
+     * @throws IllegalStateException if coordinator is closed or its writer thread was stopped by unexpected error
+     */
+    @NonNull
+    public <Result> Result submit(@NonNull Write<Result> write) {
+        return submit(new PendingWrite<>(write));
+    }
+
+    /**
+     * Submits write, blocks until it will be committed and records its metrics:
+     * time in the queue and waiting for the connection is recorded as wait time,
+     * execution of the batch as SQL time, see {@link #submit(Write)}
+     *
+     * @param write    write to execute
+     * @param metrics  recorder of metrics of the operation
+     * @param since    mark of submit, see {@link MetricsRecorder#mark()}
+     * @param <Result> type of result of the write
+     * @return result of committed write
+     * @throws IllegalStateException if coordinator is closed or its writer thread was stopped by unexpected error
+     */
+    @NonNull
+    public <Result> Result submit(@NonNull Write<Result> write, @NonNull MetricsRecorder metrics, long since) {
+        final PendingWrite<Result> pendingWrite = new PendingWrite<>(write);
+        final Result result = submit(pendingWrite);
+
+        final long batchStart = pendingWrite.batchStartNanos;
+
+        if (metrics.isEnabled() && batchStart != 0) {
+            metrics.sql(metrics.waited(since, batchStart));
+        } else {
+            metrics.sql(since);
+        }
+
+        return result;
+    }
+
+    @NonNull
+    private <Result> Result submit(@NonNull PendingWrite<Result> pendingWrite) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("WriteCoordinator is closed");
+            }
+
+            if (failure != null) {
+                throw new IllegalStateException("Writer thread of WriteCoordinator was stopped by error", failure);
+            }
+
+            if (writerThread == null) {
+                writerThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        writeLoop();
+                    }
+                }, "StorIOSQLiteDb-writer");
+
+                writerThread.setDaemon(true);
+                writerThread.start();
+            }
+
+            queue.add(pendingWrite);
+        }
+
+        return pendingWrite.await();
+    }
+
+    /**
+     * Executes already submitted writes and stops writer thread,
+     * {@link #submit(Write)} will throw {@link IllegalStateException} after close
+     */
+    public void close() {
+        final Thread thread;
+
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            thread = writerThread;
+            queue.add(PendingWrite.CLOSE);
+        }
+
+        if (thread != null && thread != Thread.currentThread()) {
+            boolean interrupted = false;
+
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        final List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+
+        try {
+            writeLoop(batch);
+        } catch (Throwable throwable) {
+            // unexpected, writes can not be executed anymore, so callers should not wait for them
+            synchronized (lock) {
+                failure = throwable;
+            }
+
+            for (PendingWrite<?> pendingWrite : batch) {
+                pendingWrite.complete(throwable);
+            }
+
+            // no writes can be added after failure was set
+            PendingWrite<?> pendingWrite;
+
+            while ((pendingWrite = queue.poll()) != null) {
+                pendingWrite.complete(throwable);
+            }
+
+            internal.getLoggi().e("Writer thread of WriteCoordinator was stopped by error", throwable);
+        }
+    }
+
+    private void writeLoop(@NonNull List<PendingWrite<?>> batch) {
+        boolean close = false;
+
+        while (!close) {
+            try {
+                batch.add(queue.take());
+
+                final long deadline = System.nanoTime() + maxWaitNanos;
+
+                while (batch.size() < maxBatchSize) {
+                    final long waitNanos = deadline - System.nanoTime();
+
+                    final PendingWrite<?> next = waitNanos > 0
+                            ? queue.poll(waitNanos, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // writer thread is not interrupted by WriteCoordinator, executing what was received
+            }
+
+            if (batch.remove(PendingWrite.CLOSE)) {
+                close = true;
+            }
+
+            if (!batch.isEmpty()) {
+                executeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void executeBatch(@NonNull List<PendingWrite<?>> batch) {
+        final List<Changes> changes = new ArrayList<>(batch.size());
+        Throwable error = null;
+        boolean transactionSuccessful = false;
+
+        try {
+            internal.beginTransaction();
+
+            // time before this point is waiting in the queue and for the connection
+            final long batchStart = System.nanoTime();
+
+            for (PendingWrite<?> pendingWrite : batch) {
+                pendingWrite.batchStartNanos = batchStart;
+            }
+
+            try {
+                for (PendingWrite<?> pendingWrite : batch) {
+                    changes.add(pendingWrite.perform());
+                }
+
+                internal.setTransactionSuccessful();
+                transactionSuccessful = true;
+            } finally {
+                internal.endTransaction();
+            }
+        } catch (Throwable throwable) {
+            transactionSuccessful = false;
+            error = throwable;
+        }
+
+        if (transactionSuccessful) {
+            try {
+                internal.notifyAboutChanges(Changes.merge(changes));
+            } catch (Throwable throwable) {
+                // writes were committed, error of subscriber should not stop writer thread
+                internal.getLoggi().e("Can not notify about changes", throwable);
+            } finally {
+                for (PendingWrite<?> pendingWrite : batch) {
+                    pendingWrite.complete(null);
+                }
+            }
+        } else if (batch.size() == 1) {
+            batch.get(0).complete(error);
+        } else {
+            // one of writes failed, executing each write in separate transaction
+            for (PendingWrite<?> pendingWrite : batch) {
+                executeBatch(Collections.<PendingWrite<?>>singletonList(pendingWrite));
+            }
+        }
+    }
+
+    private static class PendingWrite<Result> {
+
+        /**
+         * Marker which stops writer thread
+         */
+        static final PendingWrite<Object> CLOSE = new PendingWrite<>(null);
+
+        @Nullable
+        private final Write<Result> write;
+
+        @NonNull
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Nullable
+        private Result result;
+
+        @Nullable
+        private Throwable error;
+
+        /**
+         * Time when transaction of the batch was started, 0 if write was not executed,
+         * written by writer thread before completion, so it's visible after {@link #await()}
+         */
+        long batchStartNanos;
+
+        PendingWrite(@Nullable Write<Result> write) {
+            this.write = write;
+        }
+
+        @SuppressWarnings("ConstantConditions")
+        @NonNull
+        Changes perform() {
+            result = write.perform();
+            return write.changes(result);
+        }
+
+        /**
+         * Completes the write, only first call has effect
+         *
+         * @param error error of the write or null if it was committed
+         */
+        void complete(@Nullable Throwable error) {
+            synchronized (latch) {
+                if (latch.getCount() == 0) {
+                    return;
+                }
+
+                this.error = error;
+                latch.countDown();
+            }
+        }
+
+        @SuppressWarnings("ConstantConditions")
+        @NonNull
+        Result await() {
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // write can not be cancelled after submit, waiting for its result
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else if (error != null) {
+                throw new RuntimeException(error);
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.observers.SerializedSubscriber;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Bus of {@link Changes} with index "table -> subscribers", thread-safe
+ * <p/>
+ * Notification is delivered only to subscribers of affected tables, so its cost
+ * does not depend on number of subscribers of other tables.
+ * Subscribe and unsubscribe are O(number of observed tables) operations on concurrent maps,
+ * they are serialized by lock, so table without subscribers is removed from the index without races,
+ * notification does not take the lock.
+ * <p/>
+ * Requires RxJava.
+ */
+class ChangesBus {
+
+    /**
+     * Table -> set of subscribers (map with dummy values because Collections.newSetFromMap() is API 9+)
+     */
+    @NonNull
+    private final ConcurrentMap<String, ConcurrentMap<Subscriber<? super Changes>, Boolean>> subscribersByTable
+            = new ConcurrentHashMap<>();
+
+    /**
+     * Notifies subscribers of affected tables, each subscriber receives changes only once
+     *
+     * @param changes changes
+     */
+    void onNext(@NonNull Changes changes) {
+        final Set<String> affectedTables = changes.affectedTables;
+
+        if (affectedTables.size() == 1) {
+            // fast path without allocations for most common case
+            final Map<Subscriber<? super Changes>, Boolean> subscribers
+                    = subscribersByTable.get(affectedTables.iterator().next());
+
+            if (subscribers != null) {
+                for (Subscriber<? super Changes> subscriber : subscribers.keySet()) {
+                    if (!subscriber.isUnsubscribed()) {
+                        subscriber.onNext(changes);
+                    }
+                }
+            }
+
+            return;
+        }
+
+        // subscriber can observe several affected tables
+        final Set<Subscriber<? super Changes>> notified = new HashSet<>();
+
+        for (String affectedTable : affectedTables) {
+            final Map<Subscriber<? super Changes>, Boolean> subscribers = subscribersByTable.get(affectedTable);
+
+            if (subscribers != null) {
+                for (Subscriber<? super Changes> subscriber : subscribers.keySet()) {
+                    if (notified.add(subscriber) && !subscriber.isUnsubscribed()) {
+                        subscriber.onNext(changes);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates {@link Observable} of changes in tables
+     *
+     * @param tables tables to observe
+     * @return {@link Observable} which emits {@link Changes} which affect at least one of the tables
+     */
+    @NonNull
+    Observable<Changes> observeChangesInTables(@NonNull Set<String> tables) {
+        // copy guarantees that unsubscribe removes subscriber from same tables
+        final Set<String> observedTables = new HashSet<>(tables);
+
+        return Observable.create(new Observable.OnSubscribe<Changes>() {
+            @Override
+            public void call(Subscriber<? super Changes> subscriber) {
+                // changes can be delivered from different threads
+                final Subscriber<Changes> serializedSubscriber = new SerializedSubscriber<>(subscriber);
+
+                synchronized (subscribersByTable) {
+                    for (String table : observedTables) {
+                        subscribersOf(table).put(serializedSubscriber, Boolean.TRUE);
+                    }
+                }
+
+                subscriber.add(Subscriptions.create(new Action0() {
+                    @Override
+                    public void call() {
+                        synchronized (subscribersByTable) {
+                            for (String table : observedTables) {
+                                final Map<Subscriber<? super Changes>, Boolean> subscribers = subscribersByTable.get(table);
+
+                                if (subscribers != null) {
+                                    subscribers.remove(serializedSubscriber);
+
+                                    // otherwise each table which was observed once would keep its map forever
+                                    if (subscribers.isEmpty()) {
+                                        subscribersByTable.remove(table);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Gets subscribers of the table, should be called under lock of {@link #subscribersByTable}
+     */
+    @NonNull
+    private ConcurrentMap<Subscriber<? super Changes>, Boolean> subscribersOf(@NonNull String table) {
+        ConcurrentMap<Subscriber<? super Changes>, Boolean> subscribers = subscribersByTable.get(table);
+
+        if (subscribers == null) {
+            subscribers = new ConcurrentHashMap<>();
+            subscribersByTable.put(table, subscribers);
+        }
+
+        return subscribers;
+    }
+
+    /**
+     * Gets number of tables which have subscribers
+     *
+     * @return number of observed tables
+     */
+    int observedTablesCount() {
+        return subscribersByTable.size();
+    }
+}
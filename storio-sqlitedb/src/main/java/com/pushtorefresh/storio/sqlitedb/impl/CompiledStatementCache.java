@@ -0,0 +1,291 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.content.ContentValues;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled INSERT/UPDATE {@link SQLiteStatement}s, thread-safe
+ * <p/>
+ * Statements are keyed by their SQL, which is fully determined by the table
+ * and the sorted set of columns from {@link ContentValues} (plus where clause for updates),
+ * so rows with same "shape" reuse one {@link SQLiteStatement} object.
+ * <p/>
+ * It does not save compilation of SQL: on API 16+ {@link SQLiteDatabase#insert(String, String, ContentValues)}
+ * and {@link SQLiteDatabase#update(String, ContentValues, String, String[])} already reuse compiled statement
+ * from statement cache of the connection. What is saved is creation of new {@link SQLiteStatement} for each row,
+ * SQL string, sorted columns and bind arguments are still built for each row.
+ * <p/>
+ * {@link SQLiteStatement} is not thread-safe, so statement is taken out of the cache while in use
+ * and returned back after execution, concurrent users of same SQL will compile their own statement.
+ */
+class CompiledStatementCache {
+
+    /**
+     * INSERT verbs for {@code SQLiteDatabase.CONFLICT_*} constants, index is value of constant
+     */
+    private static final String[] INSERT_VERBS = {
+            "INSERT INTO ",
+            "INSERT OR ROLLBACK INTO ",
+            "INSERT OR ABORT INTO ",
+            "INSERT OR FAIL INTO ",
+            "INSERT OR IGNORE INTO ",
+            "INSERT OR REPLACE INTO "
+    };
+
+    @NonNull
+    private final SQLiteDatabase db;
+
+    private final int maxSize;
+
+    @NonNull
+    private final LinkedHashMap<String, SQLiteStatement> statements;
+
+    /**
+     * Incremented on each {@link #clear()}, statements compiled before clear won't be returned to the cache
+     */
+    private int generation;
+
+    CompiledStatementCache(@NonNull SQLiteDatabase db, final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be > 0, but was " + maxSize);
+        }
+
+        this.db = db;
+        this.maxSize = maxSize;
+
+        // access-ordered LinkedHashMap works as LRU
+        statements = new LinkedHashMap<String, SQLiteStatement>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                if (size() > CompiledStatementCache.this.maxSize) {
+                    eldest.getValue().close();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Inserts a row via cached compiled statement
+     * <p/>
+     * Conflict algorithm is part of SQL, so statements with different algorithms are cached separately
+     *
+     * @param table             table name
+     * @param conflictAlgorithm one of {@code SQLiteDatabase.CONFLICT_*} constants
+     * @param contentValues     non-empty values of the row
+     * @return id of inserted row or -1 if row was not inserted because of {@link SQLiteDatabase#CONFLICT_IGNORE}
+     */
+    long insert(@NonNull String table, int conflictAlgorithm, @NonNull ContentValues contentValues) {
+        final List<Map.Entry<String, Object>> values = sortedValues(contentValues);
+
+        final StringBuilder sql = new StringBuilder(32 + values.size() * 16)
+                .append(insertVerb(conflictAlgorithm))
+                .append(table)
+                .append(" (");
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(values.get(i).getKey());
+        }
+
+        sql.append(") VALUES (");
+
+        for (int i = 0; i < values.size(); i++) {
+            sql.append(i > 0 ? ",?" : "?");
+        }
+
+        sql.append(')');
+
+        final Object[] bindArgs = new Object[values.size()];
+
+        for (int i = 0; i < bindArgs.length; i++) {
+            bindArgs[i] = values.get(i).getValue();
+        }
+
+        return executeInsert(sql.toString(), bindArgs);
+    }
+
+    /**
+     * Gets beginning of INSERT statement for conflict algorithm, e.g. "INSERT OR REPLACE INTO "
+     *
+     * @param conflictAlgorithm one of {@code SQLiteDatabase.CONFLICT_*} constants
+     * @return beginning of INSERT statement followed by table name
+     */
+    @NonNull
+    static String insertVerb(int conflictAlgorithm) {
+        return INSERT_VERBS[conflictAlgorithm];
+    }
+
+    /**
+     * Executes INSERT statement via cached compiled statement
+     *
+     * @param sql      INSERT statement
+     * @param bindArgs arguments for the statement
+     * @return id of last inserted row or -1 if nothing was inserted
+     */
+    long executeInsert(@NonNull String sql, @NonNull Object[] bindArgs) {
+        final Entry entry = acquire(sql);
+
+        try {
+            for (int i = 0; i < bindArgs.length; i++) {
+                DatabaseUtils.bindObjectToProgram(entry.statement, i + 1, bindArgs[i]);
+            }
+
+            return entry.statement.executeInsert();
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * Updates rows via cached compiled statement
+     * <p/>
+     * Requires API 11+ because of {@link SQLiteStatement#executeUpdateDelete()}
+     *
+     * @param table         table name
+     * @param contentValues non-empty new values
+     * @param where         optional where clause
+     * @param whereArgs     optional arguments for where clause
+     * @return number of updated rows
+     */
+    int update(@NonNull String table, @NonNull ContentValues contentValues,
+               @Nullable String where, @Nullable List<String> whereArgs) {
+
+        final List<Map.Entry<String, Object>> values = sortedValues(contentValues);
+
+        final StringBuilder sql = new StringBuilder(32 + values.size() * 16)
+                .append("UPDATE ")
+                .append(table)
+                .append(" SET ");
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(values.get(i).getKey()).append("=?");
+        }
+
+        if (where != null && where.length() > 0) {
+            sql.append(" WHERE ").append(where);
+        }
+
+        final Entry entry = acquire(sql.toString());
+
+        try {
+            final Iterator<Map.Entry<String, Object>> iterator = values.iterator();
+
+            for (int i = 1; iterator.hasNext(); i++) {
+                DatabaseUtils.bindObjectToProgram(entry.statement, i, iterator.next().getValue());
+            }
+
+            if (whereArgs != null) {
+                for (int i = 0; i < whereArgs.size(); i++) {
+                    entry.statement.bindString(values.size() + i + 1, whereArgs.get(i));
+                }
+            }
+
+            return entry.statement.executeUpdateDelete();
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * Closes and drops all cached statements, should be called on schema change and on close of the db
+     */
+    synchronized void clear() {
+        generation++;
+
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+
+        statements.clear();
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    @NonNull
+    private Entry acquire(@NonNull String sql) {
+        final int currentGeneration;
+
+        synchronized (this) {
+            currentGeneration = generation;
+            final SQLiteStatement cached = statements.remove(sql);
+
+            if (cached != null) {
+                return new Entry(sql, cached, currentGeneration);
+            }
+        }
+
+        // compiling outside of the lock, it can take some time
+        return new Entry(sql, db.compileStatement(sql), currentGeneration);
+    }
+
+    private void release(@NonNull Entry entry) {
+        entry.statement.clearBindings();
+
+        synchronized (this) {
+            if (entry.generation == generation && !statements.containsKey(entry.sql)) {
+                statements.put(entry.sql, entry.statement);
+                return;
+            }
+        }
+
+        // cache was cleared or same statement was returned by other thread
+        entry.statement.close();
+    }
+
+    @NonNull
+    private static List<Map.Entry<String, Object>> sortedValues(@NonNull ContentValues contentValues) {
+        // ContentValues.keySet() is API 11+, valueSet() is available everywhere
+        final List<Map.Entry<String, Object>> values = new ArrayList<>(contentValues.valueSet());
+
+        Collections.sort(values, ENTRY_BY_KEY_COMPARATOR);
+
+        return values;
+    }
+
+    private static final Comparator<Map.Entry<String, Object>> ENTRY_BY_KEY_COMPARATOR
+            = new Comparator<Map.Entry<String, Object>>() {
+        @Override
+        public int compare(Map.Entry<String, Object> lhs, Map.Entry<String, Object> rhs) {
+            return lhs.getKey().compareTo(rhs.getKey());
+        }
+    };
+
+    private static class Entry {
+
+        @NonNull
+        final String sql;
+
+        @NonNull
+        final SQLiteStatement statement;
+
+        final int generation;
+
+        Entry(@NonNull String sql, @NonNull SQLiteStatement statement, int generation) {
+            this.sql = sql;
+            this.statement = statement;
+            this.generation = generation;
+        }
+    }
+}
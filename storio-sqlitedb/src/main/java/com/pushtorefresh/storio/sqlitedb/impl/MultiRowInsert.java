@@ -0,0 +1,353 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inserts rows via multi-row <code>INSERT INTO table (a,b) VALUES (?,?),(?,?)...</code> statements
+ * <p/>
+ * Consecutive rows with same set of columns are inserted by one statement,
+ * statements are chunked to stay under SQLite limits of bound variables and compound select terms.
+ * <p/>
+ * Multi-row VALUES syntax requires SQLite 3.7.11+ which is shipped with API 16+.
+ * <p/>
+ * Ids of inserted rows are computed from <code>last_insert_rowid()</code> of each statement:
+ * SQLite assigns rowids of rows inserted by one statement sequentially, so it works for rows
+ * which do not specify rowid. Rows which specify rowid are inserted one by one.
+ * Rows of <code>WITHOUT ROWID</code> tables are inserted one by one too, like without bulk insert: such tables
+ * do not update <code>last_insert_rowid()</code>, so ids can not be computed for statement with several rows.
+ * <p/>
+ * With conflict algorithm other than {@link SQLiteDatabase#CONFLICT_NONE} all rows are inserted one by one:
+ * ignored rows and rows which replace existing rows break sequence of rowids assigned by one statement.
+ */
+class MultiRowInsert {
+
+    /**
+     * Default value of SQLITE_MAX_COMPOUND_SELECT, multi-row VALUES are compound select in old versions of SQLite
+     */
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    /**
+     * Value for tables without rowid alias (INTEGER PRIMARY KEY) column
+     */
+    private static final String NO_ROW_ID_ALIAS = "";
+
+    @NonNull
+    private static final Pattern WITHOUT_ROWID = Pattern.compile("\\bWITHOUT\\s+ROWID\\b", Pattern.CASE_INSENSITIVE);
+
+    @NonNull
+    private final SQLiteDatabase db;
+
+    @Nullable
+    private final CompiledStatementCache compiledStatementCache;
+
+    /**
+     * Table -> name of INTEGER PRIMARY KEY column or {@link #NO_ROW_ID_ALIAS}
+     */
+    @NonNull
+    private final Map<String, String> rowIdAliases = new ConcurrentHashMap<>();
+
+    /**
+     * Table -> true if it is <code>WITHOUT ROWID</code> table
+     */
+    @NonNull
+    private final Map<String, Boolean> withoutRowIdTables = new ConcurrentHashMap<>();
+
+    MultiRowInsert(@NonNull SQLiteDatabase db, @Nullable CompiledStatementCache compiledStatementCache) {
+        this.db = db;
+        this.compiledStatementCache = compiledStatementCache;
+    }
+
+    /**
+     * Inserts rows into the table
+     *
+     * @param table             table name
+     * @param nullColumnHack    nullColumnHack for rows with empty {@link ContentValues}
+     * @param conflictAlgorithm one of {@code SQLiteDatabase.CONFLICT_*} constants
+     * @param contentValuesList rows to insert
+     * @return ids of inserted rows in the same order as rows in contentValuesList, -1 for ignored rows
+     */
+    @NonNull
+    long[] insertAll(@NonNull String table, @Nullable String nullColumnHack, int conflictAlgorithm,
+                     @NonNull List<ContentValues> contentValuesList) {
+        final int size = contentValuesList.size();
+        final long[] insertedIds = new long[size];
+
+        if (conflictAlgorithm != SQLiteDatabase.CONFLICT_NONE || isWithoutRowId(table)) {
+            for (int i = 0; i < size; i++) {
+                insertedIds[i] = insertRow(table, nullColumnHack, conflictAlgorithm, contentValuesList.get(i));
+            }
+
+            return insertedIds;
+        }
+
+        int runStart = 0;
+
+        while (runStart < size) {
+            final ContentValues first = contentValuesList.get(runStart);
+            final String[] columns = sortedColumns(first);
+
+            if (columns.length == 0 || specifiesRowId(table, first)) {
+                insertedIds[runStart] = db.insertOrThrow(table, nullColumnHack, first);
+                runStart++;
+                continue;
+            }
+
+            int runEnd = runStart + 1;
+
+            while (runEnd < size
+                    && !specifiesRowId(table, contentValuesList.get(runEnd))
+                    && hasColumns(contentValuesList.get(runEnd), columns)) {
+                runEnd++;
+            }
+
+            final int rowsPerStatement = Math.max(1, Math.min(MAX_ROWS_PER_STATEMENT, StorIOSQLiteDb.MAX_VARIABLE_NUMBER / columns.length));
+
+            for (int chunkStart = runStart; chunkStart < runEnd; chunkStart += rowsPerStatement) {
+                final int chunkEnd = Math.min(chunkStart + rowsPerStatement, runEnd);
+                final long lastInsertedId = insertChunk(table, columns, contentValuesList, chunkStart, chunkEnd);
+
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    insertedIds[i] = lastInsertedId - (chunkEnd - 1 - i);
+                }
+            }
+
+            runStart = runEnd;
+        }
+
+        return insertedIds;
+    }
+
+    /**
+     * Drops information about schema of tables, should be called on schema change
+     */
+    void clear() {
+        rowIdAliases.clear();
+        withoutRowIdTables.clear();
+    }
+
+    private long insertRow(@NonNull String table, @Nullable String nullColumnHack, int conflictAlgorithm,
+                           @NonNull ContentValues contentValues) {
+        // empty ContentValues require nullColumnHack, so they are handled by SQLiteDatabase
+        if (compiledStatementCache != null && contentValues.size() > 0) {
+            return compiledStatementCache.insert(table, conflictAlgorithm, contentValues);
+        }
+
+        return db.insertWithOnConflict(table, nullColumnHack, contentValues, conflictAlgorithm);
+    }
+
+    private long insertChunk(@NonNull String table, @NonNull String[] columns,
+                             @NonNull List<ContentValues> contentValuesList, int from, int to) {
+
+        final int rows = to - from;
+        final StringBuilder sql = new StringBuilder(32 + columns.length * 16 + rows * columns.length * 2)
+                .append("INSERT INTO ")
+                .append(table)
+                .append(" (");
+
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(columns[i]);
+        }
+
+        sql.append(") VALUES ");
+
+        final Object[] bindArgs = new Object[rows * columns.length];
+
+        for (int row = 0; row < rows; row++) {
+            final ContentValues contentValues = contentValuesList.get(from + row);
+
+            sql.append(row > 0 ? ",(" : "(");
+
+            for (int column = 0; column < columns.length; column++) {
+                sql.append(column > 0 ? ",?" : "?");
+                bindArgs[row * columns.length + column] = contentValues.get(columns[column]);
+            }
+
+            sql.append(')');
+        }
+
+        if (compiledStatementCache != null) {
+            return compiledStatementCache.executeInsert(sql.toString(), bindArgs);
+        }
+
+        final SQLiteStatement statement = db.compileStatement(sql.toString());
+
+        try {
+            for (int i = 0; i < bindArgs.length; i++) {
+                DatabaseUtils.bindObjectToProgram(statement, i + 1, bindArgs[i]);
+            }
+
+            return statement.executeInsert();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private boolean specifiesRowId(@NonNull String table, @NonNull ContentValues contentValues) {
+        String rowIdAlias = rowIdAliases.get(table);
+
+        if (rowIdAlias == null) {
+            rowIdAlias = findRowIdAlias(table);
+            rowIdAliases.put(table, rowIdAlias);
+        }
+
+        for (Map.Entry<String, Object> entry : contentValues.valueSet()) {
+            if (entry.getValue() != null) {
+                final String column = entry.getKey();
+
+                if ("rowid".equalsIgnoreCase(column)
+                        || "_rowid_".equalsIgnoreCase(column)
+                        || "oid".equalsIgnoreCase(column)
+                        || rowIdAlias.equalsIgnoreCase(column)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isWithoutRowId(@NonNull String table) {
+        Boolean withoutRowId = withoutRowIdTables.get(table);
+
+        if (withoutRowId == null) {
+            withoutRowId = findWithoutRowId(table);
+            withoutRowIdTables.put(table, withoutRowId);
+        }
+
+        return withoutRowId;
+    }
+
+    @NonNull
+    private Boolean findWithoutRowId(@NonNull String table) {
+        final Cursor cursor = db.rawQuery(
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ? COLLATE NOCASE",
+                new String[]{unquoted(table)}
+        );
+
+        try {
+            final String sql = cursor.moveToFirst() ? cursor.getString(0) : null;
+
+            // table options follow closing parenthesis of column definitions
+            return sql != null && WITHOUT_ROWID.matcher(sql.substring(sql.lastIndexOf(')') + 1)).find();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @NonNull
+    private String findRowIdAlias(@NonNull String table) {
+        final Cursor cursor = db.rawQuery("PRAGMA table_info(" + quoted(table) + ")", null);
+
+        try {
+            final int nameIndex = cursor.getColumnIndexOrThrow("name");
+            final int typeIndex = cursor.getColumnIndexOrThrow("type");
+            final int pkIndex = cursor.getColumnIndexOrThrow("pk");
+
+            String rowIdAlias = NO_ROW_ID_ALIAS;
+            int primaryKeyColumns = 0;
+
+            while (cursor.moveToNext()) {
+                if (cursor.getInt(pkIndex) > 0) {
+                    primaryKeyColumns++;
+
+                    if ("INTEGER".equalsIgnoreCase(cursor.getString(typeIndex))) {
+                        rowIdAlias = cursor.getString(nameIndex);
+                    }
+                }
+            }
+
+            // only single-column INTEGER PRIMARY KEY is an alias for rowid
+            return primaryKeyColumns == 1 ? rowIdAlias : NO_ROW_ID_ALIAS;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Quotes table name as SQL identifier, names which are already quoted are not changed
+     */
+    @NonNull
+    static String quoted(@NonNull String table) {
+        return isQuoted(table)
+                ? table
+                : '"' + table.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Removes quotes of SQL identifier, if any
+     */
+    @NonNull
+    static String unquoted(@NonNull String table) {
+        if (!isQuoted(table)) {
+            return table;
+        }
+
+        final char quote = table.charAt(0);
+        final String name = table.substring(1, table.length() - 1);
+
+        // closing "]" is not escaped, other quotes are escaped by doubling
+        return quote == '['
+                ? name
+                : name.replace(String.valueOf(quote) + quote, String.valueOf(quote));
+    }
+
+    private static boolean isQuoted(@NonNull String table) {
+        if (table.length() < 2) {
+            return false;
+        }
+
+        final char first = table.charAt(0);
+        final char last = table.charAt(table.length() - 1);
+
+        return (first == '"' && last == '"')
+                || (first == '`' && last == '`')
+                || (first == '[' && last == ']');
+    }
+
+    private static boolean hasColumns(@NonNull ContentValues contentValues, @NonNull String[] columns) {
+        if (contentValues.size() != columns.length) {
+            return false;
+        }
+
+        for (String column : columns) {
+            if (!contentValues.containsKey(column)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @NonNull
+    private static String[] sortedColumns(@NonNull ContentValues contentValues) {
+        // ContentValues.keySet() is API 11+, valueSet() is available everywhere
+        final String[] columns = new String[contentValues.size()];
+
+        int i = 0;
+
+        for (Map.Entry<String, Object> entry : contentValues.valueSet()) {
+            columns[i++] = entry.getKey();
+        }
+
+        Arrays.sort(columns);
+
+        return columns;
+    }
+}
@@ -0,0 +1,126 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Immutable record of query which took longer than threshold of {@link SlowQueryLog}
+ */
+public final class SlowQuery {
+
+    @NonNull
+    private final String sql;
+
+    @NonNull
+    private final List<String> args;
+
+    private final long durationNanos;
+
+    private final int rowCount;
+
+    @Nullable
+    private final List<String> queryPlan;
+
+    private final long timestamp;
+
+    SlowQuery(@NonNull String sql, @NonNull List<String> args, long durationNanos, int rowCount,
+              @Nullable List<String> queryPlan, long timestamp) {
+        this.sql = sql;
+        this.args = args;
+        this.durationNanos = durationNanos;
+        this.rowCount = rowCount;
+        this.queryPlan = queryPlan;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets SQL of query
+     *
+     * @return SQL of query
+     */
+    @NonNull
+    public String sql() {
+        return sql;
+    }
+
+    /**
+     * Gets bind arguments of query
+     *
+     * @return immutable list of arguments, each of them is replaced with {@link SlowQueryLog#REDACTED_ARG}
+     * if log redacts arguments
+     */
+    @NonNull
+    public List<String> args() {
+        return args;
+    }
+
+    /**
+     * Gets duration of execution of query, including filling of first window of Cursor
+     *
+     * @return duration in nanoseconds
+     */
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Gets number of rows returned by query
+     *
+     * @return number of rows
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets result of "EXPLAIN QUERY PLAN" for the query: "detail" column of each row
+     *
+     * @return immutable list of steps of query plan, empty if "EXPLAIN QUERY PLAN" failed,
+     * null if capturing of query plans is disabled
+     */
+    @Nullable
+    public List<String> queryPlan() {
+        return queryPlan;
+    }
+
+    /**
+     * Checks if query plan contains full scan of a table, usually it means that required index is missing
+     *
+     * @return true if query plan has full table scan, false otherwise or if query plan was not captured
+     */
+    public boolean hasFullTableScan() {
+        if (queryPlan != null) {
+            for (String step : queryPlan) {
+                if (SlowQueryLog.isFullTableScan(step)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets time when query was recorded
+     *
+     * @return time in milliseconds, see {@link System#currentTimeMillis()}
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowQuery{" +
+                "sql='" + sql + '\'' +
+                ", args=" + args +
+                ", durationNanos=" + durationNanos +
+                ", rowCount=" + rowCount +
+                ", queryPlan=" + queryPlan +
+                ", hasFullTableScan=" + hasFullTableScan() +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,323 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log of queries which took longer than threshold, see {@link StorIOSQLiteDbImpl.Builder#slowQueryLog(SlowQueryLog)}
+ * <p/>
+ * Each slow query is recorded with SQL, bind arguments (optionally redacted), duration and number of rows.
+ * For each distinct SQL "EXPLAIN QUERY PLAN" is executed once, so records show if query scans whole table.
+ * <p/>
+ * Last records are kept in bounded in-memory ring, see {@link #records()},
+ * and passed to {@link SlowQuerySink} if it was set.
+ * <p/>
+ * Usage:
+ * <pre>
+ * SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+ *         .threshold(50, TimeUnit.MILLISECONDS)
+ *         .redactArgs()
+ *         .build();
+ *
+ * StorIOSQLiteDb storIOSQLiteDb = new StorIOSQLiteDbImpl.Builder()
+ *         .db(db)
+ *         .slowQueryLog(slowQueryLog)
+ *         .build();
+ * </pre>
+ */
+public class SlowQueryLog {
+
+    /**
+     * Default number of records kept in memory
+     */
+    public static final int DEFAULT_CAPACITY = 50;
+
+    /**
+     * Default threshold of slow query in milliseconds
+     */
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+
+    /**
+     * Replacement of bind arguments if log redacts them
+     */
+    @NonNull
+    public static final String REDACTED_ARG = "<redacted>";
+
+    /**
+     * Max number of distinct SQL whose query plans are remembered, least recently used are forgotten
+     */
+    static final int MAX_QUERY_PLANS = 128;
+
+    private final long thresholdNanos;
+
+    private final boolean redactArgs;
+
+    private final boolean explainQueryPlan;
+
+    @Nullable
+    private final SlowQuerySink sink;
+
+    // ring of records, guarded by itself
+    @NonNull
+    private final SlowQuery[] ring;
+
+    private int nextIndex;
+
+    private int size;
+
+    // SQL -> query plan, guarded by itself
+    @NonNull
+    private final Map<String, List<String>> queryPlans = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_QUERY_PLANS;
+        }
+    };
+
+    protected SlowQueryLog(@NonNull Builder builder) {
+        thresholdNanos = builder.thresholdNanos;
+        redactArgs = builder.redactArgs;
+        explainQueryPlan = builder.explainQueryPlan;
+        sink = builder.sink;
+        ring = new SlowQuery[builder.capacity];
+    }
+
+    /**
+     * Checks if query with passed duration should be recorded
+     *
+     * @param durationNanos duration of query
+     * @return true if query is slow
+     */
+    boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Checks if query plans of slow queries should be captured
+     *
+     * @return true if "EXPLAIN QUERY PLAN" should be executed for slow queries
+     */
+    boolean explainQueryPlan() {
+        return explainQueryPlan;
+    }
+
+    /**
+     * Gets captured query plan of SQL
+     *
+     * @param sql SQL of query
+     * @return query plan or null if it was not captured yet
+     */
+    @Nullable
+    List<String> queryPlan(@NonNull String sql) {
+        synchronized (queryPlans) {
+            return queryPlans.get(sql);
+        }
+    }
+
+    /**
+     * Remembers query plan of SQL, so "EXPLAIN QUERY PLAN" is executed once per distinct SQL
+     *
+     * @param sql       SQL of query
+     * @param queryPlan steps of query plan, empty if query plan could not be captured
+     * @return immutable query plan
+     */
+    @NonNull
+    List<String> putQueryPlan(@NonNull String sql, @NonNull List<String> queryPlan) {
+        final List<String> immutableQueryPlan = Collections.unmodifiableList(new ArrayList<>(queryPlan));
+
+        synchronized (queryPlans) {
+            queryPlans.put(sql, immutableQueryPlan);
+        }
+
+        return immutableQueryPlan;
+    }
+
+    /**
+     * Records slow query
+     *
+     * @param sql           SQL of query
+     * @param args          bind arguments of query
+     * @param durationNanos duration of query
+     * @param rowCount      number of rows returned by query
+     * @param queryPlan     query plan or null if it was not captured
+     * @return record of slow query
+     */
+    @NonNull
+    SlowQuery record(@NonNull String sql, @Nullable String[] args, long durationNanos, int rowCount, @Nullable List<String> queryPlan) {
+        final List<String> recordedArgs;
+
+        if (args == null || args.length == 0) {
+            recordedArgs = Collections.emptyList();
+        } else if (redactArgs) {
+            recordedArgs = Collections.nCopies(args.length, REDACTED_ARG);
+        } else {
+            recordedArgs = Collections.unmodifiableList(Arrays.asList(args.clone()));
+        }
+
+        final SlowQuery slowQuery = new SlowQuery(sql, recordedArgs, durationNanos, rowCount, queryPlan, System.currentTimeMillis());
+
+        synchronized (ring) {
+            ring[nextIndex] = slowQuery;
+            nextIndex = (nextIndex + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+
+        if (sink != null) {
+            sink.onSlowQuery(slowQuery);
+        }
+
+        return slowQuery;
+    }
+
+    /**
+     * Gets last recorded slow queries
+     *
+     * @return copy of records, oldest first, at most capacity of the log
+     */
+    @NonNull
+    public List<SlowQuery> records() {
+        synchronized (ring) {
+            final List<SlowQuery> records = new ArrayList<>(size);
+            final int firstIndex = (nextIndex - size + ring.length) % ring.length;
+
+            for (int i = 0; i < size; i++) {
+                records.add(ring[(firstIndex + i) % ring.length]);
+            }
+
+            return records;
+        }
+    }
+
+    /**
+     * Removes all records, captured query plans are kept
+     */
+    public void clear() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+            nextIndex = 0;
+            size = 0;
+        }
+    }
+
+    /**
+     * Checks if step of query plan is full scan of a table,
+     * for example "SCAN TABLE users" (old versions of SQLite) or "SCAN users",
+     * but not "SCAN TABLE users USING INDEX users_email"
+     *
+     * @param queryPlanStep "detail" column of "EXPLAIN QUERY PLAN"
+     * @return true if step scans whole table
+     */
+    static boolean isFullTableScan(@NonNull String queryPlanStep) {
+        final String step = queryPlanStep.trim().toUpperCase(Locale.US);
+
+        return step.startsWith("SCAN ")
+                && !step.startsWith("SCAN SUBQUERY")
+                && !step.startsWith("SCAN CONSTANT ROW")
+                && !step.contains(" USING ");
+    }
+
+    public static class Builder {
+
+        private long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD_MILLIS);
+
+        private int capacity = DEFAULT_CAPACITY;
+
+        private boolean redactArgs;
+
+        private boolean explainQueryPlan = true;
+
+        private SlowQuerySink sink;
+
+        /**
+         * Optional: Specifies min duration of query which should be recorded,
+         * duration includes execution of query and filling of first window of Cursor
+         * <p/>
+         * Default value is {@link #DEFAULT_THRESHOLD_MILLIS} milliseconds
+         *
+         * @param threshold min duration of slow query, 0 to record all queries
+         * @param timeUnit  time unit of threshold
+         * @return builder
+         */
+        @NonNull
+        public Builder threshold(long threshold, @NonNull TimeUnit timeUnit) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("threshold should be >= 0, but was " + threshold);
+            }
+
+            thresholdNanos = timeUnit.toNanos(threshold);
+            return this;
+        }
+
+        /**
+         * Optional: Specifies max number of records kept in memory, older records are dropped
+         * <p/>
+         * Default value is {@link #DEFAULT_CAPACITY}
+         *
+         * @param capacity max number of records
+         * @return builder
+         */
+        @NonNull
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity should be > 0, but was " + capacity);
+            }
+
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Optional: Replaces bind arguments of recorded queries with {@link #REDACTED_ARG},
+         * use it if arguments can contain personal data
+         * <p/>
+         * By default, arguments are recorded as is
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder redactArgs() {
+            redactArgs = true;
+            return this;
+        }
+
+        /**
+         * Optional: Disables capturing of query plans
+         * <p/>
+         * By default, "EXPLAIN QUERY PLAN" is executed once per distinct SQL of slow query
+         * on the thread which executed the query
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder dontExplainQueryPlan() {
+            explainQueryPlan = false;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies sink which will receive each recorded query
+         *
+         * @param sink sink of slow queries
+         * @return builder
+         */
+        @NonNull
+        public Builder sink(@NonNull SlowQuerySink sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        @NonNull
+        public SlowQueryLog build() {
+            return new SlowQueryLog(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Receives queries recorded by {@link SlowQueryLog}, for example to send them to analytics or to log them
+ * <p/>
+ * Called synchronously on the thread which executed the query, implementation should be fast and thread-safe
+ */
+public interface SlowQuerySink {
+
+    /**
+     * Called when query took longer than threshold of {@link SlowQueryLog}
+     *
+     * @param slowQuery recorded query
+     */
+    void onSlowQuery(@NonNull SlowQuery slowQuery);
+}
@@ -4,11 +4,15 @@ import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.os.Build;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.Transaction;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
 import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
 import com.pushtorefresh.storio.sqlitedb.query.InsertQuery;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
@@ -17,11 +21,16 @@ import com.pushtorefresh.storio.sqlitedb.query.UpdateQuery;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 import com.pushtorefresh.storio.util.QueryUtil;
 
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import rx.Observable;
-import rx.functions.Func1;
-import rx.subjects.PublishSubject;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
 
 /**
  * Implementation of {@link StorIOSQLiteDb} for {@link SQLiteDatabase}
@@ -42,15 +51,52 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
     @NonNull
     private final SQLiteDatabase db;
 
+    /**
+     * Optional cache of compiled INSERT/UPDATE statements, null if disabled
+     */
+    @Nullable
+    private final CompiledStatementCache compiledStatementCache;
+
+    @NonNull
+    private final MultiRowInsert multiRowInsert;
+
+    private final boolean writeAheadLoggingEnabled;
+
+    private final boolean rowLevelChangesEnabled;
+
+    /**
+     * Scheduler for Observables of operations, null if they should be executed on subscriber thread
+     */
+    @Nullable
+    private final Scheduler defaultScheduler;
+
+    /**
+     * Optional log of slow queries, null if disabled
+     */
+    @Nullable
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Optional group commit of writes from different threads, null if disabled
+     */
+    @Nullable
+    private final WriteCoordinator writeCoordinator;
+
     /**
      * Reactive bus for notifying observers about changes in StorIOSQLiteDb
      * One change can affect several tables, so we use {@link Changes} as representation of changes
      */
     @Nullable
-    private final PublishSubject<Changes> changesBus = EnvironmentUtil.IS_RX_JAVA_AVAILABLE
-            ? PublishSubject.<Changes>create()
+    private final ChangesBus changesBus = EnvironmentUtil.IS_RX_JAVA_AVAILABLE
+            ? new ChangesBus()
             : null;
 
+    /**
+     * State of {@link #runInTransaction(Transaction)} of current thread, null if thread is not in such transaction
+     */
+    @NonNull
+    private final ThreadLocal<TransactionState> transactionState = new ThreadLocal<>();
+
     /**
      * Implementation of {@link StorIOSQLiteDb.Internal}
      */
@@ -58,7 +104,44 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
     private final Internal internal = new InternalImpl();
 
     protected StorIOSQLiteDbImpl(@NonNull SQLiteDatabase db) {
-        this.db = db;
+        this(new Builder().db(db));
+    }
+
+    protected StorIOSQLiteDbImpl(@NonNull Builder builder) {
+        db = builder.db;
+
+        compiledStatementCache = builder.compiledStatementCacheSize > 0
+                ? new CompiledStatementCache(db, builder.compiledStatementCacheSize)
+                : null;
+
+        multiRowInsert = new MultiRowInsert(db, compiledStatementCache);
+
+        // SQLiteDatabase in WAL mode keeps pool of connections: one primary connection
+        // for writes and transactions and several reader connections for queries
+        // from threads without transaction, so queries don't wait for long write transactions
+        writeAheadLoggingEnabled = builder.enableWriteAheadLogging
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB
+                && db.enableWriteAheadLogging();
+
+        rowLevelChangesEnabled = builder.enableRowLevelChanges;
+
+        slowQueryLog = builder.slowQueryLog;
+
+        if (builder.defaultExecutor != null) {
+            internal.setExecutor(builder.defaultExecutor);
+        }
+
+        if (builder.defaultScheduler != null) {
+            defaultScheduler = builder.defaultScheduler;
+        } else if (builder.defaultExecutor != null && EnvironmentUtil.IS_RX_JAVA_AVAILABLE) {
+            defaultScheduler = Schedulers.from(builder.defaultExecutor);
+        } else {
+            defaultScheduler = null;
+        }
+
+        writeCoordinator = builder.writeCoordinatorMaxBatchSize > 0
+                ? new WriteCoordinator(internal, builder.writeCoordinatorMaxBatchSize, builder.writeCoordinatorMaxWaitNanos, TimeUnit.NANOSECONDS)
+                : null;
     }
 
     @Override
@@ -68,20 +151,7 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
             throw EnvironmentUtil.newRxJavaIsNotAvailableException("Observing changes in StorIOSQLiteDb");
         }
 
-        return changesBus
-                .filter(new Func1<Changes, Boolean>() {
-                    @Override
-                    public Boolean call(Changes changes) {
-                        // if one of changed tables found in tables for subscription -> notify observer
-                        for (String affectedTable : changes.affectedTables) {
-                            if (tables.contains(affectedTable)) {
-                                return true;
-                            }
-                        }
-
-                        return false;
-                    }
-                });
+        return changesBus.observeChangesInTables(tables);
     }
 
     @NonNull
@@ -90,49 +160,214 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
         return internal;
     }
 
+    /**
+     * Executes pending writes, drops cached compiled statements and closes underlying {@link SQLiteDatabase}
+     * <p/>
+     * Instance of {@link StorIOSQLiteDbImpl} can not be used after close
+     */
+    public void close() {
+        if (writeCoordinator != null) {
+            writeCoordinator.close();
+        }
+
+        if (compiledStatementCache != null) {
+            compiledStatementCache.clear();
+        }
+
+        db.close();
+    }
+
     protected class InternalImpl extends Internal {
 
         @Override
         public void execSql(@NonNull RawQuery rawQuery) {
             db.execSQL(rawQuery.query, QueryUtil.listToArray(rawQuery.args));
+
+            // execSql is used for statements that are NOT SELECT/INSERT/UPDATE/DELETE,
+            // so it can change the schema, compiled statements should be dropped
+            if (compiledStatementCache != null) {
+                compiledStatementCache.clear();
+            }
+
+            multiRowInsert.clear();
         }
 
         @NonNull
         @Override
         public Cursor rawQuery(@NonNull RawQuery rawQuery) {
-            return db.rawQuery(
-                    rawQuery.query,
-                    QueryUtil.listToArray(rawQuery.args)
-            );
+            final String[] args = QueryUtil.listToArray(rawQuery.args);
+
+            if (slowQueryLog == null) {
+                return db.rawQuery(rawQuery.query, args);
+            }
+
+            final long start = System.nanoTime();
+            final Cursor cursor = db.rawQuery(rawQuery.query, args);
+            final int rowCount = executeQuery(cursor);
+            final long durationNanos = System.nanoTime() - start;
+
+            if (slowQueryLog.isSlow(durationNanos)) {
+                recordSlowQuery(slowQueryLog, rawQuery.query, args, durationNanos, rowCount);
+            }
+
+            return cursor;
         }
 
         @NonNull
         @Override
         public Cursor query(@NonNull Query query) {
-            return db.query(
+            final String[] columns = QueryUtil.listToArray(query.columns);
+            final String[] whereArgs = QueryUtil.listToArray(query.whereArgs);
+
+            final long start = slowQueryLog != null ? System.nanoTime() : 0;
+
+            final Cursor cursor = db.query(
                     query.distinct,
                     query.table,
-                    QueryUtil.listToArray(query.columns),
+                    columns,
                     query.where,
-                    QueryUtil.listToArray(query.whereArgs),
+                    whereArgs,
                     query.groupBy,
                     query.having,
                     query.orderBy,
                     query.limit
             );
+
+            if (slowQueryLog != null) {
+                final int rowCount = executeQuery(cursor);
+                final long durationNanos = System.nanoTime() - start;
+
+                if (slowQueryLog.isSlow(durationNanos)) {
+                    final String sql = SQLiteQueryBuilder.buildQueryString(
+                            query.distinct,
+                            query.table,
+                            columns,
+                            query.where,
+                            query.groupBy,
+                            query.having,
+                            query.orderBy,
+                            query.limit
+                    );
+
+                    recordSlowQuery(slowQueryLog, sql, whereArgs, durationNanos, rowCount);
+                }
+            }
+
+            return cursor;
+        }
+
+        private int executeQuery(@NonNull Cursor cursor) {
+            try {
+                // query is executed lazily, getCount() executes it, counts all rows and fills first window of Cursor
+                return cursor.getCount();
+            } catch (RuntimeException e) {
+                // caller will not get the Cursor to close it
+                cursor.close();
+                throw e;
+            }
+        }
+
+        private void recordSlowQuery(@NonNull SlowQueryLog slowQueryLog, @NonNull String sql, @Nullable String[] args,
+                                     long durationNanos, int rowCount) {
+            List<String> queryPlan = null;
+
+            if (slowQueryLog.explainQueryPlan()) {
+                queryPlan = slowQueryLog.queryPlan(sql);
+
+                if (queryPlan == null) {
+                    // executed once per distinct SQL, concurrent first executions can explain it twice
+                    queryPlan = slowQueryLog.putQueryPlan(sql, explainQueryPlan(sql, args));
+                }
+            }
+
+            final SlowQuery slowQuery = slowQueryLog.record(sql, args, durationNanos, rowCount, queryPlan);
+
+            getLoggi().w("Slow query: " + slowQuery);
+        }
+
+        @NonNull
+        private List<String> explainQueryPlan(@NonNull String sql, @Nullable String[] args) {
+            final List<String> queryPlan = new ArrayList<>();
+
+            try {
+                final Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+
+                try {
+                    // "detail" is the last column in all versions of SQLite
+                    final int columnIndex = cursor.getColumnIndex("detail");
+                    final int detailColumnIndex = columnIndex >= 0 ? columnIndex : cursor.getColumnCount() - 1;
+
+                    while (cursor.moveToNext()) {
+                        queryPlan.add(cursor.getString(detailColumnIndex));
+                    }
+                } finally {
+                    cursor.close();
+                }
+            } catch (RuntimeException e) {
+                getLoggi().w("Can not explain query plan of " + sql, e);
+            }
+
+            return queryPlan;
         }
 
         @Override
         public long insert(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues) {
-            return db.insertOrThrow(
+            // empty ContentValues require nullColumnHack, so they are handled by SQLiteDatabase
+            if (compiledStatementCache != null && contentValues.size() > 0) {
+                return compiledStatementCache.insert(insertQuery.table, insertQuery.conflictAlgorithm, contentValues);
+            }
+
+            if (insertQuery.conflictAlgorithm == SQLiteDatabase.CONFLICT_NONE) {
+                return db.insertOrThrow(
+                        insertQuery.table,
+                        insertQuery.nullColumnHack,
+                        contentValues
+                );
+            }
+
+            return db.insertWithOnConflict(
                     insertQuery.table,
                     insertQuery.nullColumnHack,
-                    contentValues
+                    contentValues,
+                    insertQuery.conflictAlgorithm
             );
         }
 
+        /**
+         * {@inheritDoc}
+         * <p/>
+         * On API 16+ consecutive rows with same set of columns are inserted by multi-row INSERT statements
+         */
+        @NonNull
+        @Override
+        public long[] insertAll(@NonNull InsertQuery insertQuery, @NonNull List<ContentValues> contentValuesList) {
+            // multi-row VALUES syntax requires SQLite 3.7.11+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                return multiRowInsert.insertAll(
+                        insertQuery.table,
+                        insertQuery.nullColumnHack,
+                        insertQuery.conflictAlgorithm,
+                        contentValuesList
+                );
+            }
+
+            return super.insertAll(insertQuery, contentValuesList);
+        }
+
         @Override
         public int update(@NonNull UpdateQuery updateQuery, @NonNull ContentValues contentValues) {
+            // SQLiteStatement.executeUpdateDelete() is API 11+
+            if (compiledStatementCache != null
+                    && contentValues.size() > 0
+                    && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+                return compiledStatementCache.update(
+                        updateQuery.table,
+                        contentValues,
+                        updateQuery.where,
+                        updateQuery.whereArgs
+                );
+            }
+
             return db.update(
                     updateQuery.table,
                     contentValues,
@@ -152,6 +387,14 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
 
         @Override
         public void notifyAboutChanges(@NonNull Changes changes) {
+            final TransactionState state = transactionState.get();
+
+            if (state != null) {
+                // holding changes until commit of outermost transaction
+                state.changes.add(changes);
+                return;
+            }
+
             // Notifying about changes requires RxJava, if RxJava is not available -> skip notification
             if (changesBus != null) {
                 changesBus.onNext(changes);
@@ -165,17 +408,173 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
 
         @Override
         public void beginTransaction() {
-            db.beginTransaction();
+            final TransactionState state = transactionState.get();
+
+            if (state != null) {
+                // operation inside of runInTransaction(): failed nested Android transaction would mark
+                // the whole transaction as failed, savepoint rolls back only changes of the operation
+                beginSavepoint(state);
+                return;
+            }
+
+            if (writeAheadLoggingEnabled) {
+                // in WAL mode readers are not blocked by writer,
+                // so there is no reason to take EXCLUSIVE lock
+                db.beginTransactionNonExclusive();
+            } else {
+                db.beginTransaction();
+            }
         }
 
         @Override
         public void setTransactionSuccessful() {
-            db.setTransactionSuccessful();
+            final TransactionState state = transactionState.get();
+
+            if (state != null && !state.savepoints.isEmpty()) {
+                state.savepoints.getLast().successful = true;
+            } else {
+                db.setTransactionSuccessful();
+            }
         }
 
         @Override
         public void endTransaction() {
-            db.endTransaction();
+            final TransactionState state = transactionState.get();
+
+            if (state != null && !state.savepoints.isEmpty()) {
+                endSavepoint(state);
+            } else {
+                db.endTransaction();
+            }
+        }
+
+        @Override
+        public boolean rowLevelChangesEnabled() {
+            return rowLevelChangesEnabled;
+        }
+
+        @Nullable
+        @Override
+        public Scheduler defaultScheduler() {
+            return defaultScheduler;
+        }
+
+        @Override
+        public boolean inTransaction() {
+            return db.inTransaction();
+        }
+
+        @Nullable
+        @Override
+        public <Result> Result runInTransaction(@NonNull Transaction<Result> transaction) {
+            final TransactionState state = transactionState.get();
+
+            return state == null
+                    ? runInOutermostTransaction(transaction)
+                    : runInSavepoint(state, transaction);
+        }
+
+        @Nullable
+        private <Result> Result runInOutermostTransaction(@NonNull Transaction<Result> transaction) {
+            final TransactionState state = new TransactionState();
+            final Result result;
+
+            beginTransaction();
+            transactionState.set(state);
+
+            try {
+                result = transaction.run();
+                setTransactionSuccessful();
+            } finally {
+                transactionState.remove();
+                endTransaction();
+            }
+
+            if (!state.changes.isEmpty()) {
+                notifyAboutChanges(Changes.merge(state.changes));
+            }
+
+            return result;
+        }
+
+        @Nullable
+        private <Result> Result runInSavepoint(@NonNull TransactionState state, @NonNull Transaction<Result> transaction) {
+            beginSavepoint(state);
+
+            try {
+                final Result result = transaction.run();
+                setTransactionSuccessful();
+                return result;
+            } finally {
+                endSavepoint(state);
+            }
+        }
+
+        private void beginSavepoint(@NonNull TransactionState state) {
+            final Savepoint savepoint = new Savepoint(
+                    "storio_savepoint_" + (state.savepoints.size() + 1),
+                    state.changes.size()
+            );
+
+            db.execSQL("SAVEPOINT " + savepoint.name);
+            state.savepoints.add(savepoint);
+        }
+
+        private void endSavepoint(@NonNull TransactionState state) {
+            final Savepoint savepoint = state.savepoints.removeLast();
+
+            if (!savepoint.successful) {
+                // Android treats statements starting with "ROLLBACK" as rollback of whole transaction
+                // up to API 27, leading ";" makes it regular statement, see DatabaseUtils.getSqlStatementType()
+                db.execSQL(";ROLLBACK TO " + savepoint.name);
+
+                state.changes.subList(savepoint.numberOfChangesBefore, state.changes.size()).clear();
+            }
+
+            db.execSQL("RELEASE " + savepoint.name);
+        }
+
+        @Nullable
+        @Override
+        public WriteCoordinator writeCoordinator() {
+            // writes from thread which holds transaction should be executed in that transaction,
+            // otherwise writer thread will wait for the transaction which waits for the writer
+            return writeCoordinator == null || db.inTransaction()
+                    ? null
+                    : writeCoordinator;
+        }
+    }
+
+    private static class TransactionState {
+
+        /**
+         * Changes held until commit of outermost transaction
+         */
+        @NonNull
+        final List<Changes> changes = new ArrayList<>();
+
+        /**
+         * Savepoints of nested transactions and of operations inside of the transaction, innermost last
+         */
+        @NonNull
+        final LinkedList<Savepoint> savepoints = new LinkedList<>();
+    }
+
+    private static class Savepoint {
+
+        @NonNull
+        final String name;
+
+        /**
+         * Number of held changes before savepoint, changes after it are dropped on rollback
+         */
+        final int numberOfChangesBefore;
+
+        boolean successful;
+
+        Savepoint(@NonNull String name, int numberOfChangesBefore) {
+            this.name = name;
+            this.numberOfChangesBefore = numberOfChangesBefore;
         }
     }
 
@@ -183,6 +582,22 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
 
         private SQLiteDatabase db;
 
+        private int compiledStatementCacheSize;
+
+        private boolean enableWriteAheadLogging;
+
+        private boolean enableRowLevelChanges;
+
+        private int writeCoordinatorMaxBatchSize;
+
+        private long writeCoordinatorMaxWaitNanos;
+
+        private Executor defaultExecutor;
+
+        private Scheduler defaultScheduler;
+
+        private SlowQueryLog slowQueryLog;
+
         @NonNull
         public Builder db(@NonNull SQLiteDatabase db) {
             this.db = db;
@@ -195,13 +610,160 @@ public class StorIOSQLiteDbImpl extends StorIOSQLiteDb {
             return this;
         }
 
+        /**
+         * Optional: Specifies max number of compiled INSERT/UPDATE statements which will be cached
+         * and reused for rows with same table and same set of columns
+         * <p/>
+         * SQLite already caches compiled statements per connection, so it saves only creation
+         * of {@link android.database.sqlite.SQLiteStatement} for each row, not compilation of SQL
+         * <p/>
+         * Cache is dropped after each execSql (it can change the schema) and on {@link StorIOSQLiteDbImpl#close()}
+         * <p/>
+         * Default value is <code>0</code>, which means that cache is disabled
+         *
+         * @param compiledStatementCacheSize max number of cached compiled statements
+         * @return builder
+         */
+        @NonNull
+        public Builder compiledStatementCacheSize(int compiledStatementCacheSize) {
+            if (compiledStatementCacheSize < 0) {
+                throw new IllegalArgumentException("compiledStatementCacheSize should be >= 0, but was " + compiledStatementCacheSize);
+            }
+
+            this.compiledStatementCacheSize = compiledStatementCacheSize;
+            return this;
+        }
+
+        /**
+         * Optional: Enables write-ahead logging for {@link SQLiteDatabase}, available on API 11+
+         * <p/>
+         * In WAL mode queries from threads without transaction are executed on reader connections
+         * from the pool of {@link SQLiteDatabase}, while all writes and transactions
+         * are executed on single writer connection, so queries don't wait for long write transactions
+         * <p/>
+         * By default, write-ahead logging is not enabled by {@link StorIOSQLiteDbImpl}
+         *
+         * @return builder
+         * @see SQLiteDatabase#enableWriteAheadLogging()
+         */
+        @NonNull
+        public Builder enableWriteAheadLogging() {
+            enableWriteAheadLogging = true;
+            return this;
+        }
+
+        /**
+         * Optional: Enables group commit of single object/ContentValues Put and Delete Operations
+         * executed concurrently from different threads
+         * <p/>
+         * Such writes will be queued and executed on one writer thread in shared transactions
+         * with one notification about changes per transaction, each caller will receive its own result
+         * <p/>
+         * By default, writes are executed on caller thread, each in its own implicit transaction
+         *
+         * @param maxBatchSize max number of writes in one transaction
+         * @param maxWaitTime  max time to wait for more writes after first write of the transaction was received,
+         *                     bigger values increase throughput but also increase latency of each write
+         * @param timeUnit     time unit for maxWaitTime
+         * @return builder
+         * @see WriteCoordinator
+         */
+        @NonNull
+        public Builder enableWriteCoordinator(int maxBatchSize, long maxWaitTime, @NonNull TimeUnit timeUnit) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize should be > 0, but was " + maxBatchSize);
+            }
+
+            if (maxWaitTime < 0) {
+                throw new IllegalArgumentException("maxWaitTime should be >= 0, but was " + maxWaitTime);
+            }
+
+            writeCoordinatorMaxBatchSize = maxBatchSize;
+            writeCoordinatorMaxWaitNanos = timeUnit.toNanos(maxWaitTime);
+            return this;
+        }
+
+        /**
+         * Optional: Enables row-level changes: operations will provide kind of change
+         * and keys of affected rows in {@link Changes} where they are known
+         * <p/>
+         * By default, {@link Changes} contain only affected tables
+         *
+         * @return builder
+         * @see Changes#rowChanges(String)
+         */
+        @NonNull
+        public Builder enableRowLevelChanges() {
+            enableRowLevelChanges = true;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies executor for operations: it's used by
+         * {@link com.pushtorefresh.storio.operation.PreparedOperation#executeAsync(com.pushtorefresh.storio.operation.OperationCallback)}
+         * and, if scheduler was not specified via {@link #defaultScheduler(Scheduler)},
+         * Observables of operations are executed on it by default, see {@link #defaultScheduler(Scheduler)}
+         * <p/>
+         * Use executor with small fixed number of threads: all operations share one database,
+         * so more threads only fight for its connection
+         *
+         * @param executor executor for operations
+         * @return builder
+         */
+        @NonNull
+        public Builder defaultExecutor(@NonNull Executor executor) {
+            defaultExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies scheduler on which Observables of operations are executed by default,
+         * so you don't need to apply {@link Observable#subscribeOn(Scheduler)} to each of them
+         * <p/>
+         * Re-queries of {@link com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream#createObservableStream()}
+         * triggered by changes are executed on it too instead of the thread which made the change
+         * <p/>
+         * By default, Observables are executed on subscriber thread
+         * and re-queries are executed on thread which made the change
+         *
+         * @param scheduler scheduler for Observables of operations, should have bounded number of threads
+         * @return builder
+         */
+        @NonNull
+        public Builder defaultScheduler(@NonNull Scheduler scheduler) {
+            defaultScheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Optional: Enables log of slow queries: {@link Query} and {@link RawQuery} which took longer than
+         * threshold of the log are recorded with SQL, arguments, duration, number of rows and query plan
+         * <p/>
+         * With enabled log each query is executed eagerly by {@link Cursor#getCount()} to measure it:
+         * SQLite steps through all rows of result to count them before Cursor is returned,
+         * even if caller reads only first rows or streams them lazily. Queries become slower and
+         * the latency moves from first read of Cursor to the query itself, so the log is intended
+         * for debug and profiling builds
+         * <p/>
+         * By default, slow queries are not recorded
+         *
+         * @param slowQueryLog log of slow queries
+         * @return builder
+         * @see SlowQueryLog
+         */
+        @NonNull
+        public Builder slowQueryLog(@NonNull SlowQueryLog slowQueryLog) {
+            this.slowQueryLog = slowQueryLog;
+            return this;
+        }
+
         @NonNull
         public StorIOSQLiteDbImpl build() {
             if (db == null) {
                 throw new IllegalStateException("Please specify SQLiteDatabase instance");
             }
 
-            return new StorIOSQLiteDbImpl(db);
+            return new StorIOSQLiteDbImpl(this);
         }
     }
 }
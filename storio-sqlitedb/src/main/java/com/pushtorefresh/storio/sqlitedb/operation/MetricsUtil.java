@@ -0,0 +1,58 @@
+package com.pushtorefresh.storio.sqlitedb.operation;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.metrics.MetricsAggregator;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utils for metrics of operations of {@link com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb}
+ */
+public final class MetricsUtil {
+
+    private MetricsUtil() {
+    }
+
+    /**
+     * Gets target of {@link RawQuery} for metrics: its affected tables or {@link OperationMetrics#RAW_TARGET}
+     * <p/>
+     * SQL is not used as target, because SQL with inlined values would create unbounded number of keys
+     * in {@link MetricsAggregator}, SQL of slow queries is recorded by slow query log
+     *
+     * @param rawQuery raw query
+     * @return affected table, sorted affected tables joined with "," or {@link OperationMetrics#RAW_TARGET}
+     */
+    @NonNull
+    public static String targetOf(@NonNull RawQuery rawQuery) {
+        final Set<String> affectedTables = rawQuery.affectedTables;
+
+        if (affectedTables == null || affectedTables.isEmpty()) {
+            return OperationMetrics.RAW_TARGET;
+        }
+
+        if (affectedTables.size() == 1) {
+            return affectedTables.iterator().next();
+        }
+
+        final List<String> tables = new ArrayList<>(affectedTables);
+        Collections.sort(tables);
+
+        final StringBuilder target = new StringBuilder();
+
+        for (String table : tables) {
+            if (target.length() > 0) {
+                target.append(',');
+            }
+
+            target.append(table);
+        }
+
+        return target.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.pushtorefresh.storio.sqlitedb.operation;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+
+import rx.Observable;
+import rx.Scheduler;
+
+/**
+ * Applies default {@link Scheduler} of {@link StorIOSQLiteDb} to Observables of operations,
+ * see {@link StorIOSQLiteDb.Internal#defaultScheduler()}
+ * <p/>
+ * Reactive streams of Get Operations use the scheduler for re-queries too
+ */
+public final class SchedulerUtil {
+
+    private SchedulerUtil() {
+    }
+
+    /**
+     * Subscribes passed Observable on default scheduler of {@link StorIOSQLiteDb}, if it was set
+     *
+     * @param storIOSQLiteDb instance of {@link StorIOSQLiteDb}
+     * @param observable     Observable of operation
+     * @param <T>            type of result
+     * @return Observable which will execute operation on default scheduler or passed Observable if there is no default scheduler
+     */
+    @NonNull
+    public static <T> Observable<T> subscribeOnDefaultScheduler(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Observable<T> observable) {
+        final Scheduler scheduler = storIOSQLiteDb.internal().defaultScheduler();
+
+        return scheduler != null
+                ? observable.subscribeOn(scheduler)
+                : observable;
+    }
+}
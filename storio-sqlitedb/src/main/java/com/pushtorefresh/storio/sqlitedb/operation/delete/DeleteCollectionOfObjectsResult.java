@@ -1,27 +1,214 @@
 package com.pushtorefresh.storio.sqlitedb.operation.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Result of Delete Operation of collection of objects
+ * <p/>
+ * By default it contains {@link DeleteResult} for each object, see {@link #results()}.
+ * With compact results (see {@link PreparedDeleteCollectionOfObjects.Builder#withCompactResults()}) numbers of deleted rows
+ * are stored in primitive array in order of input collection, see {@link #numberOfDeletedRows(int)}.
+ * Number of deleted rows per table is available in all cases, see {@link #numberOfDeletedRowsByTable()}.
+ */
 public class DeleteCollectionOfObjectsResult<T> {
 
     @NonNull private final Map<T, DeleteResult> results;
 
+    /**
+     * False if results per object were not collected: bulk delete, compact results or only summary per table
+     */
+    private final boolean hasResultsPerObject;
+
+    @NonNull private final Map<String, Integer> numberOfDeletedRowsByTable;
+
+    /**
+     * Number of objects in compact results or -1 if compact results are not available
+     */
+    private final int size;
+
+    @Nullable private final int[] numberOfDeletedRows;
+
     public DeleteCollectionOfObjectsResult(@NonNull Map<T, DeleteResult> results) {
+        this(results, countByTable(results));
+    }
+
+    /**
+     * Creates result of Delete Operation
+     *
+     * @param results                    results for each object
+     * @param numberOfDeletedRowsByTable table -> number of deleted rows
+     */
+    public DeleteCollectionOfObjectsResult(@NonNull Map<T, DeleteResult> results, @NonNull Map<String, Integer> numberOfDeletedRowsByTable) {
+        this(results, true, numberOfDeletedRowsByTable, -1, null);
+    }
+
+
+    /**
+     * Creates compact result, array is not copied
+     *
+     * @param numberOfDeletedRowsByTable table -> number of deleted rows
+     * @param size                       number of objects
+     * @param numberOfDeletedRows        numbers of rows deleted for each object in input order
+     */
+    DeleteCollectionOfObjectsResult(@NonNull Map<String, Integer> numberOfDeletedRowsByTable, int size, @NonNull int[] numberOfDeletedRows) {
+        this(Collections.<T, DeleteResult>emptyMap(), false, numberOfDeletedRowsByTable, size, numberOfDeletedRows);
+    }
+
+    private DeleteCollectionOfObjectsResult(@NonNull Map<T, DeleteResult> results, boolean hasResultsPerObject,
+                                            @NonNull Map<String, Integer> numberOfDeletedRowsByTable,
+                                            int size, @Nullable int[] numberOfDeletedRows) {
         this.results = Collections.unmodifiableMap(results);
+        this.hasResultsPerObject = hasResultsPerObject;
+        this.numberOfDeletedRowsByTable = Collections.unmodifiableMap(numberOfDeletedRowsByTable);
+        this.size = size;
+        this.numberOfDeletedRows = numberOfDeletedRows;
+    }
+
+    /**
+     * Creates result without results per object, only with summary per table
+     *
+     * @param numberOfDeletedRowsByTable table -> number of deleted rows
+     * @param <T>                        type of objects
+     * @return new {@link DeleteCollectionOfObjectsResult} instance
+     */
+    @NonNull
+    static <T> DeleteCollectionOfObjectsResult<T> newSummaryResult(@NonNull Map<String, Integer> numberOfDeletedRowsByTable) {
+        return new DeleteCollectionOfObjectsResult<>(Collections.<T, DeleteResult>emptyMap(), false, numberOfDeletedRowsByTable, -1, null);
+    }
+
+    @NonNull
+    private static <T> Map<String, Integer> countByTable(@NonNull Map<T, DeleteResult> results) {
+        final Map<String, Integer> numberOfDeletedRowsByTable = new HashMap<>();
+
+        for (DeleteResult result : results.values()) {
+            for (String table : result.affectedTables()) {
+                final Integer count = numberOfDeletedRowsByTable.get(table);
+
+                numberOfDeletedRowsByTable.put(
+                        table,
+                        count == null ? result.numberOfDeletedRows() : count + result.numberOfDeletedRows()
+                );
+            }
+        }
+
+        return numberOfDeletedRowsByTable;
     }
 
+    /**
+     * Gets results for each object
+     * <p/>
+     * Empty for bulk delete, see {@link PreparedDeleteCollectionOfObjects.Builder#useBulkDelete()},
+     * and if compact results were requested or results per object were skipped
+     *
+     * @return object -> result of its deletion
+     */
     @NonNull public Map<T, DeleteResult> results() {
         return results;
     }
 
+    /**
+     * Checks whether results for each object are available
+     *
+     * @return false for bulk delete, compact results and results without per object results, true otherwise
+     */
+    public boolean hasResultsPerObject() {
+        return hasResultsPerObject;
+    }
+
+    /**
+     * Checks whether object was deleted
+     *
+     * @param object object
+     * @return true if object was deleted
+     * @throws IllegalStateException if results per object were not collected, see {@link #hasResultsPerObject()}
+     */
     public boolean wasDeleted(@NonNull T object) {
+        checkResultsPerObject();
         return results.containsKey(object);
     }
 
+    /**
+     * Checks whether object was not deleted
+     *
+     * @param object object
+     * @return true if object was not deleted
+     * @throws IllegalStateException if results per object were not collected, see {@link #hasResultsPerObject()}
+     */
     public boolean wasNotDeleted(@NonNull T object) {
+        checkResultsPerObject();
         return !results.containsKey(object);
     }
+
+    /**
+     * Gets number of deleted rows for each table
+     *
+     * @return table -> number of deleted rows
+     */
+    @NonNull public Map<String, Integer> numberOfDeletedRowsByTable() {
+        return numberOfDeletedRowsByTable;
+    }
+
+    /**
+     * Gets number of rows deleted from the table
+     *
+     * @param table table
+     * @return number of deleted rows
+     */
+    public int numberOfDeletedRows(@NonNull String table) {
+        final Integer count = numberOfDeletedRowsByTable.get(table);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Checks whether compact results in input order are available
+     *
+     * @return true if results were requested via {@link PreparedDeleteCollectionOfObjects.Builder#withCompactResults()}, false otherwise
+     */
+    public boolean hasCompactResults() {
+        return size >= 0;
+    }
+
+    /**
+     * Gets number of objects in compact results
+     *
+     * @return number of objects
+     */
+    public int size() {
+        checkCompactResults();
+        return size;
+    }
+
+    /**
+     * Gets number of rows deleted for object with given index in input collection
+     *
+     * @param index index of object in input collection
+     * @return number of deleted rows
+     */
+    public int numberOfDeletedRows(int index) {
+        checkCompactResults();
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index = " + index + ", size = " + size);
+        }
+
+        //noinspection ConstantConditions, checked by checkCompactResults()
+        return numberOfDeletedRows[index];
+    }
+
+    private void checkResultsPerObject() {
+        if (!hasResultsPerObject) {
+            throw new IllegalStateException("Results per object are not available for bulk delete, compact results and results without per object results");
+        }
+    }
+
+    private void checkCompactResults() {
+        if (size < 0) {
+            throw new IllegalStateException("Compact results are not available, please use withCompactResults()");
+        }
+    }
 }
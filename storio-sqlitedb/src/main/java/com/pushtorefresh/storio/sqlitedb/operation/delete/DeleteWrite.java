@@ -0,0 +1,35 @@
+package com.pushtorefresh.storio.sqlitedb.operation.delete;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
+import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
+
+import java.util.Collections;
+
+/**
+ * Delete by one {@link DeleteQuery} for {@link WriteCoordinator}
+ */
+class DeleteWrite implements WriteCoordinator.Write<DeleteResult> {
+
+    @NonNull private final StorIOSQLiteDb storIOSQLiteDb;
+    @NonNull private final DeleteResolver deleteResolver;
+    @NonNull private final DeleteQuery deleteQuery;
+
+    DeleteWrite(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull DeleteResolver deleteResolver, @NonNull DeleteQuery deleteQuery) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.deleteResolver = deleteResolver;
+        this.deleteQuery = deleteQuery;
+    }
+
+    @NonNull @Override public DeleteResult perform() {
+        final int numberOfDeletedRows = deleteResolver.performDelete(storIOSQLiteDb, deleteQuery);
+        return DeleteResult.newDeleteResult(numberOfDeletedRows, Collections.singleton(deleteQuery.table));
+    }
+
+    @NonNull @Override public Changes changes(@NonNull DeleteResult deleteResult) {
+        return PreparedDelete.changesOf(storIOSQLiteDb, deleteQuery, deleteResult.numberOfDeletedRows());
+    }
+}
@@ -1,12 +1,25 @@
 package com.pushtorefresh.storio.sqlitedb.operation.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.RowChange;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.operation.PreparedOperation;
 import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.concurrent.Future;
 
 public abstract class PreparedDelete<T> implements PreparedOperation<T> {
 
@@ -18,6 +31,111 @@ public abstract class PreparedDelete<T> implements PreparedOperation<T> {
         this.deleteResolver = deleteResolver;
     }
 
+    /**
+     * Matches "column = ?"
+     */
+    private static final Pattern WHERE_KEY_EQUALS = Pattern.compile("^\\s*(\\w+)\\s*=\\s*\\?\\s*$");
+
+    /**
+     * Matches "column IN (?, ?, ...)"
+     */
+    private static final Pattern WHERE_KEY_IN = Pattern.compile("^\\s*(\\w+)\\s+IN\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)\\s*$", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Creates {@link Changes} for Delete Operation,
+     * with row-level changes if they are enabled and keys of deleted rows can be found in {@link DeleteQuery}:
+     * where clause should be "column = ?" or "column IN (?, ?, ...)"
+     *
+     * @param storIOSQLiteDb      instance of {@link StorIOSQLiteDb}
+     * @param deleteQuery         executed query
+     * @param numberOfDeletedRows number of deleted rows
+     * @return changes made by Delete Operation
+     */
+    @NonNull
+    static Changes changesOf(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull DeleteQuery deleteQuery, int numberOfDeletedRows) {
+        if (!storIOSQLiteDb.internal().rowLevelChangesEnabled()) {
+            return new Changes(deleteQuery.table);
+        }
+
+        if (numberOfDeletedRows == 0) {
+            return new Changes(deleteQuery.table, Collections.<RowChange>emptyList());
+        }
+
+        final String where = deleteQuery.where;
+        final List<String> whereArgs = deleteQuery.whereArgs;
+
+        if (where == null || whereArgs == null || whereArgs.isEmpty()) {
+            return new Changes(deleteQuery.table);
+        }
+
+        Matcher matcher = WHERE_KEY_EQUALS.matcher(where);
+
+        if (!matcher.matches() || whereArgs.size() != 1) {
+            matcher = WHERE_KEY_IN.matcher(where);
+
+            if (!matcher.matches() || countPlaceholders(where) != whereArgs.size()) {
+                return new Changes(deleteQuery.table);
+            }
+        }
+
+        final String keyColumn = matcher.group(1);
+        final List<RowChange> rowChanges = new ArrayList<>(whereArgs.size());
+
+        for (String key : whereArgs) {
+            rowChanges.add(RowChange.newDelete(keyColumn, key));
+        }
+
+        return new Changes(deleteQuery.table, rowChanges);
+    }
+
+    /**
+     * Finds key column of {@link DeleteQuery} which deletes one row by key: "column = ?"
+     *
+     * @param deleteQuery delete query
+     * @return key column or null if query has another where clause
+     */
+    @Nullable
+    static String keyColumnOf(@NonNull DeleteQuery deleteQuery) {
+        final String where = deleteQuery.where;
+        final List<String> whereArgs = deleteQuery.whereArgs;
+
+        if (where == null || whereArgs == null || whereArgs.size() != 1) {
+            return null;
+        }
+
+        final Matcher matcher = WHERE_KEY_EQUALS.matcher(where);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static int countPlaceholders(@NonNull String where) {
+        int count = 0;
+
+        for (int i = 0; i < where.length(); i++) {
+            if (where.charAt(i) == '?') {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Starts collection of metrics of Delete Operation, see {@link StorIOSQLiteDb#setMetricsListener(com.pushtorefresh.storio.metrics.MetricsListener)}
+     *
+     * @return recorder of metrics, disabled one if there is no listener
+     */
+    @NonNull
+    MetricsRecorder startMetrics() {
+        // table is known from DeleteQuery, operations over several tables are reported for the first one
+        return MetricsRecorder.start(storIOSQLiteDb.internal().getMetricsListener(), OperationMetrics.Type.DELETE, null);
+    }
+
+    @NonNull
+    @Override
+    public Future<T> executeAsync(@Nullable OperationCallback<T> callback) {
+        return OperationFuture.execute(storIOSQLiteDb.internal().getExecutor(), this, callback);
+    }
+
     /**
      * Builder for {@link PreparedDelete}
      */
@@ -2,8 +2,10 @@ package com.pushtorefresh.storio.sqlitedb.operation.delete;
 
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
@@ -23,9 +25,34 @@ public class PreparedDeleteByQuery extends PreparedDelete<DeleteResult> {
 
     @NonNull @Override public DeleteResult executeAsBlocking() {
         final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
+        final WriteCoordinator writeCoordinator = internal.writeCoordinator();
+        final MetricsRecorder metrics = startMetrics();
+        final long start = metrics.mark();
+
+        metrics.target(deleteQuery.table);
+
+        if (writeCoordinator != null) {
+            // WriteCoordinator notifies about changes after commit,
+            // time in the queue is recorded as waiting, execution of the batch as SQL
+            final DeleteResult deleteResult = writeCoordinator.submit(
+                    new DeleteWrite(storIOSQLiteDb, deleteResolver, deleteQuery),
+                    metrics,
+                    start
+            );
+
+            metrics.rows(deleteResult.numberOfDeletedRows());
+            metrics.report();
+
+            return deleteResult;
+        }
 
         final int numberOfDeletedRows = deleteResolver.performDelete(storIOSQLiteDb, deleteQuery);
-        internal.notifyAboutChanges(new Changes(deleteQuery.table));
+
+        metrics.sql(start);
+        metrics.rows(numberOfDeletedRows);
+        metrics.report();
+
+        internal.notifyAboutChanges(changesOf(storIOSQLiteDb, deleteQuery, numberOfDeletedRows));
 
         return DeleteResult.newDeleteResult(numberOfDeletedRows, Collections.singleton(deleteQuery.table));
     }
@@ -33,7 +60,7 @@ public class PreparedDeleteByQuery extends PreparedDelete<DeleteResult> {
     @NonNull @Override public Observable<DeleteResult> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<DeleteResult>() {
+        final Observable<DeleteResult> observable = Observable.create(new Observable.OnSubscribe<DeleteResult>() {
             @Override public void call(Subscriber<? super DeleteResult> subscriber) {
                 final DeleteResult deleteByQueryResult = executeAsBlocking();
 
@@ -43,6 +70,8 @@ public class PreparedDeleteByQuery extends PreparedDelete<DeleteResult> {
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder {
@@ -2,62 +2,122 @@ package com.pushtorefresh.storio.sqlitedb.operation.delete;
 
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.Changes;
 import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import rx.Observable;
 import rx.Subscriber;
 
 public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteCollectionOfObjectsResult<T>> {
 
+    /**
+     * Map of {@link DeleteResult} per object, default
+     */
+    static final int MODE_MAP = 0;
+
+    /**
+     * Primitive array in input order, see {@link DeleteCollectionOfObjectsResult#numberOfDeletedRows(int)}
+     */
+    static final int MODE_COMPACT = 1;
+
+    /**
+     * Only number of deleted rows per table
+     */
+    static final int MODE_SUMMARY = 2;
+
     @NonNull private final Collection<T> objects;
     @NonNull private final MapFunc<T, DeleteQuery> mapFunc;
     private final boolean useTransactionIfPossible;
+    private final boolean bulkDelete;
+    private final int resultsMode;
 
     PreparedDeleteCollectionOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Collection<T> objects, @NonNull MapFunc<T, DeleteQuery> mapFunc, boolean useTransactionIfPossible, @NonNull DeleteResolver deleteResolver) {
+        this(storIOSQLiteDb, objects, mapFunc, useTransactionIfPossible, deleteResolver, false, MODE_MAP);
+    }
+
+    PreparedDeleteCollectionOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Collection<T> objects, @NonNull MapFunc<T, DeleteQuery> mapFunc, boolean useTransactionIfPossible, @NonNull DeleteResolver deleteResolver, boolean bulkDelete, int resultsMode) {
         super(storIOSQLiteDb, deleteResolver);
         this.objects = objects;
         this.mapFunc = mapFunc;
         this.useTransactionIfPossible = useTransactionIfPossible;
+        this.bulkDelete = bulkDelete;
+        this.resultsMode = resultsMode;
     }
 
     @NonNull @Override public DeleteCollectionOfObjectsResult<T> executeAsBlocking() {
+        if (bulkDelete) {
+            return executeBulkDelete();
+        }
+
         final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
 
-        final Map<T, DeleteResult> results = new HashMap<>();
+        final Map<T, DeleteResult> results = resultsMode == MODE_MAP ? new HashMap<T, DeleteResult>() : null;
+        final int[] numberOfDeletedRowsOfObjects = resultsMode == MODE_COMPACT ? new int[objects.size()] : null;
+        final Map<String, Integer> numberOfDeletedRowsByTable = new HashMap<>();
 
         final boolean withTransaction = useTransactionIfPossible && internal.transactionsSupported();
 
+        // without row-level changes notification after transaction is built from affected tables
+        final List<Changes> changes = withTransaction && internal.rowLevelChangesEnabled()
+                ? new ArrayList<Changes>()
+                : null;
+
+        final MetricsRecorder metrics = startMetrics();
+
         if (withTransaction) {
+            final long time = metrics.mark();
             internal.beginTransaction();
+            metrics.waited(time);
         }
 
         boolean transactionSuccessful = false;
 
         try {
+            int index = 0;
+
             for (final T object : objects) {
+                long time = metrics.mark();
                 final DeleteQuery deleteQuery = mapFunc.map(object);
+                time = metrics.map(time);
+
                 final int numberOfDeletedRows = deleteResolver.performDelete(storIOSQLiteDb, deleteQuery);
 
-                results.put(
-                        object,
-                        DeleteResult.newDeleteResult(
-                                numberOfDeletedRows,
-                                Collections.singleton(deleteQuery.table))
-                );
+                metrics.sql(time);
+                metrics.target(deleteQuery.table);
+                metrics.rows(numberOfDeletedRows);
+
+                if (results != null) {
+                    results.put(
+                            object,
+                            DeleteResult.newDeleteResult(
+                                    numberOfDeletedRows,
+                                    Collections.singleton(deleteQuery.table))
+                    );
+                } else if (numberOfDeletedRowsOfObjects != null) {
+                    numberOfDeletedRowsOfObjects[index] = numberOfDeletedRows;
+                }
+
+                index++;
+                addNumberOfDeletedRows(numberOfDeletedRowsByTable, deleteQuery.table, numberOfDeletedRows);
 
                 if (!withTransaction) {
-                    internal.notifyAboutChanges(new Changes(deleteQuery.table));
+                    internal.notifyAboutChanges(changesOf(storIOSQLiteDb, deleteQuery, numberOfDeletedRows));
+                } else if (changes != null) {
+                    changes.add(changesOf(storIOSQLiteDb, deleteQuery, numberOfDeletedRows));
                 }
             }
 
@@ -67,29 +127,181 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteC
             }
         } finally {
             if (withTransaction) {
+                // commit is part of SQL time
+                final long time = metrics.mark();
                 internal.endTransaction();
+                metrics.sql(time);
 
                 if (transactionSuccessful) {
                     // if delete was in transaction and it was successful -> notify about changes
+                    internal.notifyAboutChanges(changes != null
+                            ? Changes.merge(changes)
+                            : new Changes(new HashSet<>(numberOfDeletedRowsByTable.keySet())));
+                }
+            }
+        }
+
+        metrics.report();
+
+        if (results != null) {
+            return new DeleteCollectionOfObjectsResult<>(results, numberOfDeletedRowsByTable);
+        } else if (numberOfDeletedRowsOfObjects != null) {
+            return new DeleteCollectionOfObjectsResult<>(numberOfDeletedRowsByTable, numberOfDeletedRowsOfObjects.length, numberOfDeletedRowsOfObjects);
+        } else {
+            return DeleteCollectionOfObjectsResult.<T>newSummaryResult(numberOfDeletedRowsByTable);
+        }
+    }
 
-                    final Set<String> affectedTables = new HashSet<>(1); // in most cases it will be one table
+    @NonNull private DeleteCollectionOfObjectsResult<T> executeBulkDelete() {
+        final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
+
+        // table and key column -> keys of objects, objects with other queries are deleted one by one
+        final Map<KeyGroup, List<String>> keysByGroup = new LinkedHashMap<>(1); // in most cases all objects are in one table
+        final List<DeleteQuery> otherQueries = new ArrayList<>();
+
+        final MetricsRecorder metrics = startMetrics();
+        final long mapStart = metrics.mark();
+
+        for (final T object : objects) {
+            final DeleteQuery deleteQuery = mapFunc.map(object);
+            final String keyColumn = keyColumnOf(deleteQuery);
+
+            if (keyColumn == null) {
+                otherQueries.add(deleteQuery);
+                continue;
+            }
 
-                    for (final T object : results.keySet()) {
-                        affectedTables.addAll(results.get(object).affectedTables());
-                    }
+            final KeyGroup keyGroup = new KeyGroup(deleteQuery.table, keyColumn);
+            List<String> keys = keysByGroup.get(keyGroup);
 
-                    internal.notifyAboutChanges(new Changes(affectedTables));
+            if (keys == null) {
+                keys = new ArrayList<>();
+                keysByGroup.put(keyGroup, keys);
+            }
+
+            // keyColumnOf() checked that query has exactly one argument
+            //noinspection ConstantConditions
+            keys.add(deleteQuery.whereArgs.get(0));
+        }
+
+        metrics.map(mapStart);
+
+        final Map<String, Integer> numberOfDeletedRowsByTable = new HashMap<>();
+        final List<Changes> changes = new ArrayList<>();
+
+        final boolean withTransaction = useTransactionIfPossible && internal.transactionsSupported();
+
+        if (withTransaction) {
+            final long time = metrics.mark();
+            internal.beginTransaction();
+            metrics.waited(time);
+        }
+
+        boolean transactionSuccessful = false;
+
+        try {
+            for (Map.Entry<KeyGroup, List<String>> entry : keysByGroup.entrySet()) {
+                final List<String> keys = entry.getValue();
+
+                for (int from = 0; from < keys.size(); from += StorIOSQLiteDb.MAX_VARIABLE_NUMBER) {
+                    final List<String> chunk = keys.subList(from, Math.min(from + StorIOSQLiteDb.MAX_VARIABLE_NUMBER, keys.size()));
+
+                    delete(new DeleteQuery.Builder()
+                            .table(entry.getKey().table)
+                            .where(whereKeyIn(entry.getKey().keyColumn, chunk.size()))
+                            .whereArgs(chunk.toArray())
+                            .build(), numberOfDeletedRowsByTable, changes, metrics);
                 }
             }
+
+            for (DeleteQuery deleteQuery : otherQueries) {
+                delete(deleteQuery, numberOfDeletedRowsByTable, changes, metrics);
+            }
+
+            if (withTransaction) {
+                internal.setTransactionSuccessful();
+                transactionSuccessful = true;
+            }
+        } finally {
+            if (withTransaction) {
+                // commit is part of SQL time
+                final long time = metrics.mark();
+                internal.endTransaction();
+                metrics.sql(time);
+            }
+
+            // one notification for all objects, without transaction observers are notified even about partial delete
+            if ((transactionSuccessful || !withTransaction) && !changes.isEmpty()) {
+                internal.notifyAboutChanges(Changes.merge(changes));
+            }
+        }
+
+        metrics.report();
+
+        return DeleteCollectionOfObjectsResult.<T>newSummaryResult(numberOfDeletedRowsByTable);
+    }
+
+    private void delete(@NonNull DeleteQuery deleteQuery, @NonNull Map<String, Integer> numberOfDeletedRowsByTable,
+                        @NonNull List<Changes> changes, @NonNull MetricsRecorder metrics) {
+        final long time = metrics.mark();
+        final int numberOfDeletedRows = deleteResolver.performDelete(storIOSQLiteDb, deleteQuery);
+
+        metrics.sql(time);
+        metrics.target(deleteQuery.table);
+        metrics.rows(numberOfDeletedRows);
+
+        addNumberOfDeletedRows(numberOfDeletedRowsByTable, deleteQuery.table, numberOfDeletedRows);
+
+        changes.add(changesOf(storIOSQLiteDb, deleteQuery, numberOfDeletedRows));
+    }
+
+    private static void addNumberOfDeletedRows(@NonNull Map<String, Integer> numberOfDeletedRowsByTable, @NonNull String table, int numberOfDeletedRows) {
+        final Integer count = numberOfDeletedRowsByTable.get(table);
+        numberOfDeletedRowsByTable.put(table, count == null ? numberOfDeletedRows : count + numberOfDeletedRows);
+    }
+
+    @NonNull private static String whereKeyIn(@NonNull String keyColumn, int numberOfKeys) {
+        final StringBuilder where = new StringBuilder(keyColumn.length() + 6 + numberOfKeys * 2)
+                .append(keyColumn)
+                .append(" IN (");
+
+        for (int i = 0; i < numberOfKeys; i++) {
+            where.append(i == 0 ? "?" : ",?");
         }
 
-        return new DeleteCollectionOfObjectsResult<>(results);
+        return where.append(')').toString();
+    }
+
+    private static class KeyGroup {
+
+        @NonNull final String table;
+        @NonNull final String keyColumn;
+
+        KeyGroup(@NonNull String table, @NonNull String keyColumn) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            KeyGroup keyGroup = (KeyGroup) o;
+
+            return table.equals(keyGroup.table) && keyColumn.equals(keyGroup.keyColumn);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * table.hashCode() + keyColumn.hashCode();
+        }
     }
 
     @NonNull @Override public Observable<DeleteCollectionOfObjectsResult<T>> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<DeleteCollectionOfObjectsResult<T>>() {
+        final Observable<DeleteCollectionOfObjectsResult<T>> observable = Observable.create(new Observable.OnSubscribe<DeleteCollectionOfObjectsResult<T>>() {
             @Override
             public void call(Subscriber<? super DeleteCollectionOfObjectsResult<T>> subscriber) {
                 DeleteCollectionOfObjectsResult<T> deleteCollectionOfObjectsResult
@@ -101,6 +313,8 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteC
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder<T> {
@@ -111,6 +325,8 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteC
         private MapFunc<T, DeleteQuery> mapFunc;
         private boolean useTransactionIfPossible = true;
         private DeleteResolver deleteResolver;
+        private boolean bulkDelete;
+        private int resultsMode = MODE_MAP;
 
         Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Collection<T> objects) {
             this.storIOSQLiteDb = storIOSQLiteDb;
@@ -161,6 +377,52 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteC
             return this;
         }
 
+        /**
+         * Optional: Enables bulk delete
+         * <p/>
+         * Objects which {@link DeleteQuery} deletes row by key ("column = ?") are grouped by table and key column
+         * and deleted by "column IN (?, ?, ...)" statements, each with up to 999 keys.
+         * Objects with other queries are deleted one by one.
+         * Observers are notified once after deletion of all objects.
+         * <p/>
+         * Results of deletion of each object are not available, result contains only numbers of deleted rows per table,
+         * see {@link DeleteCollectionOfObjectsResult#numberOfDeletedRowsByTable()}
+         *
+         * @return builder
+         */
+        @NonNull public Builder<T> useBulkDelete() {
+            bulkDelete = true;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that numbers of deleted rows will be stored in primitive array in order of input collection
+         * instead of map of {@link DeleteResult} per object
+         * <p/>
+         * Saves allocation of {@link DeleteResult} and map entry per object, does not require meaningful
+         * {@link Object#hashCode()} of objects and does not merge equal objects.
+         * Results are available via {@link DeleteCollectionOfObjectsResult#numberOfDeletedRows(int)},
+         * {@link DeleteCollectionOfObjectsResult#results()} will be empty.
+         * Ignored for bulk delete, which does not know results per object.
+         *
+         * @return builder
+         */
+        @NonNull public Builder<T> withCompactResults() {
+            resultsMode = MODE_COMPACT;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that results per object won't be stored at all, only number of deleted rows per table,
+         * see {@link DeleteCollectionOfObjectsResult#numberOfDeletedRowsByTable()}
+         *
+         * @return builder
+         */
+        @NonNull public Builder<T> withoutPerObjectResults() {
+            resultsMode = MODE_SUMMARY;
+            return this;
+        }
+
         /**
          * Prepares Delete Operation
          *
@@ -180,7 +442,9 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteC
                     objects,
                     mapFunc,
                     useTransactionIfPossible,
-                    deleteResolver
+                    deleteResolver,
+                    bulkDelete,
+                    resultsMode
             );
         }
     }
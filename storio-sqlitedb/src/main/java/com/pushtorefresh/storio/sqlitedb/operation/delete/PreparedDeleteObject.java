@@ -2,9 +2,11 @@ package com.pushtorefresh.storio.sqlitedb.operation.delete;
 
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
 import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
@@ -26,13 +28,41 @@ public class PreparedDeleteObject<T> extends PreparedDelete<DeleteResult> {
 
     @NonNull @Override public DeleteResult executeAsBlocking() {
         final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
+        final MetricsRecorder metrics = startMetrics();
+
+        long time = metrics.mark();
         final DeleteQuery deleteQuery = mapFunc.map(object);
+        time = metrics.map(time);
+
+        metrics.target(deleteQuery.table);
+
+        final WriteCoordinator writeCoordinator = internal.writeCoordinator();
+
+        if (writeCoordinator != null) {
+            // WriteCoordinator notifies about changes after commit,
+            // time in the queue is recorded as waiting, execution of the batch as SQL
+            final DeleteResult deleteResult = writeCoordinator.submit(
+                    new DeleteWrite(storIOSQLiteDb, deleteResolver, deleteQuery),
+                    metrics,
+                    time
+            );
+
+            metrics.rows(deleteResult.numberOfDeletedRows());
+            metrics.report();
+
+            internal.getLoggi().v(deleteResult.numberOfDeletedRows() + " object(s) deleted");
+            return deleteResult;
+        }
 
         final int numberOfDeletedRows = deleteResolver.performDelete(storIOSQLiteDb, deleteQuery);
 
+        metrics.sql(time);
+        metrics.rows(numberOfDeletedRows);
+        metrics.report();
+
         internal.getLoggi().v(numberOfDeletedRows + " object(s) deleted");
 
-        internal.notifyAboutChanges(new Changes(deleteQuery.table));
+        internal.notifyAboutChanges(changesOf(storIOSQLiteDb, deleteQuery, numberOfDeletedRows));
 
         return DeleteResult.newDeleteResult(numberOfDeletedRows, Collections.singleton(deleteQuery.table));
     }
@@ -40,7 +70,7 @@ public class PreparedDeleteObject<T> extends PreparedDelete<DeleteResult> {
     @NonNull @Override public Observable<DeleteResult> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<DeleteResult>() {
+        final Observable<DeleteResult> observable = Observable.create(new Observable.OnSubscribe<DeleteResult>() {
             @Override public void call(Subscriber<? super DeleteResult> subscriber) {
                 final DeleteResult deleteResult = executeAsBlocking();
 
@@ -50,6 +80,8 @@ public class PreparedDeleteObject<T> extends PreparedDelete<DeleteResult> {
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder<T> {
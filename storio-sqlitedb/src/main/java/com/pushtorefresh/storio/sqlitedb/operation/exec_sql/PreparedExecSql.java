@@ -1,11 +1,21 @@
 package com.pushtorefresh.storio.sqlitedb.operation.exec_sql;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.metrics.MetricsListener;
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.operation.PreparedOperation;
+import com.pushtorefresh.storio.sqlitedb.operation.MetricsUtil;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
+
+import java.util.concurrent.Future;
 
 import rx.Observable;
 import rx.Subscriber;
@@ -21,14 +31,27 @@ public class PreparedExecSql implements PreparedOperation<Void> {
     }
 
     @NonNull @Override public Void executeAsBlocking() {
-        storIOSQLiteDb.internal().execSql(rawQuery);
+        final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
+        final MetricsListener metricsListener = internal.getMetricsListener();
+        final MetricsRecorder metrics = MetricsRecorder.start(
+                metricsListener,
+                OperationMetrics.Type.EXEC_SQL,
+                metricsListener != null ? MetricsUtil.targetOf(rawQuery) : null
+        );
+        final long start = metrics.mark();
+
+        internal.execSql(rawQuery);
+
+        metrics.sql(start);
+        metrics.report();
+
         return null;
     }
 
     @NonNull @Override public Observable<Void> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<Void>() {
+        final Observable<Void> observable = Observable.create(new Observable.OnSubscribe<Void>() {
             @Override public void call(Subscriber<? super Void> subscriber) {
                 executeAsBlocking();
 
@@ -38,6 +61,12 @@ public class PreparedExecSql implements PreparedOperation<Void> {
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
+    }
+
+    @NonNull @Override public Future<Void> executeAsync(@Nullable OperationCallback<Void> callback) {
+        return OperationFuture.execute(storIOSQLiteDb.internal().getExecutor(), this, callback);
     }
 
     public static class Builder {
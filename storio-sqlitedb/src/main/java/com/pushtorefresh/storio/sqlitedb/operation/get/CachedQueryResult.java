@@ -0,0 +1,174 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.AbstractCursor;
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Immutable materialized result of query, can be shared between threads
+ * <p/>
+ * Each reader receives its own lightweight {@link Cursor} over shared rows, see {@link #newCursor()}.
+ */
+class CachedQueryResult {
+
+    // rough estimation of memory consumed by objects on 32-bit VM
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 4;
+
+    @NonNull
+    private final String[] columnNames;
+
+    @NonNull
+    private final Object[][] rows;
+
+    private final long sizeInBytes;
+
+    private CachedQueryResult(@NonNull String[] columnNames, @NonNull Object[][] rows, long sizeInBytes) {
+        this.columnNames = columnNames;
+        this.rows = rows;
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    /**
+     * Reads all rows of the cursor, requires API 11+ because of {@link Cursor#getType(int)}
+     *
+     * @param cursor cursor to read, it won't be closed
+     * @return materialized result
+     */
+    @NonNull
+    static CachedQueryResult from(@NonNull Cursor cursor) {
+        final String[] columnNames = cursor.getColumnNames();
+        final int[] columnIndexes = new int[columnNames.length];
+
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = i;
+        }
+
+        final Object[][] rows = new Object[cursor.getCount()][];
+        long sizeInBytes = OBJECT_OVERHEAD + (long) rows.length * REFERENCE_SIZE;
+
+        int position = 0;
+
+        while (cursor.moveToNext()) {
+            final Object[] row = OrderBy.readValues(cursor, columnIndexes);
+            rows[position++] = row;
+            sizeInBytes += sizeOf(row);
+        }
+
+        return new CachedQueryResult(columnNames, rows, sizeInBytes);
+    }
+
+    private static long sizeOf(@NonNull Object[] row) {
+        long size = OBJECT_OVERHEAD + (long) row.length * REFERENCE_SIZE;
+
+        for (Object value : row) {
+            if (value instanceof String) {
+                size += 2 * OBJECT_OVERHEAD + 2L * ((String) value).length();
+            } else if (value instanceof byte[]) {
+                size += OBJECT_OVERHEAD + ((byte[]) value).length;
+            } else if (value != null) {
+                size += OBJECT_OVERHEAD;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimated size of the result in memory
+     *
+     * @return size in bytes
+     */
+    long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Creates new {@link Cursor} over rows of the result
+     *
+     * @return new cursor, positioned before first row
+     */
+    @NonNull
+    Cursor newCursor() {
+        return new ResultCursor();
+    }
+
+    /**
+     * Cursor which converts values same way as {@link android.database.sqlite.SQLiteCursor}, see {@link CursorValues}
+     */
+    private class ResultCursor extends AbstractCursor {
+
+        @Nullable
+        private Object value(int column) {
+            return rows[getPosition()][column];
+        }
+
+        @Override
+        public int getCount() {
+            return rows.length;
+        }
+
+        @Override
+        public String[] getColumnNames() {
+            return columnNames;
+        }
+
+        @Override
+        public String getString(int column) {
+            return CursorValues.toString(value(column));
+        }
+
+        @Override
+        public short getShort(int column) {
+            return (short) CursorValues.toLong(value(column));
+        }
+
+        @Override
+        public int getInt(int column) {
+            return (int) CursorValues.toLong(value(column));
+        }
+
+        @Override
+        public long getLong(int column) {
+            return CursorValues.toLong(value(column));
+        }
+
+        @Override
+        public float getFloat(int column) {
+            return (float) CursorValues.toDouble(value(column));
+        }
+
+        @Override
+        public double getDouble(int column) {
+            return CursorValues.toDouble(value(column));
+        }
+
+        @Override
+        public byte[] getBlob(int column) {
+            return CursorValues.toBlob(value(column));
+        }
+
+        @Override
+        public int getType(int column) {
+            final Object value = value(column);
+
+            if (value == null) {
+                return Cursor.FIELD_TYPE_NULL;
+            } else if (value instanceof Long) {
+                return Cursor.FIELD_TYPE_INTEGER;
+            } else if (value instanceof Double) {
+                return Cursor.FIELD_TYPE_FLOAT;
+            } else if (value instanceof byte[]) {
+                return Cursor.FIELD_TYPE_BLOB;
+            } else {
+                return Cursor.FIELD_TYPE_STRING;
+            }
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            return value(column) == null;
+        }
+    }
+}
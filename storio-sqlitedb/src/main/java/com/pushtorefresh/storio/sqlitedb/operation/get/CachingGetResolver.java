@@ -0,0 +1,416 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.os.Build;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+import com.pushtorefresh.storio.util.EnvironmentUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import rx.functions.Action1;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Implementation of {@link GetResolver} which caches materialized results of queries, thread-safe
+ * <p/>
+ * Results are cached by {@link Query} and {@link RawQuery} equality and invalidated
+ * by {@link Changes} of their tables: table of {@link Query} or {@link RawQuery#affectedTables}.
+ * {@link RawQuery} without affected tables is not cached because it can not be invalidated.
+ * <p/>
+ * Cache has memory budget, least recently used results are evicted when it's exceeded.
+ * <p/>
+ * Queries are executed without caching if current thread holds a transaction
+ * (uncommitted data should not be cached) and on API < 11.
+ * <p/>
+ * Cache observes changes of tables of cached queries, call {@link #close()} when cache is not needed anymore,
+ * otherwise subscriptions keep it in memory as long as {@link StorIOSQLiteDb} lives.
+ * <p/>
+ * Requires RxJava, because changes of {@link StorIOSQLiteDb} are observed via {@link rx.Observable}.
+ */
+public class CachingGetResolver implements GetResolver {
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    @NonNull
+    private final GetResolver getResolver;
+
+    private final long maxSizeInBytes;
+
+    @NonNull
+    private final Object lock = new Object();
+
+    /**
+     * Query or RawQuery -> cached result, in access order
+     */
+    @NonNull
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @NonNull
+    private final Map<String, Set<Object>> queriesByTable = new HashMap<>();
+
+    /**
+     * Table -> number of invalidations, protects cache from results which were read before the change
+     */
+    @NonNull
+    private final Map<String, Long> invalidationsByTable = new HashMap<>();
+
+    /**
+     * Tables which changes are observed, subscriptions live until {@link #close()}
+     */
+    @NonNull
+    private final Set<String> observedTables = new HashSet<>();
+
+    @NonNull
+    private final CompositeSubscription subscriptions;
+
+    private volatile boolean closed;
+
+    private long sizeInBytes;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long invalidationCount;
+
+    private long evictAllCount;
+
+    /**
+     * Creates {@link CachingGetResolver} which uses {@link DefaultGetResolver} to execute queries
+     *
+     * @param storIOSQLiteDb db which changes invalidate the cache, resolver should be used only with it
+     * @param maxSizeInBytes memory budget of the cache, estimated size of cached results
+     */
+    public CachingGetResolver(@NonNull StorIOSQLiteDb storIOSQLiteDb, long maxSizeInBytes) {
+        this(storIOSQLiteDb, maxSizeInBytes, DefaultGetResolver.INSTANCE);
+    }
+
+    /**
+     * Creates {@link CachingGetResolver}
+     *
+     * @param storIOSQLiteDb db which changes invalidate the cache, resolver should be used only with it
+     * @param maxSizeInBytes memory budget of the cache, estimated size of cached results
+     * @param getResolver    resolver which will execute queries on cache misses
+     */
+    public CachingGetResolver(@NonNull StorIOSQLiteDb storIOSQLiteDb, long maxSizeInBytes, @NonNull GetResolver getResolver) {
+        EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("CachingGetResolver");
+
+        if (maxSizeInBytes <= 0) {
+            throw new IllegalArgumentException("maxSizeInBytes should be > 0, but was " + maxSizeInBytes);
+        }
+
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.getResolver = getResolver;
+        subscriptions = new CompositeSubscription();
+    }
+
+    @NonNull
+    @Override
+    public Cursor performGet(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull RawQuery rawQuery) {
+        final Set<String> tables = rawQuery.affectedTables;
+
+        if (tables == null || tables.isEmpty() || !isCacheable(storIOSQLiteDb)) {
+            return getResolver.performGet(storIOSQLiteDb, rawQuery);
+        }
+
+        return performCachedGet(rawQuery, tables);
+    }
+
+    @NonNull
+    @Override
+    public Cursor performGet(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Query query) {
+        if (!isCacheable(storIOSQLiteDb)) {
+            return getResolver.performGet(storIOSQLiteDb, query);
+        }
+
+        return performCachedGet(query, Collections.singleton(query.table));
+    }
+
+    private boolean isCacheable(@NonNull StorIOSQLiteDb storIOSQLiteDb) {
+        return storIOSQLiteDb == this.storIOSQLiteDb
+                && !closed
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB
+                && !storIOSQLiteDb.internal().inTransaction();
+    }
+
+    @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
+    @NonNull
+    private Cursor performCachedGet(@NonNull Object query, @NonNull Set<String> tables) {
+        final long invalidations;
+
+        synchronized (lock) {
+            final Entry entry = entries.get(query);
+
+            if (entry != null) {
+                hitCount++;
+                return entry.result.newCursor();
+            }
+
+            missCount++;
+
+            // subscription should exist before query, otherwise changes between query and subscription will be lost
+            observeChanges(tables);
+            invalidations = invalidationsOf(tables) + evictAllCount;
+        }
+
+        final Cursor cursor = performGetWithoutCache(query);
+        final CachedQueryResult result;
+
+        try {
+            result = CachedQueryResult.from(cursor);
+        } finally {
+            cursor.close();
+        }
+
+        synchronized (lock) {
+            // result could be read before the change, so it's not cached if tables were invalidated or cache was cleared
+            if (!closed && invalidations == invalidationsOf(tables) + evictAllCount && result.sizeInBytes() <= maxSizeInBytes) {
+                removeEntry(query);
+                addEntry(query, new Entry(tables, result));
+                trimToSize();
+            }
+        }
+
+        return result.newCursor();
+    }
+
+    @NonNull
+    private Cursor performGetWithoutCache(@NonNull Object query) {
+        return query instanceof Query
+                ? getResolver.performGet(storIOSQLiteDb, (Query) query)
+                : getResolver.performGet(storIOSQLiteDb, (RawQuery) query);
+    }
+
+    private void observeChanges(@NonNull Set<String> tables) {
+        for (String table : tables) {
+            if (observedTables.add(table)) {
+                subscriptions.add(storIOSQLiteDb
+                        .observeChangesInTable(table)
+                        .subscribe(new Action1<Changes>() {
+                            @Override
+                            public void call(Changes changes) {
+                                invalidate(changes.affectedTables);
+                            }
+                        }));
+            }
+        }
+    }
+
+    private long invalidationsOf(@NonNull Set<String> tables) {
+        long invalidations = 0;
+
+        for (String table : tables) {
+            final Long tableInvalidations = invalidationsByTable.get(table);
+
+            if (tableInvalidations != null) {
+                invalidations += tableInvalidations;
+            }
+        }
+
+        return invalidations;
+    }
+
+    private void invalidate(@NonNull Set<String> tables) {
+        synchronized (lock) {
+            for (String table : tables) {
+                final Long tableInvalidations = invalidationsByTable.get(table);
+                invalidationsByTable.put(table, tableInvalidations == null ? 1 : tableInvalidations + 1);
+
+                final Set<Object> queries = queriesByTable.get(table);
+
+                if (queries != null) {
+                    for (Object query : new ArrayList<>(queries)) {
+                        removeEntry(query);
+                        invalidationCount++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void addEntry(@NonNull Object query, @NonNull Entry entry) {
+        entries.put(query, entry);
+        sizeInBytes += entry.result.sizeInBytes();
+
+        for (String table : entry.tables) {
+            Set<Object> queries = queriesByTable.get(table);
+
+            if (queries == null) {
+                queries = new HashSet<>();
+                queriesByTable.put(table, queries);
+            }
+
+            queries.add(query);
+        }
+    }
+
+    private void removeEntry(@NonNull Object query) {
+        final Entry entry = entries.remove(query);
+
+        if (entry != null) {
+            sizeInBytes -= entry.result.sizeInBytes();
+            removeFromIndex(query, entry);
+        }
+    }
+
+    private void removeFromIndex(@NonNull Object query, @NonNull Entry entry) {
+        for (String table : entry.tables) {
+            final Set<Object> queries = queriesByTable.get(table);
+
+            if (queries != null) {
+                queries.remove(query);
+
+                if (queries.isEmpty()) {
+                    queriesByTable.remove(table);
+                }
+            }
+        }
+    }
+
+    private void trimToSize() {
+        final Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+
+        // iteration order of access-ordered LinkedHashMap is from least recently used
+        while (sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+            final Map.Entry<Object, Entry> eldest = iterator.next();
+            iterator.remove();
+
+            sizeInBytes -= eldest.getValue().result.sizeInBytes();
+            removeFromIndex(eldest.getKey(), eldest.getValue());
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all cached results, results of queries which are executed right now won't be cached too
+     */
+    public void evictAll() {
+        synchronized (lock) {
+            entries.clear();
+            queriesByTable.clear();
+            sizeInBytes = 0;
+            evictAllCount++;
+        }
+    }
+
+    /**
+     * Stops observing changes of tables and removes all cached results,
+     * after that queries are executed without caching
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            subscriptions.unsubscribe();
+            observedTables.clear();
+            evictAll();
+        }
+    }
+
+    /**
+     * Gets estimated size of cached results
+     *
+     * @return size in bytes
+     */
+    public long size() {
+        synchronized (lock) {
+            return sizeInBytes;
+        }
+    }
+
+    /**
+     * Gets memory budget of the cache
+     *
+     * @return max size in bytes
+     */
+    public long maxSize() {
+        return maxSizeInBytes;
+    }
+
+    /**
+     * Gets number of queries which results were returned from the cache
+     *
+     * @return number of hits
+     */
+    public long hitCount() {
+        synchronized (lock) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Gets number of queries which were executed because their results were not in the cache
+     *
+     * @return number of misses
+     */
+    public long missCount() {
+        synchronized (lock) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Gets number of results which were evicted because memory budget was exceeded
+     *
+     * @return number of evictions
+     */
+    public long evictionCount() {
+        synchronized (lock) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Gets number of results which were removed because of changes in their tables
+     *
+     * @return number of invalidations
+     */
+    public long invalidationCount() {
+        synchronized (lock) {
+            return invalidationCount;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return "CachingGetResolver{" +
+                    "size=" + sizeInBytes +
+                    ", maxSize=" + maxSizeInBytes +
+                    ", hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount +
+                    ", invalidationCount=" + invalidationCount +
+                    '}';
+        }
+    }
+
+    private static class Entry {
+
+        @NonNull
+        final Set<String> tables;
+
+        @NonNull
+        final CachedQueryResult result;
+
+        Entry(@NonNull Set<String> tables, @NonNull CachedQueryResult result) {
+            this.tables = tables;
+            this.result = result;
+        }
+    }
+}
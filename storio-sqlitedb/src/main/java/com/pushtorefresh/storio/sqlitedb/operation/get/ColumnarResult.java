@@ -0,0 +1,257 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Result of {@link PreparedGetColumns}: values of each column are stored in array of primitive type
+ * instead of list of boxed objects
+ * <p/>
+ * Values of column with index {@code i} in result of {@link #longColumn(String)}, {@link #doubleColumn(String)},
+ * {@link #stringColumn(String)} or {@link #blobColumn(String)} belong to row {@code i}, length of arrays equals {@link #rowCount()}.
+ * NULL values are stored as 0 in numeric columns and as null in other columns, use {@link #isNull(String, int)} to distinguish them.
+ * <p/>
+ * Arrays are not copied, please do not modify them if result is shared.
+ */
+public final class ColumnarResult {
+
+    static final int TYPE_LONG = 1;
+    static final int TYPE_DOUBLE = 2;
+    static final int TYPE_STRING = 3;
+    static final int TYPE_BLOB = 4;
+
+    private static final int MIN_CAPACITY = 16;
+
+    @NonNull
+    private final String[] columnNames;
+
+    @NonNull
+    private final int[] types;
+
+    /**
+     * long[], double[], String[] or byte[][] for each column
+     */
+    @NonNull
+    private final Object[] values;
+
+    /**
+     * Bit {@code row % 64} of element {@code row / 64} is set if value is NULL
+     */
+    @NonNull
+    private final long[][] nullBitmaps;
+
+    private final int rowCount;
+
+    private ColumnarResult(@NonNull String[] columnNames, @NonNull int[] types, @NonNull Object[] values,
+                           @NonNull long[][] nullBitmaps, int rowCount) {
+        this.columnNames = columnNames;
+        this.types = types;
+        this.values = values;
+        this.nullBitmaps = nullBitmaps;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Reads all rows of the cursor, arrays are allocated once for expected number of rows
+     * and grow geometrically if cursor has more rows, there are no allocations per row except values of strings and blobs
+     *
+     * @param cursor      cursor positioned before first row, it won't be closed
+     * @param columnNames names of columns to read
+     * @param types       types of columns to read
+     * @return columnar result
+     */
+    @NonNull
+    static ColumnarResult from(@NonNull Cursor cursor, @NonNull String[] columnNames, @NonNull int[] types) {
+        final int columns = columnNames.length;
+        final int[] indexes = new int[columns];
+
+        for (int column = 0; column < columns; column++) {
+            indexes[column] = cursor.getColumnIndexOrThrow(columnNames[column]);
+        }
+
+        int capacity = Math.max(cursor.getCount(), MIN_CAPACITY);
+
+        final Object[] values = new Object[columns];
+        final long[][] nullBitmaps = new long[columns][];
+
+        for (int column = 0; column < columns; column++) {
+            values[column] = newArray(types[column], capacity);
+            nullBitmaps[column] = new long[bitmapSize(capacity)];
+        }
+
+        int row = 0;
+
+        while (cursor.moveToNext()) {
+            if (row == capacity) {
+                capacity += capacity >> 1;
+
+                for (int column = 0; column < columns; column++) {
+                    values[column] = copyOf(types[column], values[column], capacity);
+                    nullBitmaps[column] = Arrays.copyOf(nullBitmaps[column], bitmapSize(capacity));
+                }
+            }
+
+            for (int column = 0; column < columns; column++) {
+                final int index = indexes[column];
+
+                if (cursor.isNull(index)) {
+                    nullBitmaps[column][row >> 6] |= 1L << row;
+                    continue;
+                }
+
+                switch (types[column]) {
+                    case TYPE_LONG:
+                        ((long[]) values[column])[row] = cursor.getLong(index);
+                        break;
+                    case TYPE_DOUBLE:
+                        ((double[]) values[column])[row] = cursor.getDouble(index);
+                        break;
+                    case TYPE_STRING:
+                        ((String[]) values[column])[row] = cursor.getString(index);
+                        break;
+                    default:
+                        ((byte[][]) values[column])[row] = cursor.getBlob(index);
+                        break;
+                }
+            }
+
+            row++;
+        }
+
+        if (row != capacity) {
+            for (int column = 0; column < columns; column++) {
+                values[column] = copyOf(types[column], values[column], row);
+                nullBitmaps[column] = Arrays.copyOf(nullBitmaps[column], bitmapSize(row));
+            }
+        }
+
+        return new ColumnarResult(columnNames, types, values, nullBitmaps, row);
+    }
+
+    private static int bitmapSize(int capacity) {
+        return (capacity + 63) >> 6;
+    }
+
+    @NonNull
+    private static Object newArray(int type, int capacity) {
+        switch (type) {
+            case TYPE_LONG:
+                return new long[capacity];
+            case TYPE_DOUBLE:
+                return new double[capacity];
+            case TYPE_STRING:
+                return new String[capacity];
+            default:
+                return new byte[capacity][];
+        }
+    }
+
+    @NonNull
+    private static Object copyOf(int type, @NonNull Object array, int length) {
+        switch (type) {
+            case TYPE_LONG:
+                return Arrays.copyOf((long[]) array, length);
+            case TYPE_DOUBLE:
+                return Arrays.copyOf((double[]) array, length);
+            case TYPE_STRING:
+                return Arrays.copyOf((String[]) array, length);
+            default:
+                return Arrays.copyOf((byte[][]) array, length);
+        }
+    }
+
+    /**
+     * Gets number of rows
+     *
+     * @return number of rows
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets values of column declared via {@link PreparedGetColumns.Builder#longColumn(String)}
+     *
+     * @param columnName name of the column
+     * @return values of the column, NULL is stored as 0
+     */
+    @NonNull
+    public long[] longColumn(@NonNull String columnName) {
+        return (long[]) values[indexOf(columnName, TYPE_LONG)];
+    }
+
+    /**
+     * Gets values of column declared via {@link PreparedGetColumns.Builder#doubleColumn(String)}
+     *
+     * @param columnName name of the column
+     * @return values of the column, NULL is stored as 0
+     */
+    @NonNull
+    public double[] doubleColumn(@NonNull String columnName) {
+        return (double[]) values[indexOf(columnName, TYPE_DOUBLE)];
+    }
+
+    /**
+     * Gets values of column declared via {@link PreparedGetColumns.Builder#stringColumn(String)}
+     *
+     * @param columnName name of the column
+     * @return values of the column, NULL is stored as null
+     */
+    @NonNull
+    public String[] stringColumn(@NonNull String columnName) {
+        return (String[]) values[indexOf(columnName, TYPE_STRING)];
+    }
+
+    /**
+     * Gets values of column declared via {@link PreparedGetColumns.Builder#blobColumn(String)}
+     *
+     * @param columnName name of the column
+     * @return values of the column, NULL is stored as null
+     */
+    @NonNull
+    public byte[][] blobColumn(@NonNull String columnName) {
+        return (byte[][]) values[indexOf(columnName, TYPE_BLOB)];
+    }
+
+    /**
+     * Checks if value of the column is NULL
+     *
+     * @param columnName name of the column
+     * @param row        index of the row
+     * @return true if value is NULL, false otherwise
+     */
+    public boolean isNull(@NonNull String columnName, int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("row = " + row + ", rowCount = " + rowCount);
+        }
+
+        return (nullBitmaps[indexOf(columnName, 0)][row >> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * @param type required type of the column or 0 if any type is allowed
+     */
+    private int indexOf(@NonNull String columnName, int type) {
+        for (int column = 0; column < columnNames.length; column++) {
+            if (columnNames[column].equals(columnName)) {
+                if (type != 0 && types[column] != type) {
+                    throw new IllegalArgumentException("Column " + columnName + " was declared with another type");
+                }
+
+                return column;
+            }
+        }
+
+        throw new IllegalArgumentException("Column " + columnName + " was not declared");
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{" +
+                "columnNames=" + Arrays.toString(columnNames) +
+                ", rowCount=" + rowCount +
+                '}';
+    }
+}
@@ -0,0 +1,247 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.sqlite.SQLiteException;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conversions of values read by {@link OrderBy#readValues(android.database.Cursor, int[])},
+ * same as {@link android.database.CursorWindow} of {@link android.database.sqlite.SQLiteCursor} does them,
+ * so map functions receive same values from materialized results as from SQLiteCursor
+ * <p/>
+ * Values are null, {@link Long}, {@link Double}, {@link String} or byte[].
+ */
+final class CursorValues {
+
+    // strtod() accepts longest prefix which looks like a number
+    @NonNull
+    private static final Pattern DOUBLE_PREFIX = Pattern.compile(
+            "^[+-]?(?:(?:\\d+\\.?\\d*|\\.\\d+)(?:[eE][+-]?\\d+)?|inf(?:inity)?|nan)",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    @NonNull
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // precision of "%g" format
+    @NonNull
+    private static final MathContext REAL_PRECISION = new MathContext(6, RoundingMode.HALF_EVEN);
+
+    private CursorValues() {
+    }
+
+    /**
+     * Same as CursorWindow: NULL is 0, TEXT is parsed by strtoll() with base 0, REAL is truncated
+     */
+    static long toLong(@Nullable Object value) {
+        if (value == null) {
+            return 0L;
+        } else if (value instanceof Long) {
+            return (Long) value;
+        } else if (value instanceof Double) {
+            return ((Double) value).longValue();
+        } else if (value instanceof String) {
+            return parseLongPrefix((String) value);
+        } else {
+            throw new SQLiteException("Unable to convert BLOB to long");
+        }
+    }
+
+    /**
+     * Same as CursorWindow: NULL is 0, TEXT is parsed by strtod()
+     */
+    static double toDouble(@Nullable Object value) {
+        if (value == null) {
+            return 0.0;
+        } else if (value instanceof Double) {
+            return (Double) value;
+        } else if (value instanceof Long) {
+            return ((Long) value).doubleValue();
+        } else if (value instanceof String) {
+            return parseDoublePrefix((String) value);
+        } else {
+            throw new SQLiteException("Unable to convert BLOB to double");
+        }
+    }
+
+    /**
+     * Same as CursorWindow: INTEGER is formatted as "%lld", REAL as "%g"
+     */
+    @Nullable
+    static String toString(@Nullable Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        } else if (value instanceof Long) {
+            return value.toString();
+        } else if (value instanceof Double) {
+            return formatReal((Double) value);
+        } else {
+            throw new SQLiteException("Unable to convert BLOB to string");
+        }
+    }
+
+    /**
+     * Same as CursorWindow: TEXT is returned as its UTF-8 bytes, numbers can not be converted
+     */
+    @Nullable
+    static byte[] toBlob(@Nullable Object value) {
+        if (value == null || value instanceof byte[]) {
+            return (byte[]) value;
+        } else if (value instanceof String) {
+            return ((String) value).getBytes(UTF_8);
+        } else {
+            throw new SQLiteException("Unable to convert " + (value instanceof Long ? "INTEGER" : "FLOAT") + " to blob");
+        }
+    }
+
+    /**
+     * strtoll(value, NULL, 0): optional sign, "0x" prefix for hex, "0" prefix for octal,
+     * digits until first invalid char, saturates on overflow, 0 if there are no digits
+     */
+    static long parseLongPrefix(@NonNull String value) {
+        int i = 0;
+        final int length = value.length();
+
+        while (i < length && isSpace(value.charAt(i))) {
+            i++;
+        }
+
+        boolean negative = false;
+
+        if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            negative = value.charAt(i) == '-';
+            i++;
+        }
+
+        int radix = 10;
+
+        if (i + 1 < length && value.charAt(i) == '0' && (value.charAt(i + 1) == 'x' || value.charAt(i + 1) == 'X')
+                && i + 2 < length && digit(value.charAt(i + 2), 16) >= 0) {
+            radix = 16;
+            i += 2;
+        } else if (i < length && value.charAt(i) == '0') {
+            radix = 8;
+        }
+
+        // accumulated as negative number, because |Long.MIN_VALUE| > Long.MAX_VALUE
+        long result = 0;
+        boolean overflow = false;
+
+        while (i < length) {
+            final int digit = digit(value.charAt(i), radix);
+
+            if (digit < 0) {
+                break;
+            }
+
+            if (!overflow) {
+                if (result < (Long.MIN_VALUE + digit) / radix) {
+                    overflow = true;
+                } else {
+                    result = result * radix - digit;
+                }
+            }
+
+            i++;
+        }
+
+        if (overflow) {
+            return negative ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+
+        if (negative) {
+            return result;
+        }
+
+        return result == Long.MIN_VALUE ? Long.MAX_VALUE : -result;
+    }
+
+    /**
+     * strtod(value, NULL) for decimal numbers, "inf" and "nan": longest valid prefix, 0 if there is no number
+     */
+    static double parseDoublePrefix(@NonNull String value) {
+        int i = 0;
+
+        while (i < value.length() && isSpace(value.charAt(i))) {
+            i++;
+        }
+
+        final Matcher matcher = DOUBLE_PREFIX.matcher(value.substring(i));
+
+        if (!matcher.find()) {
+            return 0.0;
+        }
+
+        final String number = matcher.group();
+        final String unsigned = number.charAt(0) == '+' || number.charAt(0) == '-' ? number.substring(1) : number;
+        final boolean negative = number.charAt(0) == '-';
+
+        if (unsigned.regionMatches(true, 0, "inf", 0, 3)) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        } else if (unsigned.equalsIgnoreCase("nan")) {
+            return Double.NaN;
+        }
+
+        return Double.parseDouble(number);
+    }
+
+    /**
+     * C "%g": 6 significant digits, scientific notation if exponent is < -4 or >= 6,
+     * without trailing zeros, exponent with sign and at least two digits
+     */
+    @NonNull
+    static String formatReal(double value) {
+        if (Double.isNaN(value)) {
+            return "nan";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "inf" : "-inf";
+        } else if (value == 0) {
+            return 1 / value < 0 ? "-0" : "0";
+        }
+
+        final BigDecimal rounded = new BigDecimal(value).round(REAL_PRECISION);
+        final int exponent = rounded.precision() - rounded.scale() - 1;
+
+        if (exponent < -4 || exponent >= REAL_PRECISION.getPrecision()) {
+            final String mantissa = rounded.movePointLeft(exponent).stripTrailingZeros().toPlainString();
+            final int absExponent = Math.abs(exponent);
+
+            return mantissa
+                    + (exponent < 0 ? "e-" : "e+")
+                    + (absExponent < 10 ? "0" : "")
+                    + absExponent;
+        }
+
+        return rounded.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Value of ASCII digit in radix or -1, unlike {@link Character#digit(char, int)} does not accept other scripts
+     */
+    private static int digit(char c, int radix) {
+        final int digit;
+
+        if (c >= '0' && c <= '9') {
+            digit = c - '0';
+        } else if (c >= 'a' && c <= 'z') {
+            digit = c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'Z') {
+            digit = c - 'A' + 10;
+        } else {
+            return -1;
+        }
+
+        return digit < radix ? digit : -1;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
+    }
+}
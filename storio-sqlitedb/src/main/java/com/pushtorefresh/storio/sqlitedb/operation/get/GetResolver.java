@@ -9,6 +9,8 @@ import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
 
 /**
  * Resolves Get operation, you can make your own implementation with caching and other stuff!
+ * <p/>
+ * See {@link CachingGetResolver} for implementation with cache of query results.
  */
 public interface GetResolver {
 
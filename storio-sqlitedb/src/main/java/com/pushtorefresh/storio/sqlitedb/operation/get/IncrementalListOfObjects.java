@@ -0,0 +1,358 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.operation.CursorMapFunc;
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.RowChange;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.util.QueryUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of {@link Query} which is maintained incrementally with help of row-level {@link Changes}
+ * <p/>
+ * Changed rows are re-fetched by key and patched into previous result with respect to "ORDER BY",
+ * so cost of the update depends on number of changed rows instead of size of the result.
+ * <p/>
+ * Falls back to full re-query if row-level changes are unknown, query has "GROUP BY", "HAVING" or "LIMIT",
+ * has no "ORDER BY" or it is not supported by {@link OrderBy}, key or "ORDER BY" columns are not in the projection or API < 11.
+ * <p/>
+ * Not thread-safe, should be used by one subscriber.
+ *
+ * @param <T> type of objects
+ */
+class IncrementalListOfObjects<T> {
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    @NonNull
+    private final Query query;
+
+    @NonNull
+    private final GetResolver getResolver;
+
+    @NonNull
+    private final MapFunc<Cursor, T> mapFunc;
+
+    @NonNull
+    private final String keyColumn;
+
+    /**
+     * Null if incremental updates are not possible for the query
+     */
+    @Nullable
+    private final OrderBy orderBy;
+
+    @NonNull
+    private final List<Entry<T>> entries = new ArrayList<>();
+
+    @NonNull
+    private final Map<String, Entry<T>> entriesByKey = new HashMap<>();
+
+    private boolean incremental;
+
+    IncrementalListOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Query query,
+                             @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc,
+                             @NonNull String keyColumn) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.query = query;
+        this.getResolver = getResolver;
+        this.mapFunc = mapFunc;
+        this.keyColumn = keyColumn;
+
+        final OrderBy parsedOrderBy = Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB
+                && query.groupBy == null
+                && query.having == null
+                && query.limit == null
+                ? OrderBy.parse(query.orderBy)
+                : null;
+
+        // without "ORDER BY" order of rows is defined by SQLite (rowid for plain scan),
+        // it can not be reproduced, changed rows would be moved to the end of the list
+        orderBy = parsedOrderBy != null && parsedOrderBy.columns().length > 0
+                ? parsedOrderBy
+                : null;
+    }
+
+    /**
+     * Executes whole query and replaces previous result
+     *
+     * @return non-null list with mapped results, can be empty
+     */
+    @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
+    @NonNull
+    List<T> reload() {
+        entries.clear();
+        entriesByKey.clear();
+
+        final Cursor cursor = getResolver.performGet(storIOSQLiteDb, query);
+
+        try {
+            final int keyColumnIndex = cursor.getColumnIndex(keyColumn);
+            final int[] orderByColumnIndexes = orderByColumnIndexes(cursor);
+
+            incremental = keyColumnIndex != -1 && orderByColumnIndexes != null;
+
+            final List<T> list = new ArrayList<>(cursor.getCount());
+            final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+
+            while (cursor.moveToNext()) {
+                if (incremental) {
+                    //noinspection ConstantConditions
+                    final Entry<T> entry = readEntry(cursor, rowMapFunc, keyColumnIndex, orderByColumnIndexes);
+                    entries.add(entry);
+                    entriesByKey.put(entry.key, entry);
+                    list.add(entry.value);
+                } else {
+                    list.add(rowMapFunc.map(cursor));
+                }
+            }
+
+            return list;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Applies changes to previous result
+     *
+     * @param changes changes which affect table of the query
+     * @return non-null list with mapped results or null if result was not changed
+     */
+    @Nullable
+    List<T> apply(@NonNull Changes changes) {
+        final List<RowChange> rowChanges = changes.rowChanges(query.table);
+
+        if (!incremental || rowChanges == null) {
+            return reload();
+        }
+
+        if (rowChanges.isEmpty()) {
+            return null;
+        }
+
+        final Set<String> removedKeys = new LinkedHashSet<>();
+        final Set<String> keysToFetch = new LinkedHashSet<>();
+        final Set<String> rowIdsToFetch = new LinkedHashSet<>();
+
+        for (RowChange rowChange : rowChanges) {
+            if (keyColumn.equalsIgnoreCase(rowChange.keyColumn())) {
+                removedKeys.add(rowChange.key());
+
+                if (rowChange.type() != RowChange.Type.DELETE) {
+                    keysToFetch.add(rowChange.key());
+                }
+            } else if (rowChange.type() == RowChange.Type.INSERT && RowChange.ROW_ID.equals(rowChange.keyColumn())) {
+                // new row can not be in the result yet
+                rowIdsToFetch.add(rowChange.key());
+            } else {
+                // can not match the change with rows of the result
+                return reload();
+            }
+        }
+
+        final Map<String, Entry<T>> fetchedEntries = new LinkedHashMap<>();
+        fetch(keyColumn, keysToFetch, fetchedEntries);
+        fetch(RowChange.ROW_ID, rowIdsToFetch, fetchedEntries);
+
+        // replaced rows (for example "INSERT OR REPLACE") are removed too
+        removedKeys.addAll(fetchedEntries.keySet());
+        removeEntries(removedKeys);
+
+        for (Entry<T> entry : fetchedEntries.values()) {
+            entries.add(upperBound(entry.orderByValues), entry);
+            entriesByKey.put(entry.key, entry);
+        }
+
+        final List<T> list = new ArrayList<>(entries.size());
+
+        for (Entry<T> entry : entries) {
+            list.add(entry.value);
+        }
+
+        return list;
+    }
+
+    @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
+    private void fetch(@NonNull String column, @NonNull Collection<String> keys, @NonNull Map<String, Entry<T>> fetchedEntries) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        final List<String> whereArgs = query.whereArgs;
+        final int numberOfWhereArgs = whereArgs == null ? 0 : whereArgs.size();
+        final int maxKeysPerQuery = Math.max(1, StorIOSQLiteDb.MAX_VARIABLE_NUMBER - numberOfWhereArgs);
+
+        final List<String> allKeys = new ArrayList<>(keys);
+
+        for (int chunkStart = 0; chunkStart < allKeys.size(); chunkStart += maxKeysPerQuery) {
+            final List<String> chunk = allKeys.subList(chunkStart, Math.min(chunkStart + maxKeysPerQuery, allKeys.size()));
+
+            final StringBuilder where = new StringBuilder();
+
+            if (query.where != null) {
+                where.append('(').append(query.where).append(") AND ");
+            }
+
+            where.append(column).append(" IN (");
+
+            for (int i = 0; i < chunk.size(); i++) {
+                where.append(i == 0 ? "?" : ",?");
+            }
+
+            where.append(')');
+
+            final List<Object> chunkWhereArgs = new ArrayList<>(numberOfWhereArgs + chunk.size());
+
+            if (whereArgs != null) {
+                chunkWhereArgs.addAll(whereArgs);
+            }
+
+            chunkWhereArgs.addAll(chunk);
+
+            final Query chunkQuery = new Query.Builder()
+                    .distinct(query.distinct)
+                    .table(query.table)
+                    .columns(QueryUtil.listToArray(query.columns))
+                    .where(where.toString())
+                    .whereArgs(chunkWhereArgs.toArray())
+                    .build();
+
+            final Cursor cursor = getResolver.performGet(storIOSQLiteDb, chunkQuery);
+
+            try {
+                final int keyColumnIndex = cursor.getColumnIndex(keyColumn);
+                final int[] orderByColumnIndexes = orderByColumnIndexes(cursor);
+
+                if (keyColumnIndex == -1 || orderByColumnIndexes == null) {
+                    throw new IllegalStateException("Cursor does not contain key or ORDER BY columns, query = " + chunkQuery);
+                }
+
+                final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+
+                while (cursor.moveToNext()) {
+                    final Entry<T> entry = readEntry(cursor, rowMapFunc, keyColumnIndex, orderByColumnIndexes);
+                    fetchedEntries.put(entry.key, entry);
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+
+    private void removeEntries(@NonNull Set<String> keys) {
+        boolean hasEntriesToRemove = false;
+
+        for (String key : keys) {
+            if (entriesByKey.remove(key) != null) {
+                hasEntriesToRemove = true;
+            }
+        }
+
+        if (!hasEntriesToRemove) {
+            return;
+        }
+
+        int newSize = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            final Entry<T> entry = entries.get(i);
+
+            if (!keys.contains(entry.key)) {
+                entries.set(newSize++, entry);
+            }
+        }
+
+        entries.subList(newSize, entries.size()).clear();
+    }
+
+    /**
+     * Finds position after all entries which are less or equal to the values,
+     * so position of rows with same "ORDER BY" values is stable
+     */
+    private int upperBound(@NonNull Object[] orderByValues) {
+        //noinspection ConstantConditions
+        final OrderBy orderBy = this.orderBy;
+
+        int low = 0;
+        int high = entries.size();
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (orderBy.compare(entries.get(middle).orderByValues, orderByValues) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return indexes of "ORDER BY" columns or null if incremental updates are not possible
+     */
+    @Nullable
+    private int[] orderByColumnIndexes(@NonNull Cursor cursor) {
+        if (orderBy == null) {
+            return null;
+        }
+
+        final String[] columns = orderBy.columns();
+        final int[] columnIndexes = new int[columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            columnIndexes[i] = cursor.getColumnIndex(columns[i]);
+
+            if (columnIndexes[i] == -1) {
+                return null;
+            }
+        }
+
+        return columnIndexes;
+    }
+
+    @NonNull
+    private static <T> Entry<T> readEntry(@NonNull Cursor cursor, @NonNull MapFunc<Cursor, T> rowMapFunc,
+                                          int keyColumnIndex, @NonNull int[] orderByColumnIndexes) {
+        return new Entry<>(
+                cursor.getString(keyColumnIndex),
+                OrderBy.readValues(cursor, orderByColumnIndexes),
+                rowMapFunc.map(cursor)
+        );
+    }
+
+    private static class Entry<T> {
+
+        @Nullable
+        final String key;
+
+        @NonNull
+        final Object[] orderByValues;
+
+        final T value;
+
+        Entry(@Nullable String key, @NonNull Object[] orderByValues, T value) {
+            this.key = key;
+            this.orderByValues = orderByValues;
+            this.value = value;
+        }
+    }
+}
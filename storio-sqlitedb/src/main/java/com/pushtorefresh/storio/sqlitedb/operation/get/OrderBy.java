@@ -0,0 +1,291 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.annotation.TargetApi;
+import android.database.Cursor;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Java-side implementation of simple SQL "ORDER BY" clause, immutable
+ * <p/>
+ * Supports only terms like "column [COLLATE BINARY|NOCASE|RTRIM] [ASC|DESC]",
+ * values are compared same way as SQLite compares them:
+ * NULL < INTEGER and REAL < TEXT < BLOB.
+ * Collation declared for the column in the table is unknown here, so term without "COLLATE" is compared as BINARY.
+ * <p/>
+ * {@link #readValues(Cursor, int[])} requires {@link Cursor#getType(int)}, so comparison of rows works only on API 11+.
+ */
+class OrderBy implements Comparator<Object[]> {
+
+    private static final Pattern TERM = Pattern.compile(
+            "^\\s*(\\w+)(?:\\s+COLLATE\\s+(\\w+))?(?:\\s+(ASC|DESC))?\\s*$",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final int COLLATE_BINARY = 0;
+    private static final int COLLATE_NOCASE = 1;
+    private static final int COLLATE_RTRIM = 2;
+
+    @NonNull
+    private final String[] columns;
+
+    @NonNull
+    private final int[] collations;
+
+    @NonNull
+    private final String[] collationNames;
+
+    @NonNull
+    private final boolean[] descending;
+
+    private OrderBy(@NonNull String[] columns, @NonNull int[] collations, @NonNull String[] collationNames, @NonNull boolean[] descending) {
+        this.columns = columns;
+        this.collations = collations;
+        this.collationNames = collationNames;
+        this.descending = descending;
+    }
+
+    /**
+     * Parses "ORDER BY" clause
+     *
+     * @param orderBy "ORDER BY" clause without "ORDER BY" itself, can be null
+     * @return {@link OrderBy} or null if clause is not supported
+     */
+    @Nullable
+    static OrderBy parse(@Nullable String orderBy) {
+        if (orderBy == null || orderBy.trim().length() == 0) {
+            return new OrderBy(new String[0], new int[0], new String[0], new boolean[0]);
+        }
+
+        final String[] terms = orderBy.split(",");
+
+        final String[] columns = new String[terms.length];
+        final int[] collations = new int[terms.length];
+        final String[] collationNames = new String[terms.length];
+        final boolean[] descending = new boolean[terms.length];
+
+        for (int i = 0; i < terms.length; i++) {
+            final Matcher matcher = TERM.matcher(terms[i]);
+
+            if (!matcher.matches()) {
+                return null;
+            }
+
+            columns[i] = matcher.group(1);
+
+            final String collation = matcher.group(2);
+            collationNames[i] = collation;
+
+            if (collation == null || "BINARY".equalsIgnoreCase(collation)) {
+                collations[i] = COLLATE_BINARY;
+            } else if ("NOCASE".equalsIgnoreCase(collation)) {
+                collations[i] = COLLATE_NOCASE;
+            } else if ("RTRIM".equalsIgnoreCase(collation)) {
+                collations[i] = COLLATE_RTRIM;
+            } else {
+                // LOCALIZED, UNICODE and custom collations can not be reproduced
+                return null;
+            }
+
+            descending[i] = "DESC".equalsIgnoreCase(matcher.group(3));
+        }
+
+        return new OrderBy(columns, collations, collationNames, descending);
+    }
+
+    /**
+     * Gets columns of the clause
+     *
+     * @return columns, caller should not modify the array
+     */
+    @NonNull
+    String[] columns() {
+        return columns;
+    }
+
+    /**
+     * Checks if column of the clause is sorted in descending order
+     *
+     * @param index index of the column in {@link #columns()}
+     * @return true for "DESC", false for "ASC"
+     */
+    boolean isDescending(int index) {
+        return descending[index];
+    }
+
+    /**
+     * Gets collation of column of the clause
+     *
+     * @param index index of the column in {@link #columns()}
+     * @return collation name or null if it was not specified in the clause
+     */
+    @Nullable
+    String collation(int index) {
+        return collationNames[index];
+    }
+
+    /**
+     * Reads values of the clause columns from current row of the cursor
+     *
+     * @param cursor        cursor
+     * @param columnIndexes indexes of {@link #columns()} in the cursor
+     * @return values of the columns
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    @NonNull
+    static Object[] readValues(@NonNull Cursor cursor, @NonNull int[] columnIndexes) {
+        final Object[] values = new Object[columnIndexes.length];
+
+        for (int i = 0; i < columnIndexes.length; i++) {
+            final int columnIndex = columnIndexes[i];
+
+            switch (cursor.getType(columnIndex)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    values[i] = null;
+                    break;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    values[i] = cursor.getLong(columnIndex);
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    values[i] = cursor.getDouble(columnIndex);
+                    break;
+                case Cursor.FIELD_TYPE_BLOB:
+                    values[i] = cursor.getBlob(columnIndex);
+                    break;
+                default:
+                    values[i] = cursor.getString(columnIndex);
+                    break;
+            }
+        }
+
+        return values;
+    }
+
+    @Override
+    public int compare(@NonNull Object[] lhs, @NonNull Object[] rhs) {
+        for (int i = 0; i < columns.length; i++) {
+            final int result = compareValues(lhs[i], rhs[i], collations[i]);
+
+            if (result != 0) {
+                return descending[i] ? -result : result;
+            }
+        }
+
+        return 0;
+    }
+
+    private static int compareValues(@Nullable Object lhs, @Nullable Object rhs, int collation) {
+        final int lhsRank = rank(lhs);
+        final int rhsRank = rank(rhs);
+
+        if (lhsRank != rhsRank) {
+            return lhsRank < rhsRank ? -1 : 1;
+        }
+
+        switch (lhsRank) {
+            case 0:
+                return 0;
+            case 1:
+                if (lhs instanceof Long && rhs instanceof Long) {
+                    final long lhsLong = (Long) lhs;
+                    final long rhsLong = (Long) rhs;
+                    return lhsLong < rhsLong ? -1 : (lhsLong == rhsLong ? 0 : 1);
+                } else {
+                    return Double.compare(((Number) lhs).doubleValue(), ((Number) rhs).doubleValue());
+                }
+            case 2:
+                //noinspection ConstantConditions
+                return compareText((String) lhs, (String) rhs, collation);
+            default:
+                //noinspection ConstantConditions
+                return compareBlobs((byte[]) lhs, (byte[]) rhs);
+        }
+    }
+
+    private static int rank(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Number) {
+            return 1;
+        } else if (value instanceof String) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    private static int compareText(@NonNull String lhs, @NonNull String rhs, int collation) {
+        if (collation == COLLATE_NOCASE) {
+            // SQLite NOCASE folds only ASCII characters
+            lhs = toLowerCaseAscii(lhs);
+            rhs = toLowerCaseAscii(rhs);
+        } else if (collation == COLLATE_RTRIM) {
+            lhs = trimTrailingSpaces(lhs);
+            rhs = trimTrailingSpaces(rhs);
+        }
+
+        // BINARY collation compares UTF-8 bytes, that is same as comparison of code points
+        int lhsIndex = 0;
+        int rhsIndex = 0;
+
+        while (lhsIndex < lhs.length() && rhsIndex < rhs.length()) {
+            final int lhsCodePoint = lhs.codePointAt(lhsIndex);
+            final int rhsCodePoint = rhs.codePointAt(rhsIndex);
+
+            if (lhsCodePoint != rhsCodePoint) {
+                return lhsCodePoint < rhsCodePoint ? -1 : 1;
+            }
+
+            lhsIndex += Character.charCount(lhsCodePoint);
+            rhsIndex += Character.charCount(rhsCodePoint);
+        }
+
+        final int lhsRest = lhs.length() - lhsIndex;
+        final int rhsRest = rhs.length() - rhsIndex;
+        return lhsRest < rhsRest ? -1 : (lhsRest == rhsRest ? 0 : 1);
+    }
+
+    @NonNull
+    private static String toLowerCaseAscii(@NonNull String value) {
+        final char[] chars = value.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+
+        return new String(chars);
+    }
+
+    @NonNull
+    private static String trimTrailingSpaces(@NonNull String value) {
+        int end = value.length();
+
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        return value.substring(0, end);
+    }
+
+    private static int compareBlobs(@NonNull byte[] lhs, @NonNull byte[] rhs) {
+        final int length = Math.min(lhs.length, rhs.length);
+
+        for (int i = 0; i < length; i++) {
+            final int lhsByte = lhs[i] & 0xFF;
+            final int rhsByte = rhs[i] & 0xFF;
+
+            if (lhsByte != rhsByte) {
+                return lhsByte < rhsByte ? -1 : 1;
+            }
+        }
+
+        return lhs.length < rhs.length ? -1 : (lhs.length == rhs.length ? 0 : 1);
+    }
+}
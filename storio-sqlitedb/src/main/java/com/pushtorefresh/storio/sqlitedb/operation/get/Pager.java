@@ -0,0 +1,656 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.operation.CursorMapFunc;
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.util.EnvironmentUtil;
+import com.pushtorefresh.storio.util.QueryUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.schedulers.Schedulers;
+
+/**
+ * Keyset (seek) pagination over {@link Query}, thread-safe
+ * <p/>
+ * "ORDER BY" of the query should be a unique non-null sort key, for example "_id" or "created_at DESC, _id DESC".
+ * Each page is loaded with "WHERE sort key is after last row of previous page ... LIMIT page size",
+ * so with index on the sort key cost of the page does not depend on its position.
+ * <p/>
+ * When full page is loaded, next page is prefetched on background {@link Scheduler},
+ * except when current thread holds a transaction, see {@link StorIOSQLiteDb.Internal#inTransaction()}.
+ * Each page covers range of sort keys from previous page (exclusive) to its last row (inclusive)
+ * and can be observed via {@link Page#createObservableStream()}.
+ * <p/>
+ * Requires RxJava.
+ *
+ * @param <T> type of objects
+ */
+public class Pager<T> {
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    @NonNull
+    private final Query query;
+
+    @NonNull
+    private final OrderBy orderBy;
+
+    @NonNull
+    private final GetResolver getResolver;
+
+    @NonNull
+    private final MapFunc<Cursor, T> mapFunc;
+
+    private final int pageSize;
+
+    @NonNull
+    private final Scheduler prefetchScheduler;
+
+    /**
+     * If true, sort key keeps types of values, otherwise values are read as strings (API < 11)
+     */
+    private final boolean typedSortKey;
+
+    /**
+     * Sort key of last row of last loaded page, null if no pages were loaded
+     */
+    @Nullable
+    private List<Object> lastKey;
+
+    private int nextPageIndex;
+
+    @Nullable
+    private Prefetch prefetch;
+
+    private boolean closed;
+
+    Pager(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Query query, @NonNull OrderBy orderBy,
+          @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc,
+          int pageSize, @NonNull Scheduler prefetchScheduler, boolean typedSortKey) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.query = query;
+        this.orderBy = orderBy;
+        this.getResolver = getResolver;
+        this.mapFunc = mapFunc;
+        this.pageSize = pageSize;
+        this.prefetchScheduler = prefetchScheduler;
+        this.typedSortKey = typedSortKey;
+    }
+
+    /**
+     * Loads next page immediately in current thread or takes prefetched one
+     *
+     * @return next page or null if there are no rows after last loaded page at the moment,
+     * next call can return page if rows will be added
+     */
+    @Nullable
+    public synchronized Page<T> loadNextPage() {
+        if (closed) {
+            throw new IllegalStateException("Pager is closed");
+        }
+
+        // prefetch waits for the connection which is held by transaction of current thread (without WAL),
+        // so in transaction pages are loaded only inline
+        final boolean inTransaction = storIOSQLiteDb.internal().inTransaction();
+
+        LoadedRows<T> loadedRows = null;
+
+        if (prefetch != null) {
+            if (inTransaction) {
+                prefetch.cancel();
+            } else {
+                loadedRows = prefetch.await();
+            }
+
+            prefetch = null;
+        }
+
+        if (loadedRows == null) {
+            loadedRows = load(lastKey, null, pageSize);
+        }
+
+        if (loadedRows.items.isEmpty()) {
+            return null;
+        }
+
+        final Page<T> page = new Page<>(this, nextPageIndex++, lastKey, loadedRows.lastKey, loadedRows.items);
+        lastKey = loadedRows.lastKey;
+
+        if (loadedRows.items.size() == pageSize && !inTransaction) {
+            // there are probably more rows
+            prefetch = new Prefetch(lastKey);
+        }
+
+        return page;
+    }
+
+    /**
+     * Creates an {@link Observable} which will load next page, see {@link #loadNextPage()}
+     *
+     * @return non-null {@link Observable} which will emit next page or complete without emission if there are no more rows
+     */
+    @NonNull
+    public Observable<Page<T>> nextPage() {
+        return Observable.create(new Observable.OnSubscribe<Page<T>>() {
+            @Override
+            public void call(Subscriber<? super Page<T>> subscriber) {
+                final Page<T> page = loadNextPage();
+
+                if (!subscriber.isUnsubscribed()) {
+                    if (page != null) {
+                        subscriber.onNext(page);
+                    }
+
+                    subscriber.onCompleted();
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels prefetch of next page, pager can not load pages after close,
+     * but already loaded pages still can be observed
+     */
+    public synchronized void close() {
+        closed = true;
+
+        if (prefetch != null) {
+            prefetch.cancel();
+            prefetch = null;
+        }
+    }
+
+    /**
+     * Loads rows with sort key in range (after, to]
+     *
+     * @param after sort key after which rows should be loaded, null means from first row
+     * @param to    last sort key of the range, null means without upper bound
+     * @param limit max number of rows or 0 for no limit
+     */
+    @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
+    @NonNull
+    LoadedRows<T> load(@Nullable List<Object> after, @Nullable List<Object> to, int limit) {
+        final StringBuilder where = new StringBuilder();
+        final List<Object> whereArgs = new ArrayList<>();
+
+        if (query.where != null) {
+            where.append('(').append(query.where).append(')');
+
+            if (query.whereArgs != null) {
+                whereArgs.addAll(query.whereArgs);
+            }
+        }
+
+        if (after != null) {
+            if (where.length() > 0) {
+                where.append(" AND ");
+            }
+
+            appendIsAfter(where, whereArgs, after);
+        }
+
+        if (to != null) {
+            if (where.length() > 0) {
+                where.append(" AND ");
+            }
+
+            where.append("NOT ");
+            appendIsAfter(where, whereArgs, to);
+        }
+
+        final Query pageQuery = new Query.Builder()
+                .distinct(query.distinct)
+                .table(query.table)
+                .columns(QueryUtil.listToArray(query.columns))
+                .where(where.length() > 0 ? where.toString() : null)
+                .whereArgs(whereArgs.toArray())
+                .groupBy(query.groupBy)
+                .having(query.having)
+                .orderBy(query.orderBy)
+                .limit(limit > 0 ? String.valueOf(limit) : null)
+                .build();
+
+        final Cursor cursor = getResolver.performGet(storIOSQLiteDb, pageQuery);
+
+        try {
+            final String[] columns = orderBy.columns();
+            final int[] columnIndexes = new int[columns.length];
+
+            for (int i = 0; i < columns.length; i++) {
+                columnIndexes[i] = cursor.getColumnIndexOrThrow(columns[i]);
+            }
+
+            final List<T> items = new ArrayList<>(cursor.getCount());
+            final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+
+            while (cursor.moveToNext()) {
+                items.add(rowMapFunc.map(cursor));
+            }
+
+            final List<Object> lastKey = cursor.moveToLast()
+                    ? readKey(cursor, columnIndexes)
+                    : null;
+
+            return new LoadedRows<>(items, lastKey);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Appends condition "(a > ?) OR (a = ? AND b > ?) ..." for sort key (a, b, ...),
+     * row values comparison can not be used because it's not supported by SQLite of old Android versions
+     */
+    private void appendIsAfter(@NonNull StringBuilder where, @NonNull List<Object> whereArgs, @NonNull List<Object> key) {
+        final String[] columns = orderBy.columns();
+
+        where.append('(');
+
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                where.append(" OR ");
+            }
+
+            where.append('(');
+
+            for (int j = 0; j < i; j++) {
+                where.append(columns[j]).append(" = ");
+                appendValue(where, whereArgs, key.get(j));
+                appendCollation(where, j);
+                where.append(" AND ");
+            }
+
+            where.append(columns[i]).append(orderBy.isDescending(i) ? " < " : " > ");
+            appendValue(where, whereArgs, key.get(i));
+            appendCollation(where, i);
+            where.append(')');
+        }
+
+        where.append(')');
+    }
+
+    /**
+     * Appends placeholder of value of sort key, where arguments are bound as strings,
+     * so numbers are cast back to their type: string is never equal to a number in SQLite
+     * if sort key is an expression or column without numeric affinity
+     */
+    private static void appendValue(@NonNull StringBuilder where, @NonNull List<Object> whereArgs, @NonNull Object value) {
+        if (value instanceof Long) {
+            where.append("CAST(? AS INTEGER)");
+            whereArgs.add(value.toString());
+        } else if (value instanceof Double) {
+            final double doubleValue = (Double) value;
+
+            where.append("CAST(? AS REAL)");
+            // Double.toString() is exact for round trip, SQLite parses overflowed literal as infinity
+            whereArgs.add(Double.isInfinite(doubleValue) ? (doubleValue > 0 ? "1e999" : "-1e999") : value.toString());
+        } else {
+            where.append('?');
+            whereArgs.add(value);
+        }
+    }
+
+    private void appendCollation(@NonNull StringBuilder where, int index) {
+        final String collation = orderBy.collation(index);
+
+        // without explicit collation comparison uses collation of the column, same as "ORDER BY"
+        if (collation != null) {
+            where.append(" COLLATE ").append(collation);
+        }
+    }
+
+    @NonNull
+    private List<Object> readKey(@NonNull Cursor cursor, @NonNull int[] columnIndexes) {
+        final Object[] values;
+
+        if (typedSortKey) {
+            values = OrderBy.readValues(cursor, columnIndexes);
+        } else {
+            values = new Object[columnIndexes.length];
+
+            for (int i = 0; i < columnIndexes.length; i++) {
+                values[i] = cursor.getString(columnIndexes[i]);
+            }
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                throw new IllegalStateException("Sort key of Pager should not contain NULL, column = " + cursor.getColumnName(columnIndexes[i]));
+            }
+
+            if (values[i] instanceof byte[]) {
+                throw new IllegalStateException("Sort key of Pager should not contain BLOB, column = " + cursor.getColumnName(columnIndexes[i]));
+            }
+        }
+
+        return Arrays.asList(values);
+    }
+
+    static class LoadedRows<T> {
+
+        @NonNull
+        final List<T> items;
+
+        @Nullable
+        final List<Object> lastKey;
+
+        LoadedRows(@NonNull List<T> items, @Nullable List<Object> lastKey) {
+            this.items = items;
+            this.lastKey = lastKey;
+        }
+    }
+
+    /**
+     * Next page which is loaded on background scheduler,
+     * it's discarded if table was changed during prefetch
+     */
+    private class Prefetch {
+
+        @NonNull
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @NonNull
+        private final Subscription changesSubscription;
+
+        @NonNull
+        private final Scheduler.Worker worker;
+
+        private volatile boolean invalidated;
+
+        @Nullable
+        private volatile LoadedRows<T> loadedRows;
+
+        Prefetch(@Nullable final List<Object> after) {
+            // changes are observed before query, so result which was read before change will be discarded
+            changesSubscription = storIOSQLiteDb
+                    .observeChangesInTable(query.table)
+                    .subscribe(new Action1<Changes>() {
+                        @Override
+                        public void call(Changes changes) {
+                            invalidated = true;
+                        }
+                    });
+
+            worker = prefetchScheduler.createWorker();
+
+            worker.schedule(new Action0() {
+                @Override
+                public void call() {
+                    try {
+                        loadedRows = load(after, null, pageSize);
+                    } catch (RuntimeException e) {
+                        // page will be loaded again by loadNextPage() which will deliver the exception
+                        storIOSQLiteDb.internal().getLoggi().e("Can not prefetch next page", e);
+                    } finally {
+                        latch.countDown();
+                        worker.unsubscribe();
+                    }
+                }
+            });
+        }
+
+        /**
+         * @return prefetched rows or null if they should be loaded again
+         */
+        @Nullable
+        LoadedRows<T> await() {
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // prefetch is already started, waiting for it instead of second query
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            changesSubscription.unsubscribe();
+            return invalidated ? null : loadedRows;
+        }
+
+        void cancel() {
+            changesSubscription.unsubscribe();
+            worker.unsubscribe();
+        }
+    }
+
+    /**
+     * Loaded page of {@link Pager}, immutable
+     *
+     * @param <T> type of objects
+     */
+    public static class Page<T> {
+
+        @NonNull
+        private final Pager<T> pager;
+
+        private final int index;
+
+        @Nullable
+        private final List<Object> after;
+
+        @Nullable
+        private final List<Object> to;
+
+        @NonNull
+        private final List<T> items;
+
+        Page(@NonNull Pager<T> pager, int index, @Nullable List<Object> after, @Nullable List<Object> to, @NonNull List<T> items) {
+            this.pager = pager;
+            this.index = index;
+            this.after = after;
+            this.to = to;
+            this.items = Collections.unmodifiableList(items);
+        }
+
+        /**
+         * Gets index of the page
+         *
+         * @return index of the page, first page has index 0
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Gets objects of the page at the moment of load
+         *
+         * @return non-null immutable list of objects
+         */
+        @NonNull
+        public List<T> items() {
+            return items;
+        }
+
+        /**
+         * Creates an {@link Observable} which will emit objects of the page each time table of the query changes
+         * <p/>
+         * First emission is {@link #items()}, then range of sort keys of the page is queried again on each change,
+         * so rows inserted into the range will be added to the page and it can become bigger than page size
+         *
+         * @return non-null {@link Observable} which will emit non-null list of objects of the page
+         */
+        @NonNull
+        public Observable<List<T>> createObservableStream() {
+            EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservableStream()");
+
+            return QueryStream.create(pager.storIOSQLiteDb, Collections.singleton(pager.query.table), new QueryStream.Source<List<T>>() {
+                @Override
+                List<T> firstResult() {
+                    return items;
+                }
+
+                @Override
+                List<T> resultAfter(@NonNull Changes changes) {
+                    return pager.load(after, to, 0).items;
+                }
+            });
+        }
+    }
+
+    /**
+     * Builder for {@link Pager}
+     *
+     * @param <T> type of objects
+     */
+    public static class Builder<T> {
+
+        private static final int DEFAULT_PAGE_SIZE = 50;
+
+        @NonNull
+        private final StorIOSQLiteDb storIOSQLiteDb;
+
+        @NonNull
+        private final Class<T> type; // currently type not used as object, only for generic Builder class
+
+        private MapFunc<Cursor, T> mapFunc;
+        private Query query;
+        private GetResolver getResolver;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private Scheduler prefetchScheduler;
+
+        Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Class<T> type) {
+            this.storIOSQLiteDb = storIOSQLiteDb;
+            this.type = type;
+        }
+
+        /**
+         * Specifies map function which will map {@link Cursor} to object of required type
+         *
+         * @param mapFunc map function which will map {@link Cursor} to object of required type
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withMapFunc(@NonNull MapFunc<Cursor, T> mapFunc) {
+            this.mapFunc = mapFunc;
+            return this;
+        }
+
+        /**
+         * Specifies {@link Query} for pagination
+         * <p/>
+         * "ORDER BY" should be unique non-null sort key, it should contain only column names
+         * with optional "COLLATE BINARY|NOCASE|RTRIM" and "ASC|DESC", columns should be in the projection,
+         * alias of expression from the projection can be used as column. Values of sort key should not be BLOBs.
+         * "LIMIT" is not allowed, it's controlled by {@link #pageSize(int)}
+         *
+         * @param query query
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withQuery(@NonNull Query query) {
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@link GetResolver} which allows you to customize behavior of queries
+         *
+         * @param getResolver get resolver
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withGetResolver(@NonNull GetResolver getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies size of the page
+         * <p/>
+         * Default value is 50
+         *
+         * @param pageSize number of rows in the page
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> pageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("pageSize should be > 0, but was " + pageSize);
+            }
+
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@link Scheduler} for prefetch of next page
+         * <p/>
+         * Default value is {@link Schedulers#io()}
+         *
+         * @param prefetchScheduler scheduler
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> prefetchOn(@NonNull Scheduler prefetchScheduler) {
+            this.prefetchScheduler = prefetchScheduler;
+            return this;
+        }
+
+        /**
+         * Prepares {@link Pager}
+         *
+         * @return {@link Pager} instance
+         */
+        @NonNull
+        public Pager<T> prepare() {
+            EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("Pager");
+
+            if (getResolver == null) {
+                getResolver = DefaultGetResolver.INSTANCE;
+            }
+
+            if (prefetchScheduler == null) {
+                prefetchScheduler = Schedulers.io();
+            }
+
+            if (mapFunc == null) {
+                throw new IllegalStateException("Please specify map function");
+            }
+
+            if (query == null) {
+                throw new IllegalStateException("Please specify query");
+            }
+
+            if (query.limit != null) {
+                throw new IllegalStateException("Query of Pager should not have limit, please use pageSize()");
+            }
+
+            final OrderBy orderBy = OrderBy.parse(query.orderBy);
+
+            if (orderBy == null || orderBy.columns().length == 0) {
+                throw new IllegalStateException("Query of Pager should have orderBy with column names, orderBy = " + query.orderBy);
+            }
+
+            // Cursor.getType() is available since API 11
+            final boolean typedSortKey = Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB;
+
+            return new Pager<>(storIOSQLiteDb, query, orderBy, getResolver, mapFunc, pageSize, prefetchScheduler, typedSortKey);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.operation.CursorMapFunc;
+import com.pushtorefresh.storio.operation.MapFunc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maps rows of {@link Cursor} in parallel on {@link Executor}, order of rows is preserved
+ * <p/>
+ * Raw values of all rows are copied from the cursor in one pass, then chunks of rows are mapped
+ * in parallel, each chunk reads its rows through its own {@link Cursor} over copied values.
+ * Calling thread maps chunks too and maps chunks which were not started by the executor,
+ * so mapping can not deadlock even if the executor is busy or rejects tasks.
+ * <p/>
+ * Requires API 11+ because of {@link Cursor#getType(int)}.
+ */
+class ParallelMapper {
+
+    /**
+     * Mapping of less rows is not worth overhead of copying and scheduling
+     */
+    static final int MIN_ROWS_PER_CHUNK = 32;
+
+    @NonNull
+    private final Executor executor;
+
+    private final int maxChunks;
+
+    /**
+     * Creates {@link ParallelMapper}
+     *
+     * @param executor  executor which will map chunks of rows
+     * @param maxChunks maximum number of chunks rows will be divided into
+     */
+    ParallelMapper(@NonNull Executor executor, int maxChunks) {
+        this.executor = executor;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * Maps all rows of the cursor
+     *
+     * @param cursor  cursor positioned before first row, it won't be closed
+     * @param mapFunc map function, should be thread-safe
+     * @param <T>     type of result of mapping
+     * @return mapped rows in order of the cursor
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    <T> List<T> map(@NonNull Cursor cursor, @NonNull MapFunc<Cursor, T> mapFunc) {
+        final int count = cursor.getCount();
+        final int chunks = Math.min(maxChunks, count / MIN_ROWS_PER_CHUNK);
+
+        if (chunks <= 1) {
+            return mapSequentially(cursor, mapFunc, count);
+        }
+
+        final CachedQueryResult rows = CachedQueryResult.from(cursor);
+        final Object[] results = new Object[count];
+        final CountDownLatch latch = new CountDownLatch(chunks);
+        final Chunk[] tasks = new Chunk[chunks];
+
+        for (int i = 0; i < chunks; i++) {
+            // rows are distributed evenly, sizes of chunks differ at most by one row
+            final int from = (int) ((long) count * i / chunks);
+            final int to = (int) ((long) count * (i + 1) / chunks);
+            tasks[i] = new Chunk<>(rows, mapFunc, results, from, to, latch);
+        }
+
+        // first chunk is always mapped by calling thread
+        for (int i = 1; i < chunks; i++) {
+            try {
+                executor.execute(tasks[i]);
+            } catch (RejectedExecutionException e) {
+                // will be mapped by calling thread
+                break;
+            }
+        }
+
+        for (Chunk task : tasks) {
+            task.run(); // no-op if chunk was already started by the executor
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for mapping of rows", e);
+        }
+
+        for (Chunk task : tasks) {
+            final Throwable error = task.error;
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            }
+        }
+
+        return new ArrayList<>((List<T>) Arrays.asList(results));
+    }
+
+    @NonNull
+    private static <T> List<T> mapSequentially(@NonNull Cursor cursor, @NonNull MapFunc<Cursor, T> mapFunc, int count) {
+        final List<T> list = new ArrayList<>(count);
+        final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+
+        while (cursor.moveToNext()) {
+            list.add(rowMapFunc.map(cursor));
+        }
+
+        return list;
+    }
+
+    private static class Chunk<T> implements Runnable {
+
+        @NonNull
+        private final CachedQueryResult rows;
+
+        @NonNull
+        private final MapFunc<Cursor, T> mapFunc;
+
+        @NonNull
+        private final Object[] results;
+
+        private final int from;
+
+        private final int to;
+
+        @NonNull
+        private final CountDownLatch latch;
+
+        @NonNull
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        /**
+         * Written before latch count down, read after await, so it's visible without volatile
+         */
+        Throwable error;
+
+        Chunk(@NonNull CachedQueryResult rows, @NonNull MapFunc<Cursor, T> mapFunc, @NonNull Object[] results,
+              int from, int to, @NonNull CountDownLatch latch) {
+            this.rows = rows;
+            this.mapFunc = mapFunc;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+
+            final Cursor cursor = rows.newCursor();
+
+            try {
+                final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+
+                for (int position = from; position < to; position++) {
+                    cursor.moveToPosition(position);
+                    results[position] = rowMapFunc.map(cursor);
+                }
+            } catch (Throwable throwable) {
+                error = throwable;
+            } finally {
+                cursor.close();
+                latch.countDown();
+            }
+        }
+    }
+}
@@ -3,10 +3,18 @@ package com.pushtorefresh.storio.sqlitedb.operation.get;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.metrics.MetricsListener;
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
+import com.pushtorefresh.storio.sqlitedb.operation.MetricsUtil;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
+
+import java.util.concurrent.Future;
 
 public abstract class PreparedGet<T> implements PreparedOperationWithReactiveStream<T> {
 
@@ -36,6 +44,28 @@ public abstract class PreparedGet<T> implements PreparedOperationWithReactiveStr
         query = null;
     }
 
+    /**
+     * Starts collection of metrics of this operation, see {@link StorIOSQLiteDb#setMetricsListener(com.pushtorefresh.storio.metrics.MetricsListener)}
+     *
+     * @return recorder of metrics, disabled one if there is no listener
+     */
+    @NonNull
+    protected MetricsRecorder startMetrics() {
+        final MetricsListener metricsListener = storIOSQLiteDb.internal().getMetricsListener();
+
+        return MetricsRecorder.start(
+                metricsListener,
+                OperationMetrics.Type.GET,
+                query != null ? query.table : (rawQuery != null && metricsListener != null ? MetricsUtil.targetOf(rawQuery) : null)
+        );
+    }
+
+    @NonNull
+    @Override
+    public Future<T> executeAsync(@Nullable OperationCallback<T> callback) {
+        return OperationFuture.execute(storIOSQLiteDb.internal().getExecutor(), this, callback);
+    }
+
     public static class Builder {
 
         @NonNull
@@ -50,10 +80,25 @@ public abstract class PreparedGet<T> implements PreparedOperationWithReactiveStr
             return new PreparedGetCursor.Builder(storIOSQLiteDb);
         }
 
+        @NonNull
+        public PreparedGetColumns.Builder columns() {
+            return new PreparedGetColumns.Builder(storIOSQLiteDb);
+        }
+
         @NonNull
         public <T> PreparedGetListOfObjects.Builder<T> listOfObjects(@NonNull Class<T> type) {
             return new PreparedGetListOfObjects.Builder<>(storIOSQLiteDb, type);
         }
+
+        @NonNull
+        public <T> PreparedGetObjects.Builder<T> objects(@NonNull Class<T> type) {
+            return new PreparedGetObjects.Builder<>(storIOSQLiteDb, type);
+        }
+
+        @NonNull
+        public <T> Pager.Builder<T> pager(@NonNull Class<T> type) {
+            return new Pager.Builder<>(storIOSQLiteDb, type);
+        }
     }
 
 }
@@ -0,0 +1,291 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+import com.pushtorefresh.storio.util.EnvironmentUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import rx.Observable;
+import rx.Subscriber;
+
+/**
+ * Represents an Operation for {@link StorIOSQLiteDb} which performs query that retrieves data as {@link ColumnarResult}:
+ * arrays of primitive values per column without boxing and without allocation of object per row
+ * <p/>
+ * Useful for analytics-style queries: lists of ids, timestamps, numeric aggregates.
+ */
+public class PreparedGetColumns extends PreparedGet<ColumnarResult> {
+
+    @NonNull
+    private final String[] columnNames;
+
+    @NonNull
+    private final int[] types;
+
+    PreparedGetColumns(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Query query, @NonNull GetResolver getResolver,
+                       @NonNull String[] columnNames, @NonNull int[] types) {
+        super(storIOSQLiteDb, query, getResolver);
+        this.columnNames = columnNames;
+        this.types = types;
+    }
+
+    PreparedGetColumns(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull RawQuery rawQuery, @NonNull GetResolver getResolver,
+                       @NonNull String[] columnNames, @NonNull int[] types) {
+        super(storIOSQLiteDb, rawQuery, getResolver);
+        this.columnNames = columnNames;
+        this.types = types;
+    }
+
+    /**
+     * Executes Prepared Operation immediately in current thread
+     *
+     * @return non-null columnar result, can be empty
+     */
+    @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
+    @NonNull
+    public ColumnarResult executeAsBlocking() {
+        final MetricsRecorder metrics = startMetrics();
+        long time = metrics.mark();
+        final Cursor cursor;
+
+        if (query != null) {
+            cursor = getResolver.performGet(storIOSQLiteDb, query);
+        } else if (rawQuery != null) {
+            cursor = getResolver.performGet(storIOSQLiteDb, rawQuery);
+        } else {
+            throw new IllegalStateException("Please specify query");
+        }
+
+        try {
+            // getCount() executes query and fills first window of Cursor, so it is measured as SQL
+            cursor.getCount();
+            time = metrics.sql(time);
+
+            final ColumnarResult result = ColumnarResult.from(cursor, columnNames, types);
+
+            metrics.map(time);
+            metrics.rows(result.rowCount());
+            metrics.report();
+
+            return result;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Creates an {@link Observable} which will emit result of operation
+     *
+     * @return non-null {@link Observable} which will emit non-null columnar result
+     */
+    @NonNull
+    @Override
+    public Observable<ColumnarResult> createObservable() {
+        EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        final Observable<ColumnarResult> observable = Observable.create(new Observable.OnSubscribe<ColumnarResult>() {
+            @Override
+            public void call(Subscriber<? super ColumnarResult> subscriber) {
+                if (!subscriber.isUnsubscribed()) {
+                    subscriber.onNext(executeAsBlocking());
+                    subscriber.onCompleted();
+                }
+            }
+        });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
+    }
+
+    /**
+     * Creates an {@link Observable} which will be subscribed to changes of query tables
+     * and will emit result each time change occurs
+     * <p/>
+     * First query will be executed on subscription,
+     * other emissions will occur only if changes of query tables will occur,
+     * changes received during query are coalesced into one re-query
+     *
+     * @return non-null {@link Observable} which will emit non-null columnar result and will be subscribed to changes of query tables
+     */
+    @NonNull
+    @Override
+    public Observable<ColumnarResult> createObservableStream() {
+        EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservableStream()");
+
+        final Set<String> tables;
+
+        if (query != null) {
+            tables = Collections.singleton(query.table);
+        } else if (rawQuery != null) {
+            tables = rawQuery.affectedTables;
+        } else {
+            throw new IllegalStateException("Please specify query");
+        }
+
+        if (tables != null && !tables.isEmpty()) {
+            return QueryStream.create(storIOSQLiteDb, tables, new QueryStream.Source<ColumnarResult>() {
+                @Override
+                ColumnarResult firstResult() {
+                    return executeAsBlocking();
+                }
+            });
+        } else {
+            return createObservable();
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetColumns}
+     */
+    public static class Builder {
+
+        @NonNull
+        private final StorIOSQLiteDb storIOSQLiteDb;
+
+        @NonNull
+        private final List<String> columnNames = new ArrayList<>();
+
+        @NonNull
+        private final List<Integer> types = new ArrayList<>();
+
+        private Query query;
+        private RawQuery rawQuery;
+        private GetResolver getResolver;
+
+        Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb) {
+            this.storIOSQLiteDb = storIOSQLiteDb;
+        }
+
+        /**
+         * Specifies {@link Query} for Get Operation
+         *
+         * @param query query
+         * @return builder
+         */
+        @NonNull
+        public Builder withQuery(@NonNull Query query) {
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * Specifies {@link RawQuery} for Get Operation, you can use it for "joins" and same constructions which are not allowed in {@link Query}
+         *
+         * @param rawQuery query
+         * @return builder
+         */
+        @NonNull
+        public Builder withQuery(@NonNull RawQuery rawQuery) {
+            this.rawQuery = rawQuery;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@link GetResolver} for Get Operation which allows you to customize behavior of Get Operation
+         *
+         * @param getResolver get resolver
+         * @return builder
+         */
+        @NonNull
+        public Builder withGetResolver(@NonNull GetResolver getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Adds column which values will be read via {@link Cursor#getLong(int)}, see {@link ColumnarResult#longColumn(String)}
+         *
+         * @param columnName name of the column in result of query
+         * @return builder
+         */
+        @NonNull
+        public Builder longColumn(@NonNull String columnName) {
+            return column(columnName, ColumnarResult.TYPE_LONG);
+        }
+
+        /**
+         * Adds column which values will be read via {@link Cursor#getDouble(int)}, see {@link ColumnarResult#doubleColumn(String)}
+         *
+         * @param columnName name of the column in result of query
+         * @return builder
+         */
+        @NonNull
+        public Builder doubleColumn(@NonNull String columnName) {
+            return column(columnName, ColumnarResult.TYPE_DOUBLE);
+        }
+
+        /**
+         * Adds column which values will be read via {@link Cursor#getString(int)}, see {@link ColumnarResult#stringColumn(String)}
+         *
+         * @param columnName name of the column in result of query
+         * @return builder
+         */
+        @NonNull
+        public Builder stringColumn(@NonNull String columnName) {
+            return column(columnName, ColumnarResult.TYPE_STRING);
+        }
+
+        /**
+         * Adds column which values will be read via {@link Cursor#getBlob(int)}, see {@link ColumnarResult#blobColumn(String)}
+         *
+         * @param columnName name of the column in result of query
+         * @return builder
+         */
+        @NonNull
+        public Builder blobColumn(@NonNull String columnName) {
+            return column(columnName, ColumnarResult.TYPE_BLOB);
+        }
+
+        @NonNull
+        private Builder column(@NonNull String columnName, int type) {
+            if (columnNames.contains(columnName)) {
+                throw new IllegalArgumentException("Column " + columnName + " is already added");
+            }
+
+            columnNames.add(columnName);
+            types.add(type);
+            return this;
+        }
+
+        /**
+         * Prepares Get Operation
+         *
+         * @return {@link PreparedGetColumns} instance
+         */
+        @NonNull
+        public PreparedOperationWithReactiveStream<ColumnarResult> prepare() {
+            if (getResolver == null) {
+                getResolver = DefaultGetResolver.INSTANCE;
+            }
+
+            if (columnNames.isEmpty()) {
+                throw new IllegalStateException("Please specify columns");
+            }
+
+            final String[] columnNamesArray = columnNames.toArray(new String[columnNames.size()]);
+            final int[] typesArray = new int[types.size()];
+
+            for (int i = 0; i < typesArray.length; i++) {
+                typesArray[i] = types.get(i);
+            }
+
+            if (query != null) {
+                return new PreparedGetColumns(storIOSQLiteDb, query, getResolver, columnNamesArray, typesArray);
+            } else if (rawQuery != null) {
+                return new PreparedGetColumns(storIOSQLiteDb, rawQuery, getResolver, columnNamesArray, typesArray);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+        }
+    }
+}
@@ -3,10 +3,12 @@ package com.pushtorefresh.storio.sqlitedb.operation.get;
 import android.database.Cursor;
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
 import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.QueryTemplate;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
@@ -15,7 +17,6 @@ import java.util.Set;
 
 import rx.Observable;
 import rx.Subscriber;
-import rx.functions.Func1;
 
 public class PreparedGetCursor extends PreparedGet<Cursor> {
 
@@ -27,20 +28,53 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
         super(storIOSQLiteDb, rawQuery, getResolver);
     }
 
+    /**
+     * Executes Prepared Operation immediately in current thread
+     * <p>
+     * If metrics are enabled (see {@link StorIOSQLiteDb#setMetricsListener(com.pushtorefresh.storio.metrics.MetricsListener)}),
+     * query is executed before Cursor is returned: {@link Cursor#getCount()} is called, so it counts rows
+     * and fills first window of Cursor, reading of Cursor is not measured by metrics.
+     * Otherwise Cursor is returned without execution of query, as usual
+     *
+     * @return non-null cursor with result of query, you should close it
+     */
     @NonNull public Cursor executeAsBlocking() {
+        final MetricsRecorder metrics = startMetrics();
+        final long start = metrics.mark();
+        final Cursor cursor;
+
         if (query != null) {
-            return getResolver.performGet(storIOSQLiteDb, query);
+            cursor = getResolver.performGet(storIOSQLiteDb, query);
         } else if (rawQuery != null) {
-            return getResolver.performGet(storIOSQLiteDb, rawQuery);
+            cursor = getResolver.performGet(storIOSQLiteDb, rawQuery);
         } else {
             throw new IllegalStateException("Please specify query");
         }
+
+        if (metrics.isEnabled()) {
+            final int count;
+
+            try {
+                // Cursor is lazy, getCount() executes query, so SQL time includes execution, not only compilation
+                count = cursor.getCount();
+            } catch (RuntimeException e) {
+                cursor.close();
+                throw e;
+            }
+
+            // Cursor is read by user, so only execution of query is measured
+            metrics.sql(start);
+            metrics.rows(count);
+            metrics.report();
+        }
+
+        return cursor;
     }
 
     @NonNull @Override public Observable<Cursor> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<Cursor>() {
+        final Observable<Cursor> observable = Observable.create(new Observable.OnSubscribe<Cursor>() {
             @Override public void call(Subscriber<? super Cursor> subscriber) {
                 if (!subscriber.isUnsubscribed()) {
                     subscriber.onNext(executeAsBlocking());
@@ -48,6 +82,8 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     @NonNull @Override public Observable<Cursor> createObservableStream() {
@@ -65,14 +101,11 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
         }
 
         if (tables != null && !tables.isEmpty()) {
-            return storIOSQLiteDb
-                    .observeChangesInTables(tables)
-                    .map(new Func1<Changes, Cursor>() { // each change triggers executeAsBlocking
-                        @Override public Cursor call(Changes changes) {
-                            return executeAsBlocking();
-                        }
-                    })
-                    .startWith(executeAsBlocking()); // start stream with first query result
+            return QueryStream.create(storIOSQLiteDb, tables, new QueryStream.Source<Cursor>() {
+                @Override Cursor firstResult() {
+                    return executeAsBlocking();
+                }
+            });
         } else {
             return createObservable();
         }
@@ -112,6 +145,19 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
             return this;
         }
 
+        /**
+         * Specifies {@link QueryTemplate} with arguments for Get Operation, SQL of the template is not rebuilt,
+         * see {@link QueryTemplate#bind(Object...)}
+         *
+         * @param queryTemplate query template
+         * @param args          arguments for "?" placeholders of the template
+         * @return builder
+         */
+        @NonNull public Builder withQuery(@NonNull QueryTemplate queryTemplate, @NonNull Object... args) {
+            this.rawQuery = queryTemplate.bind(args);
+            return this;
+        }
+
         /**
          * Optional: Specifies {@link GetResolver} for Get Operation which allows you to customize behavior of Get Operation
          *
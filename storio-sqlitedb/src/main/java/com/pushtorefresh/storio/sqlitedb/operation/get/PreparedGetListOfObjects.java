@@ -1,12 +1,18 @@
 package com.pushtorefresh.storio.sqlitedb.operation.get;
 
 import android.database.Cursor;
+import android.os.Build;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.Changes;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.QueryTemplate;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+import com.pushtorefresh.storio.operation.CursorMapFunc;
 import com.pushtorefresh.storio.operation.MapFunc;
 import com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
@@ -15,10 +21,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import rx.Observable;
 import rx.Subscriber;
-import rx.functions.Func1;
+import rx.functions.Func0;
 
 /**
  * Represents an Operation for {@link StorIOSQLiteDb} which performs query that retrieves data as list of objects
@@ -31,24 +38,49 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     @NonNull
     private final MapFunc<Cursor, T> mapFunc;
 
+    @Nullable
+    private final String keyColumn;
+
+    @Nullable
+    private final ParallelMapper parallelMapper;
+
     PreparedGetListOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Query query, @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc) {
+        this(storIOSQLiteDb, query, getResolver, mapFunc, null, null);
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Query query, @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc,
+                             @Nullable String keyColumn, @Nullable ParallelMapper parallelMapper) {
         super(storIOSQLiteDb, query, getResolver);
         this.mapFunc = mapFunc;
+        this.keyColumn = keyColumn;
+        this.parallelMapper = parallelMapper;
     }
 
     PreparedGetListOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull RawQuery rawQuery, @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc) {
+        this(storIOSQLiteDb, rawQuery, getResolver, mapFunc, null);
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull RawQuery rawQuery, @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc,
+                             @Nullable ParallelMapper parallelMapper) {
         super(storIOSQLiteDb, rawQuery, getResolver);
         this.mapFunc = mapFunc;
+        this.keyColumn = null;
+        this.parallelMapper = parallelMapper;
     }
 
     /**
      * Executes Prepared Operation immediately in current thread
+     * <p/>
+     * If parallel mapping was enabled via {@link Builder#mapInParallel(Executor)},
+     * rows are mapped on the executor and current thread waits for the result
      *
      * @return non-null list with mapped results, can be empty
      */
     @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
     @NonNull
     public List<T> executeAsBlocking() {
+        final MetricsRecorder metrics = startMetrics();
+        long time = metrics.mark();
         final Cursor cursor;
 
         if (query != null) {
@@ -60,12 +92,27 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
         }
 
         try {
-            final List<T> list = new ArrayList<>(cursor.getCount());
+            // getCount() executes query and fills first window of Cursor, so it is measured as SQL
+            final int count = cursor.getCount();
+            time = metrics.sql(time);
 
-            while (cursor.moveToNext()) {
-                list.add(mapFunc.map(cursor));
+            final List<T> list;
+
+            if (parallelMapper != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+                list = parallelMapper.map(cursor, mapFunc);
+            } else {
+                list = new ArrayList<>(count);
+                final MapFunc<Cursor, T> rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+
+                while (cursor.moveToNext()) {
+                    list.add(rowMapFunc.map(cursor));
+                }
             }
 
+            metrics.map(time);
+            metrics.rows(list.size());
+            metrics.report();
+
             return list;
         } finally {
             cursor.close();
@@ -81,7 +128,7 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     public Observable<List<T>> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<List<T>>() {
+        final Observable<List<T>> observable = Observable.create(new Observable.OnSubscribe<List<T>>() {
             @Override
             public void call(Subscriber<? super List<T>> subscriber) {
                 if (!subscriber.isUnsubscribed()) {
@@ -90,14 +137,20 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     /**
      * Creates an {@link Observable} which will be subscribed to changes of query tables
      * and will emit result each time change occurs
      * <p/>
-     * First result will be emitted immediately,
-     * other emissions will occur only if changes of query tables will occur
+     * First query will be executed on subscription,
+     * other emissions will occur only if changes of query tables will occur,
+     * changes received during query are coalesced into one re-query
+     * <p/>
+     * If incremental updates were enabled via {@link Builder#useIncrementalUpdates(String)},
+     * only changed rows will be re-fetched and patched into previous result
      *
      * @return non-null {@link Observable} which will emit non-null list with mapped results and will be subscribed to changes of query tables
      */
@@ -116,21 +169,44 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
             throw new IllegalStateException("Please specify query");
         }
 
-        if (tables != null && !tables.isEmpty()) {
-            return storIOSQLiteDb
-                    .observeChangesInTables(tables)
-                    .map(new Func1<Changes, List<T>>() { // each change triggers executeAsBlocking
-                        @Override
-                        public List<T> call(Changes affectedTables) {
-                            return executeAsBlocking();
-                        }
-                    })
-                    .startWith(executeAsBlocking()); // start stream with first query result
+        if (keyColumn != null && query != null) {
+            return createIncrementalObservableStream(query, keyColumn);
+        } else if (tables != null && !tables.isEmpty()) {
+            return QueryStream.create(storIOSQLiteDb, tables, new QueryStream.Source<List<T>>() {
+                @Override
+                List<T> firstResult() {
+                    return executeAsBlocking();
+                }
+            });
         } else {
             return createObservable();
         }
     }
 
+    @NonNull
+    private Observable<List<T>> createIncrementalObservableStream(@NonNull final Query query, @NonNull final String keyColumn) {
+        return QueryStream.create(storIOSQLiteDb, Collections.singleton(query.table), new Func0<QueryStream.Source<List<T>>>() {
+            @Override
+            public QueryStream.Source<List<T>> call() {
+                // each subscriber has its own result to patch
+                final IncrementalListOfObjects<T> incrementalList
+                        = new IncrementalListOfObjects<>(storIOSQLiteDb, query, getResolver, mapFunc, keyColumn);
+
+                return new QueryStream.Source<List<T>>() {
+                    @Override
+                    List<T> firstResult() {
+                        return incrementalList.reload();
+                    }
+
+                    @Override
+                    List<T> resultAfter(@NonNull Changes changes) {
+                        return incrementalList.apply(changes); // null means that result was not changed
+                    }
+                };
+            }
+        });
+    }
+
     public static class Builder<T> {
 
         @NonNull
@@ -143,6 +219,8 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
         private Query query;
         private RawQuery rawQuery;
         private GetResolver getResolver;
+        private String keyColumn;
+        private Executor mapExecutor;
 
         Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Class<T> type) {
             this.storIOSQLiteDb = storIOSQLiteDb;
@@ -185,6 +263,20 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
             return this;
         }
 
+        /**
+         * Specifies {@link QueryTemplate} with arguments for Get Operation, SQL of the template is not rebuilt,
+         * see {@link QueryTemplate#bind(Object...)}
+         *
+         * @param queryTemplate query template
+         * @param args          arguments for "?" placeholders of the template
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withQuery(@NonNull QueryTemplate queryTemplate, @NonNull Object... args) {
+            this.rawQuery = queryTemplate.bind(args);
+            return this;
+        }
+
         /**
          * Optional: Specifies {@link GetResolver} for Get Operation which allows you to customize behavior of Get Operation
          *
@@ -197,6 +289,47 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
             return this;
         }
 
+        /**
+         * Optional: Enables incremental updates of {@link PreparedGetListOfObjects#createObservableStream()}
+         * <p/>
+         * Instead of re-executing whole query on each change, only changed rows will be re-fetched by key
+         * and patched into previous result with respect to "ORDER BY" of the query.
+         * Requires row-level changes, see {@link com.pushtorefresh.storio.sqlitedb.Changes#rowChanges(String)},
+         * otherwise whole query will be re-executed as usual.
+         * <p/>
+         * Supported only for {@link Query} with "ORDER BY", key column and columns of "ORDER BY" should be in the projection,
+         * "ORDER BY" should contain only column names with optional "COLLATE BINARY|NOCASE|RTRIM" and "ASC|DESC"
+         *
+         * @param keyColumn column with unique key of the row, for example "_id"
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> useIncrementalUpdates(@NonNull String keyColumn) {
+            this.keyColumn = keyColumn;
+            return this;
+        }
+
+        /**
+         * Optional: Enables parallel mapping of rows in {@link PreparedGetListOfObjects#executeAsBlocking()}
+         * <p/>
+         * Raw values of all rows are copied from {@link Cursor} in one pass, then chunks of rows
+         * are mapped on the executor, order of rows is preserved. Calling thread takes part in mapping
+         * and waits for the result. Useful for CPU-heavy map functions (parsing JSON, computing fields),
+         * map function should be thread-safe. Small results (less than 64 rows) are mapped in the calling thread.
+         * <p/>
+         * Requires API 11+, on older versions rows are mapped in the calling thread.
+         * Does not affect incremental updates, see {@link #useIncrementalUpdates(String)}.
+         *
+         * @param executor executor for mapping, for example {@link java.util.concurrent.ForkJoinPool} on API 21+
+         *                 or {@link java.util.concurrent.ThreadPoolExecutor} with number of threads equal to number of cores
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> mapInParallel(@NonNull Executor executor) {
+            this.mapExecutor = executor;
+            return this;
+        }
+
         /**
          * Prepares Get Operation
          *
@@ -212,10 +345,19 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                 throw new IllegalStateException("Please specify map function");
             }
 
+            // several chunks per core balance load if some rows are mapped slower than others
+            final ParallelMapper parallelMapper = mapExecutor == null
+                    ? null
+                    : new ParallelMapper(mapExecutor, Runtime.getRuntime().availableProcessors() * 4);
+
             if (query != null) {
-                return new PreparedGetListOfObjects<>(storIOSQLiteDb, query, getResolver, mapFunc);
+                return new PreparedGetListOfObjects<>(storIOSQLiteDb, query, getResolver, mapFunc, keyColumn, parallelMapper);
             } else if (rawQuery != null) {
-                return new PreparedGetListOfObjects<>(storIOSQLiteDb, rawQuery, getResolver, mapFunc);
+                if (keyColumn != null) {
+                    throw new IllegalStateException("Incremental updates are supported only for Query");
+                }
+
+                return new PreparedGetListOfObjects<>(storIOSQLiteDb, rawQuery, getResolver, mapFunc, parallelMapper);
             } else {
                 throw new IllegalStateException("Please specify query");
             }
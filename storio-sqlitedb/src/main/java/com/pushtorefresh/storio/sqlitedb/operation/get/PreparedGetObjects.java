@@ -0,0 +1,340 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.operation.CursorMapFunc;
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
+import com.pushtorefresh.storio.util.EnvironmentUtil;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Represents an Operation for {@link StorIOSQLiteDb} which performs query and emits results row by row
+ * <p/>
+ * Unlike {@link PreparedGetListOfObjects} it does not materialize mapped objects in memory:
+ * rows are mapped lazily as downstream requests them (backpressure) and mapped objects are not collected,
+ * so their memory consumption does not depend on size of the result.
+ * <p/>
+ * Query itself is executed by {@link Cursor} as usual: first move of {@link android.database.sqlite.SQLiteCursor}
+ * counts all rows of the result, so first object is not emitted faster than with {@link PreparedGetListOfObjects}.
+ *
+ * @param <T> type of objects
+ */
+public class PreparedGetObjects<T> {
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    @Nullable
+    private final Query query;
+
+    @Nullable
+    private final RawQuery rawQuery;
+
+    @NonNull
+    private final GetResolver getResolver;
+
+    @NonNull
+    private final MapFunc<Cursor, T> mapFunc;
+
+    PreparedGetObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb, @Nullable Query query, @Nullable RawQuery rawQuery,
+                       @NonNull GetResolver getResolver, @NonNull MapFunc<Cursor, T> mapFunc) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.query = query;
+        this.rawQuery = rawQuery;
+        this.getResolver = getResolver;
+        this.mapFunc = mapFunc;
+    }
+
+    @NonNull
+    private Cursor performGet() {
+        if (query != null) {
+            return getResolver.performGet(storIOSQLiteDb, query);
+        } else if (rawQuery != null) {
+            return getResolver.performGet(storIOSQLiteDb, rawQuery);
+        } else {
+            throw new IllegalStateException("Please specify query");
+        }
+    }
+
+    /**
+     * Creates an {@link Observable} which will emit mapped rows one by one and complete
+     * <p/>
+     * Query is executed when first row is requested, rows are mapped only when they are requested,
+     * {@link Cursor} is closed on completion, error or unsubscribe
+     * <p/>
+     * If {@link StorIOSQLiteDb.Internal#defaultScheduler()} is set, rows are read and mapped on one worker
+     * of the scheduler regardless of the thread which requests them, otherwise they are read and mapped
+     * on the thread which requests them, so requests from another thread, for example from
+     * {@link Observable#observeOn(Scheduler)}, move reading of rows to that thread
+     *
+     * @return non-null {@link Observable} which supports backpressure
+     */
+    @NonNull
+    public Observable<T> createObservable() {
+        EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return Observable.create(new Observable.OnSubscribe<T>() {
+            @Override
+            public void call(Subscriber<? super T> subscriber) {
+                final Scheduler scheduler = storIOSQLiteDb.internal().defaultScheduler();
+                final Scheduler.Worker worker = scheduler != null ? scheduler.createWorker() : null;
+
+                if (worker != null) {
+                    subscriber.add(worker);
+                }
+
+                final CursorProducer producer = new CursorProducer(subscriber, worker);
+
+                subscriber.add(Subscriptions.create(new Action0() {
+                    @Override
+                    public void call() {
+                        producer.closeCursor();
+                    }
+                }));
+
+                subscriber.setProducer(producer);
+            }
+        });
+    }
+
+    /**
+     * Emits rows of the cursor according to requested amount, only one thread emits at a time
+     */
+    private class CursorProducer implements Producer {
+
+        @NonNull
+        private final Subscriber<? super T> subscriber;
+
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        @NonNull
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * Guards cursor, because unsubscribe can happen on any thread
+         */
+        @NonNull
+        private final Object cursorLock = new Object();
+
+        @Nullable
+        private Cursor cursor;
+
+        @Nullable
+        private MapFunc<Cursor, T> rowMapFunc;
+
+        private boolean cursorClosed;
+
+        CursorProducer(@NonNull Subscriber<? super T> subscriber, @Nullable Scheduler.Worker worker) {
+            this.subscriber = subscriber;
+            this.worker = worker;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                return;
+            }
+
+            long current;
+            long next;
+
+            do {
+                current = requested.get();
+                next = current + n;
+
+                if (next < 0) {
+                    // overflow means unbounded request
+                    next = Long.MAX_VALUE;
+                }
+            } while (!requested.compareAndSet(current, next));
+
+            // only thread which increased requested from zero emits rows
+            if (current == 0) {
+                if (worker != null) {
+                    final long requestedCount = next;
+
+                    worker.schedule(new Action0() {
+                        @Override
+                        public void call() {
+                            emit(requestedCount);
+                        }
+                    });
+                } else {
+                    emit(next);
+                }
+            }
+        }
+
+        private void emit(long requestedCount) {
+            long toEmit = requestedCount;
+
+            while (true) {
+                long emitted = 0;
+
+                while (emitted < toEmit) {
+                    T object = null;
+                    boolean hasNext;
+
+                    try {
+                        synchronized (cursorLock) {
+                            if (cursorClosed) {
+                                return;
+                            }
+
+                            if (cursor == null) {
+                                cursor = performGet();
+                                rowMapFunc = CursorMapFunc.bindToCursor(mapFunc, cursor);
+                            }
+
+                            hasNext = cursor.moveToNext();
+
+                            if (hasNext) {
+                                //noinspection ConstantConditions
+                                object = rowMapFunc.map(cursor);
+                            }
+                        }
+                    } catch (Throwable throwable) {
+                        closeCursor();
+                        subscriber.onError(throwable);
+                        return;
+                    }
+
+                    if (!hasNext) {
+                        closeCursor();
+                        subscriber.onCompleted();
+                        return;
+                    }
+
+                    subscriber.onNext(object);
+                    emitted++;
+                }
+
+                toEmit = requested.addAndGet(-emitted);
+
+                if (toEmit == 0) {
+                    return;
+                }
+            }
+        }
+
+        void closeCursor() {
+            synchronized (cursorLock) {
+                if (!cursorClosed) {
+                    cursorClosed = true;
+
+                    if (cursor != null) {
+                        cursor.close();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetObjects}
+     *
+     * @param <T> type of objects
+     */
+    public static class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLiteDb storIOSQLiteDb;
+
+        @NonNull
+        private final Class<T> type; // currently type not used as object, only for generic Builder class
+
+        private MapFunc<Cursor, T> mapFunc;
+        private Query query;
+        private RawQuery rawQuery;
+        private GetResolver getResolver;
+
+        Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Class<T> type) {
+            this.storIOSQLiteDb = storIOSQLiteDb;
+            this.type = type;
+        }
+
+        /**
+         * Specifies map function for Get Operation which will map {@link Cursor} to object of required type
+         *
+         * @param mapFunc map function which will map {@link Cursor} to object of required type
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withMapFunc(@NonNull MapFunc<Cursor, T> mapFunc) {
+            this.mapFunc = mapFunc;
+            return this;
+        }
+
+        /**
+         * Specifies {@link Query} for Get Operation
+         *
+         * @param query query
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withQuery(@NonNull Query query) {
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * Specifies {@link RawQuery} for Get Operation, you can use it for "joins" and same constructions which are not allowed in {@link Query}
+         *
+         * @param rawQuery query
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withQuery(@NonNull RawQuery rawQuery) {
+            this.rawQuery = rawQuery;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@link GetResolver} for Get Operation which allows you to customize behavior of Get Operation
+         *
+         * @param getResolver get resolver
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withGetResolver(@NonNull GetResolver getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Prepares Get Operation
+         *
+         * @return {@link PreparedGetObjects} instance
+         */
+        @NonNull
+        public PreparedGetObjects<T> prepare() {
+            if (getResolver == null) {
+                getResolver = DefaultGetResolver.INSTANCE;
+            }
+
+            if (mapFunc == null) {
+                throw new IllegalStateException("Please specify map function");
+            }
+
+            if (query == null && rawQuery == null) {
+                throw new IllegalStateException("Please specify query");
+            }
+
+            return new PreparedGetObjects<>(storIOSQLiteDb, query, rawQuery, getResolver, mapFunc);
+        }
+    }
+}
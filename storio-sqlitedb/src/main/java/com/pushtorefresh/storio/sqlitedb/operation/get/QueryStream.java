@@ -0,0 +1,279 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func0;
+
+/**
+ * Implementation of {@link com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream#createObservableStream()}:
+ * emits result of query and result of re-query after changes of tables
+ * <p/>
+ * First query is executed on subscription, not when Observable is created, and only after subscription
+ * to changes, so changes made during first query are not lost.
+ * <p/>
+ * Re-queries are coalesced: changes received while query is executed are merged
+ * and only one re-query is executed after it, so burst of changes triggers at most two queries
+ * and each emitted result is the latest one ("latest wins").
+ * <p/>
+ * Queries are executed on {@link StorIOSQLiteDb.Internal#defaultScheduler()} if it is set,
+ * otherwise on subscriber thread and then on the thread which made the change.
+ *
+ * @param <T> type of result
+ */
+final class QueryStream<T> implements Observable.OnSubscribe<T> {
+
+    /**
+     * Source of results of the stream
+     *
+     * @param <T> type of result
+     */
+    abstract static class Source<T> {
+
+        /**
+         * Executes first query
+         *
+         * @return result or null if nothing should be emitted
+         */
+        @Nullable
+        abstract T firstResult();
+
+        /**
+         * Executes query after changes, default implementation executes first query again
+         *
+         * @param changes all changes received since previous query, merged into one
+         * @return result or null if result was not changed and nothing should be emitted
+         */
+        @Nullable
+        T resultAfter(@NonNull Changes changes) {
+            return firstResult();
+        }
+    }
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    @NonNull
+    private final Set<String> tables;
+
+    @NonNull
+    private final Func0<? extends Source<T>> sourceFactory;
+
+    private QueryStream(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Set<String> tables,
+                        @NonNull Func0<? extends Source<T>> sourceFactory) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.tables = tables;
+        this.sourceFactory = sourceFactory;
+    }
+
+    /**
+     * Creates stream with source which is shared by all subscribers
+     *
+     * @param storIOSQLiteDb instance of {@link StorIOSQLiteDb}
+     * @param tables         tables to observe
+     * @param source         stateless source of results
+     * @param <T>            type of result
+     * @return non-null {@link Observable} of results
+     */
+    @NonNull
+    static <T> Observable<T> create(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Set<String> tables,
+                                    @NonNull final Source<T> source) {
+        return create(storIOSQLiteDb, tables, new Func0<Source<T>>() {
+            @Override
+            public Source<T> call() {
+                return source;
+            }
+        });
+    }
+
+    /**
+     * Creates stream with source per subscriber
+     *
+     * @param storIOSQLiteDb instance of {@link StorIOSQLiteDb}
+     * @param tables         tables to observe
+     * @param sourceFactory  creates source for each subscriber
+     * @param <T>            type of result
+     * @return non-null {@link Observable} of results
+     */
+    @NonNull
+    static <T> Observable<T> create(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Set<String> tables,
+                                    @NonNull Func0<? extends Source<T>> sourceFactory) {
+        return Observable.create(new QueryStream<>(storIOSQLiteDb, tables, sourceFactory));
+    }
+
+    @Override
+    public void call(@NonNull Subscriber<? super T> subscriber) {
+        final Scheduler scheduler = storIOSQLiteDb.internal().defaultScheduler();
+        final Scheduler.Worker worker = scheduler != null ? scheduler.createWorker() : null;
+
+        if (worker != null) {
+            subscriber.add(worker);
+        }
+
+        final QueryLoop loop = new QueryLoop(subscriber, sourceFactory.call(), worker);
+
+        subscriber.add(storIOSQLiteDb
+                .observeChangesInTables(tables)
+                .subscribe(new Observer<Changes>() {
+                    @Override
+                    public void onNext(Changes changes) {
+                        loop.onChanges(changes);
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        loop.onError(e);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        // changes are infinite
+                    }
+                }));
+
+        // loop is created as running, so changes received until now are pending for the first query
+        loop.schedule();
+    }
+
+    /**
+     * Executes queries for one subscriber, only one thread executes queries at a time
+     */
+    private class QueryLoop implements Action0 {
+
+        @NonNull
+        private final Subscriber<? super T> subscriber;
+
+        @NonNull
+        private final Source<T> source;
+
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        @NonNull
+        private final Object lock = new Object();
+
+        // fields below are guarded by lock
+
+        @NonNull
+        private List<Changes> pendingChanges = new ArrayList<>(1);
+
+        @Nullable
+        private Throwable error;
+
+        private boolean running = true;
+
+        // accessed only by running thread
+
+        private boolean firstResultEmitted;
+
+        QueryLoop(@NonNull Subscriber<? super T> subscriber, @NonNull Source<T> source, @Nullable Scheduler.Worker worker) {
+            this.subscriber = subscriber;
+            this.source = source;
+            this.worker = worker;
+        }
+
+        void onChanges(@NonNull Changes changes) {
+            synchronized (lock) {
+                pendingChanges.add(changes);
+
+                if (running) {
+                    // will be handled by running query loop
+                    return;
+                }
+
+                running = true;
+            }
+
+            schedule();
+        }
+
+        void onError(@NonNull Throwable throwable) {
+            synchronized (lock) {
+                error = throwable;
+
+                if (running) {
+                    return;
+                }
+
+                running = true;
+            }
+
+            schedule();
+        }
+
+        void schedule() {
+            if (worker != null) {
+                worker.schedule(this);
+            } else {
+                call();
+            }
+        }
+
+        @Override
+        public void call() {
+            try {
+                if (!firstResultEmitted) {
+                    firstResultEmitted = true;
+
+                    synchronized (lock) {
+                        // first query sees all changes made before it
+                        pendingChanges.clear();
+                    }
+
+                    emit(source.firstResult());
+                }
+
+                while (true) {
+                    final List<Changes> changes;
+                    final Throwable throwable;
+
+                    synchronized (lock) {
+                        throwable = error;
+                        changes = pendingChanges;
+
+                        if (throwable == null && changes.isEmpty()) {
+                            running = false;
+                            return;
+                        }
+
+                        pendingChanges = new ArrayList<>(1);
+                    }
+
+                    if (throwable != null) {
+                        // running stays true, nothing will be emitted after error
+                        subscriber.onError(throwable);
+                        return;
+                    }
+
+                    if (subscriber.isUnsubscribed()) {
+                        return;
+                    }
+
+                    emit(source.resultAfter(changes.size() == 1 ? changes.get(0) : Changes.merge(changes)));
+                }
+            } catch (Throwable throwable) {
+                // running stays true, nothing will be emitted after error
+                subscriber.onError(throwable);
+                subscriber.unsubscribe();
+            }
+        }
+
+        private void emit(@Nullable T result) {
+            if (result != null && !subscriber.isUnsubscribed()) {
+                subscriber.onNext(result);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlitedb.operation.put;
 
 import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
 import android.provider.BaseColumns;
 import android.support.annotation.NonNull;
 
@@ -8,6 +9,9 @@ import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.query.InsertQuery;
 import com.pushtorefresh.storio.sqlitedb.query.UpdateQuery;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Default, thread-safe implementation of {@link PutResolver}
  *
@@ -15,6 +19,52 @@ import com.pushtorefresh.storio.sqlitedb.query.UpdateQuery;
  */
 public abstract class DefaultPutResolver<T> implements PutResolver<T> {
 
+    /**
+     * Strategy of put of row which may already exist in the table
+     */
+    public enum ConflictStrategy {
+
+        /**
+         * UPDATE of row with same id, then INSERT if no rows were updated, rows without id are just inserted
+         * <p/>
+         * Put of new row with id costs two statements. Default strategy.
+         */
+        UPDATE_THEN_INSERT(SQLiteDatabase.CONFLICT_NONE),
+
+        /**
+         * One "INSERT OR REPLACE" statement: rows which conflict with new row by primary key
+         * or unique constraint are deleted before insert
+         * <p/>
+         * Row which replaced existing row is reported as inserted, columns which are not in
+         * {@link ContentValues} get default values instead of keeping previous values.
+         * Replaced rows are not known, so notification about changes has no row-level changes for the table.
+         */
+        INSERT_OR_REPLACE(SQLiteDatabase.CONFLICT_REPLACE),
+
+        /**
+         * One "INSERT OR IGNORE" statement: row which conflicts with existing row by primary key
+         * or unique constraint is not inserted and existing row is not changed
+         * <p/>
+         * Ignored row is reported as neither inserted nor updated.
+         */
+        INSERT_OR_IGNORE(SQLiteDatabase.CONFLICT_IGNORE);
+
+        private final int conflictAlgorithm;
+
+        ConflictStrategy(int conflictAlgorithm) {
+            this.conflictAlgorithm = conflictAlgorithm;
+        }
+
+        /**
+         * Gets conflict algorithm of INSERT statement for this strategy
+         *
+         * @return one of {@code SQLiteDatabase.CONFLICT_*} constants
+         */
+        public int conflictAlgorithm() {
+            return conflictAlgorithm;
+        }
+    }
+
     /**
      * Resolves table name to perform insert or update
      *
@@ -34,6 +84,17 @@ public abstract class DefaultPutResolver<T> implements PutResolver<T> {
         return BaseColumns._ID;
     }
 
+    /**
+     * Provides strategy of put, you can override this to put rows via one "INSERT OR REPLACE"
+     * or "INSERT OR IGNORE" statement instead of UPDATE and INSERT.
+     *
+     * @return strategy of put, {@link ConflictStrategy#UPDATE_THEN_INSERT} by default
+     */
+    @NonNull
+    protected ConflictStrategy getConflictStrategy() {
+        return ConflictStrategy.UPDATE_THEN_INSERT;
+    }
+
     /**
      * Performs insert or update of {@link ContentValues} into {@link StorIOSQLiteDb}
      * <p>
@@ -41,6 +102,9 @@ public abstract class DefaultPutResolver<T> implements PutResolver<T> {
      * or update if content values contains {@link BaseColumns#_ID} field and value is not null
      * <p>
      * But, if it will decide to perform update and no rows will be updated, it will perform insert!
+     * <p>
+     * If {@link #getConflictStrategy()} is not {@link ConflictStrategy#UPDATE_THEN_INSERT},
+     * it will always perform one INSERT statement with conflict algorithm of the strategy
      *
      * @param storIOSQLiteDb instance of {@link StorIOSQLiteDb}
      * @param contentValues  content values to put
@@ -52,23 +116,97 @@ public abstract class DefaultPutResolver<T> implements PutResolver<T> {
         final String idColumnName = getIdColumnName(contentValues);
         final Object id = contentValues.get(idColumnName);
         final String table = getTable();
+        final ConflictStrategy conflictStrategy = getConflictStrategy();
 
-        return id == null
-                ? insert(storIOSQLiteDb, contentValues, table)
+        return id == null || conflictStrategy != ConflictStrategy.UPDATE_THEN_INSERT
+                ? insert(storIOSQLiteDb, contentValues, table, conflictStrategy)
                 : updateOrInsert(storIOSQLiteDb, contentValues, table, idColumnName, id);
     }
 
+    /**
+     * Performs put of multiple {@link ContentValues} into {@link StorIOSQLiteDb}
+     * <p>
+     * Rows with non-null id are put one by one same way as {@link #performPut(StorIOSQLiteDb, ContentValues)} does.
+     * Consecutive rows without id are inserted via {@link StorIOSQLiteDb.Internal#insertAll(InsertQuery, List)},
+     * so implementation can use multi-row INSERT statements for consecutive rows with same set of columns.
+     * If {@link #getConflictStrategy()} is not {@link ConflictStrategy#UPDATE_THEN_INSERT},
+     * rows with id are inserted via {@link StorIOSQLiteDb.Internal#insertAll(InsertQuery, List)} too.
+     * <p>
+     * Rows are written in the same order as in contentValuesList, so if several rows have same key,
+     * last of them wins as with {@link #performPut(StorIOSQLiteDb, ContentValues)} called for each row
+     *
+     * @param storIOSQLiteDb    instance of {@link StorIOSQLiteDb}
+     * @param contentValuesList content values to put
+     * @return non-null results of put operation in the same order as contentValuesList
+     */
+    @NonNull
+    public List<PutResult> performPutAll(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull List<ContentValues> contentValuesList) {
+        final String table = getTable();
+        final ConflictStrategy conflictStrategy = getConflictStrategy();
+        final PutResult[] putResults = new PutResult[contentValuesList.size()];
+
+        final InsertQuery insertQuery = new InsertQuery.Builder()
+                .table(table)
+                .nullColumnHack(null)
+                .conflictAlgorithm(conflictStrategy.conflictAlgorithm())
+                .build();
+
+        // index of first row of pending run of consecutive rows to insert
+        int runStart = 0;
+
+        for (int i = 0; i < putResults.length; i++) {
+            final ContentValues contentValues = contentValuesList.get(i);
+            final String idColumnName = getIdColumnName(contentValues);
+            final Object id = contentValues.get(idColumnName);
+
+            if (id != null && conflictStrategy == ConflictStrategy.UPDATE_THEN_INSERT) {
+                // pending rows should be inserted before update to keep order of writes
+                insertAll(storIOSQLiteDb, insertQuery, conflictStrategy, contentValuesList, runStart, i, putResults);
+                putResults[i] = updateOrInsert(storIOSQLiteDb, contentValues, table, idColumnName, id);
+                runStart = i + 1;
+            }
+        }
+
+        insertAll(storIOSQLiteDb, insertQuery, conflictStrategy, contentValuesList, runStart, putResults.length, putResults);
+
+        return Arrays.asList(putResults);
+    }
+
+    private static void insertAll(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull InsertQuery insertQuery,
+                                  @NonNull ConflictStrategy conflictStrategy, @NonNull List<ContentValues> contentValuesList,
+                                  int from, int to, @NonNull PutResult[] putResults) {
+        if (from == to) {
+            return;
+        }
+
+        final long[] insertedIds = storIOSQLiteDb.internal().insertAll(insertQuery, contentValuesList.subList(from, to));
+
+        for (int i = 0; i < insertedIds.length; i++) {
+            putResults[from + i] = insertResult(insertedIds[i], insertQuery.table, conflictStrategy);
+        }
+    }
+
     @NonNull
-    private PutResult insert(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull ContentValues contentValues, @NonNull String table) {
+    private PutResult insert(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull ContentValues contentValues,
+                             @NonNull String table, @NonNull ConflictStrategy conflictStrategy) {
         final long insertedId = storIOSQLiteDb.internal().insert(
                 new InsertQuery.Builder()
                         .table(table)
                         .nullColumnHack(null)
+                        .conflictAlgorithm(conflictStrategy.conflictAlgorithm())
                         .build(),
                 contentValues
         );
 
-        return PutResult.newInsertResult(insertedId, table);
+        return insertResult(insertedId, table, conflictStrategy);
+    }
+
+    @NonNull
+    private static PutResult insertResult(long insertedId, @NonNull String table, @NonNull ConflictStrategy conflictStrategy) {
+        // SQLite returns -1 if row was not inserted because of "OR IGNORE"
+        return insertedId == -1 && conflictStrategy == ConflictStrategy.INSERT_OR_IGNORE
+                ? PutResult.newIgnoredResult(table)
+                : PutResult.newInsertResult(insertedId, table, conflictStrategy);
     }
 
     @NonNull
@@ -88,7 +226,7 @@ public abstract class DefaultPutResolver<T> implements PutResolver<T> {
         );
 
         return numberOfUpdatedRows > 0
-                ? PutResult.newUpdateResult(numberOfUpdatedRows, table)
-                : insert(storIOSQLiteDb, contentValues, table);
+                ? PutResult.newUpdateResult(numberOfUpdatedRows, table, idFieldName, String.valueOf(id), ConflictStrategy.UPDATE_THEN_INSERT)
+                : insert(storIOSQLiteDb, contentValues, table, ConflictStrategy.UPDATE_THEN_INSERT);
     }
 }
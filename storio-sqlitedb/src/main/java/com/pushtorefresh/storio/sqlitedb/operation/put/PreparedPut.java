@@ -2,11 +2,27 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 
 import android.content.ContentValues;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.RowChange;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.operation.PreparedOperation;
+import com.pushtorefresh.storio.operation.OperationCallback;
+import com.pushtorefresh.storio.operation.OperationFuture;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import rx.Observable;
 
 /**
  * Represents an Operation for {@link StorIOSQLiteDb} which performs insert or update data
@@ -27,6 +43,91 @@ public abstract class PreparedPut<T, Result> implements PreparedOperation<Result
         this.putResolver = putResolver;
     }
 
+    /**
+     * Creates {@link Changes} for result of Put Operation,
+     * with row-level change if row-level changes are enabled and change of the row is known
+     *
+     * @param storIOSQLiteDb instance of {@link StorIOSQLiteDb}
+     * @param putResult      result of Put Operation
+     * @return changes made by Put Operation
+     */
+    @NonNull
+    static Changes changesOf(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull PutResult putResult) {
+        if (storIOSQLiteDb.internal().rowLevelChangesEnabled()) {
+            final RowChange rowChange = putResult.rowChange();
+
+            if (rowChange != null) {
+                return new Changes(putResult.affectedTable(), Collections.singletonList(rowChange));
+            }
+        }
+
+        return new Changes(putResult.affectedTable());
+    }
+
+    /**
+     * Creates {@link Changes} for results of Put Operation of collection
+     *
+     * @param storIOSQLiteDb instance of {@link StorIOSQLiteDb}
+     * @param putResults     results of Put Operation
+     * @return changes made by Put Operation
+     */
+    @NonNull
+    static Changes changesOf(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Collection<PutResult> putResults) {
+        if (storIOSQLiteDb.internal().rowLevelChangesEnabled()) {
+            final List<Changes> changes = new ArrayList<>(putResults.size());
+
+            for (PutResult putResult : putResults) {
+                changes.add(changesOf(storIOSQLiteDb, putResult));
+            }
+
+            return Changes.merge(changes);
+        }
+
+        final Set<String> affectedTables = new HashSet<>(1); // in most cases it will be 1 table
+
+        for (PutResult putResult : putResults) {
+            affectedTables.add(putResult.affectedTable());
+        }
+
+        return new Changes(affectedTables);
+    }
+
+    /**
+     * Starts collection of metrics of Put Operation, see {@link StorIOSQLiteDb#setMetricsListener(com.pushtorefresh.storio.metrics.MetricsListener)}
+     *
+     * @return recorder of metrics, disabled one if there is no listener
+     */
+    @NonNull
+    MetricsRecorder startMetrics() {
+        // table is known from results
+        return MetricsRecorder.start(storIOSQLiteDb.internal().getMetricsListener(), OperationMetrics.Type.PUT, null);
+    }
+
+    /**
+     * Adds table and number of touched rows of Put Operation to metrics
+     *
+     * @param metrics   recorder of metrics
+     * @param putResult result of Put Operation
+     */
+    static void recordPutResult(@NonNull MetricsRecorder metrics, @NonNull PutResult putResult) {
+        metrics.target(putResult.affectedTable());
+
+        if (putResult.wasInserted()) {
+            metrics.rows(1);
+        } else if (putResult.wasUpdated()) {
+            //noinspection ConstantConditions
+            metrics.rows(putResult.numberOfUpdatedRows());
+        } else {
+            metrics.rows(0);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Future<Result> executeAsync(@Nullable OperationCallback<Result> callback) {
+        return OperationFuture.execute(storIOSQLiteDb.internal().getExecutor(), this, callback);
+    }
+
     /**
      * Builder for {@link PreparedPut}
      */
@@ -108,5 +209,18 @@ public abstract class PreparedPut<T, Result> implements PreparedOperation<Result
         public final <T> PreparedPutObjects.Builder<T> objects(@NonNull T... objects) {
             return new PreparedPutObjects.Builder<>(storIOSQLiteDb, Arrays.asList(objects));
         }
+
+        /**
+         * Prepares Put Operation for objects emitted by {@link Observable},
+         * objects are requested with backpressure and put by chunks, see {@link PreparedPutObjectsStream}
+         *
+         * @param objects source of objects to put
+         * @param <T>     type of objects
+         * @return builder
+         */
+        @NonNull
+        public <T> PreparedPutObjectsStream.Builder<T> objects(@NonNull Observable<T> objects) {
+            return new PreparedPutObjectsStream.Builder<>(storIOSQLiteDb, objects);
+        }
     }
 }
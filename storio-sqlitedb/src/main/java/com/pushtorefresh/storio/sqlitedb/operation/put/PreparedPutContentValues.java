@@ -3,8 +3,10 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
 import rx.Observable;
@@ -20,20 +22,44 @@ public class PreparedPutContentValues extends PreparedPut<ContentValues, PutResu
     }
 
     @NonNull @Override public PutResult executeAsBlocking() {
+        final WriteCoordinator writeCoordinator = storIOSQLiteDb.internal().writeCoordinator();
+        final MetricsRecorder metrics = startMetrics();
+        final long start = metrics.mark();
+
+        if (writeCoordinator != null) {
+            // time in the queue is recorded as waiting, execution of the batch as SQL
+            final PutResult putResult = writeCoordinator.submit(
+                    new PutWrite<>(storIOSQLiteDb, putResolver, contentValues),
+                    metrics,
+                    start
+            );
+
+            recordPutResult(metrics, putResult);
+            metrics.report();
+
+            // WriteCoordinator notifies about changes after commit
+            putResolver.afterPut(contentValues, putResult);
+            return putResult;
+        }
+
         final PutResult putResult = putResolver.performPut(
                 storIOSQLiteDb,
                 contentValues
         );
 
+        metrics.sql(start);
+        recordPutResult(metrics, putResult);
+        metrics.report();
+
         putResolver.afterPut(contentValues, putResult);
-        storIOSQLiteDb.internal().notifyAboutChanges(new Changes(putResult.affectedTable()));
+        storIOSQLiteDb.internal().notifyAboutChanges(changesOf(storIOSQLiteDb, putResult));
         return putResult;
     }
 
     @NonNull @Override public Observable<PutResult> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<PutResult>() {
+        final Observable<PutResult> observable = Observable.create(new Observable.OnSubscribe<PutResult>() {
             @Override public void call(Subscriber<? super PutResult> subscriber) {
                 final PutResult putResult = executeAsBlocking();
 
@@ -43,6 +69,8 @@ public class PreparedPutContentValues extends PreparedPut<ContentValues, PutResu
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder {
@@ -3,14 +3,13 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import rx.Observable;
 import rx.Subscriber;
@@ -22,14 +21,30 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
 
     private final boolean useTransactionIfPossible;
 
+    private final boolean useBulkInsert;
+
+    private final int resultsMode;
+
+    PreparedPutIterableContentValues(
+            @NonNull StorIOSQLiteDb storIOSQLiteDb,
+            @NonNull PutResolver<ContentValues> putResolver,
+            @NonNull Iterable<ContentValues> contentValuesIterable, boolean useTransactionIfPossible,
+            boolean useBulkInsert) {
+
+        this(storIOSQLiteDb, putResolver, contentValuesIterable, useTransactionIfPossible, useBulkInsert, PutResultsCollector.MODE_MAP);
+    }
+
     PreparedPutIterableContentValues(
             @NonNull StorIOSQLiteDb storIOSQLiteDb,
             @NonNull PutResolver<ContentValues> putResolver,
-            @NonNull Iterable<ContentValues> contentValuesIterable, boolean useTransactionIfPossible) {
+            @NonNull Iterable<ContentValues> contentValuesIterable, boolean useTransactionIfPossible,
+            boolean useBulkInsert, int resultsMode) {
 
         super(storIOSQLiteDb, putResolver);
         this.contentValuesIterable = contentValuesIterable;
         this.useTransactionIfPossible = useTransactionIfPossible;
+        this.useBulkInsert = useBulkInsert;
+        this.resultsMode = resultsMode;
     }
 
     @NonNull
@@ -37,25 +52,60 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
     public PutCollectionResult<ContentValues> executeAsBlocking() {
         final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
 
-        final Map<ContentValues, PutResult> putResults = new HashMap<>();
+        // objects can be repeated in the collection, collector keeps all results required for notification
+        final PutResultsCollector<ContentValues> putResults
+                = new PutResultsCollector<>(storIOSQLiteDb, resultsMode, contentValuesIterable);
 
         final boolean withTransaction = useTransactionIfPossible
                 && internal.transactionsSupported();
 
+        final MetricsRecorder metrics = startMetrics();
+
         if (withTransaction) {
+            final long time = metrics.mark();
             internal.beginTransaction();
+            metrics.waited(time);
         }
 
         boolean transactionSuccessful = false;
 
         try {
-            for (ContentValues contentValues : contentValuesIterable) {
-                final PutResult putResult = putResolver.performPut(storIOSQLiteDb, contentValues);
-                putResults.put(contentValues, putResult);
-                putResolver.afterPut(contentValues, putResult);
+            if (useBulkInsert) {
+                final List<ContentValues> contentValuesList = new ArrayList<>();
+
+                for (ContentValues contentValues : contentValuesIterable) {
+                    contentValuesList.add(contentValues);
+                }
+
+                final long time = metrics.mark();
+                final List<PutResult> bulkPutResults = ((DefaultPutResolver<ContentValues>) putResolver)
+                        .performPutAll(storIOSQLiteDb, contentValuesList);
+                metrics.sql(time);
 
-                if (!withTransaction) {
-                    internal.notifyAboutChanges(new Changes(putResult.affectedTable()));
+                for (int i = 0; i < contentValuesList.size(); i++) {
+                    final ContentValues contentValues = contentValuesList.get(i);
+                    final PutResult putResult = bulkPutResults.get(i);
+
+                    putResults.add(contentValues, putResult);
+                    recordPutResult(metrics, putResult);
+                    putResolver.afterPut(contentValues, putResult);
+
+                    if (!withTransaction) {
+                        internal.notifyAboutChanges(changesOf(storIOSQLiteDb, putResult));
+                    }
+                }
+            } else {
+                for (ContentValues contentValues : contentValuesIterable) {
+                    final long time = metrics.mark();
+                    final PutResult putResult = putResolver.performPut(storIOSQLiteDb, contentValues);
+                    metrics.sql(time);
+                    putResults.add(contentValues, putResult);
+                    recordPutResult(metrics, putResult);
+                    putResolver.afterPut(contentValues, putResult);
+
+                    if (!withTransaction) {
+                        internal.notifyAboutChanges(changesOf(storIOSQLiteDb, putResult));
+                    }
                 }
             }
 
@@ -65,21 +115,19 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
             }
         } finally {
             if (withTransaction) {
+                // commit is part of SQL time
+                final long time = metrics.mark();
                 storIOSQLiteDb.internal().endTransaction();
+                metrics.sql(time);
 
                 if (transactionSuccessful) {
-                    final Set<String> affectedTables = new HashSet<>(1); // in most cases it will be 1 table
-
-                    for (final ContentValues contentValues : putResults.keySet()) {
-                        affectedTables.add(putResults.get(contentValues).affectedTable());
-                    }
-
-                    storIOSQLiteDb.internal().notifyAboutChanges(new Changes(affectedTables));
+                    storIOSQLiteDb.internal().notifyAboutChanges(putResults.changes());
                 }
             }
         }
 
-        return new PutCollectionResult<>(putResults);
+        metrics.report();
+        return putResults.result();
     }
 
     @NonNull
@@ -87,7 +135,7 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
     public Observable<PutCollectionResult<ContentValues>> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<PutCollectionResult<ContentValues>>() {
+        final Observable<PutCollectionResult<ContentValues>> observable = Observable.create(new Observable.OnSubscribe<PutCollectionResult<ContentValues>>() {
 
             @Override
             public void call(Subscriber<? super PutCollectionResult<ContentValues>> subscriber) {
@@ -99,6 +147,8 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder {
@@ -110,6 +160,8 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
 
         private PutResolver<ContentValues> putResolver;
         private boolean useTransactionIfPossible = true;
+        private boolean useBulkInsert;
+        private int resultsMode = PutResultsCollector.MODE_MAP;
 
         Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Iterable<ContentValues> contentValuesIterable) {
             this.storIOSQLiteDb = storIOSQLiteDb;
@@ -153,6 +205,50 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
             return this;
         }
 
+        /**
+         * Defines that Put Operation will insert {@link ContentValues} without id via multi-row INSERT statements,
+         * which is much faster for big collections
+         * <p>
+         * Requires {@link DefaultPutResolver}, {@link #prepare()} throws {@link IllegalStateException} for other resolvers
+         * <p>
+         * {@link PutResolver#afterPut(Object, PutResult)} is called after all {@link ContentValues} were put
+         * <p>
+         * By default, {@link ContentValues} will be put one by one
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder useBulkInsert() {
+            useBulkInsert = true;
+            return this;
+        }
+
+        /**
+         * Defines that results will be stored in primitive arrays in order of input {@link ContentValues}
+         * instead of map of {@link PutResult} per {@link ContentValues}
+         * <p>
+         * See {@link PreparedPutObjects.Builder#withCompactResults()}
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder withCompactResults() {
+            resultsMode = PutResultsCollector.MODE_COMPACT;
+            return this;
+        }
+
+        /**
+         * Defines that results per {@link ContentValues} won't be stored at all, only summary per table,
+         * see {@link PutCollectionResult#tableSummaries()}
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder withoutPerObjectResults() {
+            resultsMode = PutResultsCollector.MODE_SUMMARY;
+            return this;
+        }
+
         /**
          * Prepares Put Operation
          *
@@ -164,11 +260,17 @@ public class PreparedPutIterableContentValues extends PreparedPut<ContentValues,
                 throw new IllegalStateException("Please specify put resolver");
             }
 
+            if (useBulkInsert && !(putResolver instanceof DefaultPutResolver)) {
+                throw new IllegalStateException("useBulkInsert() requires DefaultPutResolver, put resolver = " + putResolver);
+            }
+
             return new PreparedPutIterableContentValues(
                     storIOSQLiteDb,
                     putResolver,
                     contentValuesIterable,
-                    useTransactionIfPossible
+                    useTransactionIfPossible,
+                    useBulkInsert,
+                    resultsMode
             );
         }
     }
@@ -3,10 +3,12 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
 import com.pushtorefresh.storio.operation.MapFunc;
 import com.pushtorefresh.storio.operation.PreparedOperation;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
 import rx.Observable;
@@ -28,10 +30,37 @@ public class PreparedPutObject<T> extends PreparedPut<T, PutResult> {
 
     @NonNull
     public PutResult executeAsBlocking() {
-        final PutResult putResult = putResolver.performPut(storIOSQLiteDb, mapFunc.map(object));
+        final WriteCoordinator writeCoordinator = storIOSQLiteDb.internal().writeCoordinator();
+        final MetricsRecorder metrics = startMetrics();
+
+        long time = metrics.mark();
+        final ContentValues contentValues = mapFunc.map(object);
+        time = metrics.map(time);
+
+        if (writeCoordinator != null) {
+            // time in the queue is recorded as waiting, execution of the batch as SQL
+            final PutResult putResult = writeCoordinator.submit(
+                    new PutWrite<>(storIOSQLiteDb, putResolver, contentValues),
+                    metrics,
+                    time
+            );
+
+            recordPutResult(metrics, putResult);
+            metrics.report();
+
+            // WriteCoordinator notifies about changes after commit
+            putResolver.afterPut(object, putResult);
+            return putResult;
+        }
+
+        final PutResult putResult = putResolver.performPut(storIOSQLiteDb, contentValues);
+
+        metrics.sql(time);
+        recordPutResult(metrics, putResult);
+        metrics.report();
 
         putResolver.afterPut(object, putResult);
-        storIOSQLiteDb.internal().notifyAboutChanges(new Changes(putResult.affectedTable()));
+        storIOSQLiteDb.internal().notifyAboutChanges(changesOf(storIOSQLiteDb, putResult));
 
         return putResult;
     }
@@ -40,7 +69,7 @@ public class PreparedPutObject<T> extends PreparedPut<T, PutResult> {
     public Observable<PutResult> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<PutResult>() {
+        final Observable<PutResult> observable = Observable.create(new Observable.OnSubscribe<PutResult>() {
             @Override
             public void call(Subscriber<? super PutResult> subscriber) {
                 final PutResult putResult = executeAsBlocking();
@@ -51,6 +80,8 @@ public class PreparedPutObject<T> extends PreparedPut<T, PutResult> {
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder<T> {
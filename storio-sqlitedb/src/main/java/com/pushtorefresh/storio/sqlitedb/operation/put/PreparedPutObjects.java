@@ -3,15 +3,14 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
-import com.pushtorefresh.storio.sqlitedb.Changes;
 import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.operation.SchedulerUtil;
 import com.pushtorefresh.storio.util.EnvironmentUtil;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import rx.Observable;
 import rx.Subscriber;
@@ -21,42 +20,94 @@ public class PreparedPutObjects<T> extends PreparedPut<T, PutCollectionResult<T>
     @NonNull private final Iterable<T> objects;
     @NonNull private final MapFunc<T, ContentValues> mapFunc;
     private final boolean useTransactionIfPossible;
+    private final boolean useBulkInsert;
+    private final int resultsMode;
 
     PreparedPutObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb,
                        @NonNull PutResolver<T> putResolver,
                        @NonNull Iterable<T> objects, @NonNull MapFunc<T, ContentValues> mapFunc,
-                       boolean useTransactionIfPossible) {
+                       boolean useTransactionIfPossible, boolean useBulkInsert) {
+        this(storIOSQLiteDb, putResolver, objects, mapFunc, useTransactionIfPossible, useBulkInsert, PutResultsCollector.MODE_MAP);
+    }
+
+    PreparedPutObjects(@NonNull StorIOSQLiteDb storIOSQLiteDb,
+                       @NonNull PutResolver<T> putResolver,
+                       @NonNull Iterable<T> objects, @NonNull MapFunc<T, ContentValues> mapFunc,
+                       boolean useTransactionIfPossible, boolean useBulkInsert, int resultsMode) {
         super(storIOSQLiteDb, putResolver);
         this.objects = objects;
         this.mapFunc = mapFunc;
         this.useTransactionIfPossible = useTransactionIfPossible;
+        this.useBulkInsert = useBulkInsert;
+        this.resultsMode = resultsMode;
     }
 
     @NonNull @Override public PutCollectionResult<T> executeAsBlocking() {
         final StorIOSQLiteDb.Internal internal = storIOSQLiteDb.internal();
-        final Map<T, PutResult> putResults = new HashMap<>();
+
+        // objects can be repeated in the collection, collector keeps all results required for notification
+        final PutResultsCollector<T> putResults = new PutResultsCollector<>(storIOSQLiteDb, resultsMode, objects);
 
         final boolean withTransaction = useTransactionIfPossible
                 && storIOSQLiteDb.internal().transactionsSupported();
 
+        final MetricsRecorder metrics = startMetrics();
+
         if (withTransaction) {
+            final long time = metrics.mark();
             internal.beginTransaction();
+            metrics.waited(time);
         }
 
         boolean transactionSuccessful = false;
 
         try {
-            for (T object : objects) {
-                final PutResult putResult = putResolver.performPut(
-                        storIOSQLiteDb,
-                        mapFunc.map(object)
-                );
+            if (useBulkInsert) {
+                final List<T> objectsList = new ArrayList<>();
+                final List<ContentValues> contentValuesList = new ArrayList<>();
+
+                long time = metrics.mark();
+
+                for (T object : objects) {
+                    objectsList.add(object);
+                    contentValuesList.add(mapFunc.map(object));
+                }
+
+                time = metrics.map(time);
+
+                final List<PutResult> bulkPutResults = ((DefaultPutResolver<T>) putResolver)
+                        .performPutAll(storIOSQLiteDb, contentValuesList);
 
-                putResolver.afterPut(object, putResult);
-                putResults.put(object, putResult);
+                metrics.sql(time);
 
-                if (!withTransaction) {
-                    internal.notifyAboutChanges(new Changes(putResult.affectedTable()));
+                for (int i = 0; i < objectsList.size(); i++) {
+                    final T object = objectsList.get(i);
+                    final PutResult putResult = bulkPutResults.get(i);
+
+                    putResolver.afterPut(object, putResult);
+                    putResults.add(object, putResult);
+                    recordPutResult(metrics, putResult);
+
+                    if (!withTransaction) {
+                        internal.notifyAboutChanges(changesOf(storIOSQLiteDb, putResult));
+                    }
+                }
+            } else {
+                for (T object : objects) {
+                    long time = metrics.mark();
+                    final ContentValues contentValues = mapFunc.map(object);
+                    time = metrics.map(time);
+
+                    final PutResult putResult = putResolver.performPut(storIOSQLiteDb, contentValues);
+                    metrics.sql(time);
+
+                    putResolver.afterPut(object, putResult);
+                    putResults.add(object, putResult);
+                    recordPutResult(metrics, putResult);
+
+                    if (!withTransaction) {
+                        internal.notifyAboutChanges(changesOf(storIOSQLiteDb, putResult));
+                    }
                 }
             }
 
@@ -66,27 +117,25 @@ public class PreparedPutObjects<T> extends PreparedPut<T, PutCollectionResult<T>
             }
         } finally {
             if (withTransaction) {
+                // commit is part of SQL time
+                final long time = metrics.mark();
                 storIOSQLiteDb.internal().endTransaction();
+                metrics.sql(time);
 
                 if (transactionSuccessful) {
-                    final Set<String> affectedTables = new HashSet<>(1); // in most cases it will be 1 table
-
-                    for (final T object : putResults.keySet()) {
-                        affectedTables.add(putResults.get(object).affectedTable());
-                    }
-
-                    storIOSQLiteDb.internal().notifyAboutChanges(new Changes(affectedTables));
+                    storIOSQLiteDb.internal().notifyAboutChanges(putResults.changes());
                 }
             }
         }
 
-        return new PutCollectionResult<>(putResults);
+        metrics.report();
+        return putResults.result();
     }
 
     @NonNull @Override public Observable<PutCollectionResult<T>> createObservable() {
         EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        return Observable.create(new Observable.OnSubscribe<PutCollectionResult<T>>() {
+        final Observable<PutCollectionResult<T>> observable = Observable.create(new Observable.OnSubscribe<PutCollectionResult<T>>() {
             @Override
             public void call(Subscriber<? super PutCollectionResult<T>> subscriber) {
                 PutCollectionResult<T> putResults = executeAsBlocking();
@@ -97,6 +146,8 @@ public class PreparedPutObjects<T> extends PreparedPut<T, PutCollectionResult<T>
                 }
             }
         });
+
+        return SchedulerUtil.subscribeOnDefaultScheduler(storIOSQLiteDb, observable);
     }
 
     public static class Builder<T> {
@@ -107,6 +158,8 @@ public class PreparedPutObjects<T> extends PreparedPut<T, PutCollectionResult<T>
         private MapFunc<T, ContentValues> mapFunc;
         private PutResolver<T> putResolver;
         private boolean useTransactionIfPossible = true;
+        private boolean useBulkInsert;
+        private int resultsMode = PutResultsCollector.MODE_MAP;
 
         Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Iterable<T> objects) {
             this.storIOSQLiteDb = storIOSQLiteDb;
@@ -158,6 +211,54 @@ public class PreparedPutObjects<T> extends PreparedPut<T, PutCollectionResult<T>
             return this;
         }
 
+        /**
+         * Defines that Put Operation will insert objects without id via multi-row INSERT statements,
+         * which is much faster for big collections
+         * <p>
+         * Requires {@link DefaultPutResolver}, {@link #prepare()} throws {@link IllegalStateException} for other resolvers
+         * <p>
+         * Objects are mapped to {@link ContentValues} before any of them is put,
+         * {@link PutResolver#afterPut(Object, PutResult)} is called after all objects were put
+         * <p>
+         * By default, objects will be put one by one
+         *
+         * @return builder
+         */
+        @NonNull public Builder<T> useBulkInsert() {
+            useBulkInsert = true;
+            return this;
+        }
+
+        /**
+         * Defines that results will be stored in primitive arrays in order of input collection
+         * instead of map of {@link PutResult} per object
+         * <p>
+         * Saves allocation of {@link PutResult} and map entry per object, does not require meaningful
+         * {@link Object#hashCode()} of objects and does not merge equal objects.
+         * Results are available via {@link PutCollectionResult#wasInserted(int)}, {@link PutCollectionResult#insertedId(int)},
+         * {@link PutCollectionResult#wasUpdated(int)} and {@link PutCollectionResult#numberOfUpdatedRows(int)},
+         * {@link PutCollectionResult#results()} will be empty
+         *
+         * @return builder
+         */
+        @NonNull public Builder<T> withCompactResults() {
+            resultsMode = PutResultsCollector.MODE_COMPACT;
+            return this;
+        }
+
+        /**
+         * Defines that results per object won't be stored at all, only summary per table,
+         * see {@link PutCollectionResult#tableSummaries()}
+         * <p>
+         * Useful for big imports when results per object are not needed
+         *
+         * @return builder
+         */
+        @NonNull public Builder<T> withoutPerObjectResults() {
+            resultsMode = PutResultsCollector.MODE_SUMMARY;
+            return this;
+        }
+
         /**
          * Prepares Put Operation
          * @return {@link PreparedPutObjects} instance
@@ -171,12 +272,18 @@ public class PreparedPutObjects<T> extends PreparedPut<T, PutCollectionResult<T>
                 throw new IllegalStateException("Please specify put resolver");
             }
 
+            if (useBulkInsert && !(putResolver instanceof DefaultPutResolver)) {
+                throw new IllegalStateException("useBulkInsert() requires DefaultPutResolver, put resolver = " + putResolver);
+            }
+
             return new PreparedPutObjects<>(
                     storIOSQLiteDb,
                     putResolver,
                     objects,
                     mapFunc,
-                    useTransactionIfPossible);
+                    useTransactionIfPossible,
+                    useBulkInsert,
+                    resultsMode);
         }
     }
 }
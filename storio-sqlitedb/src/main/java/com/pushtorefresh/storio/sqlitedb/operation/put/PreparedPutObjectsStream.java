@@ -0,0 +1,576 @@
+package com.pushtorefresh.storio.sqlitedb.operation.put;
+
+import android.content.ContentValues;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.util.EnvironmentUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+/**
+ * Represents Put Operation for {@link StorIOSQLiteDb} which puts objects emitted by source {@link Observable}
+ * <p/>
+ * Objects are requested from the source with backpressure and put by chunks: chunk is committed
+ * when it has "N" objects or when "T" time has passed since its first object.
+ * Each chunk is put in its own transaction, observers of {@link StorIOSQLiteDb} are notified after each chunk
+ * and {@link PutCollectionResult} of the chunk is emitted, so import of any size holds the writer lock
+ * only for a short time, keeps at most one chunk in memory and reports progress.
+ *
+ * @param <T> type of objects to put
+ */
+public class PreparedPutObjectsStream<T> {
+
+    /**
+     * Default number of objects in one chunk
+     */
+    public static final int DEFAULT_ROWS_PER_CHUNK = 500;
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    @NonNull
+    private final PutResolver<T> putResolver;
+
+    @NonNull
+    private final Observable<T> source;
+
+    @NonNull
+    private final MapFunc<T, ContentValues> mapFunc;
+
+    private final int rowsPerChunk;
+
+    private final long maxChunkDurationNanos;
+
+    private final boolean useBulkInsert;
+
+    private final int resultsMode;
+
+    PreparedPutObjectsStream(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull PutResolver<T> putResolver,
+                             @NonNull Observable<T> source, @NonNull MapFunc<T, ContentValues> mapFunc,
+                             int rowsPerChunk, long maxChunkDurationNanos, boolean useBulkInsert, int resultsMode) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.putResolver = putResolver;
+        this.source = source;
+        this.mapFunc = mapFunc;
+        this.rowsPerChunk = rowsPerChunk;
+        this.maxChunkDurationNanos = maxChunkDurationNanos;
+        this.useBulkInsert = useBulkInsert;
+        this.resultsMode = resultsMode;
+    }
+
+    /**
+     * Creates an {@link Observable} which subscribes to the source, puts its objects by chunks
+     * and emits result of put of each chunk
+     * <p/>
+     * Chunks are put on the thread which emits objects of the source, chunk committed by time limit
+     * while the source is silent is put on {@link StorIOSQLiteDb.Internal#defaultScheduler()}
+     * or on {@link Schedulers#io()} if default scheduler is not set.
+     * Next objects are requested from the source only after result of previous chunk was requested
+     * by subscriber, so slow subscriber slows down the source instead of buffering.
+     * <p/>
+     * If the source or put of a chunk fails, previous chunks stay committed,
+     * objects of the current chunk are not put and error is emitted.
+     *
+     * @return non-null {@link Observable} which supports backpressure and emits one result per chunk
+     */
+    @NonNull
+    public Observable<PutCollectionResult<T>> createObservable() {
+        EnvironmentUtil.throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return Observable.create(new Observable.OnSubscribe<PutCollectionResult<T>>() {
+            @Override
+            public void call(Subscriber<? super PutCollectionResult<T>> child) {
+                final Scheduler.Worker worker;
+
+                if (maxChunkDurationNanos > 0) {
+                    final Scheduler scheduler = storIOSQLiteDb.internal().defaultScheduler();
+                    worker = (scheduler != null ? scheduler : Schedulers.io()).createWorker();
+                    child.add(worker);
+                } else {
+                    worker = null;
+                }
+
+                final ChunkSubscriber chunkSubscriber = new ChunkSubscriber(child, worker);
+
+                child.add(chunkSubscriber);
+                child.setProducer(new Producer() {
+                    @Override
+                    public void request(long n) {
+                        chunkSubscriber.requestResults(n);
+                    }
+                });
+
+                source.unsafeSubscribe(chunkSubscriber);
+            }
+        });
+    }
+
+    @NonNull
+    private PutCollectionResult<T> putChunk(@NonNull List<T> chunk) {
+        return new PreparedPutObjects<>(
+                storIOSQLiteDb,
+                putResolver,
+                chunk,
+                mapFunc,
+                true,
+                useBulkInsert,
+                resultsMode
+        ).executeAsBlocking();
+    }
+
+    /**
+     * Collects objects of the source into chunks and emits results of their put to child
+     * <p/>
+     * Number of buffered, requested from the source and not re-requested objects is always equal to rows per chunk,
+     * objects of committed chunk are requested again only when all results were emitted.
+     * <p/>
+     * Objects of the source and deadlines of chunks are handled under chunk lock, so chunk is never
+     * committed by the deadline and by the source at the same time.
+     */
+    private class ChunkSubscriber extends Subscriber<T> {
+
+        @NonNull
+        private final Subscriber<? super PutCollectionResult<T>> child;
+
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        @NonNull
+        private final Object chunkLock = new Object();
+
+        // fields below are guarded by chunkLock
+
+        @NonNull
+        private List<T> chunk = new ArrayList<>();
+
+        private long chunkStartNanos;
+
+        @Nullable
+        private Subscription deadline;
+
+        @NonNull
+        private final Object lock = new Object();
+
+        // fields below are guarded by lock
+
+        @NonNull
+        private final Queue<PutCollectionResult<T>> results = new LinkedList<>();
+
+        private long requestedResults;
+
+        private long rowsToRequest;
+
+        private boolean done;
+
+        private Throwable error;
+
+        private boolean emitting;
+
+        private boolean missed;
+
+        ChunkSubscriber(@NonNull Subscriber<? super PutCollectionResult<T>> child, @Nullable Scheduler.Worker worker) {
+            this.child = child;
+            this.worker = worker;
+        }
+
+        @Override
+        public void onStart() {
+            // first chunk is prefetched before results are requested
+            request(rowsPerChunk);
+        }
+
+        @Override
+        public void onNext(T object) {
+            synchronized (chunkLock) {
+                if (isUnsubscribed()) {
+                    // put of previous chunk failed
+                    return;
+                }
+
+                if (chunk.isEmpty()) {
+                    chunkStartNanos = System.nanoTime();
+                    scheduleDeadline(chunk, maxChunkDurationNanos);
+                }
+
+                chunk.add(object);
+
+                if (chunk.size() >= rowsPerChunk
+                        || maxChunkDurationNanos > 0
+                        && System.nanoTime() - chunkStartNanos >= maxChunkDurationNanos
+                        && !hasPendingResults()) {
+                    commitChunk();
+                }
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (chunkLock) {
+                stopDeadlines();
+
+                if (!chunk.isEmpty() && !commitChunk()) {
+                    return;
+                }
+            }
+
+            synchronized (lock) {
+                done = true;
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (chunkLock) {
+                stopDeadlines();
+                chunk = new ArrayList<>();
+            }
+
+            fail(e);
+        }
+
+        /**
+         * Schedules commit of the chunk for the case when the source does not emit objects until its time limit
+         */
+        private void scheduleDeadline(@NonNull final List<T> expiringChunk, long delayNanos) {
+            if (worker == null) {
+                return;
+            }
+
+            deadline = worker.schedule(new Action0() {
+                @Override
+                public void call() {
+                    onDeadline(expiringChunk);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void onDeadline(@NonNull List<T> expiringChunk) {
+            synchronized (chunkLock) {
+                if (chunk != expiringChunk || chunk.isEmpty() || isUnsubscribed()) {
+                    // chunk was already committed by the source or put failed
+                    return;
+                }
+
+                if (hasPendingResults()) {
+                    // while previous results are not emitted objects are just buffered, checked again later
+                    scheduleDeadline(expiringChunk, maxChunkDurationNanos);
+                } else {
+                    commitChunk();
+                }
+            }
+        }
+
+        private void stopDeadlines() {
+            if (worker != null) {
+                worker.unsubscribe();
+            }
+        }
+
+        private boolean hasPendingResults() {
+            synchronized (lock) {
+                return !results.isEmpty();
+            }
+        }
+
+        private void fail(@NonNull Throwable throwable) {
+            synchronized (lock) {
+                if (error != null || done) {
+                    return;
+                }
+
+                error = throwable;
+            }
+
+            drain();
+        }
+
+        /**
+         * @return true if chunk was put, false if put failed and error was emitted
+         */
+        private boolean commitChunk() {
+            if (deadline != null) {
+                deadline.unsubscribe();
+                deadline = null;
+            }
+
+            final List<T> committed = chunk;
+            chunk = new ArrayList<>();
+
+            final PutCollectionResult<T> result;
+
+            try {
+                result = putChunk(committed);
+            } catch (Throwable throwable) {
+                unsubscribe();
+                fail(throwable);
+                return false;
+            }
+
+            synchronized (lock) {
+                results.add(result);
+                rowsToRequest += committed.size();
+            }
+
+            drain();
+            return true;
+        }
+
+        void requestResults(long n) {
+            if (n <= 0) {
+                return;
+            }
+
+            synchronized (lock) {
+                requestedResults += n;
+
+                if (requestedResults < 0) {
+                    // overflow means unbounded request
+                    requestedResults = Long.MAX_VALUE;
+                }
+            }
+
+            drain();
+        }
+
+        /**
+         * Emits results while they are requested, requests objects of committed chunks from the source
+         * when all results were emitted and completes child after last result, only one thread emits at a time
+         * <p/>
+         * Error is emitted without waiting for requests of pending results
+         */
+        private void drain() {
+            synchronized (lock) {
+                if (emitting) {
+                    missed = true;
+                    return;
+                }
+
+                emitting = true;
+            }
+
+            while (true) {
+                PutCollectionResult<T> result = null;
+                long rows = 0;
+                boolean complete = false;
+                Throwable throwable;
+
+                synchronized (lock) {
+                    throwable = error;
+
+                    if (throwable != null) {
+                        results.clear();
+                    } else if (!results.isEmpty()) {
+                        if (requestedResults > 0) {
+                            result = results.poll();
+
+                            if (requestedResults != Long.MAX_VALUE) {
+                                requestedResults--;
+                            }
+                        }
+                    } else if (done) {
+                        complete = true;
+                    } else {
+                        rows = rowsToRequest;
+                        rowsToRequest = 0;
+                    }
+
+                    if (throwable == null && result == null && rows == 0 && !complete) {
+                        if (!missed) {
+                            emitting = false;
+                            return;
+                        }
+
+                        missed = false;
+                        continue;
+                    }
+                }
+
+                if (throwable != null) {
+                    // emitting stays true, nothing will be emitted after error
+                    child.onError(throwable);
+                    return;
+                } else if (complete) {
+                    // emitting stays true, nothing will be emitted after completion
+                    child.onCompleted();
+                    return;
+                } else if (result != null) {
+                    child.onNext(result);
+                } else {
+                    request(rows);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedPutObjectsStream}
+     *
+     * @param <T> type of objects to put
+     */
+    public static class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLiteDb storIOSQLiteDb;
+
+        @NonNull
+        private final Observable<T> source;
+
+        private MapFunc<T, ContentValues> mapFunc;
+        private PutResolver<T> putResolver;
+        private int rowsPerChunk = DEFAULT_ROWS_PER_CHUNK;
+        private long maxChunkDurationNanos;
+        private boolean useBulkInsert;
+        private int resultsMode = PutResultsCollector.MODE_MAP;
+
+        Builder(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull Observable<T> source) {
+            this.storIOSQLiteDb = storIOSQLiteDb;
+            this.source = source;
+        }
+
+        /**
+         * Specifies map function for Put Operation which will be used to map each object to {@link ContentValues}
+         *
+         * @param mapFunc map function for Put Operation which will be used to map each object to {@link ContentValues}
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withMapFunc(@NonNull MapFunc<T, ContentValues> mapFunc) {
+            this.mapFunc = mapFunc;
+            return this;
+        }
+
+        /**
+         * Specifies {@link PutResolver} for Put Operation which allows you to customize behavior of Put Operation
+         *
+         * @param putResolver put resolver
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withPutResolver(@NonNull PutResolver<T> putResolver) {
+            this.putResolver = putResolver;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies max number of objects in one chunk, default is {@link #DEFAULT_ROWS_PER_CHUNK}
+         * <p/>
+         * It's also max number of objects which will be kept in memory
+         *
+         * @param rowsPerChunk max number of objects in one chunk
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> commitEvery(int rowsPerChunk) {
+            if (rowsPerChunk <= 0) {
+                throw new IllegalArgumentException("rowsPerChunk should be > 0, but was " + rowsPerChunk);
+            }
+
+            this.rowsPerChunk = rowsPerChunk;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies max time between first object of chunk and commit of the chunk,
+         * by default chunk is committed only when it's full or the source completes
+         * <p/>
+         * If the source does not emit objects until the time limit, chunk is committed on
+         * {@link StorIOSQLiteDb.Internal#defaultScheduler()} or on {@link Schedulers#io()} if default scheduler is not set.
+         * While result of previous chunk is not requested by subscriber, chunk is not committed by time.
+         *
+         * @param time     max duration of chunk
+         * @param timeUnit time unit
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> commitEvery(long time, @NonNull TimeUnit timeUnit) {
+            if (time <= 0) {
+                throw new IllegalArgumentException("time should be > 0, but was " + time);
+            }
+
+            this.maxChunkDurationNanos = timeUnit.toNanos(time);
+            return this;
+        }
+
+        /**
+         * Optional: Defines that objects of each chunk will be put as in {@link PreparedPutObjects.Builder#useBulkInsert()}
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> useBulkInsert() {
+            useBulkInsert = true;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that results of each chunk will be compact, see {@link PreparedPutObjects.Builder#withCompactResults()}
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withCompactResults() {
+            resultsMode = PutResultsCollector.MODE_COMPACT;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that results of each chunk will contain only summary per table,
+         * see {@link PreparedPutObjects.Builder#withoutPerObjectResults()}
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> withoutPerObjectResults() {
+            resultsMode = PutResultsCollector.MODE_SUMMARY;
+            return this;
+        }
+
+        /**
+         * Prepares Put Operation
+         *
+         * @return {@link PreparedPutObjectsStream} instance
+         */
+        @NonNull
+        public PreparedPutObjectsStream<T> prepare() {
+            if (mapFunc == null) {
+                throw new IllegalStateException("Please specify map function");
+            }
+
+            if (putResolver == null) {
+                throw new IllegalStateException("Please specify put resolver");
+            }
+
+            if (useBulkInsert && !(putResolver instanceof DefaultPutResolver)) {
+                throw new IllegalStateException("useBulkInsert() requires DefaultPutResolver, put resolver = " + putResolver);
+            }
+
+            return new PreparedPutObjectsStream<>(
+                    storIOSQLiteDb,
+                    putResolver,
+                    source,
+                    mapFunc,
+                    rowsPerChunk,
+                    maxChunkDurationNanos,
+                    useBulkInsert,
+                    resultsMode
+            );
+        }
+    }
+}
@@ -1,44 +1,324 @@
 package com.pushtorefresh.storio.sqlitedb.operation.put;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Result of Put Operation of collection
+ * <p>
+ * By default it contains {@link PutResult} for each object, see {@link #results()}.
+ * With compact results (see {@link PreparedPutObjects.Builder#withCompactResults()}) results are stored
+ * in primitive arrays in order of input collection, without map and without {@link PutResult} per object,
+ * see {@link #wasInserted(int)}, {@link #insertedId(int)}, {@link #wasUpdated(int)}, {@link #numberOfUpdatedRows(int)}.
+ * Summary per table is available in all cases, see {@link #tableSummaries()}.
+ */
 public class PutCollectionResult<T> {
 
     @NonNull private final Map<T, PutResult> results;
 
+    @NonNull private final Map<String, TableSummary> tableSummaries;
+
+    private final int numberOfInserts;
+
+    private final int numberOfUpdates;
+
+    /**
+     * Number of objects in compact results or -1 if compact results are not available
+     */
+    private final int size;
+
+    @Nullable private final long[] insertedIds;
+
+    @Nullable private final int[] numberOfUpdatedRows;
+
+    @Nullable private final BitSet inserted;
+
+    @Nullable private final BitSet updated;
+
     public PutCollectionResult(@NonNull Map<T, PutResult> results) {
+        this(results, summariesOf(results));
+    }
+
+    /**
+     * Creates result with summary per table which was already collected
+     *
+     * @param results        result for each object
+     * @param tableSummaries summary per table
+     */
+    PutCollectionResult(@NonNull Map<T, PutResult> results, @NonNull Map<String, TableSummary> tableSummaries) {
         this.results = Collections.unmodifiableMap(results);
+        this.tableSummaries = Collections.unmodifiableMap(tableSummaries);
+        this.numberOfInserts = sumOfInserts(tableSummaries);
+        this.numberOfUpdates = sumOfUpdates(tableSummaries);
+        this.size = -1;
+        this.insertedIds = null;
+        this.numberOfUpdatedRows = null;
+        this.inserted = null;
+        this.updated = null;
     }
 
-    @NonNull public Map<T, PutResult> results() {
-        return results;
+    /**
+     * Creates compact result, arrays are not copied
+     *
+     * @param tableSummaries      summary per table
+     * @param size                number of objects or -1 if results per object were skipped
+     * @param insertedIds         ids of inserted rows in input order
+     * @param numberOfUpdatedRows numbers of updated rows in input order
+     * @param inserted            bit is set if object was inserted
+     * @param updated             bit is set if object was updated
+     */
+    PutCollectionResult(@NonNull Map<String, TableSummary> tableSummaries, int size,
+                        @Nullable long[] insertedIds, @Nullable int[] numberOfUpdatedRows,
+                        @Nullable BitSet inserted, @Nullable BitSet updated) {
+        this.results = Collections.emptyMap();
+        this.tableSummaries = Collections.unmodifiableMap(tableSummaries);
+        this.numberOfInserts = sumOfInserts(tableSummaries);
+        this.numberOfUpdates = sumOfUpdates(tableSummaries);
+        this.size = size;
+        this.insertedIds = insertedIds;
+        this.numberOfUpdatedRows = numberOfUpdatedRows;
+        this.inserted = inserted;
+        this.updated = updated;
     }
 
-    // TODO cache this value?
-    public int numberOfInserts() {
+    @NonNull
+    static TableSummary summaryOf(@NonNull Map<String, TableSummary> tableSummaries, @NonNull String table) {
+        TableSummary tableSummary = tableSummaries.get(table);
+
+        if (tableSummary == null) {
+            tableSummary = new TableSummary();
+            tableSummaries.put(table, tableSummary);
+        }
+
+        return tableSummary;
+    }
+
+    @NonNull
+    private static Map<String, TableSummary> summariesOf(@NonNull Map<?, PutResult> results) {
+        final Map<String, TableSummary> tableSummaries = new HashMap<>(2);
+
+        for (PutResult putResult : results.values()) {
+            summaryOf(tableSummaries, putResult.affectedTable()).add(putResult);
+        }
+
+        return tableSummaries;
+    }
+
+    private static int sumOfInserts(@NonNull Map<String, TableSummary> tableSummaries) {
         int numberOfInserts = 0;
 
-        for (T object : results.keySet()) {
-            if (results.get(object).wasInserted()) {
-                numberOfInserts++;
-            }
+        for (TableSummary tableSummary : tableSummaries.values()) {
+            numberOfInserts += tableSummary.numberOfInserts;
         }
 
         return numberOfInserts;
     }
 
-    public int numberOfUpdates() {
+    private static int sumOfUpdates(@NonNull Map<String, TableSummary> tableSummaries) {
         int numberOfUpdates = 0;
 
-        for (T object : results.keySet()) {
-            if (results.get(object).wasUpdated()) {
+        for (TableSummary tableSummary : tableSummaries.values()) {
+            numberOfUpdates += tableSummary.numberOfUpdates;
+        }
+
+        return numberOfUpdates;
+    }
+
+    /**
+     * Gets results for each object
+     * <p>
+     * Empty if compact results were requested or results per object were skipped
+     *
+     * @return object -> result of its put
+     */
+    @NonNull public Map<T, PutResult> results() {
+        return results;
+    }
+
+    public int numberOfInserts() {
+        return numberOfInserts;
+    }
+
+    public int numberOfUpdates() {
+        return numberOfUpdates;
+    }
+
+    /**
+     * Gets summary of Put Operation for each affected table
+     *
+     * @return table -> summary
+     */
+    @NonNull public Map<String, TableSummary> tableSummaries() {
+        return tableSummaries;
+    }
+
+    /**
+     * Checks whether compact results in input order are available
+     *
+     * @return true if results were requested via {@link PreparedPutObjects.Builder#withCompactResults()}, false otherwise
+     */
+    public boolean hasCompactResults() {
+        return size >= 0;
+    }
+
+    /**
+     * Gets number of objects in compact results
+     *
+     * @return number of put objects
+     */
+    public int size() {
+        checkCompactResults();
+        return size;
+    }
+
+    /**
+     * Checks whether object with given index in input collection was inserted
+     *
+     * @param index index of object in input collection
+     * @return true if object was inserted, false otherwise
+     */
+    public boolean wasInserted(int index) {
+        checkIndex(index);
+        //noinspection ConstantConditions, checked by checkIndex()
+        return inserted.get(index);
+    }
+
+    /**
+     * Gets id of row inserted for object with given index in input collection
+     *
+     * @param index index of object in input collection
+     * @return id of inserted row, undefined if object was not inserted, see {@link #wasInserted(int)}
+     */
+    public long insertedId(int index) {
+        checkIndex(index);
+        //noinspection ConstantConditions, checked by checkIndex()
+        return insertedIds[index];
+    }
+
+    /**
+     * Checks whether object with given index in input collection was updated
+     *
+     * @param index index of object in input collection
+     * @return true if object was updated, false otherwise
+     */
+    public boolean wasUpdated(int index) {
+        checkIndex(index);
+        //noinspection ConstantConditions, checked by checkIndex()
+        return updated.get(index);
+    }
+
+    /**
+     * Gets number of rows updated for object with given index in input collection
+     *
+     * @param index index of object in input collection
+     * @return number of updated rows, 0 if object was not updated
+     */
+    public int numberOfUpdatedRows(int index) {
+        checkIndex(index);
+        //noinspection ConstantConditions, checked by checkIndex()
+        return numberOfUpdatedRows[index];
+    }
+
+    private void checkCompactResults() {
+        if (size < 0) {
+            throw new IllegalStateException("Compact results are not available, please use withCompactResults()");
+        }
+    }
+
+    private void checkIndex(int index) {
+        checkCompactResults();
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index = " + index + ", size = " + size);
+        }
+    }
+
+    /**
+     * Summary of Put Operation for one table
+     */
+    public static final class TableSummary {
+
+        int numberOfInserts;
+
+        int numberOfUpdates;
+
+        int numberOfUpdatedRows;
+
+        TableSummary() {
+        }
+
+        void add(@NonNull PutResult putResult) {
+            if (putResult.wasInserted()) {
+                numberOfInserts++;
+            }
+
+            final Integer updatedRows = putResult.numberOfUpdatedRows();
+
+            if (updatedRows != null) {
                 numberOfUpdates++;
+                numberOfUpdatedRows += updatedRows;
             }
         }
 
-        return numberOfUpdates;
+        /**
+         * Gets number of inserted rows
+         *
+         * @return number of inserted rows
+         */
+        public int numberOfInserts() {
+            return numberOfInserts;
+        }
+
+        /**
+         * Gets number of put objects which were updated
+         *
+         * @return number of updates
+         */
+        public int numberOfUpdates() {
+            return numberOfUpdates;
+        }
+
+        /**
+         * Gets number of rows updated by all updates
+         *
+         * @return number of updated rows
+         */
+        public int numberOfUpdatedRows() {
+            return numberOfUpdatedRows;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TableSummary that = (TableSummary) o;
+
+            return numberOfInserts == that.numberOfInserts
+                    && numberOfUpdates == that.numberOfUpdates
+                    && numberOfUpdatedRows == that.numberOfUpdatedRows;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = numberOfInserts;
+            result = 31 * result + numberOfUpdates;
+            result = 31 * result + numberOfUpdatedRows;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "TableSummary{" +
+                    "numberOfInserts=" + numberOfInserts +
+                    ", numberOfUpdates=" + numberOfUpdates +
+                    ", numberOfUpdatedRows=" + numberOfUpdatedRows +
+                    '}';
+        }
     }
 }
@@ -3,6 +3,9 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.sqlitedb.RowChange;
+import com.pushtorefresh.storio.sqlitedb.operation.put.DefaultPutResolver.ConflictStrategy;
+
 /**
  * Immutable container for results of Put Operation
  */
@@ -17,10 +20,23 @@ public class PutResult {
     @NonNull
     private final String affectedTable;
 
-    private PutResult(@Nullable Long insertedId, @Nullable Integer numberOfUpdatedRows, @NonNull String affectedTable) {
+    @Nullable
+    private final String updatedKeyColumn;
+
+    @Nullable
+    private final String updatedKey;
+
+    @Nullable
+    private final ConflictStrategy conflictStrategy;
+
+    private PutResult(@Nullable Long insertedId, @Nullable Integer numberOfUpdatedRows, @NonNull String affectedTable,
+                      @Nullable String updatedKeyColumn, @Nullable String updatedKey, @Nullable ConflictStrategy conflictStrategy) {
         this.insertedId = insertedId;
         this.numberOfUpdatedRows = numberOfUpdatedRows;
         this.affectedTable = affectedTable;
+        this.updatedKeyColumn = updatedKeyColumn;
+        this.updatedKey = updatedKey;
+        this.conflictStrategy = conflictStrategy;
     }
 
     /**
@@ -32,7 +48,31 @@ public class PutResult {
      */
     @NonNull
     public static PutResult newInsertResult(long insertedId, @NonNull String affectedTable) {
-        return new PutResult(insertedId, null, affectedTable);
+        return new PutResult(insertedId, null, affectedTable, null, null, null);
+    }
+
+    /**
+     * Creates {@link PutResult} for insert performed with {@link ConflictStrategy}
+     *
+     * @param insertedId       id of new row
+     * @param affectedTable    affected table
+     * @param conflictStrategy strategy which was used for put
+     * @return new {@link PutResult} instance
+     */
+    @NonNull
+    public static PutResult newInsertResult(long insertedId, @NonNull String affectedTable, @NonNull ConflictStrategy conflictStrategy) {
+        return new PutResult(insertedId, null, affectedTable, null, null, conflictStrategy);
+    }
+
+    /**
+     * Creates {@link PutResult} for row which was not inserted because of {@link ConflictStrategy#INSERT_OR_IGNORE}
+     *
+     * @param affectedTable table of the row
+     * @return new {@link PutResult} instance
+     */
+    @NonNull
+    public static PutResult newIgnoredResult(@NonNull String affectedTable) {
+        return new PutResult(null, null, affectedTable, null, null, ConflictStrategy.INSERT_OR_IGNORE);
     }
 
     /**
@@ -44,7 +84,39 @@ public class PutResult {
      */
     @NonNull
     public static PutResult newUpdateResult(int numberOfUpdatedRows, @NonNull String affectedTable) {
-        return new PutResult(null, numberOfUpdatedRows, affectedTable);
+        return new PutResult(null, numberOfUpdatedRows, affectedTable, null, null, null);
+    }
+
+    /**
+     * Creates {@link PutResult} for update of rows identified by value of key column
+     *
+     * @param numberOfUpdatedRows number of rows that were updated
+     * @param affectedTable       affected table
+     * @param keyColumn           column which identifies updated rows
+     * @param key                 value of key column
+     * @return new {@link PutResult} instance
+     */
+    @NonNull
+    public static PutResult newUpdateResult(int numberOfUpdatedRows, @NonNull String affectedTable,
+                                            @NonNull String keyColumn, @NonNull String key) {
+        return new PutResult(null, numberOfUpdatedRows, affectedTable, keyColumn, key, null);
+    }
+
+    /**
+     * Creates {@link PutResult} for update of rows identified by value of key column performed with {@link ConflictStrategy}
+     *
+     * @param numberOfUpdatedRows number of rows that were updated
+     * @param affectedTable       affected table
+     * @param keyColumn           column which identifies updated rows
+     * @param key                 value of key column
+     * @param conflictStrategy    strategy which was used for put
+     * @return new {@link PutResult} instance
+     */
+    @NonNull
+    public static PutResult newUpdateResult(int numberOfUpdatedRows, @NonNull String affectedTable,
+                                            @NonNull String keyColumn, @NonNull String key,
+                                            @NonNull ConflictStrategy conflictStrategy) {
+        return new PutResult(null, numberOfUpdatedRows, affectedTable, keyColumn, key, conflictStrategy);
     }
 
     /**
@@ -103,6 +175,19 @@ public class PutResult {
         return numberOfUpdatedRows;
     }
 
+    /**
+     * Gets strategy which was used for put by {@link DefaultPutResolver}
+     * <p/>
+     * Result of {@link ConflictStrategy#INSERT_OR_REPLACE} is reported as insert even if existing row was replaced,
+     * result of {@link ConflictStrategy#INSERT_OR_IGNORE} is neither insert nor update if row was ignored.
+     *
+     * @return strategy or null if result was created without strategy, for example by custom {@link PutResolver}
+     */
+    @Nullable
+    public ConflictStrategy conflictStrategy() {
+        return conflictStrategy;
+    }
+
     /**
      * Gets name of affected table
      *
@@ -113,6 +198,27 @@ public class PutResult {
         return affectedTable;
     }
 
+    /**
+     * Gets row-level change made by Put Operation
+     * <p/>
+     * Change of {@link ConflictStrategy#INSERT_OR_REPLACE} is unknown: "REPLACE" deletes all rows
+     * which conflict with new row by primary key or unique constraints, and they can't be reported
+     *
+     * @return change of the row or null if it's unknown
+     */
+    @Nullable
+    public RowChange rowChange() {
+        if (conflictStrategy == ConflictStrategy.INSERT_OR_REPLACE) {
+            return null;
+        } else if (insertedId != null) {
+            return RowChange.newInsert(insertedId);
+        } else if (updatedKeyColumn != null && updatedKey != null) {
+            return RowChange.newUpdate(updatedKeyColumn, updatedKey);
+        } else {
+            return null;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -124,7 +230,12 @@ public class PutResult {
             return false;
         if (numberOfUpdatedRows != null ? !numberOfUpdatedRows.equals(putResult.numberOfUpdatedRows) : putResult.numberOfUpdatedRows != null)
             return false;
-        return affectedTable.equals(putResult.affectedTable);
+        if (!affectedTable.equals(putResult.affectedTable)) return false;
+        if (updatedKeyColumn != null ? !updatedKeyColumn.equals(putResult.updatedKeyColumn) : putResult.updatedKeyColumn != null)
+            return false;
+        if (updatedKey != null ? !updatedKey.equals(putResult.updatedKey) : putResult.updatedKey != null)
+            return false;
+        return conflictStrategy == putResult.conflictStrategy;
 
     }
 
@@ -133,6 +244,9 @@ public class PutResult {
         int result = insertedId != null ? insertedId.hashCode() : 0;
         result = 31 * result + (numberOfUpdatedRows != null ? numberOfUpdatedRows.hashCode() : 0);
         result = 31 * result + affectedTable.hashCode();
+        result = 31 * result + (updatedKeyColumn != null ? updatedKeyColumn.hashCode() : 0);
+        result = 31 * result + (updatedKey != null ? updatedKey.hashCode() : 0);
+        result = 31 * result + (conflictStrategy != null ? conflictStrategy.hashCode() : 0);
         return result;
     }
 
@@ -142,6 +256,9 @@ public class PutResult {
                 "insertedId=" + insertedId +
                 ", numberOfUpdatedRows=" + numberOfUpdatedRows +
                 ", affectedTable='" + affectedTable + '\'' +
+                ", updatedKeyColumn='" + updatedKeyColumn + '\'' +
+                ", updatedKey='" + updatedKey + '\'' +
+                ", conflictStrategy=" + conflictStrategy +
                 '}';
     }
 }
@@ -0,0 +1,178 @@
+package com.pushtorefresh.storio.sqlitedb.operation.put;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects results of Put Operation of collection into {@link PutCollectionResult}
+ * <p>
+ * Depending on mode, results are collected into map, into primitive arrays in input order or only into summary per table.
+ * In map mode summary per table is built from map, so equal objects are counted once, like in {@link PutCollectionResult#PutCollectionResult(Map)}.
+ * {@link PutResult}s are retained for notification only if row-level changes are enabled.
+ *
+ * @param <T> type of put objects
+ */
+class PutResultsCollector<T> {
+
+    /**
+     * Map of {@link PutResult} per object, default
+     */
+    static final int MODE_MAP = 0;
+
+    /**
+     * Primitive arrays in input order, see {@link PutCollectionResult#wasInserted(int)}
+     */
+    static final int MODE_COMPACT = 1;
+
+    /**
+     * Only summary per table
+     */
+    static final int MODE_SUMMARY = 2;
+
+    private static final int MIN_CAPACITY = 16;
+
+    @NonNull
+    private final StorIOSQLiteDb storIOSQLiteDb;
+
+    private final int mode;
+
+    @NonNull
+    private final Map<String, PutCollectionResult.TableSummary> tableSummaries = new HashMap<>(2); // in most cases it will be 1 table
+
+    @Nullable
+    private final Map<T, PutResult> results;
+
+    /**
+     * Results for notification after transaction, required only for row-level changes
+     */
+    @Nullable
+    private final List<PutResult> putResultsForChanges;
+
+    private int size;
+
+    private long[] insertedIds;
+
+    private int[] numberOfUpdatedRows;
+
+    private BitSet inserted;
+
+    private BitSet updated;
+
+    PutResultsCollector(@NonNull StorIOSQLiteDb storIOSQLiteDb, int mode, @NonNull Iterable<?> objects) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.mode = mode;
+
+        results = mode == MODE_MAP ? new HashMap<T, PutResult>() : null;
+
+        putResultsForChanges = storIOSQLiteDb.internal().rowLevelChangesEnabled()
+                ? new ArrayList<PutResult>()
+                : null;
+
+        if (mode == MODE_COMPACT) {
+            final int capacity = objects instanceof Collection
+                    ? Math.max(((Collection<?>) objects).size(), MIN_CAPACITY)
+                    : MIN_CAPACITY;
+
+            insertedIds = new long[capacity];
+            numberOfUpdatedRows = new int[capacity];
+            inserted = new BitSet(capacity);
+            updated = new BitSet(capacity);
+        }
+    }
+
+    /**
+     * Adds result of put of the next object of input collection
+     *
+     * @param object    put object
+     * @param putResult result of its put
+     */
+    void add(@NonNull T object, @NonNull PutResult putResult) {
+        if (putResultsForChanges != null) {
+            putResultsForChanges.add(putResult);
+        }
+
+        if (results != null) {
+            // equal objects are merged by map, so summary is built from map in result()
+            results.put(object, putResult);
+            return;
+        }
+
+        PutCollectionResult.summaryOf(tableSummaries, putResult.affectedTable()).add(putResult);
+
+        if (mode == MODE_COMPACT) {
+            addCompact(putResult);
+        }
+    }
+
+    private void addCompact(@NonNull PutResult putResult) {
+        if (size == insertedIds.length) {
+            final int capacity = size + (size >> 1);
+            insertedIds = Arrays.copyOf(insertedIds, capacity);
+            numberOfUpdatedRows = Arrays.copyOf(numberOfUpdatedRows, capacity);
+        }
+
+        final Long insertedId = putResult.insertedId();
+
+        if (insertedId != null) {
+            insertedIds[size] = insertedId;
+            inserted.set(size);
+        }
+
+        final Integer updatedRows = putResult.numberOfUpdatedRows();
+
+        if (updatedRows != null) {
+            numberOfUpdatedRows[size] = updatedRows;
+            updated.set(size);
+        }
+
+        size++;
+    }
+
+    /**
+     * Gets changes made by all collected results
+     *
+     * @return changes for notification
+     */
+    @NonNull
+    Changes changes() {
+        if (putResultsForChanges != null) {
+            return PreparedPut.changesOf(storIOSQLiteDb, putResultsForChanges);
+        }
+
+        if (results != null) {
+            final Set<String> affectedTables = new HashSet<>(2); // in most cases it will be 1 table
+
+            for (PutResult putResult : results.values()) {
+                affectedTables.add(putResult.affectedTable());
+            }
+
+            return new Changes(affectedTables);
+        }
+
+        return new Changes(new HashSet<>(tableSummaries.keySet()));
+    }
+
+    @NonNull
+    PutCollectionResult<T> result() {
+        if (results != null) {
+            return new PutCollectionResult<>(results);
+        } else if (mode == MODE_COMPACT) {
+            return new PutCollectionResult<>(tableSummaries, size, insertedIds, numberOfUpdatedRows, inserted, updated);
+        } else {
+            return new PutCollectionResult<>(tableSummaries, -1, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pushtorefresh.storio.sqlitedb.operation.put;
+
+import android.content.ContentValues;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.WriteCoordinator;
+
+/**
+ * Put of one {@link ContentValues} for {@link WriteCoordinator}
+ * <p>
+ * {@link PutResolver#afterPut(Object, PutResult)} is not called by this write,
+ * caller should call it after commit
+ *
+ * @param <T> type of object to put
+ */
+class PutWrite<T> implements WriteCoordinator.Write<PutResult> {
+
+    @NonNull private final StorIOSQLiteDb storIOSQLiteDb;
+    @NonNull private final PutResolver<T> putResolver;
+    @NonNull private final ContentValues contentValues;
+
+    PutWrite(@NonNull StorIOSQLiteDb storIOSQLiteDb, @NonNull PutResolver<T> putResolver, @NonNull ContentValues contentValues) {
+        this.storIOSQLiteDb = storIOSQLiteDb;
+        this.putResolver = putResolver;
+        this.contentValues = contentValues;
+    }
+
+    @NonNull @Override public PutResult perform() {
+        return putResolver.performPut(storIOSQLiteDb, contentValues);
+    }
+
+    @NonNull @Override public Changes changes(@NonNull PutResult putResult) {
+        return PreparedPut.changesOf(storIOSQLiteDb, putResult);
+    }
+}
@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlitedb.query;
 
+import android.database.sqlite.SQLiteDatabase;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
@@ -27,12 +28,26 @@ public class InsertQuery {
     @Nullable
     public final String nullColumnHack;
 
+    /**
+     * Conflict algorithm of INSERT statement, one of {@code SQLiteDatabase.CONFLICT_*} constants,
+     * {@link SQLiteDatabase#CONFLICT_NONE} by default
+     */
+    public final int conflictAlgorithm;
+
     /**
      * Please use {@link com.pushtorefresh.storio.sqlitedb.query.InsertQuery.Builder} instead of constructor
      */
     protected InsertQuery(@NonNull String table, @Nullable String nullColumnHack) {
+        this(table, nullColumnHack, SQLiteDatabase.CONFLICT_NONE);
+    }
+
+    /**
+     * Please use {@link com.pushtorefresh.storio.sqlitedb.query.InsertQuery.Builder} instead of constructor
+     */
+    protected InsertQuery(@NonNull String table, @Nullable String nullColumnHack, int conflictAlgorithm) {
         this.table = table;
         this.nullColumnHack = nullColumnHack;
+        this.conflictAlgorithm = conflictAlgorithm;
     }
 
     @Override
@@ -45,6 +60,7 @@ public class InsertQuery {
         if (nullColumnHack != null ? !nullColumnHack.equals(that.nullColumnHack) : that.nullColumnHack != null)
             return false;
         if (!table.equals(that.table)) return false;
+        if (conflictAlgorithm != that.conflictAlgorithm) return false;
 
         return true;
     }
@@ -53,6 +69,7 @@ public class InsertQuery {
     public int hashCode() {
         int result = table.hashCode();
         result = 31 * result + (nullColumnHack != null ? nullColumnHack.hashCode() : 0);
+        result = 31 * result + conflictAlgorithm;
         return result;
     }
 
@@ -61,6 +78,7 @@ public class InsertQuery {
         return "InsertQuery{" +
                 "table='" + table + '\'' +
                 ", nullColumnHack='" + nullColumnHack + '\'' +
+                ", conflictAlgorithm=" + conflictAlgorithm +
                 '}';
     }
 
@@ -71,6 +89,7 @@ public class InsertQuery {
 
         private String table;
         private String nullColumnHack;
+        private int conflictAlgorithm = SQLiteDatabase.CONFLICT_NONE;
 
         /**
          * Specifies table name
@@ -101,6 +120,25 @@ public class InsertQuery {
             return this;
         }
 
+        /**
+         * Specifies optional conflict algorithm, default is {@link SQLiteDatabase#CONFLICT_NONE}
+         * <p/>
+         * For example, {@link SQLiteDatabase#CONFLICT_REPLACE} gives "INSERT OR REPLACE" statement
+         * which replaces existing row with same primary key or unique value instead of failing.
+         *
+         * @param conflictAlgorithm one of {@code SQLiteDatabase.CONFLICT_*} constants
+         * @return builder
+         */
+        @NonNull
+        public Builder conflictAlgorithm(int conflictAlgorithm) {
+            if (conflictAlgorithm < SQLiteDatabase.CONFLICT_NONE || conflictAlgorithm > SQLiteDatabase.CONFLICT_REPLACE) {
+                throw new IllegalArgumentException("Unknown conflict algorithm " + conflictAlgorithm);
+            }
+
+            this.conflictAlgorithm = conflictAlgorithm;
+            return this;
+        }
+
         /**
          * Builds immutable instance of {@link InsertQuery}
          *
@@ -114,7 +152,8 @@ public class InsertQuery {
 
             return new InsertQuery(
                     table,
-                    nullColumnHack
+                    nullColumnHack,
+                    conflictAlgorithm
             );
         }
     }
@@ -0,0 +1,135 @@
+package com.pushtorefresh.storio.sqlitedb.query;
+
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.util.QueryUtil;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Reusable parameterized query: SQL is built once from {@link Query}, only arguments change per execution
+ * <p/>
+ * Execution of {@link Query} builds SQL string on each call, including each re-query of
+ * {@link com.pushtorefresh.storio.operation.PreparedOperationWithReactiveStream#createObservableStream()}.
+ * {@link RawQuery} created by {@link #bind(Object...)} reuses SQL of the template, so it is not rebuilt.
+ * That is the only saving: same {@link Query} produces same SQL string, so it hits the same statement cache
+ * of the connection as the template does.
+ * <p/>
+ * Table of the query is used as affected table of {@link RawQuery}, so observers are notified as for {@link Query}.
+ * <p/>
+ * Instances of this class are Immutable
+ */
+public class QueryTemplate {
+
+    /**
+     * SQL of the template with "?" placeholders for arguments
+     */
+    @NonNull
+    public final String sql;
+
+    /**
+     * Tables which are read by the query
+     */
+    @NonNull
+    public final Set<String> tables;
+
+    /**
+     * Please use {@link QueryTemplate.Builder} instead of constructor
+     */
+    protected QueryTemplate(@NonNull String sql, @NonNull Set<String> tables) {
+        this.sql = sql;
+        this.tables = tables;
+    }
+
+    /**
+     * Creates query with SQL of the template and passed arguments, SQL is not rebuilt
+     * <p/>
+     * Passed objects will be immediately converted to {@link String} via calling {@link Object#toString()}
+     *
+     * @param args arguments for "?" placeholders of the template
+     * @return immutable instance of {@link RawQuery}
+     */
+    @NonNull
+    public RawQuery bind(@NonNull Object... args) {
+        return new RawQuery(sql, QueryUtil.varargsToList(args), tables);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        QueryTemplate that = (QueryTemplate) o;
+
+        return sql.equals(that.sql) && tables.equals(that.tables);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * sql.hashCode() + tables.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryTemplate{" +
+                "sql='" + sql + '\'' +
+                ", tables=" + tables +
+                '}';
+    }
+
+    /**
+     * Builder for {@link QueryTemplate}
+     */
+    public static class Builder {
+
+        private Query query;
+
+        /**
+         * Required: Specifies query of the template
+         * <p/>
+         * {@link Query#where} should use "?" placeholders for values which change between executions,
+         * arguments are passed to {@link QueryTemplate#bind(Object...)}, so {@link Query#whereArgs} are not allowed
+         *
+         * @param query query without {@link Query#whereArgs}
+         * @return builder
+         * @throws IllegalArgumentException if query has {@link Query#whereArgs}
+         */
+        @NonNull
+        public Builder query(@NonNull Query query) {
+            if (query.whereArgs != null && !query.whereArgs.isEmpty()) {
+                throw new IllegalArgumentException("Query of template should not have whereArgs, please pass them to bind()");
+            }
+
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * Builds immutable instance of {@link QueryTemplate}, SQL is built here, same way as
+         * {@link android.database.sqlite.SQLiteDatabase#query(boolean, String, String[], String, String[], String, String, String, String)} does it
+         *
+         * @return immutable instance of {@link QueryTemplate}
+         */
+        @NonNull
+        public QueryTemplate build() {
+            if (query == null) {
+                throw new IllegalStateException("Please specify query");
+            }
+
+            final String sql = SQLiteQueryBuilder.buildQueryString(
+                    query.distinct,
+                    query.table,
+                    QueryUtil.listToArray(query.columns),
+                    query.where,
+                    query.groupBy,
+                    query.having,
+                    query.orderBy,
+                    query.limit
+            );
+
+            return new QueryTemplate(sql, Collections.singleton(query.table));
+        }
+    }
+}
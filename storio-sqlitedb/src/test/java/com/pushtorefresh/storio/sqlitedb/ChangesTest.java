@@ -0,0 +1,39 @@
+package com.pushtorefresh.storio.sqlitedb;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class ChangesTest {
+
+    @Test public void mergeShouldKeepRowChangesKnownInAllChanges() {
+        final Changes merged = Changes.merge(Arrays.asList(
+                new Changes("table1", Collections.singletonList(RowChange.newInsert(1))),
+                new Changes("table1", Collections.singletonList(RowChange.newDelete("_id", "2")))
+        ));
+
+        assertEquals(Collections.singleton("table1"), merged.affectedTables);
+        assertEquals(Arrays.asList(RowChange.newInsert(1), RowChange.newDelete("_id", "2")), merged.rowChanges("table1"));
+    }
+
+    @Test public void mergeShouldDropRowChangesOfTableIfTheyAreUnknownInOneOfChanges() {
+        final Changes merged = Changes.merge(Arrays.asList(
+                new Changes("table1", Collections.singletonList(RowChange.newInsert(1))),
+                new Changes("table1"),
+                new Changes("table2", Collections.singletonList(RowChange.newUpdate("_id", "3")))
+        ));
+
+        assertEquals(new HashSet<>(Arrays.asList("table1", "table2")), merged.affectedTables);
+        assertNull(merged.rowChanges("table1"));
+        assertEquals(Collections.singletonList(RowChange.newUpdate("_id", "3")), merged.rowChanges("table2"));
+    }
+
+    @Test public void changesWithoutRowChangesShouldBeEqualToTableOnlyChanges() {
+        assertEquals(new Changes("table1"), Changes.merge(Collections.singletonList(new Changes("table1"))));
+    }
+}
@@ -0,0 +1,183 @@
+package com.pushtorefresh.storio.sqlitedb;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.Loggi;
+import com.pushtorefresh.storio.metrics.MetricsListener;
+import com.pushtorefresh.storio.metrics.MetricsRecorder;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WriteCoordinatorTest {
+
+    private static class TestWrite implements WriteCoordinator.Write<String> {
+
+        @NonNull private final String table;
+        private final boolean shouldFail;
+
+        TestWrite(@NonNull String table, boolean shouldFail) {
+            this.table = table;
+            this.shouldFail = shouldFail;
+        }
+
+        @NonNull @Override public String perform() {
+            if (shouldFail) {
+                throw new IllegalStateException("Write to " + table + " failed");
+            }
+
+            return "result for " + table;
+        }
+
+        @NonNull @Override public Changes changes(@NonNull String result) {
+            return new Changes(table);
+        }
+    }
+
+    @NonNull
+    private static List<Future<String>> submitConcurrently(@NonNull final WriteCoordinator writeCoordinator, @NonNull TestWrite... writes) {
+        final ExecutorService executorService = Executors.newFixedThreadPool(writes.length);
+        final List<Future<String>> futures = new ArrayList<>(writes.length);
+
+        for (final TestWrite write : writes) {
+            futures.add(executorService.submit(new Callable<String>() {
+                @Override public String call() throws Exception {
+                    return writeCoordinator.submit(write);
+                }
+            }));
+        }
+
+        executorService.shutdown();
+        return futures;
+    }
+
+    @Test public void concurrentWritesShouldBeCommittedInOneTransaction() throws Exception {
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        // long max wait, so writer will wait for all 3 writes
+        final WriteCoordinator writeCoordinator = new WriteCoordinator(internal, 3, 10, TimeUnit.SECONDS);
+
+        final List<Future<String>> futures = submitConcurrently(
+                writeCoordinator,
+                new TestWrite("table1", false),
+                new TestWrite("table2", false),
+                new TestWrite("table2", false)
+        );
+
+        // each caller should receive its own result
+        assertEquals("result for table1", futures.get(0).get(10, TimeUnit.SECONDS));
+        assertEquals("result for table2", futures.get(1).get(10, TimeUnit.SECONDS));
+        assertEquals("result for table2", futures.get(2).get(10, TimeUnit.SECONDS));
+
+        writeCoordinator.close();
+
+        verify(internal, times(1)).beginTransaction();
+        verify(internal, times(1)).setTransactionSuccessful();
+        verify(internal, times(1)).endTransaction();
+
+        // only one notification per commit
+        verify(internal, times(1)).notifyAboutChanges(any(Changes.class));
+        verify(internal, times(1)).notifyAboutChanges(eq(new Changes(new HashSet<>(Arrays.asList("table1", "table2")))));
+    }
+
+    @Test public void failedWriteShouldNotAffectOtherWrites() throws Exception {
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        final WriteCoordinator writeCoordinator = new WriteCoordinator(internal, 2, 10, TimeUnit.SECONDS);
+
+        final List<Future<String>> futures = submitConcurrently(
+                writeCoordinator,
+                new TestWrite("table1", true),
+                new TestWrite("table2", false)
+        );
+
+        try {
+            futures.get(0).get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (Exception expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+
+        assertEquals("result for table2", futures.get(1).get(10, TimeUnit.SECONDS));
+
+        writeCoordinator.close();
+
+        // shared transaction + one transaction per write after failure
+        verify(internal, times(3)).beginTransaction();
+        verify(internal, times(3)).endTransaction();
+        verify(internal, times(1)).setTransactionSuccessful();
+
+        verify(internal, times(1)).notifyAboutChanges(any(Changes.class));
+        verify(internal, times(1)).notifyAboutChanges(eq(new Changes("table2")));
+    }
+
+    @Test public void errorOfSubscriberShouldNotBlockWrites() throws Exception {
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        when(internal.getLoggi()).thenReturn(mock(Loggi.class));
+
+        doThrow(new AssertionError("subscriber failed"))
+                .when(internal)
+                .notifyAboutChanges(any(Changes.class));
+
+        final WriteCoordinator writeCoordinator = new WriteCoordinator(internal, 1, 0, TimeUnit.SECONDS);
+
+        // writes were committed, so callers should receive results and writer thread should keep working
+        assertEquals("result for table1", submitConcurrently(writeCoordinator, new TestWrite("table1", false)).get(0).get(10, TimeUnit.SECONDS));
+        assertEquals("result for table2", submitConcurrently(writeCoordinator, new TestWrite("table2", false)).get(0).get(10, TimeUnit.SECONDS));
+
+        writeCoordinator.close();
+
+        verify(internal, times(2)).notifyAboutChanges(any(Changes.class));
+    }
+
+    @Test public void timeInQueueShouldBeRecordedAsWaiting() {
+        final WriteCoordinator writeCoordinator = new WriteCoordinator(mock(StorIOSQLiteDb.Internal.class), 2, 100, TimeUnit.MILLISECONDS);
+        final List<OperationMetrics> reportedMetrics = new ArrayList<>();
+
+        final MetricsRecorder metrics = MetricsRecorder.start(new MetricsListener() {
+            @Override public void onOperation(@NonNull OperationMetrics operationMetrics) {
+                reportedMetrics.add(operationMetrics);
+            }
+        }, OperationMetrics.Type.PUT, "table");
+
+        // writer waits 100 ms for second write of the batch
+        writeCoordinator.submit(new TestWrite("table", false), metrics, metrics.mark());
+        metrics.report();
+
+        writeCoordinator.close();
+
+        assertEquals(1, reportedMetrics.size());
+        assertTrue(reportedMetrics.get(0).waitNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(reportedMetrics.get(0).sqlNanos() < reportedMetrics.get(0).waitNanos());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void submitAfterCloseShouldThrowException() {
+        final WriteCoordinator writeCoordinator = new WriteCoordinator(mock(StorIOSQLiteDb.Internal.class), 1, 0, TimeUnit.SECONDS);
+
+        writeCoordinator.close();
+        writeCoordinator.submit(new TestWrite("table", false));
+    }
+}
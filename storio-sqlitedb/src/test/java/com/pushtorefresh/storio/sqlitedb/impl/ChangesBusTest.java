@@ -0,0 +1,91 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import rx.observers.TestSubscriber;
+
+import static junit.framework.Assert.assertEquals;
+
+public class ChangesBusTest {
+
+    @Test public void shouldNotifyOnlySubscribersOfAffectedTables() {
+        final ChangesBus changesBus = new ChangesBus();
+
+        final TestSubscriber<Changes> usersSubscriber = new TestSubscriber<>();
+        final TestSubscriber<Changes> tweetsSubscriber = new TestSubscriber<>();
+
+        changesBus.observeChangesInTables(Collections.singleton("users")).subscribe(usersSubscriber);
+        changesBus.observeChangesInTables(Collections.singleton("tweets")).subscribe(tweetsSubscriber);
+
+        final Changes changes = new Changes("users");
+        changesBus.onNext(changes);
+
+        usersSubscriber.assertReceivedOnNext(Collections.singletonList(changes));
+        tweetsSubscriber.assertReceivedOnNext(Collections.<Changes>emptyList());
+    }
+
+    @Test public void shouldNotifySubscriberOfSeveralTablesOnlyOnce() {
+        final ChangesBus changesBus = new ChangesBus();
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<>();
+
+        changesBus
+                .observeChangesInTables(new HashSet<>(Arrays.asList("users", "tweets")))
+                .subscribe(testSubscriber);
+
+        final Changes changes = new Changes(new HashSet<>(Arrays.asList("users", "tweets", "comments")));
+        changesBus.onNext(changes);
+
+        testSubscriber.assertReceivedOnNext(Collections.singletonList(changes));
+    }
+
+    @Test public void shouldNotNotifyAfterUnsubscribe() {
+        final ChangesBus changesBus = new ChangesBus();
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<>();
+
+        changesBus
+                .observeChangesInTables(Collections.singleton("users"))
+                .subscribe(testSubscriber);
+
+        final Changes changes = new Changes("users");
+        changesBus.onNext(changes);
+
+        testSubscriber.unsubscribe();
+        changesBus.onNext(changes);
+
+        testSubscriber.assertReceivedOnNext(Collections.singletonList(changes));
+    }
+
+    @Test public void shouldRemoveTableWithoutSubscribers() {
+        final ChangesBus changesBus = new ChangesBus();
+        final TestSubscriber<Changes> firstSubscriber = new TestSubscriber<>();
+        final TestSubscriber<Changes> secondSubscriber = new TestSubscriber<>();
+
+        changesBus
+                .observeChangesInTables(new HashSet<>(Arrays.asList("users", "tweets")))
+                .subscribe(firstSubscriber);
+
+        changesBus
+                .observeChangesInTables(Collections.singleton("users"))
+                .subscribe(secondSubscriber);
+
+        assertEquals(2, changesBus.observedTablesCount());
+
+        firstSubscriber.unsubscribe();
+
+        // "users" is still observed by second subscriber
+        assertEquals(1, changesBus.observedTablesCount());
+
+        final Changes changes = new Changes("users");
+        changesBus.onNext(changes);
+        secondSubscriber.assertReceivedOnNext(Collections.singletonList(changes));
+
+        secondSubscriber.unsubscribe();
+        assertEquals(0, changesBus.observedTablesCount());
+    }
+}
@@ -0,0 +1,29 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+
+public class MultiRowInsertTest {
+
+    @Test
+    public void shouldQuoteTableName() {
+        assertEquals("\"users\"", MultiRowInsert.quoted("users"));
+        assertEquals("\"my \"\"table\"\"\"", MultiRowInsert.quoted("my \"table\""));
+    }
+
+    @Test
+    public void shouldNotQuoteAlreadyQuotedTableName() {
+        assertEquals("\"my table\"", MultiRowInsert.quoted("\"my table\""));
+        assertEquals("`my table`", MultiRowInsert.quoted("`my table`"));
+        assertEquals("[my table]", MultiRowInsert.quoted("[my table]"));
+    }
+
+    @Test
+    public void shouldUnquoteTableName() {
+        assertEquals("users", MultiRowInsert.unquoted("users"));
+        assertEquals("my \"table\"", MultiRowInsert.unquoted("\"my \"\"table\"\"\""));
+        assertEquals("my table", MultiRowInsert.unquoted("`my table`"));
+        assertEquals("my table", MultiRowInsert.unquoted("[my table]"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.pushtorefresh.storio.sqlitedb.impl;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SlowQueryLogTest {
+
+    @Test
+    public void shouldCompareDurationWithThreshold() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+                .threshold(10, TimeUnit.MILLISECONDS)
+                .build();
+
+        assertFalse(slowQueryLog.isSlow(TimeUnit.MILLISECONDS.toNanos(9)));
+        assertTrue(slowQueryLog.isSlow(TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    public void ringShouldKeepLastRecords() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+                .capacity(3)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            slowQueryLog.record("SELECT " + i, null, i, i, null);
+        }
+
+        final List<SlowQuery> records = slowQueryLog.records();
+
+        assertEquals(3, records.size());
+        assertEquals("SELECT 2", records.get(0).sql());
+        assertEquals("SELECT 3", records.get(1).sql());
+        assertEquals("SELECT 4", records.get(2).sql());
+
+        slowQueryLog.clear();
+        assertTrue(slowQueryLog.records().isEmpty());
+    }
+
+    @Test
+    public void shouldRecordArgsAndPassRecordToSink() {
+        final SlowQuerySink sink = mock(SlowQuerySink.class);
+
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+                .sink(sink)
+                .build();
+
+        final String[] args = {"test@example.com", "1"};
+        final SlowQuery slowQuery = slowQueryLog.record("SELECT * FROM users WHERE email = ? AND _id = ?", args, 1000, 1, null);
+
+        // changes of passed array should not affect record
+        args[0] = "changed";
+
+        assertEquals(Arrays.asList("test@example.com", "1"), slowQuery.args());
+        assertEquals(1000, slowQuery.durationNanos());
+        assertEquals(1, slowQuery.rowCount());
+        assertNull(slowQuery.queryPlan());
+        assertFalse(slowQuery.hasFullTableScan());
+
+        verify(sink, times(1)).onSlowQuery(slowQuery);
+    }
+
+    @Test
+    public void shouldRedactArgs() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder()
+                .redactArgs()
+                .build();
+
+        final SlowQuery slowQuery = slowQueryLog.record("SELECT * FROM users WHERE email = ?", new String[]{"test@example.com"}, 1000, 1, null);
+
+        assertEquals(Collections.singletonList(SlowQueryLog.REDACTED_ARG), slowQuery.args());
+    }
+
+    @Test
+    public void shouldRememberQueryPlanOfSql() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder().build();
+        final String sql = "SELECT * FROM users WHERE email = ?";
+
+        assertTrue(slowQueryLog.explainQueryPlan());
+        assertNull(slowQueryLog.queryPlan(sql));
+
+        final List<String> queryPlan = slowQueryLog.putQueryPlan(sql, Collections.singletonList("SCAN TABLE users"));
+
+        assertSame(queryPlan, slowQueryLog.queryPlan(sql));
+        assertTrue(slowQueryLog.record(sql, null, 1000, 0, queryPlan).hasFullTableScan());
+
+        assertFalse(new SlowQueryLog.Builder().dontExplainQueryPlan().build().explainQueryPlan());
+    }
+
+    @Test
+    public void queryPlansShouldBeBounded() {
+        final SlowQueryLog slowQueryLog = new SlowQueryLog.Builder().build();
+
+        for (int i = 0; i <= SlowQueryLog.MAX_QUERY_PLANS; i++) {
+            slowQueryLog.putQueryPlan("SELECT " + i, Collections.<String>emptyList());
+        }
+
+        // least recently used query plan is forgotten
+        assertNull(slowQueryLog.queryPlan("SELECT 0"));
+        assertEquals(Collections.<String>emptyList(), slowQueryLog.queryPlan("SELECT " + SlowQueryLog.MAX_QUERY_PLANS));
+    }
+
+    @Test
+    public void shouldDetectFullTableScan() {
+        // old versions of SQLite
+        assertTrue(SlowQueryLog.isFullTableScan("SCAN TABLE users (~100000 rows)"));
+        assertFalse(SlowQueryLog.isFullTableScan("SCAN TABLE users USING INDEX users_email (~10 rows)"));
+        assertFalse(SlowQueryLog.isFullTableScan("SCAN TABLE users USING COVERING INDEX users_email"));
+
+        // new versions of SQLite
+        assertTrue(SlowQueryLog.isFullTableScan("SCAN users"));
+        assertFalse(SlowQueryLog.isFullTableScan("SEARCH users USING INTEGER PRIMARY KEY (rowid=?)"));
+        assertFalse(SlowQueryLog.isFullTableScan("SCAN SUBQUERY 1"));
+        assertFalse(SlowQueryLog.isFullTableScan("SCAN CONSTANT ROW"));
+        assertFalse(SlowQueryLog.isFullTableScan("USE TEMP B-TREE FOR ORDER BY"));
+    }
+
+    @Test
+    public void builderShouldValidateArguments() {
+        try {
+            new SlowQueryLog.Builder().threshold(-1, TimeUnit.MILLISECONDS);
+            throw new AssertionError();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("threshold should be >= 0, but was -1", expected.getMessage());
+        }
+
+        try {
+            new SlowQueryLog.Builder().capacity(0);
+            throw new AssertionError();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("capacity should be > 0, but was 0", expected.getMessage());
+        }
+    }
+}
@@ -3,16 +3,23 @@ package com.pushtorefresh.storio.sqlitedb.operation.delete;
 import com.pushtorefresh.storio.Loggi;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.RowChange;
 import com.pushtorefresh.storio.operation.MapFunc;
 import com.pushtorefresh.storio.sqlitedb.query.DeleteQuery;
 import com.pushtorefresh.storio.sqlitedb.design.User;
 
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -276,4 +283,200 @@ public class PreparedDeleteTest {
 
         deleteMultipleStub.verifyBehavior();
     }
+
+    @Test public void deleteOneWithRowLevelChanges() {
+        final DeleteOneStub deleteOneStub = new DeleteOneStub();
+        final User user = new User(42L, "test@example.com");
+
+        when(deleteOneStub.internal.rowLevelChangesEnabled()).thenReturn(true);
+
+        deleteOneStub.storIOSQLiteDb
+                .delete()
+                .object(user)
+                .withMapFunc(User.MAP_TO_DELETE_QUERY)
+                .withDeleteResolver(deleteOneStub.deleteResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        // deleted row is known from "_id = ?" where clause
+        verify(deleteOneStub.internal, times(1)).notifyAboutChanges(eq(new Changes(
+                User.TABLE,
+                Collections.singletonList(RowChange.newDelete("_id", "42"))
+        )));
+    }
+
+    @Test public void deleteByQueryWithRowLevelChangesAndNotKeyWhereClause() {
+        final DeleteOneStub deleteOneStub = new DeleteOneStub();
+
+        when(deleteOneStub.internal.rowLevelChangesEnabled()).thenReturn(true);
+
+        deleteOneStub.storIOSQLiteDb
+                .delete()
+                .byQuery(new DeleteQuery.Builder()
+                        .table(User.TABLE)
+                        .where("email LIKE ?")
+                        .whereArgs("%@example.com")
+                        .build())
+                .withDeleteResolver(deleteOneStub.deleteResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        // deleted rows are unknown, only table should be reported
+        verify(deleteOneStub.internal, times(1)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    @Test public void bulkDeleteShouldUseChunkedInStatements() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+        final DeleteResolver deleteResolver = mock(DeleteResolver.class);
+
+        when(storIOSQLiteDb.internal()).thenReturn(internal);
+        when(storIOSQLiteDb.delete()).thenReturn(new PreparedDelete.Builder(storIOSQLiteDb));
+        when(internal.transactionsSupported()).thenReturn(true);
+
+        // each statement deletes all rows it references
+        when(deleteResolver.performDelete(eq(storIOSQLiteDb), any(DeleteQuery.class))).thenAnswer(new Answer<Integer>() {
+            @Override public Integer answer(InvocationOnMock invocation) {
+                final DeleteQuery deleteQuery = (DeleteQuery) invocation.getArguments()[1];
+                return deleteQuery.whereArgs == null ? 0 : deleteQuery.whereArgs.size();
+            }
+        });
+
+        final int numberOfUsers = StorIOSQLiteDb.MAX_VARIABLE_NUMBER + 1;
+        final List<User> users = new ArrayList<>(numberOfUsers + 1);
+
+        for (int i = 0; i < numberOfUsers; i++) {
+            users.add(new User((long) i, "user" + i + "@example.com"));
+        }
+
+        // user without id can not be deleted by key
+        final User userWithoutKey = new User(null, "nokey@example.com");
+        users.add(userWithoutKey);
+
+        final DeleteQuery deleteByEmail = new DeleteQuery.Builder()
+                .table(User.TABLE)
+                .where("email LIKE ?")
+                .whereArgs(userWithoutKey.getEmail())
+                .build();
+
+        final DeleteCollectionOfObjectsResult<User> result = storIOSQLiteDb
+                .delete()
+                .objects(users)
+                .withMapFunc(new MapFunc<User, DeleteQuery>() {
+                    @Override public DeleteQuery map(User user) {
+                        return user == userWithoutKey ? deleteByEmail : User.MAP_TO_DELETE_QUERY.map(user);
+                    }
+                })
+                .withDeleteResolver(deleteResolver)
+                .useBulkDelete()
+                .prepare()
+                .executeAsBlocking();
+
+        // two chunks of keys and query which can not be grouped
+        verify(deleteResolver, times(3)).performDelete(eq(storIOSQLiteDb), any(DeleteQuery.class));
+        verify(deleteResolver, times(1)).performDelete(storIOSQLiteDb, deleteByEmail);
+        verify(deleteResolver, times(1)).performDelete(storIOSQLiteDb, new DeleteQuery.Builder()
+                .table(User.TABLE)
+                .where("_id IN (?)")
+                .whereArgs(String.valueOf(numberOfUsers - 1))
+                .build());
+
+        assertEquals(numberOfUsers + 1, result.numberOfDeletedRows(User.TABLE));
+        assertTrue(result.results().isEmpty());
+
+        // bulk delete does not know results per object
+        assertFalse(result.hasResultsPerObject());
+
+        try {
+            result.wasNotDeleted(userWithoutKey);
+            fail();
+        } catch (IllegalStateException expected) {
+            // ok
+        }
+
+        // only one notification after the transaction
+        verify(internal, times(1)).beginTransaction();
+        verify(internal, times(1)).notifyAboutChanges(any(Changes.class));
+        verify(internal, times(1)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    @Test public void bulkDeleteShouldReportDeletedRowsWhenRowLevelChangesEnabled() {
+        final DeleteOneStub deleteOneStub = new DeleteOneStub();
+
+        when(deleteOneStub.internal.rowLevelChangesEnabled()).thenReturn(true);
+        when(deleteOneStub.deleteResolver.performDelete(eq(deleteOneStub.storIOSQLiteDb), any(DeleteQuery.class))).thenReturn(2);
+
+        final List<User> users = new ArrayList<>();
+        users.add(new User(1L, "first@example.com"));
+        users.add(new User(2L, "second@example.com"));
+
+        deleteOneStub.storIOSQLiteDb
+                .delete()
+                .objects(users)
+                .withMapFunc(User.MAP_TO_DELETE_QUERY)
+                .withDeleteResolver(deleteOneStub.deleteResolver)
+                .dontUseTransaction()
+                .useBulkDelete()
+                .prepare()
+                .executeAsBlocking();
+
+        verify(deleteOneStub.deleteResolver, times(1)).performDelete(deleteOneStub.storIOSQLiteDb, new DeleteQuery.Builder()
+                .table(User.TABLE)
+                .where("_id IN (?,?)")
+                .whereArgs("1", "2")
+                .build());
+
+        final List<RowChange> rowChanges = new ArrayList<>();
+        rowChanges.add(RowChange.newDelete("_id", "1"));
+        rowChanges.add(RowChange.newDelete("_id", "2"));
+
+        verify(deleteOneStub.internal, times(1)).notifyAboutChanges(any(Changes.class));
+        verify(deleteOneStub.internal, times(1)).notifyAboutChanges(eq(new Changes(User.TABLE, rowChanges)));
+    }
+
+    @Test public void deleteMultipleWithCompactResults() {
+        final DeleteMultipleStub deleteMultipleStub = new DeleteMultipleStub(true);
+
+        final DeleteCollectionOfObjectsResult<User> result = deleteMultipleStub.storIOSQLiteDb
+                .delete()
+                .objects(deleteMultipleStub.users)
+                .withMapFunc(deleteMultipleStub.mapFunc)
+                .withDeleteResolver(deleteMultipleStub.deleteResolver)
+                .withCompactResults()
+                .prepare()
+                .executeAsBlocking();
+
+        deleteMultipleStub.verifyBehavior();
+
+        // results are not stored in map
+        assertTrue(result.results().isEmpty());
+
+        assertTrue(result.hasCompactResults());
+        assertEquals(deleteMultipleStub.users.size(), result.size());
+
+        for (int i = 0; i < deleteMultipleStub.users.size(); i++) {
+            assertEquals(1, result.numberOfDeletedRows(i));
+        }
+
+        assertEquals(deleteMultipleStub.users.size(), result.numberOfDeletedRows(User.TABLE));
+    }
+
+    @Test public void deleteMultipleWithoutPerObjectResults() {
+        final DeleteMultipleStub deleteMultipleStub = new DeleteMultipleStub(false);
+
+        final DeleteCollectionOfObjectsResult<User> result = deleteMultipleStub.storIOSQLiteDb
+                .delete()
+                .objects(deleteMultipleStub.users)
+                .withMapFunc(deleteMultipleStub.mapFunc)
+                .withDeleteResolver(deleteMultipleStub.deleteResolver)
+                .withoutPerObjectResults()
+                .prepare()
+                .executeAsBlocking();
+
+        deleteMultipleStub.verifyBehavior();
+
+        assertTrue(result.results().isEmpty());
+        assertFalse(result.hasCompactResults());
+        assertEquals(deleteMultipleStub.users.size(), result.numberOfDeletedRows(User.TABLE));
+    }
 }
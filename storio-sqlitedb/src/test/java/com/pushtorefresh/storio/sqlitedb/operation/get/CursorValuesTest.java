@@ -0,0 +1,57 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class CursorValuesTest {
+
+    @Test public void textShouldBeConvertedToLongByLeadingNumericPrefix() {
+        assertEquals(12L, CursorValues.toLong("12abc"));
+        assertEquals(0L, CursorValues.toLong(""));
+        assertEquals(0L, CursorValues.toLong("abc"));
+        assertEquals(-42L, CursorValues.toLong("  -42 "));
+        assertEquals(12L, CursorValues.toLong("12.9"));
+        assertEquals(16L, CursorValues.toLong("0x10"));
+        assertEquals(8L, CursorValues.toLong("010"));
+        assertEquals(Long.MAX_VALUE, CursorValues.toLong("99999999999999999999"));
+        assertEquals(Long.MIN_VALUE, CursorValues.toLong("-99999999999999999999"));
+        assertEquals(Long.MIN_VALUE, CursorValues.toLong("-9223372036854775808"));
+    }
+
+    @Test public void numbersAndNullShouldBeConvertedToLong() {
+        assertEquals(0L, CursorValues.toLong(null));
+        assertEquals(7L, CursorValues.toLong(7L));
+        assertEquals(7L, CursorValues.toLong(7.9));
+    }
+
+    @Test public void textShouldBeConvertedToDoubleByLeadingNumericPrefix() {
+        assertEquals(12.5, CursorValues.toDouble("12.5abc"));
+        assertEquals(0.0, CursorValues.toDouble(""));
+        assertEquals(0.0, CursorValues.toDouble("abc"));
+        assertEquals(1e3, CursorValues.toDouble(" 1e3x"));
+        assertEquals(1.0, CursorValues.toDouble("1e"));
+        assertEquals(Double.NEGATIVE_INFINITY, CursorValues.toDouble("-inf"));
+        assertEquals(0.0, CursorValues.toDouble(null));
+        assertEquals(3.0, CursorValues.toDouble(3L));
+    }
+
+    @Test public void realShouldBeFormattedAsPercentG() {
+        assertEquals("1e+20", CursorValues.toString(1e20));
+        assertEquals("1.5", CursorValues.toString(1.5));
+        assertEquals("100", CursorValues.toString(100.0));
+        assertEquals("0.123457", CursorValues.toString(0.1234567));
+        assertEquals("1.23457e+07", CursorValues.toString(12345678.0));
+        assertEquals("1e-05", CursorValues.toString(0.00001));
+        assertEquals("0.0001", CursorValues.toString(0.0001));
+        assertEquals("-2.5", CursorValues.toString(-2.5));
+        assertEquals("0", CursorValues.toString(0.0));
+    }
+
+    @Test public void integerAndTextShouldBeConvertedToString() {
+        assertEquals("42", CursorValues.toString(42L));
+        assertEquals("text", CursorValues.toString("text"));
+        assertNull(CursorValues.toString(null));
+    }
+}
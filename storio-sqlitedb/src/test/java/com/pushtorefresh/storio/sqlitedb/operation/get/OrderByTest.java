@@ -0,0 +1,53 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+public class OrderByTest {
+
+    @Test public void parseShouldSupportColumnsWithCollationAndDirection() {
+        final OrderBy orderBy = OrderBy.parse("name COLLATE NOCASE ASC, age desc");
+
+        assertNotNull(orderBy);
+        assertEquals(2, orderBy.columns().length);
+        assertEquals("name", orderBy.columns()[0]);
+        assertEquals("age", orderBy.columns()[1]);
+    }
+
+    @Test public void parseShouldRejectExpressionsAndUnknownCollations() {
+        assertNull(OrderBy.parse("length(name)"));
+        assertNull(OrderBy.parse("name COLLATE LOCALIZED"));
+    }
+
+    @Test public void compareShouldFollowSQLiteTypeOrder() {
+        final OrderBy orderBy = OrderBy.parse("value");
+
+        assertNotNull(orderBy);
+
+        // NULL < numbers < text < blob
+        assertTrue(orderBy.compare(new Object[]{null}, new Object[]{1L}) < 0);
+        assertTrue(orderBy.compare(new Object[]{1L}, new Object[]{1.5}) < 0);
+        assertTrue(orderBy.compare(new Object[]{100L}, new Object[]{"1"}) < 0);
+        assertTrue(orderBy.compare(new Object[]{"z"}, new Object[]{new byte[]{0}}) < 0);
+    }
+
+    @Test public void compareShouldRespectCollationAndDirection() {
+        final OrderBy binary = OrderBy.parse("value");
+        final OrderBy noCase = OrderBy.parse("value COLLATE NOCASE");
+        final OrderBy descending = OrderBy.parse("value DESC");
+
+        assertNotNull(binary);
+        assertNotNull(noCase);
+        assertNotNull(descending);
+
+        // uppercase letters are less than lowercase in BINARY collation
+        assertTrue(binary.compare(new Object[]{"B"}, new Object[]{"a"}) < 0);
+        assertTrue(noCase.compare(new Object[]{"B"}, new Object[]{"a"}) > 0);
+        assertEquals(0, noCase.compare(new Object[]{"ABC"}, new Object[]{"abc"}));
+        assertTrue(descending.compare(new Object[]{1L}, new Object[]{2L}) > 0);
+    }
+}
@@ -0,0 +1,146 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PagerTest {
+
+    @SuppressWarnings("unchecked")
+    @Test public void nextPageShouldBeQueriedAfterSortKeyOfLastRow() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final GetResolver getResolver = mock(GetResolver.class);
+        final MapFunc<Cursor, String> mapFunc = (MapFunc<Cursor, String>) mock(MapFunc.class);
+
+        final Cursor firstPageCursor = mock(Cursor.class);
+        when(firstPageCursor.getColumnIndexOrThrow("created_at")).thenReturn(0);
+        when(firstPageCursor.getColumnIndexOrThrow("_id")).thenReturn(1);
+        when(firstPageCursor.moveToNext()).thenReturn(true, true, false);
+        when(firstPageCursor.moveToLast()).thenReturn(true);
+        when(firstPageCursor.getType(0)).thenReturn(Cursor.FIELD_TYPE_FLOAT);
+        when(firstPageCursor.getDouble(0)).thenReturn(1000.5);
+        when(firstPageCursor.getType(1)).thenReturn(Cursor.FIELD_TYPE_INTEGER);
+        when(firstPageCursor.getLong(1)).thenReturn(42L);
+
+        final Cursor emptyCursor = mock(Cursor.class);
+        when(emptyCursor.getColumnIndexOrThrow(anyString())).thenReturn(0);
+
+        when(storIOSQLiteDb.internal()).thenReturn(mock(StorIOSQLiteDb.Internal.class));
+        when(storIOSQLiteDb.observeChangesInTable("tweets")).thenReturn(Observable.<Changes>never());
+        when(getResolver.performGet(eq(storIOSQLiteDb), any(Query.class))).thenReturn(firstPageCursor, emptyCursor);
+        when(mapFunc.map(any(Cursor.class))).thenReturn("tweet");
+
+        final Query query = new Query.Builder()
+                .table("tweets")
+                .where("author = ?")
+                .whereArgs("artem")
+                .orderBy("created_at DESC, _id")
+                .build();
+
+        // Pager.Builder reads Build.VERSION which is not available in unit tests
+        final Pager<String> pager = new Pager<>(storIOSQLiteDb, query, OrderBy.parse(query.orderBy), getResolver, mapFunc,
+                2, Schedulers.immediate(), true);
+
+        final Pager.Page<String> firstPage = pager.loadNextPage();
+
+        assertNotNull(firstPage);
+        assertEquals(Arrays.asList("tweet", "tweet"), firstPage.items());
+
+        final ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(getResolver, times(2)).performGet(eq(storIOSQLiteDb), queryCaptor.capture());
+
+        final Query firstPageQuery = queryCaptor.getAllValues().get(0);
+        assertEquals("(author = ?)", firstPageQuery.where);
+        assertEquals("2", firstPageQuery.limit);
+
+        // second page was prefetched
+        final Query secondPageQuery = queryCaptor.getAllValues().get(1);
+        // typed values of sort key should be compared as numbers, not as strings
+        assertEquals("(author = ?) AND ((created_at < CAST(? AS REAL)) OR (created_at = CAST(? AS REAL) AND _id > CAST(? AS INTEGER)))",
+                secondPageQuery.where);
+        assertEquals(Arrays.asList("artem", "1000.5", "1000.5", "42"), secondPageQuery.whereArgs);
+        assertEquals("created_at DESC, _id", secondPageQuery.orderBy);
+        assertEquals("2", secondPageQuery.limit);
+
+        verify(firstPageCursor, times(1)).close();
+        verify(mapFunc, times(2)).map(any(Cursor.class));
+        verify(emptyCursor, times(0)).getString(anyInt());
+
+        pager.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test public void nextPageShouldNotBePrefetchedInTransaction() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+        final GetResolver getResolver = mock(GetResolver.class);
+        final MapFunc<Cursor, String> mapFunc = (MapFunc<Cursor, String>) mock(MapFunc.class);
+
+        final Cursor fullPageCursor = mock(Cursor.class);
+        when(fullPageCursor.getColumnIndexOrThrow("_id")).thenReturn(0);
+        when(fullPageCursor.moveToNext()).thenReturn(true, true, false);
+        when(fullPageCursor.moveToLast()).thenReturn(true);
+        when(fullPageCursor.getType(0)).thenReturn(Cursor.FIELD_TYPE_INTEGER);
+        when(fullPageCursor.getLong(0)).thenReturn(42L);
+
+        // transaction of current thread holds the connection, prefetch on other thread would wait for it
+        when(internal.inTransaction()).thenReturn(true);
+        when(storIOSQLiteDb.internal()).thenReturn(internal);
+        when(getResolver.performGet(eq(storIOSQLiteDb), any(Query.class))).thenReturn(fullPageCursor);
+        when(mapFunc.map(any(Cursor.class))).thenReturn("tweet");
+
+        final Query query = new Query.Builder()
+                .table("tweets")
+                .orderBy("_id")
+                .build();
+
+        final Pager<String> pager = new Pager<>(storIOSQLiteDb, query, OrderBy.parse(query.orderBy), getResolver, mapFunc,
+                2, Schedulers.immediate(), true);
+
+        assertNotNull(pager.loadNextPage());
+
+        // only first page was queried, next one was not prefetched
+        verify(getResolver, times(1)).performGet(eq(storIOSQLiteDb), any(Query.class));
+        verify(storIOSQLiteDb, never()).observeChangesInTable(anyString());
+
+        pager.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void queryWithLimitShouldNotBeAllowed() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+
+        //noinspection unchecked
+        new Pager.Builder<>(storIOSQLiteDb, String.class)
+                .withMapFunc((MapFunc<Cursor, String>) mock(MapFunc.class))
+                .withQuery(new Query.Builder()
+                        .table("tweets")
+                        .orderBy("_id")
+                        .limit("10")
+                        .build())
+                .prepare();
+    }
+}
@@ -0,0 +1,149 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetColumnsTest {
+
+    private static final int ROWS = 100;
+
+    private static class GetColumnsStub {
+        final StorIOSQLiteDb storIOSQLiteDb;
+        final GetResolver getResolver;
+        final Cursor cursor;
+
+        GetColumnsStub(int expectedCount) {
+            storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+            getResolver = mock(GetResolver.class);
+            cursor = mock(Cursor.class);
+
+            when(storIOSQLiteDb.internal()).thenReturn(mock(StorIOSQLiteDb.Internal.class));
+            when(storIOSQLiteDb.get()).thenReturn(new PreparedGet.Builder(storIOSQLiteDb));
+            when(getResolver.performGet(eq(storIOSQLiteDb), any(Query.class))).thenReturn(cursor);
+
+            when(cursor.getCount()).thenReturn(expectedCount);
+            when(cursor.getColumnIndexOrThrow("_id")).thenReturn(0);
+            when(cursor.getColumnIndexOrThrow("value")).thenReturn(1);
+            when(cursor.getColumnIndexOrThrow("label")).thenReturn(2);
+
+            // each row i has _id = i, value = i / 2.0, label = "label" + i, every 10th value and label are NULL
+            final int[] position = {-1};
+
+            when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
+                @Override public Boolean answer(InvocationOnMock invocation) {
+                    return ++position[0] < ROWS;
+                }
+            });
+
+            when(cursor.isNull(anyInt())).thenAnswer(new Answer<Boolean>() {
+                @Override public Boolean answer(InvocationOnMock invocation) {
+                    return (Integer) invocation.getArguments()[0] != 0 && position[0] % 10 == 0;
+                }
+            });
+
+            when(cursor.getLong(0)).thenAnswer(new Answer<Long>() {
+                @Override public Long answer(InvocationOnMock invocation) {
+                    return (long) position[0];
+                }
+            });
+
+            when(cursor.getDouble(1)).thenAnswer(new Answer<Double>() {
+                @Override public Double answer(InvocationOnMock invocation) {
+                    return position[0] / 2.0;
+                }
+            });
+
+            when(cursor.getString(2)).thenAnswer(new Answer<String>() {
+                @Override public String answer(InvocationOnMock invocation) {
+                    return "label" + position[0];
+                }
+            });
+        }
+
+        ColumnarResult executeAsBlocking() {
+            return storIOSQLiteDb
+                    .get()
+                    .columns()
+                    .withQuery(new Query.Builder().table("test_table").build())
+                    .withGetResolver(getResolver)
+                    .longColumn("_id")
+                    .doubleColumn("value")
+                    .stringColumn("label")
+                    .prepare()
+                    .executeAsBlocking();
+        }
+    }
+
+    private static void verifyResult(ColumnarResult result) {
+        assertEquals(ROWS, result.rowCount());
+
+        final long[] ids = result.longColumn("_id");
+        final double[] values = result.doubleColumn("value");
+        final String[] labels = result.stringColumn("label");
+
+        assertEquals(ROWS, ids.length);
+        assertEquals(ROWS, values.length);
+        assertEquals(ROWS, labels.length);
+
+        for (int i = 0; i < ROWS; i++) {
+            final boolean isNull = i % 10 == 0;
+
+            assertEquals(i, ids[i]);
+            assertFalse(result.isNull("_id", i));
+
+            assertEquals(isNull, result.isNull("value", i));
+            assertEquals(isNull ? 0.0 : i / 2.0, values[i]);
+
+            assertEquals(isNull, result.isNull("label", i));
+
+            if (isNull) {
+                assertNull(labels[i]);
+            } else {
+                assertEquals("label" + i, labels[i]);
+            }
+        }
+    }
+
+    @Test public void shouldReadColumns() {
+        final GetColumnsStub stub = new GetColumnsStub(ROWS);
+
+        verifyResult(stub.executeAsBlocking());
+
+        verify(stub.cursor, times(1)).getColumnIndexOrThrow("_id");
+        verify(stub.cursor, times(1)).close();
+    }
+
+    @Test public void shouldGrowIfCursorHasMoreRowsThanExpected() {
+        verifyResult(new GetColumnsStub(1).executeAsBlocking());
+    }
+
+    @Test public void shouldNotAllowColumnOfAnotherType() {
+        final ColumnarResult result = new GetColumnsStub(ROWS).executeAsBlocking();
+
+        try {
+            result.stringColumn("_id");
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("_id"));
+        }
+    }
+}
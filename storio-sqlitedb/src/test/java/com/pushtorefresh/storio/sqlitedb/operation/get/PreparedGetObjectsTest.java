@@ -0,0 +1,197 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.operation.MapFunc;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+import com.pushtorefresh.storio.sqlitedb.query.Query;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static junit.framework.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetObjectsTest {
+
+    private static class GetObjectsStub {
+        final StorIOSQLiteDb storIOSQLiteDb;
+        final StorIOSQLiteDb.Internal internal;
+        final GetResolver getResolver;
+        final Cursor cursor;
+        final MapFunc<Cursor, String> mapFunc;
+        final PreparedGetObjects<String> preparedGetObjects;
+
+        @SuppressWarnings("unchecked")
+        GetObjectsStub() {
+            storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+            internal = mock(StorIOSQLiteDb.Internal.class);
+            getResolver = mock(GetResolver.class);
+            cursor = mock(Cursor.class);
+            mapFunc = (MapFunc<Cursor, String>) mock(MapFunc.class);
+
+            final Query query = new Query.Builder().table("test_table").build();
+
+            when(storIOSQLiteDb.get()).thenReturn(new PreparedGet.Builder(storIOSQLiteDb));
+            when(storIOSQLiteDb.internal()).thenReturn(internal);
+            when(getResolver.performGet(eq(storIOSQLiteDb), any(Query.class))).thenReturn(cursor);
+
+            // 3 rows
+            when(cursor.moveToNext()).thenReturn(true, true, true, false);
+            when(mapFunc.map(cursor)).thenReturn("row1", "row2", "row3");
+
+            preparedGetObjects = storIOSQLiteDb
+                    .get()
+                    .objects(String.class)
+                    .withMapFunc(mapFunc)
+                    .withQuery(query)
+                    .withGetResolver(getResolver)
+                    .prepare();
+        }
+    }
+
+    @Test public void shouldMapRowsOnlyWhenTheyAreRequested() {
+        final GetObjectsStub stub = new GetObjectsStub();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+            @Override public void onStart() {
+                request(0);
+            }
+        };
+
+        stub.preparedGetObjects
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        // query should not be executed before first request
+        verify(stub.getResolver, never()).performGet(eq(stub.storIOSQLiteDb), any(Query.class));
+
+        // request of one object should move cursor and map row exactly once
+        testSubscriber.requestMore(1);
+        testSubscriber.assertReceivedOnNext(Collections.singletonList("row1"));
+        verify(stub.cursor, times(1)).moveToNext();
+        verify(stub.mapFunc, times(1)).map(stub.cursor);
+        verify(stub.cursor, never()).close();
+
+        testSubscriber.requestMore(1);
+        testSubscriber.assertReceivedOnNext(Arrays.asList("row1", "row2"));
+        verify(stub.cursor, times(2)).moveToNext();
+        verify(stub.mapFunc, times(2)).map(stub.cursor);
+        verify(stub.cursor, never()).close();
+
+        testSubscriber.requestMore(10);
+        testSubscriber.assertReceivedOnNext(Arrays.asList("row1", "row2", "row3"));
+        testSubscriber.assertTerminalEvent();
+        testSubscriber.assertNoErrors();
+
+        // cursor should be closed after completion
+        verify(stub.cursor, times(1)).close();
+        verify(stub.mapFunc, times(3)).map(stub.cursor);
+    }
+
+    @Test public void shouldCloseCursorOnUnsubscribe() {
+        final GetObjectsStub stub = new GetObjectsStub();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+            @Override public void onStart() {
+                request(1);
+            }
+        };
+
+        stub.preparedGetObjects
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertReceivedOnNext(Collections.singletonList("row1"));
+
+        testSubscriber.unsubscribe();
+
+        verify(stub.cursor, times(1)).close();
+        assertEquals(0, testSubscriber.getOnCompletedEvents().size());
+
+        // rows should not be mapped after unsubscribe
+        testSubscriber.requestMore(10);
+        verify(stub.mapFunc, times(1)).map(stub.cursor);
+        verify(stub.cursor, times(1)).close();
+    }
+
+    @Test public void shouldCloseCursorAndEmitErrorIfMoveFailedAfterEmittedRows() {
+        final GetObjectsStub stub = new GetObjectsStub();
+
+        when(stub.cursor.moveToNext())
+                .thenReturn(true)
+                .thenThrow(new IllegalStateException("test exception"));
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        stub.preparedGetObjects
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertReceivedOnNext(Collections.singletonList("row1"));
+        assertEquals(1, testSubscriber.getOnErrorEvents().size());
+        assertEquals(0, testSubscriber.getOnCompletedEvents().size());
+        verify(stub.cursor, times(1)).close();
+    }
+
+    @Test public void shouldCloseCursorAndEmitErrorIfMappingFailed() {
+        final GetObjectsStub stub = new GetObjectsStub();
+
+        when(stub.mapFunc.map(stub.cursor)).thenThrow(new IllegalStateException("test exception"));
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+
+        stub.preparedGetObjects
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        assertEquals(1, testSubscriber.getOnErrorEvents().size());
+        verify(stub.cursor, times(1)).close();
+    }
+
+    @Test public void shouldReadRowsOnDefaultSchedulerWhenTheyAreRequested() {
+        final GetObjectsStub stub = new GetObjectsStub();
+        final TestScheduler scheduler = new TestScheduler();
+
+        when(stub.internal.defaultScheduler()).thenReturn(scheduler);
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+            @Override public void onStart() {
+                request(0);
+            }
+        };
+
+        stub.preparedGetObjects
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        // request from subscriber's thread should not read rows on that thread
+        testSubscriber.requestMore(1);
+        verify(stub.getResolver, never()).performGet(eq(stub.storIOSQLiteDb), any(Query.class));
+        testSubscriber.assertReceivedOnNext(Collections.<String>emptyList());
+
+        scheduler.triggerActions();
+        testSubscriber.assertReceivedOnNext(Collections.singletonList("row1"));
+        verify(stub.mapFunc, times(1)).map(stub.cursor);
+
+        testSubscriber.requestMore(10);
+        verify(stub.mapFunc, times(1)).map(stub.cursor);
+
+        scheduler.triggerActions();
+        testSubscriber.assertReceivedOnNext(Arrays.asList("row1", "row2", "row3"));
+        testSubscriber.assertTerminalEvent();
+        testSubscriber.assertNoErrors();
+        verify(stub.cursor, times(1)).close();
+    }
+}
@@ -2,6 +2,9 @@ package com.pushtorefresh.storio.sqlitedb.operation.get;
 
 import android.database.Cursor;
 
+import com.pushtorefresh.storio.metrics.MetricsAggregator;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+import com.pushtorefresh.storio.metrics.OperationStats;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.query.Query;
 import com.pushtorefresh.storio.sqlitedb.query.RawQuery;
@@ -16,9 +19,12 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -70,6 +76,8 @@ public class PreparedGetTest {
             mapFunc = (MapFunc<Cursor, TestItem>) mock(MapFunc.class);
             cursor = mock(Cursor.class);
 
+            when(storIOSQLiteDb.internal()).thenReturn(mock(StorIOSQLiteDb.Internal.class));
+
             testItems = new ArrayList<>();
             testItems.add(new TestItem());
             testItems.add(new TestItem());
@@ -265,4 +273,68 @@ public class PreparedGetTest {
 
         getStub.verifyRawQueryBehaviorForList(testItems);
     }
+
+    @Test
+    public void getCursorWithRawQueryShouldReportTablesInsteadOfSqlToMetrics() {
+        final GetStub getStub = new GetStub();
+        final MetricsAggregator metricsAggregator = new MetricsAggregator();
+
+        when(getStub.storIOSQLiteDb.internal().getMetricsListener())
+                .thenReturn(metricsAggregator);
+
+        when(getStub.getResolver.performGet(eq(getStub.storIOSQLiteDb), any(RawQuery.class)))
+                .thenReturn(getStub.cursor);
+
+        for (int i = 0; i < 3; i++) {
+            // SQL with inlined values should not create key per SQL
+            getStub.storIOSQLiteDb
+                    .get()
+                    .cursor()
+                    .withQuery(new RawQuery.Builder()
+                            .query("SELECT * FROM users WHERE id = " + i)
+                            .affectedTables("users")
+                            .build())
+                    .withGetResolver(getStub.getResolver)
+                    .prepare()
+                    .executeAsBlocking();
+
+            getStub.storIOSQLiteDb
+                    .get()
+                    .cursor()
+                    .withQuery(new RawQuery.Builder()
+                            .query("SELECT " + i)
+                            .build())
+                    .withGetResolver(getStub.getResolver)
+                    .prepare()
+                    .executeAsBlocking();
+        }
+
+        final OperationStats tableStats = metricsAggregator.stats(OperationMetrics.Type.GET, "users");
+        final OperationStats rawStats = metricsAggregator.stats(OperationMetrics.Type.GET, OperationMetrics.RAW_TARGET);
+
+        assertNotNull(tableStats);
+        assertNotNull(rawStats);
+        assertEquals(3, tableStats.count());
+        assertEquals(3, rawStats.count());
+        assertEquals(2, metricsAggregator.stats().size());
+
+        // with metrics query is executed before cursor is returned, so number of rows is known
+        verify(getStub.cursor, times(6)).getCount();
+    }
+
+    @Test
+    public void getCursorWithoutMetricsShouldNotExecuteQuery() {
+        final GetStub getStub = new GetStub();
+
+        getStub.storIOSQLiteDb
+                .get()
+                .cursor()
+                .withQuery(getStub.query)
+                .withGetResolver(getStub.getResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        // cursor is lazy, query should be executed by user
+        verify(getStub.cursor, never()).getCount();
+    }
 }
@@ -0,0 +1,137 @@
+package com.pushtorefresh.storio.sqlitedb.operation.get;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlitedb.Changes;
+import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import rx.Observable;
+import rx.functions.Action1;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueryStreamTest {
+
+    private static final Set<String> TABLES = Collections.singleton("test_table");
+
+    private static class QueryStreamStub {
+        final StorIOSQLiteDb storIOSQLiteDb;
+        final StorIOSQLiteDb.Internal internal;
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final List<Integer> results = new ArrayList<>();
+
+        int numberOfQueries;
+
+        QueryStreamStub() {
+            storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+            internal = mock(StorIOSQLiteDb.Internal.class);
+
+            when(storIOSQLiteDb.internal()).thenReturn(internal);
+            when(storIOSQLiteDb.observeChangesInTables(TABLES)).thenReturn(changes);
+        }
+
+        @NonNull
+        Observable<Integer> createStream(@NonNull QueryStream.Source<Integer> source) {
+            return QueryStream.create(storIOSQLiteDb, TABLES, source);
+        }
+
+        void subscribe(@NonNull Observable<Integer> stream) {
+            stream.subscribe(new Action1<Integer>() {
+                @Override
+                public void call(Integer result) {
+                    results.add(result);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void firstQueryShouldBeExecutedOnSubscription() {
+        final QueryStreamStub stub = new QueryStreamStub();
+
+        final Observable<Integer> stream = stub.createStream(new QueryStream.Source<Integer>() {
+            @Override
+            Integer firstResult() {
+                return ++stub.numberOfQueries;
+            }
+        });
+
+        assertEquals(0, stub.numberOfQueries);
+
+        stub.subscribe(stream);
+
+        assertEquals(1, stub.numberOfQueries);
+        assertEquals(Collections.singletonList(1), stub.results);
+    }
+
+    @Test
+    public void changesDuringQueryShouldBeCoalescedIntoOneRequery() {
+        final QueryStreamStub stub = new QueryStreamStub();
+
+        final Observable<Integer> stream = stub.createStream(new QueryStream.Source<Integer>() {
+            @Override
+            Integer firstResult() {
+                final int result = ++stub.numberOfQueries;
+
+                if (result == 2) {
+                    // burst of writes while re-query is executed
+                    stub.changes.onNext(new Changes("test_table"));
+                    stub.changes.onNext(new Changes("test_table"));
+                    stub.changes.onNext(new Changes("test_table"));
+                }
+
+                return result;
+            }
+        });
+
+        stub.subscribe(stream);
+
+        stub.changes.onNext(new Changes("test_table"));
+
+        // first query, re-query after change and one re-query for 3 changes received during it
+        assertEquals(3, stub.numberOfQueries);
+        assertEquals(3, stub.results.size());
+        assertEquals(Integer.valueOf(3), stub.results.get(2));
+    }
+
+    @Test
+    public void queriesShouldBeExecutedOnDefaultScheduler() {
+        final QueryStreamStub stub = new QueryStreamStub();
+        final TestScheduler scheduler = new TestScheduler();
+
+        when(stub.internal.defaultScheduler()).thenReturn(scheduler);
+
+        final Observable<Integer> stream = stub.createStream(new QueryStream.Source<Integer>() {
+            @Override
+            Integer firstResult() {
+                return ++stub.numberOfQueries;
+            }
+        });
+
+        stub.subscribe(stream);
+        assertEquals(0, stub.numberOfQueries);
+
+        scheduler.triggerActions();
+        assertEquals(1, stub.numberOfQueries);
+
+        // changes from writer thread are coalesced until scheduler executes re-query
+        stub.changes.onNext(new Changes("test_table"));
+        stub.changes.onNext(new Changes("test_table"));
+        assertEquals(1, stub.numberOfQueries);
+
+        scheduler.triggerActions();
+        assertEquals(2, stub.numberOfQueries);
+        assertEquals(2, stub.results.size());
+    }
+}
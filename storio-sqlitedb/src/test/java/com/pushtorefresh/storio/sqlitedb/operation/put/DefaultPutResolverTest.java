@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlitedb.operation.put;
 
 import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
@@ -10,8 +11,12 @@ import com.pushtorefresh.storio.sqlitedb.query.UpdateQuery;
 import com.pushtorefresh.storio.operation.MapFunc;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static junit.framework.Assert.assertEquals;
@@ -20,7 +25,9 @@ import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -270,4 +277,206 @@ public class DefaultPutResolverTest {
         assertEquals(expectedInsertId, putResult.insertedId());
         assertNull(putResult.numberOfUpdatedRows());
     }
+
+    /**
+     * Verifies behavior of {@link DefaultPutResolver} for "put all":
+     * consecutive objects without id should be inserted via insertAll(), objects with id should be updated
+     * in the same order as objects were passed
+     */
+    @Test
+    public void putAll() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        when(storIOSQLiteDb.internal())
+                .thenReturn(internal);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        when(internal.insertAll(any(InsertQuery.class), anyListOf(ContentValues.class)))
+                .thenReturn(new long[]{10L}, new long[]{11L});
+
+        final DefaultPutResolver<TestItem> putResolver = new DefaultPutResolver<TestItem>() {
+            @NonNull
+            @Override
+            protected String getTable() {
+                return TestItem.TABLE;
+            }
+
+            @NonNull
+            @Override
+            protected String getIdColumnName(@NonNull ContentValues contentValues) {
+                return TestItem.ID_COLUMN_NAME;
+            }
+
+            @Override
+            public void afterPut(@NonNull TestItem object, @NonNull PutResult putResult) {
+                fail("Should not be called");
+            }
+        };
+
+        final ContentValues newItem1 = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(null));
+        final ContentValues existingItem = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(5L));
+        final ContentValues newItem2 = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(null));
+
+        final List<PutResult> putResults = putResolver.performPutAll(
+                storIOSQLiteDb,
+                Arrays.asList(newItem1, existingItem, newItem2)
+        );
+
+        final InsertQuery expectedInsertQuery = new InsertQuery.Builder()
+                .table(TestItem.TABLE)
+                .nullColumnHack(null)
+                .build();
+
+        // writes should not be reordered, otherwise last write does not win for same keys
+        final InOrder inOrder = inOrder(internal);
+        inOrder.verify(internal).insertAll(eq(expectedInsertQuery), eq(Collections.singletonList(newItem1)));
+        inOrder.verify(internal).update(any(UpdateQuery.class), eq(existingItem));
+        inOrder.verify(internal).insertAll(eq(expectedInsertQuery), eq(Collections.singletonList(newItem2)));
+
+        // no single inserts should occur
+        verify(internal, times(0)).insert(any(InsertQuery.class), any(ContentValues.class));
+
+        // results should be in the same order as content values
+        assertEquals(3, putResults.size());
+        assertEquals(Long.valueOf(10L), putResults.get(0).insertedId());
+        assertTrue(putResults.get(1).wasUpdated());
+        assertEquals(Long.valueOf(11L), putResults.get(2).insertedId());
+    }
+
+    @NonNull
+    private static DefaultPutResolver<TestItem> newPutResolver(@NonNull final DefaultPutResolver.ConflictStrategy conflictStrategy) {
+        return new DefaultPutResolver<TestItem>() {
+            @NonNull
+            @Override
+            protected String getTable() {
+                return TestItem.TABLE;
+            }
+
+            @NonNull
+            @Override
+            protected String getIdColumnName(@NonNull ContentValues contentValues) {
+                return TestItem.ID_COLUMN_NAME;
+            }
+
+            @NonNull
+            @Override
+            protected ConflictStrategy getConflictStrategy() {
+                return conflictStrategy;
+            }
+
+            @Override
+            public void afterPut(@NonNull TestItem object, @NonNull PutResult putResult) {
+                fail("Should not be called");
+            }
+        };
+    }
+
+    /**
+     * Verifies that {@link DefaultPutResolver.ConflictStrategy#INSERT_OR_REPLACE} puts item with id via one insert
+     */
+    @Test
+    public void insertOrReplace() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        when(storIOSQLiteDb.internal())
+                .thenReturn(internal);
+
+        when(internal.insert(any(InsertQuery.class), any(ContentValues.class)))
+                .thenReturn(1234L);
+
+        final ContentValues contentValues = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(1234L));
+
+        final PutResult putResult = newPutResolver(DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE)
+                .performPut(storIOSQLiteDb, contentValues);
+
+        final InsertQuery expectedInsertQuery = new InsertQuery.Builder()
+                .table(TestItem.TABLE)
+                .nullColumnHack(null)
+                .conflictAlgorithm(SQLiteDatabase.CONFLICT_REPLACE)
+                .build();
+
+        // only one statement should be executed
+        verify(internal, times(1)).insert(eq(expectedInsertQuery), eq(contentValues));
+        verify(internal, times(1)).insert(any(InsertQuery.class), any(ContentValues.class));
+        verify(internal, times(0)).update(any(UpdateQuery.class), any(ContentValues.class));
+
+        assertTrue(putResult.wasInserted());
+        assertEquals(Long.valueOf(1234L), putResult.insertedId());
+        assertEquals(DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE, putResult.conflictStrategy());
+
+        // "REPLACE" may delete other conflicting rows, so row-level change is unknown
+        assertNull(putResult.rowChange());
+    }
+
+    /**
+     * Verifies that {@link DefaultPutResolver.ConflictStrategy#INSERT_OR_IGNORE} reports ignored item
+     */
+    @Test
+    public void insertOrIgnore() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        when(storIOSQLiteDb.internal())
+                .thenReturn(internal);
+
+        // SQLite returns -1 if row was ignored
+        when(internal.insert(any(InsertQuery.class), any(ContentValues.class)))
+                .thenReturn(-1L);
+
+        final ContentValues contentValues = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(1234L));
+
+        final PutResult putResult = newPutResolver(DefaultPutResolver.ConflictStrategy.INSERT_OR_IGNORE)
+                .performPut(storIOSQLiteDb, contentValues);
+
+        final InsertQuery expectedInsertQuery = new InsertQuery.Builder()
+                .table(TestItem.TABLE)
+                .nullColumnHack(null)
+                .conflictAlgorithm(SQLiteDatabase.CONFLICT_IGNORE)
+                .build();
+
+        verify(internal, times(1)).insert(eq(expectedInsertQuery), eq(contentValues));
+        verify(internal, times(0)).update(any(UpdateQuery.class), any(ContentValues.class));
+
+        assertFalse(putResult.wasInserted());
+        assertFalse(putResult.wasUpdated());
+        assertNull(putResult.rowChange());
+        assertEquals(DefaultPutResolver.ConflictStrategy.INSERT_OR_IGNORE, putResult.conflictStrategy());
+    }
+
+    /**
+     * Verifies that items with id are inserted in bulk with {@link DefaultPutResolver.ConflictStrategy#INSERT_OR_REPLACE}
+     */
+    @Test
+    public void putAllWithInsertOrReplace() {
+        final StorIOSQLiteDb storIOSQLiteDb = mock(StorIOSQLiteDb.class);
+        final StorIOSQLiteDb.Internal internal = mock(StorIOSQLiteDb.Internal.class);
+
+        when(storIOSQLiteDb.internal())
+                .thenReturn(internal);
+
+        when(internal.insertAll(any(InsertQuery.class), anyListOf(ContentValues.class)))
+                .thenReturn(new long[]{5L, 6L});
+
+        final ContentValues item1 = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(5L));
+        final ContentValues item2 = TestItem.MAP_TO_CONTENT_VALUES.map(new TestItem(6L));
+
+        final List<PutResult> putResults = newPutResolver(DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE)
+                .performPutAll(storIOSQLiteDb, Arrays.asList(item1, item2));
+
+        final InsertQuery expectedInsertQuery = new InsertQuery.Builder()
+                .table(TestItem.TABLE)
+                .nullColumnHack(null)
+                .conflictAlgorithm(SQLiteDatabase.CONFLICT_REPLACE)
+                .build();
+
+        verify(internal, times(1)).insertAll(eq(expectedInsertQuery), eq(Arrays.asList(item1, item2)));
+        verify(internal, times(0)).update(any(UpdateQuery.class), any(ContentValues.class));
+
+        assertEquals(PutResult.newInsertResult(5L, TestItem.TABLE, DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE), putResults.get(0));
+        assertEquals(PutResult.newInsertResult(6L, TestItem.TABLE, DefaultPutResolver.ConflictStrategy.INSERT_OR_REPLACE), putResults.get(1));
+    }
 }
@@ -3,6 +3,9 @@ package com.pushtorefresh.storio.sqlitedb.operation.put;
 import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.metrics.MetricsAggregator;
+import com.pushtorefresh.storio.metrics.OperationMetrics;
+import com.pushtorefresh.storio.metrics.OperationStats;
 import com.pushtorefresh.storio.sqlitedb.Changes;
 import com.pushtorefresh.storio.sqlitedb.StorIOSQLiteDb;
 import com.pushtorefresh.storio.sqlitedb.design.User;
@@ -12,10 +15,23 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action1;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -104,6 +120,38 @@ public class PreparedPutTest {
         putOneStub.verifyBehavior(putResult);
     }
 
+    @Test public void putOneObservableShouldBeExecutedOnDefaultScheduler() {
+        final PutOneStub putOneStub = new PutOneStub();
+        final TestScheduler scheduler = new TestScheduler();
+
+        when(putOneStub.internal.defaultScheduler())
+                .thenReturn(scheduler);
+
+        final List<PutResult> putResults = new ArrayList<>();
+
+        putOneStub.storIOSQLiteDb
+                .put()
+                .object(putOneStub.user)
+                .withMapFunc(putOneStub.mapFunc)
+                .withPutResolver(putOneStub.putResolver)
+                .prepare()
+                .createObservable()
+                .subscribe(new Action1<PutResult>() {
+                    @Override
+                    public void call(PutResult putResult) {
+                        putResults.add(putResult);
+                    }
+                });
+
+        // nothing should be executed on subscriber thread
+        verify(putOneStub.putResolver, never()).performPut(eq(putOneStub.storIOSQLiteDb), any(ContentValues.class));
+
+        scheduler.triggerActions();
+
+        assertEquals(1, putResults.size());
+        putOneStub.verifyBehavior(putResults.get(0));
+    }
+
     // stub class to avoid violation of DRY in "putMultiple" tests
     private static class PutMultipleStub {
         final List<User> users;
@@ -195,6 +243,24 @@ public class PreparedPutTest {
         putMultipleStub.verifyBehavior(putCollectionResult);
     }
 
+    @Test public void bulkInsertShouldRequireDefaultPutResolver() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        try {
+            putMultipleStub.storIOSQLiteDb
+                    .put()
+                    .objects(putMultipleStub.users)
+                    .withMapFunc(putMultipleStub.mapFunc)
+                    .withPutResolver(putMultipleStub.putResolver)
+                    .useBulkInsert()
+                    .prepare();
+
+            fail();
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().startsWith("useBulkInsert() requires DefaultPutResolver"));
+        }
+    }
+
     @Test public void putMultipleObservable() {
         final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
 
@@ -226,6 +292,30 @@ public class PreparedPutTest {
         putMultipleStub.verifyBehavior(putCollectionResult);
     }
 
+    @Test public void putMultipleShouldReportMetrics() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+        final MetricsAggregator metricsAggregator = new MetricsAggregator();
+
+        when(putMultipleStub.internal.getMetricsListener())
+                .thenReturn(metricsAggregator);
+
+        putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(putMultipleStub.users)
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        // one event for the whole collection with table and number of touched rows
+        final OperationStats stats = metricsAggregator.stats(OperationMetrics.Type.PUT, User.TABLE);
+
+        assertNotNull(stats);
+        assertEquals(1, stats.count());
+        assertEquals(putMultipleStub.users.size(), stats.rows());
+        assertEquals(1, metricsAggregator.stats().size());
+    }
+
     @Test public void putMultipleObservableWithoutTransaction() {
         final PutMultipleStub putMultipleStub = new PutMultipleStub(false);
 
@@ -274,4 +364,235 @@ public class PreparedPutTest {
 
         putMultipleStub.verifyBehavior(putCollectionResult);
     }
+
+    @Test public void putSameObjectTwiceShouldBeCountedOnce() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        final User user = putMultipleStub.users.get(0);
+
+        final List<User> users = new ArrayList<>();
+        users.add(user);
+        users.add(user);
+
+        final PutCollectionResult<User> putCollectionResult = putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(users)
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        // both objects were put, but results are merged by map
+        verify(putMultipleStub.putResolver, times(2)).performPut(eq(putMultipleStub.storIOSQLiteDb), any(ContentValues.class));
+
+        assertEquals(1, putCollectionResult.results().size());
+        assertEquals(1, putCollectionResult.numberOfInserts());
+        assertEquals(0, putCollectionResult.numberOfUpdates());
+        assertEquals(1, putCollectionResult.tableSummaries().get(User.TABLE).numberOfInserts());
+
+        verify(putMultipleStub.internal, times(1)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    @Test public void putMultipleWithCompactResults() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        final PutCollectionResult<User> putCollectionResult = putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(putMultipleStub.users)
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .withCompactResults()
+                .prepare()
+                .executeAsBlocking();
+
+        // results are not stored in map
+        assertTrue(putCollectionResult.results().isEmpty());
+
+        assertTrue(putCollectionResult.hasCompactResults());
+        assertEquals(putMultipleStub.users.size(), putCollectionResult.size());
+
+        for (int i = 0; i < putMultipleStub.users.size(); i++) {
+            assertTrue(putCollectionResult.wasInserted(i));
+            assertEquals(1, putCollectionResult.insertedId(i));
+            assertFalse(putCollectionResult.wasUpdated(i));
+            assertEquals(0, putCollectionResult.numberOfUpdatedRows(i));
+
+            verify(putMultipleStub.putResolver, times(1))
+                    .afterPut(putMultipleStub.users.get(i), PutResult.newInsertResult(1, User.TABLE));
+        }
+
+        assertEquals(putMultipleStub.users.size(), putCollectionResult.numberOfInserts());
+        assertEquals(0, putCollectionResult.numberOfUpdates());
+        assertEquals(putMultipleStub.users.size(), putCollectionResult.tableSummaries().get(User.TABLE).numberOfInserts());
+
+        verify(putMultipleStub.internal, times(1)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    @Test public void putMultipleWithoutPerObjectResults() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        final PutCollectionResult<User> putCollectionResult = putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(putMultipleStub.users)
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .withoutPerObjectResults()
+                .prepare()
+                .executeAsBlocking();
+
+        assertTrue(putCollectionResult.results().isEmpty());
+        assertFalse(putCollectionResult.hasCompactResults());
+
+        assertEquals(putMultipleStub.users.size(), putCollectionResult.numberOfInserts());
+        assertEquals(1, putCollectionResult.tableSummaries().size());
+
+        try {
+            putCollectionResult.wasInserted(0);
+            fail();
+        } catch (IllegalStateException expected) {
+            // compact results were not requested
+        }
+
+        verify(putMultipleStub.internal, times(1)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    @Test public void putStreamShouldCommitEveryChunk() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        final List<PutCollectionResult<User>> putCollectionResults = putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(Observable.from(putMultipleStub.users))
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .commitEvery(2)
+                .prepare()
+                .createObservable()
+                .toList()
+                .toBlocking()
+                .single();
+
+        // 3 objects by 2 per chunk
+        assertEquals(2, putCollectionResults.size());
+        assertEquals(2, putCollectionResults.get(0).numberOfInserts());
+        assertEquals(1, putCollectionResults.get(1).numberOfInserts());
+
+        for (final User user : putMultipleStub.users) {
+            verify(putMultipleStub.mapFunc, times(1)).map(user);
+        }
+
+        // each chunk should be put in its own transaction with one notification
+        verify(putMultipleStub.internal, times(2)).beginTransaction();
+        verify(putMultipleStub.internal, times(2)).setTransactionSuccessful();
+        verify(putMultipleStub.internal, times(2)).endTransaction();
+        verify(putMultipleStub.internal, times(2)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    @Test public void putStreamShouldCommitChunkOfSilentSourceByTime() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        final TestScheduler scheduler = new TestScheduler();
+
+        when(putMultipleStub.internal.defaultScheduler())
+                .thenReturn(scheduler);
+
+        final PublishSubject<User> source = PublishSubject.create();
+
+        final List<PutCollectionResult<User>> putCollectionResults = new ArrayList<>();
+
+        putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(source)
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .commitEvery(10)
+                .commitEvery(1, TimeUnit.SECONDS)
+                .prepare()
+                .createObservable()
+                .subscribe(new Action1<PutCollectionResult<User>>() {
+                    @Override
+                    public void call(PutCollectionResult<User> putCollectionResult) {
+                        putCollectionResults.add(putCollectionResult);
+                    }
+                });
+
+        source.onNext(putMultipleStub.users.get(0));
+        source.onNext(putMultipleStub.users.get(1));
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+        assertEquals(0, putCollectionResults.size());
+
+        // source emits nothing, but chunk should be committed by its deadline
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        assertEquals(1, putCollectionResults.size());
+        assertEquals(2, putCollectionResults.get(0).numberOfInserts());
+
+        source.onNext(putMultipleStub.users.get(2));
+        source.onCompleted();
+
+        assertEquals(2, putCollectionResults.size());
+        assertEquals(1, putCollectionResults.get(1).numberOfInserts());
+
+        // deadline of the chunk committed on completion should not commit anything
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(2, putCollectionResults.size());
+
+        verify(putMultipleStub.internal, times(2)).beginTransaction();
+        verify(putMultipleStub.internal, times(2)).notifyAboutChanges(eq(new Changes(User.TABLE)));
+    }
+
+    private static class RequestOneSubscriber<T> extends Subscriber<T> {
+
+        final List<T> values = new ArrayList<>();
+
+        boolean completed;
+
+        @Override
+        public void onStart() {
+            request(1);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            fail(e.getMessage());
+        }
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        void requestOne() {
+            request(1);
+        }
+    }
+
+    @Test public void putStreamShouldRespectBackpressure() {
+        final PutMultipleStub putMultipleStub = new PutMultipleStub(true);
+
+        final RequestOneSubscriber<PutCollectionResult<User>> subscriber = new RequestOneSubscriber<>();
+
+        putMultipleStub.storIOSQLiteDb
+                .put()
+                .objects(Observable.from(putMultipleStub.users))
+                .withMapFunc(putMultipleStub.mapFunc)
+                .withPutResolver(putMultipleStub.putResolver)
+                .commitEvery(2)
+                .prepare()
+                .createObservable()
+                .subscribe(subscriber);
+
+        // second chunk is committed, but its result was not requested yet
+        assertEquals(1, subscriber.values.size());
+        assertFalse(subscriber.completed);
+
+        subscriber.requestOne();
+
+        assertEquals(2, subscriber.values.size());
+        assertTrue(subscriber.completed);
+    }
 }